@@ -0,0 +1,38 @@
+package com.ecommerce.events;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stock change published on the inventory-events topic, keyed by SKU. Every event carries the one
+ * line of its SKU; a batch reservation publishes one event per SKU.
+ *
+ * @param eventType     e.g. {@code stock-reserved}, {@code stock-released}
+ * @param reservationId reservation the change belongs to, if any
+ * @param referenceId   caller reference for manual adjustments, if any
+ * @param note          free-text reason or notes supplied by the caller
+ */
+public record InventoryEvent(String eventType,
+                             Instant timestamp,
+                             String reservationId,
+                             String referenceId,
+                             String note,
+                             List<Line> items) {
+
+    /**
+     * State of one SKU after the change.
+     *
+     * @param quantityDelta    units adjusted, reserved, released, consumed or restocked
+     * @param quantity         on-hand units, or {@code null} when the publisher only knows availability
+     * @param reservedQuantity reserved units, or {@code null} when the publisher only knows availability
+     */
+    public record Line(UUID inventoryId,
+                       UUID productId,
+                       String skuCode,
+                       int quantityDelta,
+                       Integer quantity,
+                       int availableQuantity,
+                       Integer reservedQuantity) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Order lifecycle change published on the order-events topic.
+ *
+ * @param eventType e.g. {@code ORDER_CREATED}, {@code ORDER_STATUS_UPDATED}
+ * @param status    order status name after the change
+ */
+public record OrderEvent(String eventType,
+                         UUID orderId,
+                         String orderNumber,
+                         UUID customerId,
+                         String status,
+                         Instant timestamp) {
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.events;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Catalog or stock change published by product-service.
+ *
+ * @param eventType  e.g. {@code product-created}, {@code stock-updated}
+ * @param stockDelta units added or removed, set only for stock updates
+ */
+public record ProductEvent(String eventType,
+                           UUID productId,
+                           String sku,
+                           String name,
+                           BigDecimal price,
+                           Integer stockQuantity,
+                           Integer stockDelta,
+                           UUID categoryId,
+                           boolean active,
+                           Instant timestamp) {
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.events.codec;
+
+import org.apache.avro.Conversions;
+import org.apache.avro.Schema;
+import org.apache.avro.data.TimeConversions;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes one event type as Avro binary behind a five byte header: a zero magic byte followed by
+ * the big-endian id of the writer schema. Events are always written with the latest schema of the
+ * subject and read by resolving the writer schema named in the header against it, so producers
+ * and consumers can upgrade independently as long as new fields carry defaults.
+ *
+ * <p>Instances are thread-safe.
+ *
+ * @param <T> event type
+ */
+public abstract class EventCodec<T> {
+
+    public static final byte MAGIC_BYTE = 0x0;
+    static final int HEADER_SIZE = 5;
+
+    private static final GenericData MODEL = new GenericData();
+
+    static {
+        MODEL.addLogicalTypeConversion(new Conversions.UUIDConversion());
+        MODEL.addLogicalTypeConversion(new Conversions.DecimalConversion());
+        MODEL.addLogicalTypeConversion(new TimeConversions.TimestampMillisConversion());
+    }
+
+    private final EventSchemaRegistry registry;
+    private final int schemaId;
+    private final Schema schema;
+    private final GenericDatumWriter<GenericRecord> writer;
+    private final ConcurrentHashMap<Integer, GenericDatumReader<GenericRecord>> readersByWriterId = new ConcurrentHashMap<>();
+
+    protected EventCodec(EventSchemaRegistry registry, String subject) {
+        this.registry = registry;
+        this.schemaId = registry.latestId(subject);
+        this.schema = registry.schemaById(schemaId);
+        this.writer = new GenericDatumWriter<>(schema, MODEL);
+    }
+
+    public abstract Class<T> eventType();
+
+    protected abstract GenericRecord toRecord(T event, Schema schema);
+
+    protected abstract T fromRecord(GenericRecord record);
+
+    public int schemaId() {
+        return schemaId;
+    }
+
+    public byte[] encode(T event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(MAGIC_BYTE);
+        out.write(schemaId >>> 24);
+        out.write(schemaId >>> 16);
+        out.write(schemaId >>> 8);
+        out.write(schemaId);
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            writer.write(toRecord(event, schema), encoder);
+            encoder.flush();
+        } catch (IOException | RuntimeException e) {
+            throw new EventCodecException("Failed to encode " + eventType().getSimpleName(), e);
+        }
+        return out.toByteArray();
+    }
+
+    public T decode(byte[] data) {
+        if (data == null || data.length < HEADER_SIZE || data[0] != MAGIC_BYTE) {
+            throw new EventCodecException("Not an encoded " + eventType().getSimpleName());
+        }
+        int writerId = ((data[1] & 0xFF) << 24) | ((data[2] & 0xFF) << 16) | ((data[3] & 0xFF) << 8) | (data[4] & 0xFF);
+        GenericDatumReader<GenericRecord> reader = readersByWriterId.computeIfAbsent(writerId,
+                id -> new GenericDatumReader<>(registry.schemaById(id), schema, MODEL));
+        try {
+            BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, HEADER_SIZE, data.length - HEADER_SIZE, null);
+            return fromRecord(reader.read(null, decoder));
+        } catch (IOException | RuntimeException e) {
+            throw new EventCodecException("Failed to decode " + eventType().getSimpleName()
+                    + " written with schema " + writerId, e);
+        }
+    }
+
+    protected static GenericData.Record newRecord(Schema schema) {
+        return new GenericData.Record(schema);
+    }
+
+    // Avro hands strings back as Utf8
+    protected static String string(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    protected static UUID uuid(Object value) {
+        if (value == null || value instanceof UUID) {
+            return (UUID) value;
+        }
+        return UUID.fromString(value.toString());
+    }
+}
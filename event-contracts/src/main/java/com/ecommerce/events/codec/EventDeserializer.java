@@ -0,0 +1,30 @@
+package com.ecommerce.events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka value deserializer for one event type.
+ *
+ * @param <T> event type
+ */
+public class EventDeserializer<T> implements Deserializer<T> {
+
+    private final EventCodec<T> codec;
+
+    public EventDeserializer(EventCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return codec.decode(data);
+        } catch (EventCodecException e) {
+            throw new SerializationException(e.getMessage(), e);
+        }
+    }
+}
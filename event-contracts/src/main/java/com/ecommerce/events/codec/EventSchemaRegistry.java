@@ -0,0 +1,100 @@
+package com.ecommerce.events.codec;
+
+import org.apache.avro.Schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * File-based stand-in for a schema registry. Schemas are Avro {@code .avsc} files listed in an
+ * index on the classpath; every schema version has a permanent id that codecs write in front of
+ * each payload, so readers can always resolve the exact writer schema.
+ *
+ * <p>The index maps {@code <id>=<subject>:<file>}; files are resolved relative to the index, or from
+ * the classpath root when they start with {@code /}. The highest id of a subject is its latest
+ * version.
+ */
+public final class EventSchemaRegistry {
+
+    public static final String DEFAULT_INDEX = "schemas/registry.properties";
+
+    private final Map<Integer, Schema> schemasById;
+    private final Map<String, Integer> latestIdBySubject;
+
+    private EventSchemaRegistry(Map<Integer, Schema> schemasById, Map<String, Integer> latestIdBySubject) {
+        this.schemasById = Collections.unmodifiableMap(schemasById);
+        this.latestIdBySubject = Collections.unmodifiableMap(latestIdBySubject);
+    }
+
+    /**
+     * Registry for the schemas shipped with this module, parsed once per class loader.
+     */
+    public static EventSchemaRegistry fromClasspath() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public static EventSchemaRegistry fromClasspath(String indexLocation) {
+        ClassLoader classLoader = EventSchemaRegistry.class.getClassLoader();
+        Properties index = new Properties();
+        try (InputStream in = classLoader.getResourceAsStream(indexLocation)) {
+            if (in == null) {
+                throw new EventCodecException("Schema index not found on classpath: " + indexLocation);
+            }
+            index.load(in);
+        } catch (IOException e) {
+            throw new EventCodecException("Failed to read schema index: " + indexLocation, e);
+        }
+
+        String baseDir = indexLocation.contains("/") ? indexLocation.substring(0, indexLocation.lastIndexOf('/') + 1) : "";
+        Map<Integer, Schema> schemasById = new HashMap<>();
+        Map<String, Integer> latestIdBySubject = new HashMap<>();
+        for (String key : index.stringPropertyNames()) {
+            int id = Integer.parseInt(key.trim());
+            String[] entry = index.getProperty(key).split(":", 2);
+            if (entry.length != 2) {
+                throw new EventCodecException("Invalid schema index entry for id " + id + ": " + index.getProperty(key));
+            }
+            String subject = entry[0].trim();
+            String file = entry[1].trim();
+            schemasById.put(id, parse(classLoader, file.startsWith("/") ? file.substring(1) : baseDir + file));
+            latestIdBySubject.merge(subject, id, Math::max);
+        }
+        return new EventSchemaRegistry(schemasById, latestIdBySubject);
+    }
+
+    public Schema schemaById(int id) {
+        Schema schema = schemasById.get(id);
+        if (schema == null) {
+            throw new EventCodecException("Unknown schema id: " + id);
+        }
+        return schema;
+    }
+
+    public int latestId(String subject) {
+        Integer id = latestIdBySubject.get(subject);
+        if (id == null) {
+            throw new EventCodecException("No schema registered for subject: " + subject);
+        }
+        return id;
+    }
+
+    private static Schema parse(ClassLoader classLoader, String location) {
+        try (InputStream in = classLoader.getResourceAsStream(location)) {
+            if (in == null) {
+                throw new EventCodecException("Schema file not found on classpath: " + location);
+            }
+            // A fresh parser per file; named types may be redefined by later versions of a subject
+            return new Schema.Parser().parse(in);
+        } catch (IOException e) {
+            throw new EventCodecException("Failed to parse schema: " + location, e);
+        }
+    }
+
+    private static final class DefaultHolder {
+        private static final EventSchemaRegistry INSTANCE = fromClasspath(DEFAULT_INDEX);
+    }
+}
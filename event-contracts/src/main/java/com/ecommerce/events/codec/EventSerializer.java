@@ -0,0 +1,46 @@
+package com.ecommerce.events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kafka value serializer for every event type in this module. The no-arg constructor uses the
+ * bundled schemas, so it can be configured by class name in producer properties.
+ */
+public class EventSerializer implements Serializer<Object> {
+
+    private final Map<Class<?>, EventCodec<?>> codecsByType = new HashMap<>();
+
+    public EventSerializer() {
+        this(EventSchemaRegistry.fromClasspath());
+    }
+
+    public EventSerializer(EventSchemaRegistry registry) {
+        this(List.of(new InventoryEventCodec(registry), new OrderEventCodec(registry), new ProductEventCodec(registry)));
+    }
+
+    public EventSerializer(List<EventCodec<?>> codecs) {
+        codecs.forEach(codec -> codecsByType.put(codec.eventType(), codec));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        EventCodec<Object> codec = (EventCodec<Object>) codecsByType.get(data.getClass());
+        if (codec == null) {
+            throw new SerializationException("No event codec for " + data.getClass().getName() + " on topic " + topic);
+        }
+        try {
+            return codec.encode(data);
+        } catch (EventCodecException e) {
+            throw new SerializationException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.events.codec;
+
+import com.ecommerce.events.InventoryEvent;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class InventoryEventCodec extends EventCodec<InventoryEvent> {
+
+    public static final String SUBJECT = "inventory-event";
+
+    public InventoryEventCodec(EventSchemaRegistry registry) {
+        super(registry, SUBJECT);
+    }
+
+    @Override
+    public Class<InventoryEvent> eventType() {
+        return InventoryEvent.class;
+    }
+
+    @Override
+    protected GenericRecord toRecord(InventoryEvent event, Schema schema) {
+        Schema itemsSchema = schema.getField("items").schema();
+        Schema lineSchema = itemsSchema.getElementType();
+        GenericData.Array<GenericRecord> items = new GenericData.Array<>(event.items().size(), itemsSchema);
+        for (InventoryEvent.Line line : event.items()) {
+            GenericData.Record record = newRecord(lineSchema);
+            record.put("inventoryId", line.inventoryId());
+            record.put("productId", line.productId());
+            record.put("skuCode", line.skuCode());
+            record.put("quantityDelta", line.quantityDelta());
+            record.put("quantity", line.quantity());
+            record.put("availableQuantity", line.availableQuantity());
+            record.put("reservedQuantity", line.reservedQuantity());
+            items.add(record);
+        }
+
+        GenericData.Record record = newRecord(schema);
+        record.put("eventType", event.eventType());
+        record.put("timestamp", event.timestamp());
+        record.put("reservationId", event.reservationId());
+        record.put("referenceId", event.referenceId());
+        record.put("note", event.note());
+        record.put("items", items);
+        return record;
+    }
+
+    @Override
+    protected InventoryEvent fromRecord(GenericRecord record) {
+        List<?> items = (List<?>) record.get("items");
+        List<InventoryEvent.Line> lines = new ArrayList<>(items.size());
+        for (Object item : items) {
+            GenericRecord line = (GenericRecord) item;
+            lines.add(new InventoryEvent.Line(
+                    uuid(line.get("inventoryId")),
+                    uuid(line.get("productId")),
+                    string(line.get("skuCode")),
+                    (Integer) line.get("quantityDelta"),
+                    (Integer) line.get("quantity"),
+                    (Integer) line.get("availableQuantity"),
+                    (Integer) line.get("reservedQuantity")));
+        }
+        return new InventoryEvent(
+                string(record.get("eventType")),
+                (Instant) record.get("timestamp"),
+                string(record.get("reservationId")),
+                string(record.get("referenceId")),
+                string(record.get("note")),
+                lines);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.events.codec;
+
+import com.ecommerce.events.OrderEvent;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.time.Instant;
+
+public class OrderEventCodec extends EventCodec<OrderEvent> {
+
+    public static final String SUBJECT = "order-event";
+
+    public OrderEventCodec(EventSchemaRegistry registry) {
+        super(registry, SUBJECT);
+    }
+
+    @Override
+    public Class<OrderEvent> eventType() {
+        return OrderEvent.class;
+    }
+
+    @Override
+    protected GenericRecord toRecord(OrderEvent event, Schema schema) {
+        GenericData.Record record = newRecord(schema);
+        record.put("eventType", event.eventType());
+        record.put("orderId", event.orderId());
+        record.put("orderNumber", event.orderNumber());
+        record.put("customerId", event.customerId());
+        record.put("status", event.status());
+        record.put("timestamp", event.timestamp());
+        return record;
+    }
+
+    @Override
+    protected OrderEvent fromRecord(GenericRecord record) {
+        return new OrderEvent(
+                string(record.get("eventType")),
+                uuid(record.get("orderId")),
+                string(record.get("orderNumber")),
+                uuid(record.get("customerId")),
+                string(record.get("status")),
+                (Instant) record.get("timestamp"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.events.codec;
+
+import com.ecommerce.events.ProductEvent;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+public class ProductEventCodec extends EventCodec<ProductEvent> {
+
+    public static final String SUBJECT = "product-event";
+
+    private final int priceScale;
+
+    public ProductEventCodec(EventSchemaRegistry registry) {
+        super(registry, SUBJECT);
+        Schema writerSchema = registry.schemaById(schemaId());
+        Schema priceSchema = writerSchema.getField("price").schema().getTypes().stream()
+                .filter(type -> type.getLogicalType() instanceof LogicalTypes.Decimal)
+                .findFirst()
+                .orElseThrow(() -> new EventCodecException("Product event price must be a decimal"));
+        this.priceScale = ((LogicalTypes.Decimal) priceSchema.getLogicalType()).getScale();
+    }
+
+    @Override
+    public Class<ProductEvent> eventType() {
+        return ProductEvent.class;
+    }
+
+    @Override
+    protected GenericRecord toRecord(ProductEvent event, Schema schema) {
+        GenericData.Record record = newRecord(schema);
+        record.put("eventType", event.eventType());
+        record.put("productId", event.productId());
+        record.put("sku", event.sku());
+        record.put("name", event.name());
+        // Avro decimals must match the schema scale exactly
+        record.put("price", event.price() != null ? event.price().setScale(priceScale, RoundingMode.HALF_UP) : null);
+        record.put("stockQuantity", event.stockQuantity());
+        record.put("stockDelta", event.stockDelta());
+        record.put("categoryId", event.categoryId());
+        record.put("active", event.active());
+        record.put("timestamp", event.timestamp());
+        return record;
+    }
+
+    @Override
+    protected ProductEvent fromRecord(GenericRecord record) {
+        return new ProductEvent(
+                string(record.get("eventType")),
+                uuid(record.get("productId")),
+                string(record.get("sku")),
+                string(record.get("name")),
+                (BigDecimal) record.get("price"),
+                (Integer) record.get("stockQuantity"),
+                (Integer) record.get("stockDelta"),
+                uuid(record.get("categoryId")),
+                (Boolean) record.get("active"),
+                (Instant) record.get("timestamp"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.events.codec;
+
+import com.ecommerce.events.InventoryEvent;
+import com.ecommerce.events.OrderEvent;
+import com.ecommerce.events.ProductEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecTest {
+
+    private final EventSchemaRegistry registry = EventSchemaRegistry.fromClasspath();
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @Test
+    void shouldRoundTripInventoryEvent() {
+        // Arrange
+        InventoryEventCodec codec = new InventoryEventCodec(registry);
+        InventoryEvent event = new InventoryEvent("stock-reserved", now, "ORDER-001", null, "checkout", List.of(
+                new InventoryEvent.Line(UUID.randomUUID(), UUID.randomUUID(), "SKU-001", 5, 100, 85, 15),
+                new InventoryEvent.Line(UUID.randomUUID(), UUID.randomUUID(), "SKU-002", 2, null, 40, null)));
+
+        // Act
+        byte[] encoded = codec.encode(event);
+
+        // Assert
+        assertThat(encoded[0]).isEqualTo(EventCodec.MAGIC_BYTE);
+        assertThat(codec.decode(encoded)).isEqualTo(event);
+    }
+
+    @Test
+    void shouldRoundTripOrderEvent() {
+        // Arrange
+        OrderEventCodec codec = new OrderEventCodec(registry);
+        OrderEvent event = new OrderEvent("ORDER_CREATED", UUID.randomUUID(), "ORD-12345678",
+                UUID.randomUUID(), "PENDING", now);
+
+        // Act & Assert
+        assertThat(codec.decode(codec.encode(event))).isEqualTo(event);
+    }
+
+    @Test
+    void shouldRoundTripProductEventAtSchemaScale() {
+        // Arrange
+        ProductEventCodec codec = new ProductEventCodec(registry);
+        ProductEvent event = new ProductEvent("product-created", UUID.randomUUID(), "SKU-001", "Keyboard",
+                new BigDecimal("49.99"), 10, null, null, true, now);
+
+        // Act
+        ProductEvent decoded = codec.decode(codec.encode(event));
+
+        // Assert
+        assertThat(decoded.price()).isEqualByComparingTo("49.99");
+        assertThat(decoded.productId()).isEqualTo(event.productId());
+        assertThat(decoded.stockDelta()).isNull();
+        assertThat(decoded.timestamp()).isEqualTo(now);
+    }
+
+    @Test
+    void shouldReadEventsWrittenWithOlderSchemaVersion() {
+        // Arrange - v1 producer, consumer already on v2 which added an optional field
+        InventoryEventCodec v1Codec = new InventoryEventCodec(registry);
+        InventoryEventCodec v2Codec = new InventoryEventCodec(EventSchemaRegistry.fromClasspath("test-schemas/registry.properties"));
+        InventoryEvent event = new InventoryEvent("stock-adjusted", now, null, "REF-1", "recount", List.of(
+                new InventoryEvent.Line(UUID.randomUUID(), UUID.randomUUID(), "SKU-001", -3, 97, 97, 0)));
+
+        // Act
+        byte[] encodedV1 = v1Codec.encode(event);
+        byte[] encodedV2 = v2Codec.encode(event);
+
+        // Assert
+        assertThat(v2Codec.schemaId()).isEqualTo(100);
+        assertThat(v2Codec.decode(encodedV1)).isEqualTo(event);
+        assertThat(v2Codec.decode(encodedV2)).isEqualTo(event);
+        assertThatThrownBy(() -> v1Codec.decode(encodedV2))
+                .isInstanceOf(EventCodecException.class)
+                .hasMessageContaining("100");
+    }
+
+    @Test
+    void shouldEncodeSmallerThanJsonMap() throws Exception {
+        // Arrange
+        InventoryEvent.Line line = new InventoryEvent.Line(UUID.randomUUID(), UUID.randomUUID(), "SKU-001", 5, 100, 85, 15);
+        InventoryEvent event = new InventoryEvent("stock-reserved", now, "ORDER-001", null, "checkout", List.of(line));
+        Map<String, Object> json = new HashMap<>();
+        json.put("eventType", "stock-reserved");
+        json.put("timestamp", now.toString());
+        json.put("inventoryId", line.inventoryId());
+        json.put("productId", line.productId());
+        json.put("skuCode", line.skuCode());
+        json.put("quantity", line.quantity());
+        json.put("availableQuantity", line.availableQuantity());
+        json.put("reservedQuantity", line.reservedQuantity());
+        json.put("reservationId", "ORDER-001");
+        json.put("quantityReserved", 5);
+        json.put("notes", "checkout");
+
+        // Act
+        int binarySize = new InventoryEventCodec(registry).encode(event).length;
+        int jsonSize = new ObjectMapper().writeValueAsBytes(json).length;
+
+        // Assert
+        assertThat(binarySize).isLessThan(jsonSize / 2);
+    }
+
+    @Test
+    void serializerShouldRejectUnknownTypes() {
+        // Arrange
+        EventSerializer serializer = new EventSerializer(registry);
+
+        // Act & Assert
+        assertThat(serializer.serialize("order-events", null)).isNull();
+        assertThatThrownBy(() -> serializer.serialize("order-events", Map.of("eventType", "ORDER_CREATED")))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void deserializerShouldRejectPayloadsWithoutHeader() {
+        // Arrange
+        EventDeserializer<OrderEvent> deserializer = new EventDeserializer<>(new OrderEventCodec(registry));
+
+        // Act & Assert
+        assertThatThrownBy(() -> deserializer.deserialize("order-events", "{\"eventType\":\"x\"}".getBytes()))
+                .isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecommerce.inventory.benchmark;
+
+import com.ecommerce.events.InventoryEvent;
+import com.ecommerce.events.codec.EventSchemaRegistry;
+import com.ecommerce.events.codec.InventoryEventCodec;
+import com.ecommerce.inventory.model.InventoryItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning an updated {@link InventoryItem} into outbox bytes, i.e. the body of
+ * {@code InventoryService.publishInventoryEvent} plus the encoding done by
+ * {@code InventoryEventOutbox.append}, and of reading it back on the consumer side.
+ * {@code legacyMapJson} and {@code decodeLegacyJson} keep the {@code HashMap} + JSON payload the
+ * typed events replaced as the baseline; {@code EventCodecTest} asserts the payload sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryEventBenchmark {
+
+    private InventoryEventCodec codec;
+    private ObjectMapper objectMapper;
+    private InventoryItem item;
+    private byte[] encodedEvent;
+    private byte[] encodedLegacyJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        codec = new InventoryEventCodec(EventSchemaRegistry.fromClasspath());
+        objectMapper = new ObjectMapper();
+        item = InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .skuCode("SKU-001")
+                .quantity(100)
+                .reservedQuantity(15)
+                .unitCost(BigDecimal.valueOf(15.99))
+                .build();
+        item.calculateAvailableQuantity();
+        encodedEvent = codec.encode(typedEvent());
+        encodedLegacyJson = objectMapper.writeValueAsBytes(legacyMap());
+    }
+
+    @Benchmark
+    public InventoryEvent buildTypedEvent() {
+        return typedEvent();
+    }
+
+    @Benchmark
+    public byte[] typedEventAvro() {
+        return codec.encode(typedEvent());
+    }
+
+    @Benchmark
+    public Map<String, Object> buildLegacyMap() {
+        return legacyMap();
+    }
+
+    @Benchmark
+    public byte[] legacyMapJson() throws IOException {
+        return objectMapper.writeValueAsBytes(legacyMap());
+    }
+
+    @Benchmark
+    public InventoryEvent decodeAvro() {
+        return codec.decode(encodedEvent);
+    }
+
+    @Benchmark
+    public Map<?, ?> decodeLegacyJson() throws IOException {
+        return objectMapper.readValue(encodedLegacyJson, Map.class);
+    }
+
+    // Mirrors InventoryService.publishInventoryEvent and toEventLine for a reservation
+    private InventoryEvent typedEvent() {
+        return new InventoryEvent("stock-reserved", Instant.now(), "ORDER-001", null, "checkout",
+                List.of(new InventoryEvent.Line(item.getId(), item.getProductId(), item.getSkuCode(), 5,
+                        item.getQuantity(), item.getAvailableQuantity(), item.getReservedQuantity())));
+    }
+
+    private Map<String, Object> legacyMap() {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", "stock-reserved");
+        event.put("timestamp", LocalDateTime.now().toString());
+        event.put("inventoryId", item.getId());
+        event.put("productId", item.getProductId());
+        event.put("skuCode", item.getSkuCode());
+        event.put("quantity", item.getQuantity());
+        event.put("availableQuantity", item.getAvailableQuantity());
+        event.put("reservedQuantity", item.getReservedQuantity());
+        event.put("reservationId", "ORDER-001");
+        event.put("quantityReserved", 5);
+        event.put("notes", "checkout");
+        return event;
+    }
+}
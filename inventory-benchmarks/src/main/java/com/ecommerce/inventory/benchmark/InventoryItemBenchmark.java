@@ -0,0 +1,70 @@
+package com.ecommerce.inventory.benchmark;
+
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.model.InventoryItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request entity work: the {@code @PrePersist}/{@code @PreUpdate} recalculation and the
+ * entity-to-DTO mapping every read endpoint goes through.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryItemBenchmark {
+
+    private InventoryItem item;
+    private int reserved;
+
+    @Setup
+    public void setUp() {
+        item = InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .skuCode("SKU-001")
+                .quantity(100)
+                .reservedQuantity(10)
+                .lowStockThreshold(10)
+                .restockThreshold(20)
+                .unitCost(BigDecimal.valueOf(15.99))
+                .locationCode("WH-001")
+                .binLocation("A1-B2")
+                .isActive(true)
+                .lastRestockedDate(LocalDateTime.now().minusDays(3))
+                .nextRestockDate(LocalDateTime.now().plusDays(4))
+                .createdAt(LocalDateTime.now().minusDays(30))
+                .updatedAt(LocalDateTime.now())
+                .build();
+        item.calculateAvailableQuantity();
+    }
+
+    @Benchmark
+    public int calculateAvailableQuantity() {
+        // Vary the input so the BigDecimal total cannot be hoisted out of the loop
+        item.setReservedQuantity(reserved++ & 63);
+        item.calculateAvailableQuantity();
+        return item.getAvailableQuantity();
+    }
+
+    @Benchmark
+    public InventoryResponse fromEntity() {
+        return InventoryResponse.fromEntity(item);
+    }
+}
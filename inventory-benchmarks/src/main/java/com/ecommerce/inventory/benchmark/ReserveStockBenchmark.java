@@ -0,0 +1,132 @@
+package com.ecommerce.inventory.benchmark;
+
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contended single-SKU reservations against an in-process Postgres. Runs the exact statement
+ * behind {@link InventoryRepository#reserveStockReturning}, read from its {@code @Query}, so the
+ * numbers move when the query does. {@code hotSkus} spreads the eight threads over that many rows:
+ * at 1 every reservation queues on the same row lock, at 64 they mostly don't.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class ReserveStockBenchmark {
+
+    private static final int THREADS = 8;
+    // Large enough that no reservation fails during a run
+    private static final int STARTING_QUANTITY = 1_000_000_000;
+
+    @Param({"1", "64"})
+    public int hotSkus;
+
+    private EmbeddedPostgres postgres;
+    private HikariDataSource dataSource;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private String reserveSql;
+    private String[] skuCodes;
+
+    @Setup(Level.Trial)
+    public void startDatabase() throws IOException, SQLException, NoSuchMethodException {
+        postgres = EmbeddedPostgres.builder().start();
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(postgres.getJdbcUrl("postgres", "postgres"));
+        config.setMaximumPoolSize(THREADS);
+        config.setMinimumIdle(THREADS);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(readSchema());
+        }
+
+        reserveSql = InventoryRepository.class
+                .getMethod("reserveStockReturning", String.class, int.class)
+                .getAnnotation(Query.class)
+                .value();
+
+        skuCodes = new String[hotSkus];
+        for (int i = 0; i < hotSkus; i++) {
+            skuCodes[i] = String.format("SKU-%04d", i);
+            jdbcTemplate.update("INSERT INTO inventory_items (id, product_id, sku_code, quantity, available_quantity) " +
+                            "VALUES (:id, :productId, :skuCode, :quantity, :quantity)",
+                    new MapSqlParameterSource()
+                            .addValue("id", UUID.randomUUID())
+                            .addValue("productId", UUID.randomUUID())
+                            .addValue("skuCode", skuCodes[i])
+                            .addValue("quantity", STARTING_QUANTITY));
+        }
+    }
+
+    // Reset the rows and clear dead tuples so every iteration starts from the same table state
+    @Setup(Level.Iteration)
+    public void resetStock() throws SQLException {
+        jdbcTemplate.getJdbcTemplate().update(
+                "UPDATE inventory_items SET reserved_quantity = 0, available_quantity = quantity");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM inventory_items");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopDatabase() throws IOException {
+        dataSource.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> reserveStock() {
+        String skuCode = skuCodes[ThreadLocalRandom.current().nextInt(hotSkus)];
+        return jdbcTemplate.queryForList(reserveSql, new MapSqlParameterSource()
+                .addValue("skuCode", skuCode)
+                .addValue("quantity", 1));
+    }
+
+    private static String readSchema() throws IOException {
+        try (InputStream input = ReserveStockBenchmark.class.getResourceAsStream("/benchmark-schema.sql")) {
+            if (input == null) {
+                throw new IllegalStateException("benchmark-schema.sql not found on the classpath");
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+-- inventory_items as created by the service's V1 migration, trimmed to what reserveStockReturning touches
+CREATE TABLE inventory_items (
+    id UUID PRIMARY KEY,
+    product_id UUID NOT NULL,
+    sku_code VARCHAR(100) NOT NULL UNIQUE,
+    quantity INT NOT NULL DEFAULT 0,
+    reserved_quantity INT NOT NULL DEFAULT 0,
+    available_quantity INT NOT NULL DEFAULT 0,
+    low_stock_threshold INT NOT NULL DEFAULT 10,
+    restock_threshold INT NOT NULL DEFAULT 20,
+    last_restocked_date TIMESTAMP WITH TIME ZONE,
+    next_restock_date TIMESTAMP WITH TIME ZONE,
+    unit_cost DECIMAL(19, 4),
+    total_value DECIMAL(19, 4),
+    location_code VARCHAR(50),
+    bin_location VARCHAR(50),
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_inventory_items_available_quantity ON inventory_items(available_quantity);
+
+-- The updated_at trigger fires on every reservation in production, so keep it in the measurement
+CREATE OR REPLACE FUNCTION update_updated_at_column()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at = CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER update_inventory_items_updated_at
+BEFORE UPDATE ON inventory_items
+FOR EACH ROW
+EXECUTE FUNCTION update_updated_at_column();
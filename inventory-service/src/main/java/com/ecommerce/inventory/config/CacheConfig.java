@@ -1,6 +1,11 @@
 package com.ecommerce.inventory.config;
 
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -11,24 +16,43 @@ import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(InventoryCacheProperties.class)
 public class CacheConfig {
 
     public static final String INVENTORY_CACHE = "inventoryItems";
     public static final String INVENTORY_STATUS_CACHE = "inventoryStatus";
     public static final String STOCK_LEVELS_CACHE = "stockLevels";
+    public static final String LOW_STOCK_KEY = "low-stock";
 
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-                INVENTORY_CACHE, 
-                INVENTORY_STATUS_CACHE,
-                STOCK_LEVELS_CACHE
-        );
-        
+    public CacheManager cacheManager(InventoryCacheProperties properties, InventoryRepository inventoryRepository) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         cacheManager.setCaffeine(caffeineCacheBuilder());
+
+        // Loaders mirror the cached service reads and are only used for refresh-after-write
+        cacheManager.registerCustomCache(INVENTORY_CACHE, buildCache(properties.specFor(INVENTORY_CACHE),
+                skuCode -> inventoryRepository.findBySkuCode((String) skuCode)
+                        .map(InventoryResponse::fromEntity)
+                        .orElse(null)));
+        cacheManager.registerCustomCache(INVENTORY_STATUS_CACHE, buildCache(properties.specFor(INVENTORY_STATUS_CACHE),
+                skuCode -> inventoryRepository.getInventoryStatus((String) skuCode).orElse(null)));
+        cacheManager.registerCustomCache(STOCK_LEVELS_CACHE, buildCache(properties.specFor(STOCK_LEVELS_CACHE),
+                key -> inventoryRepository.findLowStockLevels()));
         return cacheManager;
     }
 
+    private Cache<Object, Object> buildCache(InventoryCacheProperties.Spec spec, CacheLoader<Object, Object> loader) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .initialCapacity(spec.getInitialCapacity())
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getExpireAfterWrite())
+                .recordStats();
+        if (spec.getRefreshAfterWrite() != null) {
+            return builder.refreshAfterWrite(spec.getRefreshAfterWrite()).build(loader);
+        }
+        return builder.build();
+    }
+
     private Caffeine<Object, Object> caffeineCacheBuilder() {
         return Caffeine.newBuilder()
                 .initialCapacity(100)
@@ -0,0 +1,31 @@
+package com.ecommerce.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-cache Caffeine sizing, keyed by cache name under {@code app.cache.caches}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class InventoryCacheProperties {
+
+    private Map<String, Spec> caches = new HashMap<>();
+
+    public Spec specFor(String cacheName) {
+        return caches.getOrDefault(cacheName, new Spec());
+    }
+
+    @Data
+    public static class Spec {
+        private int initialCapacity = 100;
+        private long maximumSize = 1000;
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+        // Optional; entries are reloaded in the background once they are older than this
+        private Duration refreshAfterWrite;
+    }
+}
@@ -3,6 +3,9 @@ package com.ecommerce.inventory.config;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import com.ecommerce.events.codec.EventSchemaRegistry;
+import com.ecommerce.events.codec.InventoryEventCodec;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -55,6 +58,37 @@ public class KafkaConfig {
         return new KafkaTemplate<>(producerFactory());
     }
 
+    @Bean
+    public EventSchemaRegistry eventSchemaRegistry() {
+        return EventSchemaRegistry.fromClasspath();
+    }
+
+    @Bean
+    public InventoryEventCodec inventoryEventCodec(EventSchemaRegistry eventSchemaRegistry) {
+        return new InventoryEventCodec(eventSchemaRegistry);
+    }
+
+    // Outbox relay producer: payloads are pre-encoded events, batched and compressed for throughput
+    @Bean
+    public ProducerFactory<String, byte[]> outboxProducerFactory(
+            @Value("${app.inventory.outbox.producer.compression-type:lz4}") String compressionType,
+            @Value("${app.inventory.outbox.producer.linger-ms:20}") int lingerMs,
+            @Value("${app.inventory.outbox.producer.batch-size:131072}") int batchSize) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        // Idempotence keeps per-partition order across retries with up to 5 requests in flight
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
     // Consumer Configuration
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
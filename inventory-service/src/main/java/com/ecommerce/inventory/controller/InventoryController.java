@@ -3,13 +3,22 @@ package com.ecommerce.inventory.controller;
 import com.ecommerce.inventory.dto.InventoryRequest;
 import com.ecommerce.inventory.dto.InventoryResponse;
 import com.ecommerce.inventory.service.InventoryService;
+import com.ecommerce.inventory.service.bulkimport.ImportFormat;
+import com.ecommerce.inventory.service.bulkimport.InventoryImportService;
+import com.ecommerce.inventory.service.report.StockReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,7 +27,11 @@ import java.util.List;
 @Tag(name = "Inventory API", description = "APIs for managing inventory")
 public class InventoryController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final InventoryService inventoryService;
+    private final StockReportService stockReportService;
+    private final InventoryImportService inventoryImportService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -39,12 +52,40 @@ public class InventoryController {
         return inventoryService.adjustStock(adjustment);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON})
+    @Operation(summary = "Bulk import inventory items from a CSV or NDJSON body")
+    public InventoryResponse.ImportSummary importInventory(HttpServletRequest request) throws IOException {
+        // Read straight from the request so the body is never buffered in full
+        try (InputStream body = request.getInputStream()) {
+            return inventoryImportService.importStream(body, ImportFormat.fromContentType(request.getContentType()));
+        }
+    }
+
     @PostMapping("/reserve")
     @Operation(summary = "Reserve stock for an order")
     public InventoryResponse reserveStock(@Valid @RequestBody InventoryRequest.ReservationRequest request) {
         return inventoryService.reserveStock(request);
     }
 
+    @PostMapping("/reserve/batch")
+    @Operation(summary = "Reserve stock for all lines of an order in one transaction")
+    public InventoryResponse.BatchReservation reserveStockBatch(
+            @Valid @RequestBody InventoryRequest.BatchReservationRequest request) {
+        return inventoryService.reserveStockBatch(request);
+    }
+
+    @PostMapping("/reservations/{reservationId}/release")
+    @Operation(summary = "Release whatever stock a reservation still holds")
+    public InventoryResponse.BatchReservation releaseReservation(@PathVariable String reservationId) {
+        return inventoryService.releaseReservation(reservationId);
+    }
+
+    @PostMapping("/reservations/{reservationId}/consume")
+    @Operation(summary = "Consume whatever stock a reservation still holds")
+    public InventoryResponse.BatchReservation consumeReservation(@PathVariable String reservationId) {
+        return inventoryService.consumeReservation(reservationId);
+    }
+
     @PostMapping("/release")
     @Operation(summary = "Release reserved stock")
     public InventoryResponse releaseStock(@Valid @RequestBody InventoryRequest.ReleaseRequest request) {
@@ -63,6 +104,30 @@ public class InventoryController {
         return inventoryService.getLowStockItems();
     }
 
+    @GetMapping(value = "/reports/low-stock", produces = NDJSON)
+    @Operation(summary = "Stream all low stock items as NDJSON, resumable after (currentLevel, skuCode)")
+    public ResponseEntity<StreamingResponseBody> streamLowStockReport(
+            @RequestParam(required = false) Integer afterQuantity,
+            @RequestParam(required = false) String afterSku) {
+        return streamReport(StockReportService.Report.LOW_STOCK, afterQuantity, afterSku);
+    }
+
+    @GetMapping(value = "/reports/needs-restock", produces = NDJSON)
+    @Operation(summary = "Stream all items at or below their restock threshold as NDJSON")
+    public ResponseEntity<StreamingResponseBody> streamNeedsRestockReport(
+            @RequestParam(required = false) Integer afterQuantity,
+            @RequestParam(required = false) String afterSku) {
+        return streamReport(StockReportService.Report.NEEDS_RESTOCK, afterQuantity, afterSku);
+    }
+
+    @GetMapping(value = "/reports/due-for-restock", produces = NDJSON)
+    @Operation(summary = "Stream all items whose next restock date has passed as NDJSON")
+    public ResponseEntity<StreamingResponseBody> streamDueForRestockReport(
+            @RequestParam(required = false) Integer afterQuantity,
+            @RequestParam(required = false) String afterSku) {
+        return streamReport(StockReportService.Report.DUE_FOR_RESTOCK, afterQuantity, afterSku);
+    }
+
     @PostMapping("/{skuCode}/restock")
     @Operation(summary = "Process restock for an item")
     public void processRestock(
@@ -80,6 +145,14 @@ public class InventoryController {
         return inventoryService.consumeReservedStock(skuCode, quantity, reservationId);
     }
 
+    private ResponseEntity<StreamingResponseBody> streamReport(StockReportService.Report report,
+                                                              Integer afterQuantity, String afterSku) {
+        StreamingResponseBody body = out -> stockReportService.write(report, afterQuantity, afterSku, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check endpoint")
     public String health() {
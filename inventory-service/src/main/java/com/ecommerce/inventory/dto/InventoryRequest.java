@@ -1,8 +1,10 @@
 package com.ecommerce.inventory.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,6 +12,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -75,6 +78,9 @@ public class InventoryRequest {
         @NotBlank(message = "Reservation ID is required")
         private String reservationId;
         
+        @Min(value = 1, message = "TTL must be at least 1 second")
+        private Integer ttlSeconds;
+        
         private String notes;
     }
     
@@ -95,4 +101,34 @@ public class InventoryRequest {
         
         private String reason;
     }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchReservationRequest {
+        @NotBlank(message = "Reservation ID is required")
+        private String reservationId;
+        
+        @NotEmpty(message = "At least one reservation line is required")
+        private List<@Valid ReservationLine> items;
+        
+        @Min(value = 1, message = "TTL must be at least 1 second")
+        private Integer ttlSeconds;
+        
+        private String notes;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReservationLine {
+        @NotBlank(message = "SKU code is required")
+        private String skuCode;
+        
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be greater than 0")
+        private Integer quantity;
+    }
 }
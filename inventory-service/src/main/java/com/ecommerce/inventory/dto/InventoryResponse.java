@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -82,4 +83,44 @@ public class InventoryResponse {
         private Integer restockThreshold;
         private String status;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StockReportLine {
+        private String skuCode;
+        private UUID productId;
+        private Integer currentLevel;
+        private Integer lowStockThreshold;
+        private Integer restockThreshold;
+        private LocalDateTime nextRestockDate;
+        private String status;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchReservation {
+        private String reservationId;
+        private Integer totalQuantityReserved;
+        private List<InventoryResponse> items;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportSummary {
+        private String importId;
+        private long rowsRead;
+        private long rowsRejected;
+        private long inserted;
+        private long updated;
+        // Existing SKUs left untouched because the new quantity is below what is reserved
+        private long skipped;
+        private long durationMillis;
+        private List<String> errors;
+    }
 }
@@ -0,0 +1,8 @@
+package com.ecommerce.inventory.model;
+
+public enum ReservationStatus {
+    ACTIVE,
+    RELEASED,
+    CONSUMED,
+    EXPIRED
+}
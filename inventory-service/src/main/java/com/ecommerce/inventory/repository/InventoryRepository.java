@@ -3,15 +3,18 @@ package com.ecommerce.inventory.repository;
 import com.ecommerce.inventory.model.InventoryItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.repository.projection.InventorySnapshot;
+import com.ecommerce.inventory.repository.projection.SkuAvailability;
+import com.ecommerce.inventory.repository.projection.StockReportRow;
 import jakarta.persistence.LockModeType;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface InventoryRepository extends JpaRepository<InventoryItem, UUID> {
 
@@ -26,36 +29,123 @@ public interface InventoryRepository extends JpaRepository<InventoryItem, UUID>
     @Query("SELECT i FROM InventoryItem i WHERE i.availableQuantity <= i.lowStockThreshold AND i.isActive = true")
     List<InventoryItem> findLowStockItems();
     
+    @Query("SELECT NEW com.ecommerce.inventory.dto.InventoryResponse$StockLevel(" +
+           "i.skuCode, i.availableQuantity, i.lowStockThreshold, i.restockThreshold, 'LOW_STOCK') " +
+           "FROM InventoryItem i WHERE i.availableQuantity <= i.lowStockThreshold AND i.isActive = true")
+    List<InventoryResponse.StockLevel> findLowStockLevels();
+    
     @Query("SELECT i FROM InventoryItem i WHERE i.availableQuantity <= i.restockThreshold AND i.isActive = true")
     List<InventoryItem> findItemsNeedingRestock();
     
     @Query("SELECT i FROM InventoryItem i WHERE i.nextRestockDate IS NOT NULL AND i.nextRestockDate <= CURRENT_TIMESTAMP")
     List<InventoryItem> findItemsDueForRestock();
+
+    /*
+     * Keyset pages for the streamed stock reports: each page seeks past the last
+     * (available_quantity, sku_code) returned, so the cost per page does not grow with the offset.
+     * The predicates match the partial indexes in V5__add_stock_report_indexes.sql.
+     */
+    @Query(value = "SELECT " + StockReportRow.COLUMNS + " FROM inventory_items i " +
+           "WHERE i.is_active AND i.available_quantity <= i.low_stock_threshold " +
+           "AND (i.available_quantity, i.sku_code) > (:afterQuantity, :afterSku) " +
+           "ORDER BY i.available_quantity, i.sku_code LIMIT :limit",
+           nativeQuery = true)
+    List<StockReportRow> findLowStockPage(@Param("afterQuantity") int afterQuantity,
+                                          @Param("afterSku") String afterSku,
+                                          @Param("limit") int limit);
+
+    @Query(value = "SELECT " + StockReportRow.COLUMNS + " FROM inventory_items i " +
+           "WHERE i.is_active AND i.available_quantity <= i.restock_threshold " +
+           "AND (i.available_quantity, i.sku_code) > (:afterQuantity, :afterSku) " +
+           "ORDER BY i.available_quantity, i.sku_code LIMIT :limit",
+           nativeQuery = true)
+    List<StockReportRow> findNeedingRestockPage(@Param("afterQuantity") int afterQuantity,
+                                                @Param("afterSku") String afterSku,
+                                                @Param("limit") int limit);
+
+    @Query(value = "SELECT " + StockReportRow.COLUMNS + " FROM inventory_items i " +
+           "WHERE i.next_restock_date IS NOT NULL AND i.next_restock_date <= CURRENT_TIMESTAMP " +
+           "AND (i.available_quantity, i.sku_code) > (:afterQuantity, :afterSku) " +
+           "ORDER BY i.available_quantity, i.sku_code LIMIT :limit",
+           nativeQuery = true)
+    List<StockReportRow> findDueForRestockPage(@Param("afterQuantity") int afterQuantity,
+                                               @Param("afterSku") String afterSku,
+                                               @Param("limit") int limit);
     
-    @Modifying
-    @Query("UPDATE InventoryItem i SET i.quantity = i.quantity + :adjustment, " +
-           "i.availableQuantity = (i.quantity + :adjustment) - i.reservedQuantity " +
-           "WHERE i.skuCode = :skuCode AND (i.quantity + :adjustment) >= 0")
-    int adjustInventory(@Param("skuCode") String skuCode, @Param("adjustment") int adjustment);
-    
-    @Modifying
-    @Query("UPDATE InventoryItem i SET i.reservedQuantity = i.reservedQuantity + :quantity, " +
-           "i.availableQuantity = i.quantity - (i.reservedQuantity + :quantity) " +
-           "WHERE i.skuCode = :skuCode AND (i.quantity - (i.reservedQuantity + :quantity)) >= 0")
-    int reserveStock(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
+    @Query(value = "UPDATE inventory_items i SET quantity = i.quantity + :adjustment, " +
+           "available_quantity = (i.quantity + :adjustment) - i.reserved_quantity " +
+           "WHERE i.sku_code = :skuCode AND (i.quantity + :adjustment) - i.reserved_quantity >= 0 " +
+           InventorySnapshot.RETURNING_COLUMNS,
+           nativeQuery = true)
+    Optional<InventorySnapshot> adjustInventoryReturning(@Param("skuCode") String skuCode, @Param("adjustment") int adjustment);
     
-    @Modifying
-    @Query("UPDATE InventoryItem i SET " +
-           "i.reservedQuantity = i.reservedQuantity - :quantity, " +
-           "i.availableQuantity = i.availableQuantity + :quantity " +
-           "WHERE i.skuCode = :skuCode AND i.reservedQuantity >= :quantity")
-    int releaseStock(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
+    @Query(value = "UPDATE inventory_items i SET reserved_quantity = i.reserved_quantity + :quantity, " +
+           "available_quantity = i.quantity - (i.reserved_quantity + :quantity) " +
+           "WHERE i.sku_code = :skuCode AND (i.quantity - (i.reserved_quantity + :quantity)) >= 0 " +
+           InventorySnapshot.RETURNING_COLUMNS,
+           nativeQuery = true)
+    Optional<InventorySnapshot> reserveStockReturning(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
+
+    /**
+     * Reserves several SKUs in one set-based statement. SKU codes and quantities are passed as
+     * parallel comma-separated lists and unnested server-side; only rows with enough available
+     * stock are updated and returned, so callers detect shortfalls by comparing row counts.
+     */
+    @Query(value = "UPDATE inventory_items i SET " +
+           "reserved_quantity = i.reserved_quantity + r.quantity, " +
+           "available_quantity = i.quantity - (i.reserved_quantity + r.quantity) " +
+           "FROM unnest(string_to_array(:skuCodes, ','), CAST(string_to_array(:quantities, ',') AS int[])) " +
+           "AS r(sku_code, quantity) " +
+           "WHERE i.sku_code = r.sku_code AND (i.quantity - (i.reserved_quantity + r.quantity)) >= 0 " +
+           "RETURNING i.*",
+           nativeQuery = true)
+    List<InventoryItem> reserveStockBatch(@Param("skuCodes") String skuCodes, @Param("quantities") String quantities);
+
+    /**
+     * Locks the rows of the given SKUs in SKU order, so callers locking overlapping sets cannot
+     * deadlock.
+     */
+    @Query(value = "SELECT sku_code FROM inventory_items WHERE sku_code = ANY (string_to_array(:skuCodes, ',')) " +
+           "ORDER BY sku_code FOR UPDATE",
+           nativeQuery = true)
+    List<String> lockBySkuCodes(@Param("skuCodes") String skuCodes);
+
+    /**
+     * Applies reservation deltas that were already admitted by the in-memory ledger. A row is
+     * skipped if the delta would take its available quantity below zero, which only happens when
+     * stock changed behind the ledger's back; the SKU codes of the rows updated are returned.
+     */
+    @Query(value = "UPDATE inventory_items i SET " +
+           "reserved_quantity = i.reserved_quantity + d.delta, " +
+           "available_quantity = i.quantity - (i.reserved_quantity + d.delta) " +
+           "FROM unnest(string_to_array(:skuCodes, ','), CAST(string_to_array(:deltas, ',') AS int[])) " +
+           "AS d(sku_code, delta) " +
+           "WHERE i.sku_code = d.sku_code AND i.quantity - (i.reserved_quantity + d.delta) >= 0 " +
+           "RETURNING i.sku_code",
+           nativeQuery = true)
+    List<String> applyReservedDeltas(@Param("skuCodes") String skuCodes, @Param("deltas") String deltas);
+
+    @Query("SELECT i.id AS id, i.productId AS productId, i.skuCode AS skuCode, " +
+           "i.availableQuantity AS availableQuantity FROM InventoryItem i WHERE i.isActive = true")
+    Stream<SkuAvailability> streamActiveAvailability();
+
+    @Query("SELECT i.id AS id, i.productId AS productId, i.skuCode AS skuCode, " +
+           "i.availableQuantity AS availableQuantity FROM InventoryItem i WHERE i.skuCode = :skuCode")
+    Optional<SkuAvailability> findAvailabilityBySkuCode(@Param("skuCode") String skuCode);
+
+    @Query(value = "UPDATE inventory_items i SET reserved_quantity = i.reserved_quantity - :quantity, " +
+           "available_quantity = i.available_quantity + :quantity " +
+           "WHERE i.sku_code = :skuCode AND i.reserved_quantity >= :quantity " +
+           InventorySnapshot.RETURNING_COLUMNS,
+           nativeQuery = true)
+    Optional<InventorySnapshot> releaseStockReturning(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
     
-    @Modifying
-    @Query("UPDATE InventoryItem i SET i.quantity = i.quantity - :quantity, " +
-           "i.reservedQuantity = i.reservedQuantity - :quantity " +
-           "WHERE i.skuCode = :skuCode AND i.quantity >= :quantity AND i.reservedQuantity >= :quantity")
-    int consumeReservedStock(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
+    @Query(value = "UPDATE inventory_items i SET quantity = i.quantity - :quantity, " +
+           "reserved_quantity = i.reserved_quantity - :quantity " +
+           "WHERE i.sku_code = :skuCode AND i.quantity >= :quantity AND i.reserved_quantity >= :quantity " +
+           InventorySnapshot.RETURNING_COLUMNS,
+           nativeQuery = true)
+    Optional<InventorySnapshot> consumeReservedStockReturning(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
     
     @Query("SELECT NEW com.ecommerce.inventory.dto.InventoryResponse$InventoryStatus(" +
            "i.skuCode, i.availableQuantity > 0, i.availableQuantity, i.availableQuantity <= i.lowStockThreshold, " +
@@ -0,0 +1,118 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.model.ReservationStatus;
+import com.ecommerce.inventory.model.StockReservation;
+import com.ecommerce.inventory.repository.projection.ActiveReservation;
+import com.ecommerce.inventory.repository.projection.InventorySnapshot;
+import com.ecommerce.inventory.repository.projection.SettledStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+    boolean existsByReservationIdAndSkuCode(String reservationId, String skuCode);
+
+    List<StockReservation> findByReservationId(String reservationId);
+
+    /**
+     * Takes units off an active hold. The hold moves to the given status only once none remain;
+     * a quantity larger than what is left matches no row.
+     */
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.remainingQuantity = r.remainingQuantity - :quantity, " +
+           "r.status = CASE WHEN r.remainingQuantity = :quantity THEN :status ELSE r.status END, " +
+           "r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.reservationId = :reservationId AND r.skuCode = :skuCode " +
+           "AND r.status = com.ecommerce.inventory.model.ReservationStatus.ACTIVE " +
+           "AND r.remainingQuantity >= :quantity")
+    int completeReservation(@Param("reservationId") String reservationId,
+                            @Param("skuCode") String skuCode,
+                            @Param("quantity") int quantity,
+                            @Param("status") ReservationStatus status);
+
+    @Query("SELECT r.id AS id, r.expiresAt AS expiresAt FROM StockReservation r " +
+           "WHERE r.status = com.ecommerce.inventory.model.ReservationStatus.ACTIVE")
+    Stream<ActiveReservation> streamActive();
+
+    // SKUs the given holds still keep units of
+    @Query(value = "SELECT DISTINCT sku_code FROM stock_reservations " +
+           "WHERE id = ANY (CAST(string_to_array(:ids, ',') AS uuid[])) AND status = 'ACTIVE'",
+           nativeQuery = true)
+    List<String> findActiveSkuCodesByIds(@Param("ids") String ids);
+
+    /**
+     * Expires the given holds and returns their remaining units to inventory in one statement,
+     * answering each inventory row changed with the units it got back. Only holds that are still
+     * active are touched, so units released or consumed in the meantime are never released twice.
+     * Deadlines are enforced by the caller's timer rather than the database clock.
+     */
+    @Query(value = "WITH due AS (" +
+           "  SELECT id, remaining_quantity FROM stock_reservations " +
+           "  WHERE id = ANY(CAST(string_to_array(:ids, ',') AS uuid[])) AND status = 'ACTIVE' " +
+           "  FOR UPDATE" +
+           "), expired AS (" +
+           "  UPDATE stock_reservations r SET status = 'EXPIRED', remaining_quantity = 0, " +
+           "  updated_at = CURRENT_TIMESTAMP " +
+           "  FROM due WHERE r.id = due.id " +
+           "  RETURNING r.sku_code, due.remaining_quantity AS quantity" +
+           "), totals AS (" +
+           "  SELECT sku_code, SUM(quantity) AS quantity FROM expired GROUP BY sku_code" +
+           ") " +
+           "UPDATE inventory_items i SET " +
+           "reserved_quantity = GREATEST(i.reserved_quantity - t.quantity, 0), " +
+           "available_quantity = i.quantity - GREATEST(i.reserved_quantity - t.quantity, 0) " +
+           "FROM totals t WHERE i.sku_code = t.sku_code " +
+           InventorySnapshot.RETURNING_COLUMNS + ", t.quantity AS \"settledQuantity\"",
+           nativeQuery = true)
+    List<SettledStock> releaseExpired(@Param("ids") String ids);
+
+    /**
+     * Releases everything the active holds of a reservation still have, in one statement. Holds
+     * already closed are skipped, so releasing the same reservation again changes nothing.
+     */
+    @Query(value = "WITH due AS (" +
+           "  SELECT id, remaining_quantity FROM stock_reservations " +
+           "  WHERE reservation_id = :reservationId AND status = 'ACTIVE' " +
+           "  FOR UPDATE" +
+           "), settled AS (" +
+           "  UPDATE stock_reservations r SET status = 'RELEASED', remaining_quantity = 0, " +
+           "  updated_at = CURRENT_TIMESTAMP " +
+           "  FROM due WHERE r.id = due.id " +
+           "  RETURNING r.sku_code, due.remaining_quantity AS quantity" +
+           ") " +
+           "UPDATE inventory_items i SET " +
+           "reserved_quantity = GREATEST(i.reserved_quantity - s.quantity, 0), " +
+           "available_quantity = i.quantity - GREATEST(i.reserved_quantity - s.quantity, 0) " +
+           "FROM settled s WHERE i.sku_code = s.sku_code " +
+           InventorySnapshot.RETURNING_COLUMNS + ", s.quantity AS \"settledQuantity\"",
+           nativeQuery = true)
+    List<SettledStock> releaseReservation(@Param("reservationId") String reservationId);
+
+    /**
+     * Consumes everything the active holds of a reservation still have: the units leave stock
+     * along with their reservation. Consuming the same reservation again changes nothing.
+     */
+    @Query(value = "WITH due AS (" +
+           "  SELECT id, remaining_quantity FROM stock_reservations " +
+           "  WHERE reservation_id = :reservationId AND status = 'ACTIVE' " +
+           "  FOR UPDATE" +
+           "), settled AS (" +
+           "  UPDATE stock_reservations r SET status = 'CONSUMED', remaining_quantity = 0, " +
+           "  updated_at = CURRENT_TIMESTAMP " +
+           "  FROM due WHERE r.id = due.id " +
+           "  RETURNING r.sku_code, due.remaining_quantity AS quantity" +
+           ") " +
+           "UPDATE inventory_items i SET " +
+           "quantity = i.quantity - s.quantity, " +
+           "reserved_quantity = i.reserved_quantity - s.quantity " +
+           "FROM settled s WHERE i.sku_code = s.sku_code " +
+           InventorySnapshot.RETURNING_COLUMNS + ", s.quantity AS \"settledQuantity\"",
+           nativeQuery = true)
+    List<SettledStock> consumeReservation(@Param("reservationId") String reservationId);
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.inventory.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Identity and deadline of an active stock hold, used to reload the expiry wheel.
+ */
+public interface ActiveReservation {
+    UUID getId();
+    LocalDateTime getExpiresAt();
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.inventory.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Post-update state of an inventory row as returned by {@code UPDATE ... RETURNING}.
+ *
+ * <p>Getter names follow {@code InventoryItem}, so an entity can also be viewed through this
+ * projection.
+ */
+public interface InventorySnapshot {
+
+    /**
+     * RETURNING column list matching the getters below. Timestamps are cast to plain
+     * {@code timestamp} so they bind to {@link LocalDateTime} like the entity columns do.
+     */
+    String RETURNING_COLUMNS = "RETURNING i.id AS \"id\", i.product_id AS \"productId\", i.sku_code AS \"skuCode\", " +
+            "i.quantity AS \"quantity\", i.reserved_quantity AS \"reservedQuantity\", " +
+            "i.available_quantity AS \"availableQuantity\", i.low_stock_threshold AS \"lowStockThreshold\", " +
+            "i.restock_threshold AS \"restockThreshold\", " +
+            "CAST(i.last_restocked_date AS timestamp) AS \"lastRestockedDate\", " +
+            "CAST(i.next_restock_date AS timestamp) AS \"nextRestockDate\", " +
+            "i.unit_cost AS \"unitCost\", i.total_value AS \"totalValue\", i.location_code AS \"locationCode\", " +
+            "i.bin_location AS \"binLocation\", i.is_active AS \"isActive\", i.version AS \"version\", " +
+            "CAST(i.created_at AS timestamp) AS \"createdAt\", CAST(i.updated_at AS timestamp) AS \"updatedAt\"";
+
+    UUID getId();
+    UUID getProductId();
+    String getSkuCode();
+    Integer getQuantity();
+    Integer getReservedQuantity();
+    Integer getAvailableQuantity();
+    Integer getLowStockThreshold();
+    Integer getRestockThreshold();
+    LocalDateTime getLastRestockedDate();
+    LocalDateTime getNextRestockDate();
+    BigDecimal getUnitCost();
+    BigDecimal getTotalValue();
+    String getLocationCode();
+    String getBinLocation();
+    Boolean getIsActive();
+    Long getVersion();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.inventory.repository.projection;
+
+/**
+ * Inventory row after holds on it were released, consumed or expired, with the units those
+ * holds still had.
+ */
+public interface SettledStock extends InventorySnapshot {
+    Long getSettledQuantity();
+}
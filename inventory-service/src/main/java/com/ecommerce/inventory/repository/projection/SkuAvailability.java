@@ -0,0 +1,13 @@
+package com.ecommerce.inventory.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Minimal view of an inventory row used to seed in-memory availability counters.
+ */
+public interface SkuAvailability {
+    UUID getId();
+    UUID getProductId();
+    String getSkuCode();
+    Integer getAvailableQuantity();
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.inventory.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns needed by the streamed stock reports, read without materializing {@code InventoryItem}s.
+ */
+public interface StockReportRow {
+
+    /**
+     * SELECT list matching the getters below, with the same timestamp cast as {@link InventorySnapshot}.
+     */
+    String COLUMNS = "i.sku_code AS \"skuCode\", i.product_id AS \"productId\", " +
+            "i.available_quantity AS \"availableQuantity\", i.low_stock_threshold AS \"lowStockThreshold\", " +
+            "i.restock_threshold AS \"restockThreshold\", " +
+            "CAST(i.next_restock_date AS timestamp) AS \"nextRestockDate\"";
+
+    String getSkuCode();
+    UUID getProductId();
+    Integer getAvailableQuantity();
+    Integer getLowStockThreshold();
+    Integer getRestockThreshold();
+    LocalDateTime getNextRestockDate();
+}
@@ -1,26 +1,40 @@
 package com.ecommerce.inventory.service;
 
+import com.ecommerce.events.InventoryEvent;
+import com.ecommerce.inventory.config.CacheConfig;
 import com.ecommerce.inventory.dto.InventoryRequest;
 import com.ecommerce.inventory.dto.InventoryResponse;
 import com.ecommerce.inventory.exception.InsufficientStockException;
 import com.ecommerce.inventory.exception.InventoryItemNotFoundException;
 import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
 import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.model.ReservationStatus;
+import com.ecommerce.inventory.model.StockReservation;
 import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.projection.InventorySnapshot;
+import com.ecommerce.inventory.repository.projection.SettledStock;
+import com.ecommerce.inventory.service.cache.InventoryCacheInvalidator;
+import com.ecommerce.inventory.service.outbox.InventoryEventOutbox;
+import com.ecommerce.inventory.service.reservation.ReservationExpiryService;
+import com.ecommerce.inventory.service.reservation.ReservationLedger;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -30,8 +44,13 @@ import java.util.stream.Collectors;
 public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    private static final String INVENTORY_EVENTS_TOPIC = "inventory-events";
+    private final InventoryEventOutbox eventOutbox;
+    private final ReservationExpiryService reservationExpiryService;
+    private final InventoryCacheInvalidator cacheInvalidator;
+
+    // Only present when app.inventory.reservation-engine.enabled=true
+    @Autowired(required = false)
+    private ReservationLedger reservationLedger;
 
     @Transactional
     public InventoryResponse createInventoryItem(InventoryRequest request) {
@@ -57,13 +76,15 @@ public class InventoryService {
 
         item.calculateAvailableQuantity();
         InventoryItem savedItem = inventoryRepository.save(item);
+        cacheInvalidator.evictAfterCommit(savedItem);
         
-        publishInventoryEvent("inventory-created", savedItem);
+        publishInventoryEvent("inventory-created", savedItem, savedItem.getQuantity());
         
         return InventoryResponse.fromEntity(savedItem);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.INVENTORY_CACHE, key = "#skuCode")
     public InventoryResponse getInventoryBySkuCode(String skuCode) {
         log.debug("Fetching inventory for SKU: {}", skuCode);
         InventoryItem item = inventoryRepository.findBySkuCode(skuCode)
@@ -75,29 +96,31 @@ public class InventoryService {
     @Retry(name = "inventoryService", fallbackMethod = "adjustStockFallback")
     public InventoryResponse adjustStock(InventoryRequest.StockAdjustment adjustment) {
         log.info("Adjusting stock for SKU: {} by {}", adjustment.getSkuCode(), adjustment.getAdjustment());
-        
-        InventoryItem item = inventoryRepository.findBySkuCode(adjustment.getSkuCode())
-                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + adjustment.getSkuCode()));
-        
-        int newQuantity = item.getQuantity() + adjustment.getAdjustment();
-        if (newQuantity < 0) {
-            throw new InvalidInventoryOperationException("Insufficient quantity for adjustment");
+        if (reservationLedger != null) {
+            // The row's stock check must see every reservation the ledger has admitted
+            reservationLedger.flush(List.of(adjustment.getSkuCode()));
+            if (adjustment.getAdjustment() < 0) {
+                reservationLedger.takeAvailable(adjustment.getSkuCode(), -adjustment.getAdjustment());
+            }
         }
         
-        int rowsUpdated = inventoryRepository.adjustInventory(adjustment.getSkuCode(), adjustment.getAdjustment());
-        if (rowsUpdated == 0) {
-            throw new InvalidInventoryOperationException("Failed to adjust inventory for SKU: " + adjustment.getSkuCode());
+        InventoryItem updatedItem = inventoryRepository
+                .adjustInventoryReturning(adjustment.getSkuCode(), adjustment.getAdjustment())
+                .map(this::toItem)
+                .orElseThrow(() -> {
+                    // Only the failure path pays for a second lookup to tell the two cases apart
+                    if (!inventoryRepository.existsBySkuCode(adjustment.getSkuCode())) {
+                        return new InventoryItemNotFoundException("Inventory not found for SKU: " + adjustment.getSkuCode());
+                    }
+                    return new InvalidInventoryOperationException("Insufficient quantity for adjustment");
+                });
+        if (reservationLedger != null && adjustment.getAdjustment() > 0) {
+            reservationLedger.adjustAvailableAfterCommit(adjustment.getSkuCode(), adjustment.getAdjustment());
         }
+        cacheInvalidator.evictAfterCommit(updatedItem);
         
-        // Refresh the item to get the latest state
-        InventoryItem updatedItem = inventoryRepository.findBySkuCode(adjustment.getSkuCode())
-                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found after update for SKU: " + adjustment.getSkuCode()));
-        
-        publishInventoryEvent("stock-adjusted", updatedItem, Map.of(
-                "adjustment", adjustment.getAdjustment(),
-                "reason", adjustment.getReason(),
-                "referenceId", adjustment.getReferenceId()
-        ));
+        publishInventoryEvent("stock-adjusted", updatedItem, adjustment.getAdjustment(),
+                null, adjustment.getReferenceId(), adjustment.getReason());
         
         return InventoryResponse.fromEntity(updatedItem);
     }
@@ -108,41 +131,127 @@ public class InventoryService {
         log.info("Reserving {} units of SKU: {} for reservation ID: {}", 
                 request.getQuantity(), request.getSkuCode(), request.getReservationId());
         
-        int rowsUpdated = inventoryRepository.reserveStock(request.getSkuCode(), request.getQuantity());
-        if (rowsUpdated == 0) {
-            throw new InsufficientStockException("Insufficient stock available for SKU: " + request.getSkuCode());
+        if (reservationLedger != null) {
+            return reserveStockInLedger(request);
         }
         
-        InventoryItem item = inventoryRepository.findBySkuCode(request.getSkuCode())
-                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + request.getSkuCode()));
+        InventoryItem item = inventoryRepository.reserveStockReturning(request.getSkuCode(), request.getQuantity())
+                .map(this::toItem)
+                .orElseThrow(() -> new InsufficientStockException("Insufficient stock available for SKU: " + request.getSkuCode()));
+        reservationExpiryService.track(request.getReservationId(),
+                Map.of(request.getSkuCode(), request.getQuantity()), request.getTtlSeconds());
+        cacheInvalidator.evictAfterCommit(item);
         
-        publishInventoryEvent("stock-reserved", item, Map.of(
-                "reservationId", request.getReservationId(),
-                "quantityReserved", request.getQuantity(),
-                "notes", request.getNotes()
-        ));
+        publishInventoryEvent("stock-reserved", item, request.getQuantity(),
+                request.getReservationId(), null, request.getNotes());
         
         return InventoryResponse.fromEntity(item);
     }
 
+    @Transactional
+    public InventoryResponse.BatchReservation reserveStockBatch(InventoryRequest.BatchReservationRequest request) {
+        // Collapse duplicate SKUs so each row is updated exactly once by the set-based statement
+        Map<String, Integer> quantitiesBySku = new TreeMap<>();
+        for (InventoryRequest.ReservationLine line : request.getItems()) {
+            if (line.getSkuCode().indexOf(',') >= 0) {
+                throw new InvalidInventoryOperationException("Invalid SKU code: " + line.getSkuCode());
+            }
+            quantitiesBySku.merge(line.getSkuCode(), line.getQuantity(), Integer::sum);
+        }
+        log.info("Reserving {} SKUs for reservation ID: {}", quantitiesBySku.size(), request.getReservationId());
+
+        // A retried request finds its holds already there and gets the same answer again
+        List<StockReservation> existing = reservationExpiryService.holdsOf(request.getReservationId());
+        if (!existing.isEmpty()) {
+            return replayReservation(request.getReservationId(), existing, quantitiesBySku);
+        }
+
+        if (reservationLedger != null) {
+            List<InventoryItem> admittedItems = reservationLedger.reserveAll(quantitiesBySku).stream()
+                    .map(this::toLedgerItem)
+                    .collect(Collectors.toList());
+            reservationExpiryService.track(request.getReservationId(), quantitiesBySku, request.getTtlSeconds());
+            admittedItems.forEach(cacheInvalidator::evictAfterCommit);
+            publishBatchReservationEvent(request, admittedItems, quantitiesBySku);
+            return InventoryResponse.BatchReservation.builder()
+                    .reservationId(request.getReservationId())
+                    .totalQuantityReserved(quantitiesBySku.values().stream().mapToInt(Integer::intValue).sum())
+                    .items(admittedItems.stream()
+                            .map(this::toLedgerResponse)
+                            .collect(Collectors.toList()))
+                    .build();
+        }
+
+        List<InventoryItem> reservedItems = inventoryRepository.reserveStockBatch(
+                String.join(",", quantitiesBySku.keySet()),
+                quantitiesBySku.values().stream().map(String::valueOf).collect(Collectors.joining(",")));
+
+        if (reservedItems.size() != quantitiesBySku.size()) {
+            Set<String> reservedSkus = reservedItems.stream()
+                    .map(InventoryItem::getSkuCode)
+                    .collect(Collectors.toSet());
+            List<String> failedSkus = quantitiesBySku.keySet().stream()
+                    .filter(sku -> !reservedSkus.contains(sku))
+                    .collect(Collectors.toList());
+            // Throwing rolls back the rows that were reserved, keeping the batch all-or-nothing
+            throw new InsufficientStockException("Insufficient stock available for SKUs: " + failedSkus);
+        }
+        reservationExpiryService.track(request.getReservationId(), quantitiesBySku, request.getTtlSeconds());
+        reservedItems.forEach(cacheInvalidator::evictAfterCommit);
+
+        publishBatchReservationEvent(request, reservedItems, quantitiesBySku);
+
+        return InventoryResponse.BatchReservation.builder()
+                .reservationId(request.getReservationId())
+                .totalQuantityReserved(quantitiesBySku.values().stream().mapToInt(Integer::intValue).sum())
+                .items(reservedItems.stream()
+                        .map(InventoryResponse::fromEntity)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    /**
+     * Releases whatever a reservation still holds, on every SKU. Releasing a reservation that
+     * holds nothing, or was never made, changes nothing, so callers may retry freely.
+     */
+    @Transactional
+    public InventoryResponse.BatchReservation releaseReservation(String reservationId) {
+        log.info("Releasing all stock held by reservation ID: {}", reservationId);
+        return settleReservation(reservationId, ReservationStatus.RELEASED, "stock-released");
+    }
+
+    /**
+     * Consumes whatever a reservation still holds, on every SKU; repeating it changes nothing.
+     */
+    @Transactional
+    public InventoryResponse.BatchReservation consumeReservation(String reservationId) {
+        log.info("Consuming all stock held by reservation ID: {}", reservationId);
+        return settleReservation(reservationId, ReservationStatus.CONSUMED, "reserved-stock-consumed");
+    }
+
     @Transactional
     public InventoryResponse releaseStock(InventoryRequest.ReleaseRequest request) {
         log.info("Releasing {} units of SKU: {} for reservation ID: {}", 
                 request.getQuantity(), request.getSkuCode(), request.getReservationId());
         
-        int rowsUpdated = inventoryRepository.releaseStock(request.getSkuCode(), request.getQuantity());
-        if (rowsUpdated == 0) {
-            throw new InvalidInventoryOperationException("Failed to release stock for SKU: " + request.getSkuCode());
+        reservationExpiryService.complete(request.getReservationId(), request.getSkuCode(),
+                request.getQuantity(), ReservationStatus.RELEASED);
+        
+        if (reservationLedger != null) {
+            // Reservations admitted in memory must be on the row before they can be released
+            reservationLedger.flush(List.of(request.getSkuCode()));
         }
         
-        InventoryItem item = inventoryRepository.findBySkuCode(request.getSkuCode())
-                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + request.getSkuCode()));
+        InventoryItem item = inventoryRepository.releaseStockReturning(request.getSkuCode(), request.getQuantity())
+                .map(this::toItem)
+                .orElseThrow(() -> new InvalidInventoryOperationException("Failed to release stock for SKU: " + request.getSkuCode()));
+        if (reservationLedger != null) {
+            reservationLedger.adjustAvailableAfterCommit(request.getSkuCode(), request.getQuantity());
+        }
+        cacheInvalidator.evictAfterCommit(item);
         
-        publishInventoryEvent("stock-released", item, Map.of(
-                "reservationId", request.getReservationId(),
-                "quantityReleased", request.getQuantity(),
-                "reason", request.getReason()
-        ));
+        publishInventoryEvent("stock-released", item, request.getQuantity(),
+                request.getReservationId(), null, request.getReason());
         
         return InventoryResponse.fromEntity(item);
     }
@@ -152,39 +261,33 @@ public class InventoryService {
         log.info("Consuming {} reserved units of SKU: {} for reservation ID: {}", 
                 quantity, skuCode, reservationId);
         
-        int rowsUpdated = inventoryRepository.consumeReservedStock(skuCode, quantity);
-        if (rowsUpdated == 0) {
-            throw new InvalidInventoryOperationException("Failed to consume reserved stock for SKU: " + skuCode);
+        reservationExpiryService.complete(reservationId, skuCode, quantity, ReservationStatus.CONSUMED);
+        
+        if (reservationLedger != null) {
+            reservationLedger.flush(List.of(skuCode));
         }
         
-        InventoryItem item = inventoryRepository.findBySkuCode(skuCode)
-                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + skuCode));
+        InventoryItem item = inventoryRepository.consumeReservedStockReturning(skuCode, quantity)
+                .map(this::toItem)
+                .orElseThrow(() -> new InvalidInventoryOperationException("Failed to consume reserved stock for SKU: " + skuCode));
+        cacheInvalidator.evictAfterCommit(item);
         
-        publishInventoryEvent("reserved-stock-consumed", item, Map.of(
-                "reservationId", reservationId,
-                "quantityConsumed", quantity
-        ));
+        publishInventoryEvent("reserved-stock-consumed", item, quantity, reservationId, null, null);
         
         return InventoryResponse.fromEntity(item);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.INVENTORY_STATUS_CACHE, key = "#skuCode")
     public InventoryResponse.InventoryStatus checkInventoryStatus(String skuCode) {
         return inventoryRepository.getInventoryStatus(skuCode)
                 .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + skuCode));
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.STOCK_LEVELS_CACHE, key = "'" + CacheConfig.LOW_STOCK_KEY + "'")
     public List<InventoryResponse.StockLevel> getLowStockItems() {
-        return inventoryRepository.findLowStockItems().stream()
-                .map(item -> InventoryResponse.StockLevel.builder()
-                        .skuCode(item.getSkuCode())
-                        .currentLevel(item.getAvailableQuantity())
-                        .lowStockThreshold(item.getLowStockThreshold())
-                        .restockThreshold(item.getRestockThreshold())
-                        .status(item.isLowStock() ? "LOW_STOCK" : "IN_STOCK")
-                        .build())
-                .collect(Collectors.toList());
+        return inventoryRepository.findLowStockLevels();
     }
 
     @Transactional
@@ -199,11 +302,12 @@ public class InventoryService {
         item.setNextRestockDate(LocalDateTime.now().plusWeeks(2)); // Default to 2 weeks for next restock
         
         inventoryRepository.save(item);
+        cacheInvalidator.evictAfterCommit(item);
+        if (reservationLedger != null) {
+            reservationLedger.adjustAvailableAfterCommit(skuCode, quantity);
+        }
         
-        publishInventoryEvent("inventory-restocked", item, Map.of(
-                "quantityAdded", quantity,
-                "newQuantity", item.getQuantity()
-        ));
+        publishInventoryEvent("inventory-restocked", item, quantity);
     }
 
     // Fallback methods
@@ -218,31 +322,137 @@ public class InventoryService {
     }
 
     // Helper methods
-    private void publishInventoryEvent(String eventType, InventoryItem item) {
-        publishInventoryEvent(eventType, item, null);
+    private InventoryResponse reserveStockInLedger(InventoryRequest.ReservationRequest request) {
+        InventoryItem item = toLedgerItem(reservationLedger.reserve(request.getSkuCode(), request.getQuantity()));
+        reservationExpiryService.track(request.getReservationId(),
+                Map.of(request.getSkuCode(), request.getQuantity()), request.getTtlSeconds());
+        cacheInvalidator.evictAfterCommit(item);
+        
+        publishInventoryEvent("stock-reserved", item, request.getQuantity(),
+                request.getReservationId(), null, request.getNotes());
+        
+        return toLedgerResponse(item);
     }
-    
-    private void publishInventoryEvent(String eventType, InventoryItem item, Map<String, Object> additionalData) {
-        try {
-            Map<String, Object> event = new HashMap<>();
-            event.put("eventType", eventType);
-            event.put("timestamp", LocalDateTime.now().toString());
-            event.put("inventoryId", item.getId());
-            event.put("productId", item.getProductId());
-            event.put("skuCode", item.getSkuCode());
-            event.put("quantity", item.getQuantity());
-            event.put("availableQuantity", item.getAvailableQuantity());
-            event.put("reservedQuantity", item.getReservedQuantity());
-            
-            if (additionalData != null) {
-                event.putAll(additionalData);
+
+    // Detached copy of the row returned by an UPDATE ... RETURNING, so no re-read is needed
+    private InventoryItem toItem(InventorySnapshot snapshot) {
+        return InventoryItem.builder()
+                .id(snapshot.getId())
+                .productId(snapshot.getProductId())
+                .skuCode(snapshot.getSkuCode())
+                .quantity(snapshot.getQuantity())
+                .reservedQuantity(snapshot.getReservedQuantity())
+                .availableQuantity(snapshot.getAvailableQuantity())
+                .lowStockThreshold(snapshot.getLowStockThreshold())
+                .restockThreshold(snapshot.getRestockThreshold())
+                .lastRestockedDate(snapshot.getLastRestockedDate())
+                .nextRestockDate(snapshot.getNextRestockDate())
+                .unitCost(snapshot.getUnitCost())
+                .totalValue(snapshot.getTotalValue())
+                .locationCode(snapshot.getLocationCode())
+                .binLocation(snapshot.getBinLocation())
+                .isActive(snapshot.getIsActive())
+                .version(snapshot.getVersion())
+                .createdAt(snapshot.getCreatedAt())
+                .updatedAt(snapshot.getUpdatedAt())
+                .build();
+    }
+
+    private InventoryResponse.BatchReservation replayReservation(String reservationId, List<StockReservation> holds,
+                                                                 Map<String, Integer> quantitiesBySku) {
+        Map<String, Integer> held = holds.stream()
+                .collect(Collectors.toMap(StockReservation::getSkuCode, StockReservation::getQuantity, Integer::sum, TreeMap::new));
+        if (!held.equals(quantitiesBySku)) {
+            throw new InvalidInventoryOperationException("Reservation " + reservationId + " already holds other stock");
+        }
+        log.info("Reservation ID: {} already made, returning it again", reservationId);
+        return InventoryResponse.BatchReservation.builder()
+                .reservationId(reservationId)
+                .totalQuantityReserved(held.values().stream().mapToInt(Integer::intValue).sum())
+                .items(held.keySet().stream()
+                        .map(sku -> inventoryRepository.findBySkuCode(sku)
+                                .map(InventoryResponse::fromEntity)
+                                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + sku)))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private InventoryResponse.BatchReservation settleReservation(String reservationId, ReservationStatus status,
+                                                                 String eventType) {
+        if (reservationLedger != null) {
+            // Reservations admitted in memory must be on the rows before they can be settled
+            reservationLedger.flush(reservationExpiryService.holdsOf(reservationId).stream()
+                    .map(StockReservation::getSkuCode)
+                    .collect(Collectors.toList()));
+        }
+
+        List<SettledStock> rows = reservationExpiryService.settleAll(reservationId, status);
+        List<InventoryResponse> items = new ArrayList<>(rows.size());
+        int total = 0;
+        for (SettledStock row : rows) {
+            InventoryItem item = toItem(row);
+            int quantity = row.getSettledQuantity().intValue();
+            if (reservationLedger != null && status == ReservationStatus.RELEASED) {
+                reservationLedger.adjustAvailableAfterCommit(item.getSkuCode(), quantity);
             }
-            
-            kafkaTemplate.send(INVENTORY_EVENTS_TOPIC, eventType, event);
-            log.debug("Published {} event for SKU: {}", eventType, item.getSkuCode());
-        } catch (Exception e) {
-            log.error("Failed to publish inventory event: {}", e.getMessage(), e);
-            // We don't want to fail the main operation if event publishing fails
+            cacheInvalidator.evictAfterCommit(item);
+            publishInventoryEvent(eventType, item, quantity, reservationId, null, null);
+            items.add(InventoryResponse.fromEntity(item));
+            total += quantity;
         }
+        return InventoryResponse.BatchReservation.builder()
+                .reservationId(reservationId)
+                .totalQuantityReserved(total)
+                .items(items)
+                .build();
+    }
+
+    // Ledger admissions only know availability; the remaining columns are filled in on the next read
+    private InventoryItem toLedgerItem(ReservationLedger.Admission admission) {
+        return InventoryItem.builder()
+                .id(admission.inventoryId())
+                .productId(admission.productId())
+                .skuCode(admission.skuCode())
+                .availableQuantity((int) admission.availableQuantity())
+                .build();
+    }
+
+    private InventoryResponse toLedgerResponse(InventoryItem item) {
+        return InventoryResponse.builder()
+                .id(item.getId())
+                .productId(item.getProductId())
+                .skuCode(item.getSkuCode())
+                .availableQuantity(item.getAvailableQuantity())
+                .build();
+    }
+
+    private void publishInventoryEvent(String eventType, InventoryItem item, int quantityDelta) {
+        publishInventoryEvent(eventType, item, quantityDelta, null, null, null);
+    }
+    
+    // Events go to the outbox in the caller's transaction; OutboxRelay publishes them after commit
+    private void publishInventoryEvent(String eventType, InventoryItem item, int quantityDelta,
+                                       String reservationId, String referenceId, String note) {
+        InventoryEvent event = new InventoryEvent(eventType, Instant.now(), reservationId, referenceId, note,
+                List.of(toEventLine(item, quantityDelta)));
+        
+        // Keyed by SKU so every event for one SKU lands on the same partition in commit order
+        eventOutbox.append(item.getSkuCode(), event);
+        log.debug("Queued {} event for SKU: {}", eventType, item.getSkuCode());
+    }
+
+    private void publishBatchReservationEvent(InventoryRequest.BatchReservationRequest request,
+                                              List<InventoryItem> items,
+                                              Map<String, Integer> quantitiesBySku) {
+        // One event per SKU rather than one for the batch, so each stays in order with that SKU's other events
+        for (InventoryItem item : items) {
+            publishInventoryEvent("stock-reserved", item, quantitiesBySku.get(item.getSkuCode()),
+                    request.getReservationId(), null, request.getNotes());
+        }
+    }
+
+    private InventoryEvent.Line toEventLine(InventoryItem item, int quantityDelta) {
+        return new InventoryEvent.Line(item.getId(), item.getProductId(), item.getSkuCode(), quantityDelta,
+                item.getQuantity(), item.getAvailableQuantity(), item.getReservedQuantity());
     }
 }
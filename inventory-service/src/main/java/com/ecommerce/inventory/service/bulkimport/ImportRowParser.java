@@ -0,0 +1,238 @@
+package com.ecommerce.inventory.service.bulkimport;
+
+import com.ecommerce.inventory.dto.InventoryRequest;
+import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns import lines into COPY input for the staging table. One instance serves one import and is
+ * shared by the validation workers, so it holds no per-chunk state.
+ *
+ * <p>Rows are read as {@link InventoryRequest}s and checked with the same constraints as
+ * {@code POST /api/inventory}. CSV files need a header row naming the fields; quoted values are
+ * supported but a record must fit on one line.
+ */
+class ImportRowParser {
+
+    static final String STAGING_COLUMNS = "line_number, sku_code, product_id, quantity, low_stock_threshold, " +
+            "restock_threshold, unit_cost, location_code, bin_location, is_active";
+
+    private static final List<String> FIELDS = List.of("skuCode", "productId", "quantity", "lowStockThreshold",
+            "restockThreshold", "unitCost", "locationCode", "binLocation", "isActive");
+    private static final List<String> REQUIRED_FIELDS = List.of("skuCode", "productId", "quantity");
+    private static final int MAX_SKU_LENGTH = 100;
+    private static final int MAX_LOCATION_LENGTH = 50;
+
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    // Column position of each field in a CSV row, -1 when absent
+    private final int[] columns;
+
+    private ImportRowParser(ImportFormat format, ObjectMapper objectMapper, Validator validator, int[] columns) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.columns = columns;
+    }
+
+    static ImportRowParser ndjson(ObjectMapper objectMapper, Validator validator) {
+        return new ImportRowParser(ImportFormat.NDJSON, objectMapper, validator, null);
+    }
+
+    static ImportRowParser csv(String headerLine, ObjectMapper objectMapper, Validator validator) {
+        Map<String, Integer> positions = new HashMap<>();
+        List<String> header = splitCsv(headerLine);
+        for (int i = 0; i < header.size(); i++) {
+            positions.put(normalize(header.get(i)), i);
+        }
+        int[] columns = new int[FIELDS.size()];
+        for (int i = 0; i < FIELDS.size(); i++) {
+            columns[i] = positions.getOrDefault(normalize(FIELDS.get(i)), -1);
+        }
+        List<String> missing = REQUIRED_FIELDS.stream()
+                .filter(field -> columns[FIELDS.indexOf(field)] < 0)
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new InvalidInventoryOperationException("Import header is missing columns: " + missing);
+        }
+        return new ImportRowParser(ImportFormat.CSV, objectMapper, validator, columns);
+    }
+
+    record Chunk(byte[] copyData, int accepted, int rejected, List<String> errors) {
+    }
+
+    /**
+     * Validates a run of lines and renders the accepted ones as CSV for COPY.
+     *
+     * @param firstLineNumber 1-based line number of {@code lines.get(0)} in the source
+     */
+    Chunk encode(List<String> lines, long firstLineNumber) {
+        StringBuilder copy = new StringBuilder(lines.size() * 96);
+        List<String> errors = new ArrayList<>();
+        int accepted = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            long lineNumber = firstLineNumber + i;
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                appendCopyRow(copy, lineNumber, validate(parse(line)));
+                accepted++;
+            } catch (RuntimeException e) {
+                errors.add("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return new Chunk(copy.toString().getBytes(StandardCharsets.UTF_8), accepted, errors.size(), errors);
+    }
+
+    private InventoryRequest parse(String line) {
+        if (format == ImportFormat.NDJSON) {
+            try {
+                return objectMapper.readValue(line, InventoryRequest.class);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Malformed JSON");
+            }
+        }
+        List<String> values = splitCsv(line);
+        return InventoryRequest.builder()
+                .skuCode(value(values, 0))
+                .productId(parseOrNull(value(values, 1), UUID::fromString))
+                .quantity(parseOrNull(value(values, 2), Integer::valueOf))
+                .lowStockThreshold(parseOrNull(value(values, 3), Integer::valueOf))
+                .restockThreshold(parseOrNull(value(values, 4), Integer::valueOf))
+                .unitCost(parseOrNull(value(values, 5), BigDecimal::new))
+                .locationCode(value(values, 6))
+                .binLocation(value(values, 7))
+                .isActive(parseOrNull(value(values, 8), ImportRowParser::parseBoolean))
+                .build();
+    }
+
+    private InventoryRequest validate(InventoryRequest request) {
+        Set<ConstraintViolation<InventoryRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        // Column limits are checked here so one bad row cannot fail the whole COPY
+        if (request.getSkuCode().length() > MAX_SKU_LENGTH) {
+            throw new IllegalArgumentException("SKU code is longer than " + MAX_SKU_LENGTH + " characters");
+        }
+        if (tooLong(request.getLocationCode()) || tooLong(request.getBinLocation())) {
+            throw new IllegalArgumentException("Location is longer than " + MAX_LOCATION_LENGTH + " characters");
+        }
+        return request;
+    }
+
+    private static void appendCopyRow(StringBuilder copy, long lineNumber, InventoryRequest request) {
+        copy.append(lineNumber).append(',');
+        appendQuoted(copy, request.getSkuCode());
+        copy.append(',').append(request.getProductId())
+                .append(',').append(request.getQuantity())
+                .append(',').append(orEmpty(request.getLowStockThreshold()))
+                .append(',').append(orEmpty(request.getRestockThreshold()))
+                .append(',').append(request.getUnitCost() != null ? request.getUnitCost().toPlainString() : "")
+                .append(',');
+        appendQuoted(copy, request.getLocationCode());
+        copy.append(',');
+        appendQuoted(copy, request.getBinLocation());
+        copy.append(',').append(orEmpty(request.getIsActive())).append('\n');
+    }
+
+    // Unquoted empty fields are NULL in COPY's CSV format, quoted ones are empty strings
+    private static void appendQuoted(StringBuilder copy, String value) {
+        if (value == null) {
+            return;
+        }
+        copy.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static String orEmpty(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private String value(List<String> values, int field) {
+        int column = columns[field];
+        if (column < 0 || column >= values.size()) {
+            return null;
+        }
+        String value = values.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parseOrNull(String value, Function<String, T> parser) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "'");
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "t", "yes", "y", "1" -> Boolean.TRUE;
+            case "false", "f", "no", "n", "0" -> Boolean.FALSE;
+            default -> throw new IllegalArgumentException("Not a boolean");
+        };
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_LOCATION_LENGTH;
+    }
+
+    private static String normalize(String column) {
+        return column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
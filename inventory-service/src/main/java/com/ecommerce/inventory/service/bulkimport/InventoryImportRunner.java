@@ -0,0 +1,57 @@
+package com.ecommerce.inventory.service.bulkimport;
+
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.service.outbox.OutboxRelay;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * CLI mode: imports the file named by {@code app.inventory.import.file} at startup, publishes the
+ * resulting event and exits. The exit code is 0 when every line was accepted and 2 otherwise.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.inventory.import", name = "file")
+public class InventoryImportRunner implements ApplicationRunner {
+
+    private final InventoryImportService inventoryImportService;
+    private final ObjectProvider<OutboxRelay> outboxRelay;
+    private final ConfigurableApplicationContext context;
+    private final String file;
+
+    public InventoryImportRunner(InventoryImportService inventoryImportService,
+                                 ObjectProvider<OutboxRelay> outboxRelay,
+                                 ConfigurableApplicationContext context,
+                                 @Value("${app.inventory.import.file}") String file) {
+        this.inventoryImportService = inventoryImportService;
+        this.outboxRelay = outboxRelay;
+        this.context = context;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        InventoryResponse.ImportSummary summary;
+        try (InputStream input = Files.newInputStream(Path.of(file))) {
+            summary = inventoryImportService.importStream(input, ImportFormat.fromFileName(file));
+        }
+        summary.getErrors().forEach(error -> log.warn("Rejected {}", error));
+
+        // Ship the import event now rather than on the next start of a long-running instance
+        outboxRelay.ifAvailable(OutboxRelay::relay);
+
+        int exitCode = summary.getRowsRejected() == 0 ? 0 : 2;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
@@ -0,0 +1,345 @@
+package com.ecommerce.inventory.service.bulkimport;
+
+import com.ecommerce.events.InventoryEvent;
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.ecommerce.inventory.service.cache.InventoryCacheInvalidator;
+import com.ecommerce.inventory.service.outbox.InventoryEventOutbox;
+import com.ecommerce.inventory.service.reservation.ReservationLedger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads supplier catalogs into {@code inventory_items} in one transaction.
+ *
+ * <p>The input is read once, front to back. Lines are cut into chunks that are parsed and validated
+ * on a worker pool while the reader keeps going; accepted rows are streamed in source order into a
+ * temporary staging table with {@code COPY}. A single statement then updates existing SKUs and
+ * inserts new ones from the staging table, and one summary event goes to the outbox for the whole
+ * import.
+ *
+ * <p>New SKUs start with nothing reserved. For existing SKUs the file replaces quantity and the
+ * catalog attributes it carries, while attributes it leaves empty keep their value; a SKU whose new
+ * quantity is below its reserved quantity is left untouched and counted as skipped. Rejected lines are reported but do not stop the import.
+ */
+@Slf4j
+@Service
+public class InventoryImportService {
+
+    private static final String STAGING_TABLE = "inventory_import_staging";
+
+    // Temporary, so it is private to the import's connection, never WAL-logged, and gone at commit
+    private static final String CREATE_STAGING = "CREATE TEMP TABLE IF NOT EXISTS " + STAGING_TABLE + " (" +
+            "line_number BIGINT NOT NULL, sku_code VARCHAR(100) NOT NULL, product_id UUID NOT NULL, " +
+            "quantity INT NOT NULL, low_stock_threshold INT, restock_threshold INT, unit_cost DECIMAL(19, 4), " +
+            "location_code VARCHAR(50), bin_location VARCHAR(50), is_active BOOLEAN) ON COMMIT DROP";
+
+    private static final String COPY_STAGING = "COPY " + STAGING_TABLE + " (" + ImportRowParser.STAGING_COLUMNS +
+            ") FROM STDIN WITH (FORMAT csv)";
+
+    // The last line wins when a SKU repeats, since one statement cannot update the same row twice.
+    // Existing SKUs are updated from the raw staged values, so columns the file leaves empty keep
+    // their current value; the defaults apply to new SKUs only.
+    private static final String MERGE = "WITH src AS (" +
+            "SELECT DISTINCT ON (sku_code) * FROM " + STAGING_TABLE + " ORDER BY sku_code, line_number DESC), " +
+            "previous AS (SELECT i.sku_code, i.quantity FROM inventory_items i JOIN src ON src.sku_code = i.sku_code), " +
+            "updated_rows AS (" +
+            "UPDATE inventory_items i SET product_id = s.product_id, quantity = s.quantity, " +
+            "available_quantity = s.quantity - i.reserved_quantity, " +
+            "low_stock_threshold = COALESCE(s.low_stock_threshold, i.low_stock_threshold), " +
+            "restock_threshold = COALESCE(s.restock_threshold, i.restock_threshold), " +
+            "unit_cost = COALESCE(s.unit_cost, i.unit_cost), " +
+            "total_value = COALESCE(s.unit_cost, i.unit_cost) * s.quantity, " +
+            "location_code = COALESCE(s.location_code, i.location_code), " +
+            "bin_location = COALESCE(s.bin_location, i.bin_location), " +
+            "is_active = COALESCE(s.is_active, i.is_active), version = i.version + 1, updated_at = now() " +
+            "FROM src s WHERE s.sku_code = i.sku_code AND s.quantity >= i.reserved_quantity " +
+            "RETURNING i.sku_code, i.quantity, FALSE AS inserted), " +
+            "inserted_rows AS (" +
+            "INSERT INTO inventory_items (id, product_id, sku_code, quantity, reserved_quantity, " +
+            "available_quantity, low_stock_threshold, restock_threshold, unit_cost, total_value, location_code, " +
+            "bin_location, is_active, version, created_at, updated_at) " +
+            "SELECT gen_random_uuid(), s.product_id, s.sku_code, s.quantity, 0, s.quantity, " +
+            "COALESCE(s.low_stock_threshold, 10), COALESCE(s.restock_threshold, 20), s.unit_cost, " +
+            "s.unit_cost * s.quantity, s.location_code, s.bin_location, COALESCE(s.is_active, TRUE), 0, now(), now() " +
+            "FROM src s WHERE NOT EXISTS (SELECT 1 FROM previous p WHERE p.sku_code = s.sku_code) " +
+            // A SKU created concurrently since the snapshot is counted as skipped
+            "ON CONFLICT (sku_code) DO NOTHING " +
+            "RETURNING sku_code, quantity, TRUE AS inserted), " +
+            "merged AS (SELECT * FROM updated_rows UNION ALL SELECT * FROM inserted_rows) ";
+
+    private static final String MERGE_COUNTS = MERGE +
+            "SELECT count(*) FILTER (WHERE inserted) AS inserted, count(*) FILTER (WHERE NOT inserted) AS updated " +
+            "FROM merged";
+
+    // Reserved units are unchanged, so an updated row's availability moves by its quantity change
+    private static final String MERGE_WITH_DELTAS = MERGE +
+            "SELECT m.sku_code, m.inserted, m.quantity - COALESCE(p.quantity, m.quantity) AS available_delta " +
+            "FROM merged m LEFT JOIN previous p ON p.sku_code = m.sku_code";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final InventoryEventOutbox eventOutbox;
+    private final InventoryCacheInvalidator cacheInvalidator;
+    private final ExecutorService validationPool;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final int maxReportedErrors;
+
+    // Only present when app.inventory.reservation-engine.enabled=true
+    @Autowired(required = false)
+    private ReservationLedger reservationLedger;
+
+    public InventoryImportService(DataSource dataSource,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  Validator validator,
+                                  InventoryEventOutbox eventOutbox,
+                                  InventoryCacheInvalidator cacheInvalidator,
+                                  @Value("${app.inventory.import.parallelism:0}") int parallelism,
+                                  @Value("${app.inventory.import.chunk-size:5000}") int chunkSize,
+                                  @Value("${app.inventory.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventOutbox = eventOutbox;
+        this.cacheInvalidator = cacheInvalidator;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxChunksInFlight = threads * 2;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.validationPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public InventoryResponse.ImportSummary importStream(InputStream input, ImportFormat format) {
+        String importId = UUID.randomUUID().toString();
+        long start = System.currentTimeMillis();
+        log.info("Starting {} inventory import {}", format, importId);
+
+        if (reservationLedger != null) {
+            // Reservations admitted in memory must be on the rows before quantities are replaced
+            reservationLedger.flush();
+        }
+
+        InventoryResponse.ImportSummary summary = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(CREATE_STAGING);
+            jdbcTemplate.execute("TRUNCATE " + STAGING_TABLE);
+            Staged staged = copyIntoStaging(input, format);
+
+            long distinctSkus = jdbcTemplate.queryForObject(
+                    "SELECT count(DISTINCT sku_code) FROM " + STAGING_TABLE, Long.class);
+            long[] merged = merge();
+
+            cacheInvalidator.clearAllAfterCommit();
+            String note = String.format("inserted=%d updated=%d skipped=%d rejected=%d",
+                    merged[0], merged[1], distinctSkus - merged[0] - merged[1], staged.rejected);
+            eventOutbox.append(importId, new InventoryEvent("inventory-imported", Instant.now(), null, importId,
+                    note, List.of()));
+
+            return InventoryResponse.ImportSummary.builder()
+                    .importId(importId)
+                    .rowsRead(staged.accepted + staged.rejected)
+                    .rowsRejected(staged.rejected)
+                    .inserted(merged[0])
+                    .updated(merged[1])
+                    .skipped(distinctSkus - merged[0] - merged[1])
+                    .errors(staged.errors)
+                    .build();
+        });
+
+        summary.setDurationMillis(System.currentTimeMillis() - start);
+        log.info("Finished inventory import {} in {} ms: {} rows, {} inserted, {} updated, {} skipped, {} rejected",
+                importId, summary.getDurationMillis(), summary.getRowsRead(), summary.getInserted(),
+                summary.getUpdated(), summary.getSkipped(), summary.getRowsRejected());
+        return summary;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validationPool.shutdownNow();
+    }
+
+    private Staged copyIntoStaging(InputStream input, ImportFormat format) {
+        // The transaction's own connection, so the staged rows are visible to the merge
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+            try {
+                Staged staged = stream(input, format, copyIn);
+                copyIn.endCopy();
+                return staged;
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Failed to copy import rows into staging", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private Staged stream(InputStream input, ImportFormat format, CopyIn copyIn) throws SQLException {
+        Staged staged = new Staged();
+        Deque<Future<ImportRowParser.Chunk>> inFlight = new ArrayDeque<>();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+            long lineNumber = 0;
+            ImportRowParser parser;
+            if (format == ImportFormat.CSV) {
+                String header = reader.readLine();
+                lineNumber++;
+                if (header == null) {
+                    throw new InvalidInventoryOperationException("Import file is empty");
+                }
+                parser = ImportRowParser.csv(stripByteOrderMark(header), objectMapper, validator);
+            } else {
+                parser = ImportRowParser.ndjson(objectMapper, validator);
+            }
+
+            List<String> lines = new ArrayList<>(chunkSize);
+            long chunkStart = lineNumber + 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                lines.add(line);
+                if (lines.size() == chunkSize) {
+                    submit(parser, lines, chunkStart, inFlight);
+                    lines = new ArrayList<>(chunkSize);
+                    chunkStart = lineNumber + 1;
+                    // Bounded read-ahead keeps memory flat however large the input is
+                    while (inFlight.size() >= maxChunksInFlight) {
+                        write(inFlight.poll(), copyIn, staged);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                submit(parser, lines, chunkStart, inFlight);
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), copyIn, staged);
+            }
+            return staged;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import input", e);
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private void submit(ImportRowParser parser, List<String> lines, long firstLineNumber,
+                        Deque<Future<ImportRowParser.Chunk>> inFlight) {
+        inFlight.add(validationPool.submit(() -> parser.encode(lines, firstLineNumber)));
+    }
+
+    // Chunks are written in submission order, so staged line numbers follow the source
+    private void write(Future<ImportRowParser.Chunk> future, CopyIn copyIn, Staged staged) throws SQLException {
+        ImportRowParser.Chunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating import rows", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to validate import rows", e.getCause());
+        }
+        if (chunk.copyData().length > 0) {
+            copyIn.writeToCopy(chunk.copyData(), 0, chunk.copyData().length);
+        }
+        staged.accepted += chunk.accepted();
+        staged.rejected += chunk.rejected();
+        for (String error : chunk.errors()) {
+            if (staged.errors.size() >= maxReportedErrors) {
+                break;
+            }
+            staged.errors.add(error);
+        }
+    }
+
+    /**
+     * Merges the staging table into the catalog.
+     *
+     * @return inserted and updated row counts
+     */
+    private long[] merge() {
+        if (reservationLedger == null) {
+            return jdbcTemplate.queryForObject(MERGE_COUNTS,
+                    (rs, rowNum) -> new long[]{rs.getLong("inserted"), rs.getLong("updated")});
+        }
+
+        long[] counts = new long[2];
+        Map<String, Long> deltas = new HashMap<>();
+        jdbcTemplate.query(MERGE_WITH_DELTAS, (RowCallbackHandler) rs -> {
+            if (rs.getBoolean("inserted")) {
+                counts[0]++;
+                return;
+            }
+            counts[1]++;
+            long delta = rs.getLong("available_delta");
+            if (delta != 0) {
+                deltas.put(rs.getString("sku_code"), delta);
+            }
+        });
+        reservationLedger.adjustAvailableAfterCommit(deltas);
+        return counts;
+    }
+
+    private static String stripByteOrderMark(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    private static final class Staged {
+        private long accepted;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+    }
+}
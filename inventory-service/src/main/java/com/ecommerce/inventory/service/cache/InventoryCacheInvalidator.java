@@ -0,0 +1,103 @@
+package com.ecommerce.inventory.service.cache;
+
+import com.ecommerce.inventory.config.CacheConfig;
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.model.InventoryItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Evicts cached inventory reads for SKUs touched by a write.
+ *
+ * <p>Evictions run after the surrounding transaction commits, so a concurrent read cannot put the
+ * pre-commit row back into the cache. The low-stock list is only dropped when the SKU is on it or
+ * may have just joined it; writes to well-stocked SKUs leave it in place.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public void evictAfterCommit(InventoryItem item) {
+        // Items built from the reservation ledger carry no thresholds, so assume the worst
+        boolean mayBeLowStock = item.getLowStockThreshold() == null
+                || item.getAvailableQuantity() == null
+                || item.isLowStock();
+        evictAfterCommit(item.getSkuCode(), mayBeLowStock);
+    }
+
+    public void evictAfterCommit(String skuCode, boolean mayBeLowStock) {
+        runAfterCommit(() -> evict(skuCode, mayBeLowStock));
+    }
+
+    /**
+     * Clears all inventory caches once the surrounding transaction commits, for writes such as bulk
+     * imports that touch too many SKUs to evict one by one.
+     */
+    public void clearAllAfterCommit() {
+        runAfterCommit(() -> List.of(CacheConfig.INVENTORY_CACHE, CacheConfig.INVENTORY_STATUS_CACHE,
+                        CacheConfig.STOCK_LEVELS_CACHE).stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    void evict(String skuCode, boolean mayBeLowStock) {
+        evictKey(CacheConfig.INVENTORY_CACHE, skuCode);
+        evictKey(CacheConfig.INVENTORY_STATUS_CACHE, skuCode);
+
+        Cache stockLevels = cacheManager.getCache(CacheConfig.STOCK_LEVELS_CACHE);
+        if (stockLevels == null) {
+            return;
+        }
+        if (mayBeLowStock || isListedAsLowStock(stockLevels, skuCode)) {
+            stockLevels.evict(CacheConfig.LOW_STOCK_KEY);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isListedAsLowStock(Cache stockLevels, String skuCode) {
+        Object cached;
+        if (stockLevels instanceof CaffeineCache caffeineCache) {
+            // Peek without triggering the refresh loader
+            cached = caffeineCache.getNativeCache().getIfPresent(CacheConfig.LOW_STOCK_KEY);
+        } else {
+            Cache.ValueWrapper wrapper = stockLevels.get(CacheConfig.LOW_STOCK_KEY);
+            cached = wrapper != null ? wrapper.get() : null;
+        }
+        if (!(cached instanceof List)) {
+            return false;
+        }
+        return ((List<InventoryResponse.StockLevel>) cached).stream()
+                .anyMatch(level -> skuCode.equals(level.getSkuCode()));
+    }
+
+    private void evictKey(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
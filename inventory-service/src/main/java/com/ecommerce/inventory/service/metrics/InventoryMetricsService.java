@@ -2,22 +2,37 @@ package com.ecommerce.inventory.service.metrics;
 
 import com.ecommerce.inventory.model.InventoryItem;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import io.micrometer.core.instrument.Tags;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
+/**
+ * Inventory metrics with bounded cardinality.
+ *
+ * <p>Per-SKU stock gauges are only exposed for the SKUs whose stock changes most often, found with a
+ * {@link SpaceSavingSketch}, and for the SKUs with the least stock below their low-stock threshold.
+ * The exposed set is refreshed periodically, so at most {@code 2 * top-k} stock series exist at any
+ * time; every other SKU is covered by the aggregate stock level distribution.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class InventoryMetricsService {
 
     private static final String METRIC_PREFIX = "inventory.";
@@ -30,10 +45,18 @@ public class InventoryMetricsService {
     private static final String OUT_OF_STOCK_ALERT = METRIC_PREFIX + "alert.out_of_stock";
     private static final String RESTOCK_EVENT = METRIC_PREFIX + "event.restock";
     private static final String INVENTORY_OPERATION_DURATION = METRIC_PREFIX + "operation.duration";
+    private static final String STOCK_LEVEL_DISTRIBUTION = METRIC_PREFIX + "stock.level.distribution";
+    private static final List<String> KNOWN_OPERATIONS = List.of("adjust", "reserve", "release", "consume", "restock");
 
     private final MeterRegistry meterRegistry;
-    private final ConcurrentHashMap<String, AtomicInteger> stockLevels = new ConcurrentHashMap<>();
-    private Timer operationTimer;
+    private final int topK;
+    private final SpaceSavingSketch<String> hotSkus;
+    private final LowStockTracker lowStockSkus;
+    private final ConcurrentHashMap<String, Timer> operationTimers = new ConcurrentHashMap<>();
+    // Level holders for exposed SKUs only; recordStockLevel keeps them current between refreshes
+    private final ConcurrentHashMap<String, AtomicInteger> exposedLevels = new ConcurrentHashMap<>();
+    private final Map<Meter.Id, Gauge> exposedGauges = new HashMap<>();
+    private DistributionSummary stockLevelDistribution;
     private Counter stockAdjustmentCounter;
     private Counter stockReservationCounter;
     private Counter stockReleaseCounter;
@@ -42,11 +65,22 @@ public class InventoryMetricsService {
     private Counter outOfStockAlertCounter;
     private Counter restockEventCounter;
 
+    public InventoryMetricsService(MeterRegistry meterRegistry,
+                                   @Value("${app.inventory.metrics.top-k:20}") int topK,
+                                   @Value("${app.inventory.metrics.sketch-capacity:1000}") int sketchCapacity) {
+        this.meterRegistry = meterRegistry;
+        this.topK = topK;
+        this.hotSkus = new SpaceSavingSketch<>(Math.max(sketchCapacity, topK));
+        this.lowStockSkus = new LowStockTracker(topK);
+    }
+
     @PostConstruct
     public void init() {
-        operationTimer = Timer.builder(INVENTORY_OPERATION_DURATION)
-                .description("Time taken for inventory operations")
-                .publishPercentiles(0.5, 0.9, 0.95, 0.99)
+        KNOWN_OPERATIONS.forEach(this::operationTimer);
+
+        stockLevelDistribution = DistributionSummary.builder(STOCK_LEVEL_DISTRIBUTION)
+                .description("Available quantity reported across all SKUs")
+                .serviceLevelObjectives(0, 1, 5, 10, 25, 50, 100, 250, 500, 1000, 5000, 10000)
                 .register(meterRegistry);
 
         stockAdjustmentCounter = Counter.builder(STOCK_ADJUSTMENT)
@@ -82,12 +116,13 @@ public class InventoryMetricsService {
         String sku = item.getSkuCode();
         int level = item.getAvailableQuantity();
         
-        // Update or create gauge for this SKU
-        stockLevels.computeIfAbsent(sku, k -> 
-            meterRegistry.gauge(STOCK_LEVEL, 
-                Tags.of("sku", sku, "productId", item.getProductId().toString()),
-                new AtomicInteger(level))
-        ).set(level);
+        stockLevelDistribution.record(Math.max(level, 0));
+        hotSkus.offer(sku, level);
+        lowStockSkus.update(sku, level, item.getLowStockThreshold());
+        AtomicInteger exposed = exposedLevels.get(sku);
+        if (exposed != null) {
+            exposed.set(level);
+        }
 
         // Check for low stock conditions
         if (level <= 0) {
@@ -107,9 +142,7 @@ public class InventoryMetricsService {
         try {
             return supplier.get();
         } finally {
-            sample.stop(Timer.builder(INVENTORY_OPERATION_DURATION)
-                .tag("operation", operation)
-                .register(meterRegistry));
+            sample.stop(operationTimer(operation));
         }
     }
 
@@ -149,9 +182,58 @@ public class InventoryMetricsService {
 
     public void stopTimer(Timer.Sample sample, String operation) {
         if (sample != null) {
-            sample.stop(Timer.builder(INVENTORY_OPERATION_DURATION)
-                    .tag("operation", operation)
-                    .register(meterRegistry));
+            sample.stop(operationTimer(operation));
+        }
+    }
+
+    /**
+     * Swaps the exposed per-SKU gauges for the current hottest and lowest-stock SKUs. Gauges of SKUs
+     * that dropped out are removed from the registry so their series stop being exported.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.metrics.refresh-interval-ms:15000}")
+    public synchronized void refreshExposedSkus() {
+        Map<String, Integer> levels = new HashMap<>();
+        Set<Meter.Id> wanted = new HashSet<>();
+        for (SpaceSavingSketch.Entry<String> entry : hotSkus.top(topK)) {
+            levels.put(entry.key(), entry.value());
+            wanted.add(expose(entry.key(), "hottest", entry.value()));
+        }
+        for (LowStockTracker.Ranked ranked : lowStockSkus.snapshot()) {
+            levels.put(ranked.sku(), ranked.level());
+            wanted.add(expose(ranked.sku(), "lowest", ranked.level()));
         }
+
+        Iterator<Map.Entry<Meter.Id, Gauge>> gauges = exposedGauges.entrySet().iterator();
+        while (gauges.hasNext()) {
+            Map.Entry<Meter.Id, Gauge> gauge = gauges.next();
+            if (!wanted.contains(gauge.getKey())) {
+                meterRegistry.remove(gauge.getValue());
+                gauges.remove();
+            }
+        }
+        exposedLevels.keySet().retainAll(levels.keySet());
+    }
+
+    int exposedGaugeCount() {
+        return exposedGauges.size();
+    }
+
+    private Meter.Id expose(String sku, String rank, int level) {
+        AtomicInteger holder = exposedLevels.computeIfAbsent(sku, key -> new AtomicInteger(level));
+        Gauge gauge = Gauge.builder(STOCK_LEVEL, holder, AtomicInteger::get)
+                .description("Available quantity of the hottest and lowest-stock SKUs")
+                .tags("sku", sku, "rank", rank)
+                .register(meterRegistry);
+        exposedGauges.put(gauge.getId(), gauge);
+        return gauge.getId();
+    }
+
+    // Built once per operation; Timer.builder(...).register on every call allocates and hits the registry map
+    private Timer operationTimer(String operation) {
+        return operationTimers.computeIfAbsent(operation, key -> Timer.builder(INVENTORY_OPERATION_DURATION)
+                .description("Time taken for inventory operations")
+                .tag("operation", key)
+                .publishPercentiles(0.5, 0.9, 0.95, 0.99)
+                .register(meterRegistry));
     }
 }
@@ -0,0 +1,59 @@
+package com.ecommerce.inventory.service.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Keeps the SKUs with the lowest available stock among those at or below their low-stock threshold,
+ * bounded to a fixed number of entries. A SKU leaves as soon as it is seen above its threshold, or
+ * when a SKU with less stock needs its place. Thread-safe; all operations synchronize on the tracker.
+ */
+class LowStockTracker {
+
+    private static final Comparator<Ranked> BY_LEVEL =
+            Comparator.comparingInt(Ranked::level).thenComparing(Ranked::sku);
+
+    private final int capacity;
+    private final Map<String, Integer> levels = new HashMap<>();
+    private final TreeSet<Ranked> ranked = new TreeSet<>(BY_LEVEL);
+
+    LowStockTracker(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Tracker capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    record Ranked(String sku, int level) {
+    }
+
+    synchronized void update(String sku, int level, int lowStockThreshold) {
+        Integer current = levels.get(sku);
+        if (current != null) {
+            ranked.remove(new Ranked(sku, current));
+            levels.remove(sku);
+        }
+        if (level > lowStockThreshold) {
+            return;
+        }
+        if (levels.size() >= capacity) {
+            Ranked highest = ranked.last();
+            if (BY_LEVEL.compare(new Ranked(sku, level), highest) >= 0) {
+                return;
+            }
+            ranked.pollLast();
+            levels.remove(highest.sku());
+        }
+        ranked.add(new Ranked(sku, level));
+        levels.put(sku, level);
+    }
+
+    // Lowest stock first
+    synchronized List<Ranked> snapshot() {
+        return new ArrayList<>(ranked);
+    }
+}
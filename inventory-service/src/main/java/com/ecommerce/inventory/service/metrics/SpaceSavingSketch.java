@@ -0,0 +1,134 @@
+package com.ecommerce.inventory.service.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter sketch over a fixed number of counters.
+ *
+ * <p>Every key with a true frequency above {@code total / capacity} is guaranteed to hold a counter.
+ * When all counters are taken, an unseen key replaces the smallest one and inherits its count, which
+ * is remembered as the key's maximum overestimation. Counters sit in a min-heap so an update costs
+ * O(log capacity) regardless of how many distinct keys flow through.
+ *
+ * <p>Each counter also keeps the last value offered with its key. Instances are thread-safe; all
+ * operations synchronize on the sketch.
+ *
+ * @param <K> tracked key type
+ */
+public class SpaceSavingSketch<K> {
+
+    private final Node<K>[] heap;
+    private final Map<K, Node<K>> index;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Sketch capacity must be positive");
+        }
+        this.heap = new Node[capacity];
+        this.index = new HashMap<>(capacity * 2);
+    }
+
+    public record Entry<K>(K key, long count, long error, int value) {
+    }
+
+    public synchronized void offer(K key, int value) {
+        Node<K> node = index.get(key);
+        if (node != null) {
+            node.count++;
+            node.value = value;
+            siftDown(node.position);
+            return;
+        }
+        if (size < heap.length) {
+            node = new Node<>(key, value);
+            node.position = size;
+            heap[size++] = node;
+            index.put(key, node);
+            siftUp(node.position);
+            return;
+        }
+        // Evict the smallest counter; the newcomer may have been seen up to that many times before
+        Node<K> smallest = heap[0];
+        index.remove(smallest.key);
+        smallest.key = key;
+        smallest.error = smallest.count;
+        smallest.count++;
+        smallest.value = value;
+        index.put(key, smallest);
+        siftDown(0);
+    }
+
+    /**
+     * Returns up to {@code k} entries with the highest counts, highest first.
+     */
+    public synchronized List<Entry<K>> top(int k) {
+        Node<K>[] nodes = Arrays.copyOf(heap, size);
+        Arrays.sort(nodes, Comparator.comparingLong((Node<K> node) -> node.count).reversed());
+        List<Entry<K>> top = new ArrayList<>(Math.min(k, size));
+        for (int i = 0; i < Math.min(k, size); i++) {
+            top.add(new Entry<>(nodes[i].key, nodes[i].count, nodes[i].error, nodes[i].value));
+        }
+        return top;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void siftUp(int position) {
+        Node<K> node = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (heap[parent].count <= node.count) {
+                break;
+            }
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(node, position);
+    }
+
+    private void siftDown(int position) {
+        Node<K> node = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (node.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], position);
+            position = child;
+        }
+        place(node, position);
+    }
+
+    private void place(Node<K> node, int position) {
+        heap[position] = node;
+        node.position = position;
+    }
+
+    private static final class Node<K> {
+        private K key;
+        private long count = 1;
+        private long error;
+        private int value;
+        private int position;
+
+        private Node(K key, int value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.inventory.service.outbox;
+
+import com.ecommerce.events.InventoryEvent;
+import com.ecommerce.events.codec.InventoryEventCodec;
+import com.ecommerce.inventory.model.OutboxEvent;
+import com.ecommerce.inventory.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records inventory events in the outbox table as part of the caller's transaction. Events of a
+ * rolled back operation are never published, and nothing here waits on the broker.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final InventoryEventCodec inventoryEventCodec;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String messageKey, InventoryEvent event) {
+        // Encoded up front so the relay ships the stored bytes as-is
+        outboxEventRepository.save(OutboxEvent.builder()
+                .messageKey(messageKey)
+                .eventType(event.eventType())
+                .payload(inventoryEventCodec.encode(event))
+                .build());
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.inventory.service.outbox;
+
+import com.ecommerce.inventory.model.OutboxEvent;
+import com.ecommerce.inventory.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Drains {@code inventory_outbox} to the inventory-events topic.
+ *
+ * <p>Each batch is read oldest-first, sent without waiting per record, flushed once, and deleted in
+ * the same transaction after every send was acknowledged. A failed batch stays in the table and is
+ * retried from its first row, so delivery is at-least-once and records for the same key reach their
+ * partition in commit order. Payloads are stored already encoded and are sent as-is.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.inventory.outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    static final String EVENT_TYPE_HEADER = "eventType";
+    private static final long RELAY_LOCK_ID = 7_306_912_441_802_001L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final String topic;
+    private final int batchSize;
+    private final long sendTimeoutMillis;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedBatchCounter;
+    private final Timer batchTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Qualifier("outboxProducerFactory") ProducerFactory<String, byte[]> producerFactory,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.kafka.topics.inventory-events}") String topic,
+                       @Value("${app.inventory.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${app.inventory.outbox.relay.send-timeout-ms:30000}") long sendTimeoutMillis) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+
+        this.publishedCounter = Counter.builder("inventory.outbox.published")
+                .description("Inventory events relayed from the outbox to Kafka")
+                .register(meterRegistry);
+        this.failedBatchCounter = Counter.builder("inventory.outbox.failed.batches")
+                .description("Outbox batches that were not acknowledged and will be retried")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("inventory.outbox.batch.duration")
+                .description("Time to publish and delete one outbox batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("inventory.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox row at the last relay pass")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.outbox.relay.poll-interval-ms:100}")
+    public void relay() {
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch());
+            } while (published != null && published == batchSize);
+        } catch (RuntimeException e) {
+            failedBatchCounter.increment();
+            log.error("Failed to relay inventory outbox, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    private int publishBatch() {
+        if (!outboxEventRepository.tryLockRelay(RELAY_LOCK_ID)) {
+            // Another instance is draining the outbox
+            return 0;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.findOldest(batchSize);
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        lagMillis.set(Math.max(0, Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis()));
+
+        Timer.Sample sample = Timer.start();
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(kafkaTemplate.send(toRecord(event)));
+        }
+        kafkaTemplate.flush();
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox batch", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Outbox batch was not acknowledged", e);
+        }
+
+        outboxEventRepository.deleteByIds(batch.stream().map(OutboxEvent::getId).collect(Collectors.toList()));
+        publishedCounter.increment(batch.size());
+        sample.stop(batchTimer);
+        log.debug("Relayed {} inventory events", batch.size());
+        return batch.size();
+    }
+
+    private ProducerRecord<String, byte[]> toRecord(OutboxEvent event) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, event.getMessageKey(), event.getPayload());
+        // Lets consumers route or filter without decoding the payload
+        record.headers().add(new RecordHeader(EVENT_TYPE_HEADER, event.getEventType().getBytes(StandardCharsets.UTF_8)));
+        return record;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecommerce.inventory.service.report;
+
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.projection.StockReportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes stock reports as newline-delimited JSON, one {@link InventoryResponse.StockReportLine} per
+ * line, in (available quantity, SKU) order.
+ *
+ * <p>Rows are read in keyset pages and each page is written and flushed before the next is read,
+ * so memory use is bounded by the page size and no connection is held while the client drains the
+ * response. A client that lost the stream can resume after the last line it received.
+ */
+@Slf4j
+@Service
+public class StockReportService {
+
+    private static final byte NEWLINE = '\n';
+
+    private final InventoryRepository inventoryRepository;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+
+    public StockReportService(InventoryRepository inventoryRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.inventory.reports.page-size:1000}") int pageSize) {
+        this.inventoryRepository = inventoryRepository;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+    }
+
+    public enum Report {
+        LOW_STOCK,
+        NEEDS_RESTOCK,
+        DUE_FOR_RESTOCK
+    }
+
+    /**
+     * Streams the report to {@code out}, starting after the given position or from the beginning
+     * when {@code afterQuantity} is null.
+     *
+     * @return number of lines written
+     */
+    public long write(Report report, Integer afterQuantity, String afterSku, OutputStream out) throws IOException {
+        int lastQuantity = afterQuantity != null ? afterQuantity : Integer.MIN_VALUE;
+        String lastSku = afterQuantity != null && afterSku != null ? afterSku : "";
+        long written = 0;
+
+        List<StockReportRow> page;
+        do {
+            page = fetchPage(report, lastQuantity, lastSku);
+            for (StockReportRow row : page) {
+                out.write(objectMapper.writeValueAsBytes(toLine(row)));
+                out.write(NEWLINE);
+            }
+            out.flush();
+            written += page.size();
+            if (!page.isEmpty()) {
+                StockReportRow last = page.get(page.size() - 1);
+                lastQuantity = last.getAvailableQuantity();
+                lastSku = last.getSkuCode();
+            }
+        } while (page.size() == pageSize);
+
+        log.debug("Streamed {} lines of {} report", written, report);
+        return written;
+    }
+
+    private List<StockReportRow> fetchPage(Report report, int afterQuantity, String afterSku) {
+        return switch (report) {
+            case LOW_STOCK -> inventoryRepository.findLowStockPage(afterQuantity, afterSku, pageSize);
+            case NEEDS_RESTOCK -> inventoryRepository.findNeedingRestockPage(afterQuantity, afterSku, pageSize);
+            case DUE_FOR_RESTOCK -> inventoryRepository.findDueForRestockPage(afterQuantity, afterSku, pageSize);
+        };
+    }
+
+    private static InventoryResponse.StockReportLine toLine(StockReportRow row) {
+        return InventoryResponse.StockReportLine.builder()
+                .skuCode(row.getSkuCode())
+                .productId(row.getProductId())
+                .currentLevel(row.getAvailableQuantity())
+                .lowStockThreshold(row.getLowStockThreshold())
+                .restockThreshold(row.getRestockThreshold())
+                .nextRestockDate(row.getNextRestockDate())
+                .status(status(row))
+                .build();
+    }
+
+    // Same classification as InventoryRepository.getStockLevel
+    private static String status(StockReportRow row) {
+        int level = row.getAvailableQuantity();
+        if (level <= 0) {
+            return "OUT_OF_STOCK";
+        }
+        if (level <= row.getLowStockThreshold()) {
+            return "LOW_STOCK";
+        }
+        if (level <= row.getRestockThreshold()) {
+            return "NEEDS_RESTOCK";
+        }
+        return "IN_STOCK";
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.inventory.service.reservation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for deadlines in the order of seconds to months.
+ *
+ * <p>Level 0 has {@code wheelSize} slots of one tick each, and every level above covers
+ * {@code wheelSize} times the span of the level below. Scheduling is O(1); advancing costs one
+ * slot per elapsed tick plus cascading entries down from coarser levels when a finer level wraps.
+ * Entries further out than the top level can represent are parked in the top level and re-placed
+ * each time they cascade, so they never fire early.
+ *
+ * <p>Instances are thread-safe; all operations synchronize on the wheel.
+ *
+ * @param <T> scheduled element type
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelSpans;
+    private final List<Entry<T>>[][] slots;
+    private final List<T> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelSpans = new long[levels];
+        this.slots = new List[levels][wheelSize];
+        long span = 1;
+        for (int level = 0; level < levels; level++) {
+            levelSpans[level] = span;
+            span = Math.multiplyExact(span, wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots[level][slot] = new ArrayList<>();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public synchronized void schedule(T element, long deadlineMillis) {
+        // Round up so an element never fires before its deadline
+        place(new Entry<>(element, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis)));
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and returns every element whose deadline has passed.
+     */
+    public synchronized List<T> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levelSpans.length - 1; level >= 1; level--) {
+                if (currentTick % levelSpans[level] == 0) {
+                    cascade(slots[level][slotIndex(currentTick, level)]);
+                }
+            }
+            cascade(slots[0][slotIndex(currentTick, 0)]);
+        }
+
+        List<T> expired = new ArrayList<>(due);
+        size -= expired.size();
+        due.clear();
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void cascade(List<Entry<T>> slot) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        entries.forEach(this::place);
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            due.add(entry.element);
+            return;
+        }
+        int level = 0;
+        while (level < levelSpans.length - 1 && delta >= levelSpans[level + 1]) {
+            level++;
+        }
+        slots[level][slotIndex(entry.deadlineTick, level)].add(entry);
+    }
+
+    private int slotIndex(long tick, int level) {
+        return (int) ((tick / levelSpans[level]) % wheelSize);
+    }
+
+    private record Entry<T>(T element, long deadlineTick) {
+    }
+}
@@ -0,0 +1,239 @@
+package com.ecommerce.inventory.service.reservation;
+
+import com.ecommerce.events.InventoryEvent;
+import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.ecommerce.inventory.model.ReservationStatus;
+import com.ecommerce.inventory.model.StockReservation;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import com.ecommerce.inventory.repository.projection.ActiveReservation;
+import com.ecommerce.inventory.repository.projection.SettledStock;
+import com.ecommerce.inventory.service.cache.InventoryCacheInvalidator;
+import com.ecommerce.inventory.service.outbox.InventoryEventOutbox;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Persists stock holds with a TTL and releases them once they expire.
+ *
+ * <p>Deadlines are tracked in a {@link HierarchicalTimingWheel}. Every sweep advances the wheel and
+ * releases everything that came due with a single set-based statement, instead of polling the table
+ * or issuing one release per hold. Holds that could not be released stay in a backlog and are retried
+ * on the next sweep.
+ */
+@Slf4j
+@Service
+public class ReservationExpiryService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryCacheInvalidator cacheInvalidator;
+    private final InventoryEventOutbox eventOutbox;
+    private final HierarchicalTimingWheel<ExpiringReservation> wheel;
+    private final Duration defaultTtl;
+    private final int maxReleasesPerSweep;
+    private final List<ExpiringReservation> backlog = new ArrayList<>();
+    private final AtomicLong expiryLagMillis = new AtomicLong();
+
+    // Only present when app.inventory.reservation-engine.enabled=true
+    @Autowired(required = false)
+    private ReservationLedger reservationLedger;
+
+    public ReservationExpiryService(StockReservationRepository stockReservationRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    InventoryCacheInvalidator cacheInvalidator,
+                                    InventoryEventOutbox eventOutbox,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.inventory.reservations.default-ttl:15m}") Duration defaultTtl,
+                                    @Value("${app.inventory.reservations.sweep-interval-ms:1000}") long sweepIntervalMillis,
+                                    @Value("${app.inventory.reservations.max-releases-per-sweep:5000}") int maxReleasesPerSweep) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidator = cacheInvalidator;
+        this.eventOutbox = eventOutbox;
+        this.wheel = new HierarchicalTimingWheel<>(sweepIntervalMillis, 64, 4, System.currentTimeMillis());
+        this.defaultTtl = defaultTtl;
+        this.maxReleasesPerSweep = maxReleasesPerSweep;
+
+        Gauge.builder("inventory.reservations.expiry.scheduled", wheel, HierarchicalTimingWheel::size)
+                .description("Active stock holds waiting for their deadline")
+                .register(meterRegistry);
+        Gauge.builder("inventory.reservations.expiry.backlog", this, ReservationExpiryService::backlogSize)
+                .description("Expired stock holds not yet released")
+                .register(meterRegistry);
+        Gauge.builder("inventory.reservations.expiry.lag", expiryLagMillis, AtomicLong::get)
+                .description("Delay between the oldest deadline and its release in the last sweep")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public record ExpiringReservation(UUID id, long expiresAtMillis) {
+    }
+
+    /**
+     * Records holds for the given SKUs under one reservation ID. The holds join the expiry wheel only
+     * after the surrounding transaction commits.
+     */
+    public void track(String reservationId, Map<String, Integer> quantitiesBySku, Integer ttlSeconds) {
+        LocalDateTime expiresAt = LocalDateTime.now()
+                .plus(ttlSeconds != null ? Duration.ofSeconds(ttlSeconds) : defaultTtl);
+
+        List<StockReservation> reservations = quantitiesBySku.entrySet().stream()
+                .map(entry -> StockReservation.builder()
+                        .reservationId(reservationId)
+                        .skuCode(entry.getKey())
+                        .quantity(entry.getValue())
+                        .remainingQuantity(entry.getValue())
+                        .status(ReservationStatus.ACTIVE)
+                        .expiresAt(expiresAt)
+                        .build())
+                .collect(Collectors.toList());
+        List<StockReservation> saved = stockReservationRepository.saveAll(reservations);
+
+        long deadline = toEpochMillis(expiresAt);
+        Runnable schedule = () -> saved.forEach(r -> wheel.schedule(new ExpiringReservation(r.getId(), deadline), deadline));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule.run();
+                }
+            });
+        } else {
+            schedule.run();
+        }
+    }
+
+    /**
+     * Releases or consumes part or all of an active hold; it takes the given status once no units
+     * remain, and until then the rest still expires. Holds created before reservations were
+     * persisted have no row and pass through; a hold that already expired, or has fewer units
+     * left, is rejected so its units are not returned twice.
+     */
+    public void complete(String reservationId, String skuCode, int quantity, ReservationStatus status) {
+        int updated = stockReservationRepository.completeReservation(reservationId, skuCode, quantity, status);
+        if (updated == 0 && stockReservationRepository.existsByReservationIdAndSkuCode(reservationId, skuCode)) {
+            throw new InvalidInventoryOperationException(
+                    "Reservation " + reservationId + " does not hold " + quantity + " active units of SKU: " + skuCode);
+        }
+    }
+
+    public List<StockReservation> holdsOf(String reservationId) {
+        return stockReservationRepository.findByReservationId(reservationId);
+    }
+
+    /**
+     * Releases or consumes whatever the active holds of a reservation still have, returning the
+     * inventory rows it changed. Closed holds are skipped, so repeating the call is harmless; the
+     * closed holds leave the wheel when their deadline passes.
+     */
+    public List<SettledStock> settleAll(String reservationId, ReservationStatus status) {
+        return switch (status) {
+            case RELEASED -> stockReservationRepository.releaseReservation(reservationId);
+            case CONSUMED -> stockReservationRepository.consumeReservation(reservationId);
+            default -> throw new IllegalArgumentException("Holds cannot be settled as " + status);
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reloadActiveReservations() {
+        int[] count = {0};
+        try (Stream<ActiveReservation> active = stockReservationRepository.streamActive()) {
+            active.forEach(reservation -> {
+                long deadline = toEpochMillis(reservation.getExpiresAt());
+                wheel.schedule(new ExpiringReservation(reservation.getId(), deadline), deadline);
+                count[0]++;
+            });
+        }
+        log.info("Scheduled {} active stock reservations for expiry", count[0]);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.reservations.sweep-interval-ms:1000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        List<ExpiringReservation> batch;
+        synchronized (backlog) {
+            backlog.addAll(wheel.advanceTo(now));
+            if (backlog.isEmpty()) {
+                expiryLagMillis.set(0);
+                return;
+            }
+            int batchSize = Math.min(backlog.size(), maxReleasesPerSweep);
+            batch = new ArrayList<>(backlog.subList(0, batchSize));
+            backlog.subList(0, batchSize).clear();
+        }
+
+        String ids = batch.stream()
+                .map(reservation -> reservation.id().toString())
+                .collect(Collectors.joining(","));
+        try {
+            List<SettledStock> released = transactionTemplate.execute(status -> {
+                if (reservationLedger != null) {
+                    // Holds admitted in memory must be on the rows before they can be released
+                    reservationLedger.flush(stockReservationRepository.findActiveSkuCodesByIds(ids));
+                }
+                List<SettledStock> rows = stockReservationRepository.releaseExpired(ids);
+                for (SettledStock row : rows) {
+                    if (reservationLedger != null) {
+                        reservationLedger.adjustAvailableAfterCommit(row.getSkuCode(), row.getSettledQuantity());
+                    }
+                    // Expiry only adds availability, so the low-stock list changes only if a SKU was on it
+                    cacheInvalidator.evictAfterCommit(row.getSkuCode(), false);
+                    eventOutbox.append(row.getSkuCode(), releasedEvent(row));
+                }
+                return rows;
+            });
+
+            long oldestDeadline = batch.stream().mapToLong(ExpiringReservation::expiresAtMillis).min().orElse(now);
+            expiryLagMillis.set(Math.max(0, System.currentTimeMillis() - oldestDeadline));
+            log.debug("Expired {} stock reservations across {} SKUs", batch.size(), released.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to release expired stock reservations, will retry: {}", e.getMessage(), e);
+            synchronized (backlog) {
+                backlog.addAll(0, batch);
+            }
+        }
+    }
+
+    // One event per SKU, keyed like the other events of that SKU; a row can sum holds of several reservations
+    private static InventoryEvent releasedEvent(SettledStock row) {
+        return new InventoryEvent("stock-released", Instant.now(), null, null, "Reservation expired",
+                List.of(new InventoryEvent.Line(row.getId(), row.getProductId(), row.getSkuCode(),
+                        row.getSettledQuantity().intValue(), row.getQuantity(), row.getAvailableQuantity(),
+                        row.getReservedQuantity())));
+    }
+
+    int backlogSize() {
+        synchronized (backlog) {
+            return backlog.size();
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,395 @@
+package com.ecommerce.inventory.service.reservation;
+
+import com.ecommerce.inventory.exception.InsufficientStockException;
+import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.ecommerce.inventory.exception.InventoryItemNotFoundException;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.projection.SkuAvailability;
+import com.ecommerce.inventory.service.cache.InventoryCacheInvalidator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory reservation engine that admits reservations against per-SKU counters and writes
+ * the accumulated reservations back to {@code inventory_items} in coalesced batches.
+ *
+ * <p>Each SKU owns an {@link AtomicLong} of available units that is decremented with a CAS loop,
+ * so concurrent checkouts for the same hot SKU never queue on the row lock. Admitted units are
+ * collected in a per-SKU pending counter once the admitting transaction commits, and flushed on
+ * a fixed delay with one set-based UPDATE; a rollback hands them back to the counter instead.
+ * Counters are rebuilt from the table on startup and lazily for SKUs created afterwards.
+ *
+ * <p>The ledger assumes a single writer per SKU, so it should only be enabled when one
+ * inventory-service instance owns reservations.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.inventory.reservation-engine", name = "enabled", havingValue = "true")
+public class ReservationLedger {
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryCacheInvalidator cacheInvalidator;
+    private final TransactionTemplate flushTransaction;
+    private final ConcurrentHashMap<String, SkuCounter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ReservationLedger(InventoryRepository inventoryRepository,
+                             InventoryCacheInvalidator cacheInvalidator,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.inventoryRepository = inventoryRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("inventory.ledger.skus", counters, Map::size)
+                .description("Number of SKUs tracked by the in-memory reservation ledger")
+                .register(meterRegistry);
+        Gauge.builder("inventory.ledger.pending", this, ReservationLedger::pendingUnits)
+                .description("Reserved units admitted in memory but not yet flushed to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admission result for one SKU, carrying the state needed to answer the caller without a
+     * database read.
+     */
+    public record Admission(UUID inventoryId, UUID productId, String skuCode, int quantity, long availableQuantity) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try (Stream<SkuAvailability> rows = inventoryRepository.streamActiveAvailability()) {
+            // putIfAbsent keeps counters that were lazily loaded and already used before startup finished
+            rows.forEach(row -> counters.putIfAbsent(row.getSkuCode(), new SkuCounter(row)));
+        }
+        log.info("Rebuilt reservation ledger with {} SKUs in {} ms",
+                counters.size(), System.currentTimeMillis() - start);
+    }
+
+    public Admission reserve(String skuCode, int quantity) {
+        SkuCounter counter = counterFor(skuCode);
+        long remaining = counter.tryTake(quantity);
+        if (remaining < 0) {
+            throw new InsufficientStockException("Insufficient stock available for SKU: " + skuCode);
+        }
+        Admission admission = counter.admission(quantity, remaining);
+        pendAfterCommit(List.of(admission));
+        return admission;
+    }
+
+    /**
+     * Reserves every SKU or none of them. Units taken before a shortfall is found are handed back
+     * before the exception is thrown.
+     */
+    public List<Admission> reserveAll(Map<String, Integer> quantitiesBySku) {
+        List<Admission> admissions = new ArrayList<>(quantitiesBySku.size());
+        List<String> failedSkus = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : quantitiesBySku.entrySet()) {
+            SkuCounter counter = counterFor(entry.getKey());
+            long remaining = counter.tryTake(entry.getValue());
+            if (remaining < 0) {
+                failedSkus.add(entry.getKey());
+            } else {
+                admissions.add(counter.admission(entry.getValue(), remaining));
+            }
+        }
+
+        if (!failedSkus.isEmpty()) {
+            admissions.forEach(admission -> counters.get(admission.skuCode()).available.addAndGet(admission.quantity()));
+            throw new InsufficientStockException("Insufficient stock available for SKUs: " + failedSkus);
+        }
+
+        pendAfterCommit(admissions);
+        return admissions;
+    }
+
+    /**
+     * Takes units out of a SKU's counter for a stock reduction made against the database in the
+     * current transaction, so reservations admitted meanwhile cannot use them. They are handed
+     * back if the transaction rolls back.
+     *
+     * @throws InvalidInventoryOperationException if fewer units are available
+     */
+    public void takeAvailable(String skuCode, int quantity) {
+        SkuCounter counter = counterFor(skuCode);
+        if (counter.tryTake(quantity) < 0) {
+            throw new InvalidInventoryOperationException("Insufficient quantity for adjustment");
+        }
+        afterCompletion(committed -> {
+            if (!committed) {
+                counter.available.addAndGet(quantity);
+            }
+        });
+    }
+
+    /**
+     * Applies a change in available units that was made directly against the database, once the
+     * surrounding transaction commits.
+     */
+    public void adjustAvailableAfterCommit(String skuCode, long delta) {
+        Runnable apply = () -> {
+            SkuCounter counter = counters.get(skuCode);
+            if (counter != null) {
+                counter.available.addAndGet(delta);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Batch form of {@link #adjustAvailableAfterCommit(String, long)} that registers a single
+     * synchronization for all SKUs.
+     */
+    public void adjustAvailableAfterCommit(Map<String, Long> deltasBySku) {
+        Runnable apply = () -> deltasBySku.forEach((skuCode, delta) -> {
+            SkuCounter counter = counters.get(skuCode);
+            if (counter != null) {
+                counter.available.addAndGet(delta);
+            }
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Writes all pending reservations to the database in one statement. Runs in its own
+     * transaction; only reservations whose transaction committed are pending. On failure the
+     * drained deltas are put back and retried on the next tick, as are SKUs whose row no longer
+     * has the stock for them.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reservation-engine.flush-interval-ms:50}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<String> skus = counters.entrySet().stream()
+                    .filter(entry -> entry.getValue().pending.get() != 0)
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .collect(Collectors.toList());
+            if (skus.isEmpty()) {
+                return;
+            }
+
+            try {
+                int applied = flushTransaction.execute(status -> applyPending(skus));
+                log.debug("Flushed reservations for {} SKUs", applied);
+            } catch (RuntimeException e) {
+                log.error("Failed to flush reservation ledger, will retry: {}", e.getMessage(), e);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the pending reservations of the given SKUs in the caller's transaction, so the
+     * statements that follow see every reservation admitted for them. Takes no lock of its own
+     * and no second connection; it waits on the rows only, behind a flush that already drained
+     * units of the same SKUs.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void flush(Collection<String> skuCodes) {
+        List<String> skus = skuCodes.stream()
+                .filter(counters::containsKey)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        if (!skus.isEmpty()) {
+            applyPending(skus);
+        }
+    }
+
+    /**
+     * Drains and applies the pending units of {@code skus}, which must be sorted. The rows are
+     * locked before the counters are drained, so any other drain of these SKUs has either put
+     * its units on the rows already or waits until this transaction ends. Units that do not end
+     * up on a row go back to pending. The rows written are evicted from the caches once the
+     * transaction commits, since the reservation that admitted them evicted before they changed.
+     *
+     * @return the number of SKUs written
+     */
+    private int applyPending(List<String> skus) {
+        inventoryRepository.lockBySkuCodes(String.join(",", skus));
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        for (String sku : skus) {
+            long delta = counters.get(sku).pending.getAndSet(0);
+            if (delta != 0) {
+                deltas.put(sku, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        List<String> applied;
+        try {
+            applied = inventoryRepository.applyReservedDeltas(
+                    String.join(",", deltas.keySet()),
+                    deltas.values().stream().map(String::valueOf).collect(Collectors.joining(",")));
+        } catch (RuntimeException e) {
+            deltas.forEach(this::repend);
+            throw e;
+        }
+
+        Map<String, Long> written = new LinkedHashMap<>();
+        applied.forEach(sku -> written.put(sku, deltas.remove(sku)));
+        if (!deltas.isEmpty()) {
+            // The row has less stock than the counter admitted against; keep the units and retry
+            log.error("Reservations for SKUs {} exceed their available stock, will retry", deltas.keySet());
+            deltas.forEach(this::repend);
+        }
+        // Reserving only lowers availability, so any written SKU may have just turned low on stock
+        written.keySet().forEach(sku -> cacheInvalidator.evictAfterCommit(sku, true));
+        afterCompletion(committed -> {
+            if (!committed) {
+                written.forEach(this::repend);
+            }
+        });
+        return written.size();
+    }
+
+    private void repend(String skuCode, long delta) {
+        counters.get(skuCode).pending.addAndGet(delta);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    long pendingUnits() {
+        long total = 0;
+        for (SkuCounter counter : counters.values()) {
+            total += counter.pending.get();
+        }
+        return total;
+    }
+
+    /**
+     * Queues admitted units for the next flush once the caller's transaction commits. If it rolls
+     * back, no reservation row was written for them, so they go back to the counter instead of
+     * being flushed as reserved for good.
+     */
+    private void pendAfterCommit(List<Admission> admissions) {
+        afterCompletion(committed -> admissions.forEach(admission -> {
+            SkuCounter counter = counters.get(admission.skuCode());
+            if (committed) {
+                counter.pending.addAndGet(admission.quantity());
+            } else {
+                counter.available.addAndGet(admission.quantity());
+            }
+        }));
+    }
+
+    // Runs the callback with the outcome of the current transaction, or at once as committed without one
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // An unknown outcome counts as committed: holding units too long beats overselling them
+                callback.accept(status != STATUS_ROLLED_BACK);
+            }
+        });
+    }
+
+    private SkuCounter counterFor(String skuCode) {
+        SkuCounter counter = counters.get(skuCode);
+        if (counter != null) {
+            return counter;
+        }
+        // Load outside the map so the database call never runs while holding a bin lock
+        SkuAvailability row = inventoryRepository.findAvailabilityBySkuCode(skuCode)
+                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + skuCode));
+        SkuCounter loaded = new SkuCounter(row);
+        SkuCounter existing = counters.putIfAbsent(skuCode, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static final class SkuCounter {
+        private final UUID inventoryId;
+        private final UUID productId;
+        private final String skuCode;
+        private final AtomicLong available;
+        private final AtomicLong pending = new AtomicLong();
+
+        private SkuCounter(SkuAvailability row) {
+            this.inventoryId = row.getId();
+            this.productId = row.getProductId();
+            this.skuCode = row.getSkuCode();
+            this.available = new AtomicLong(row.getAvailableQuantity());
+        }
+
+        /**
+         * Takes the requested units if available.
+         *
+         * @return units left after the take, or -1 if there was not enough stock
+         */
+        private long tryTake(int quantity) {
+            long current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return -1;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            return current - quantity;
+        }
+
+        private Admission admission(int quantity, long remaining) {
+            return new Admission(inventoryId, productId, skuCode, quantity, remaining);
+        }
+    }
+}
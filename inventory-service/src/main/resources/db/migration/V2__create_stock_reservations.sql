@@ -0,0 +1,16 @@
+-- Persisted stock holds, one row per reservation and SKU
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id UUID PRIMARY KEY,
+    reservation_id VARCHAR(100) NOT NULL,
+    sku_code VARCHAR(100) NOT NULL,
+    quantity INT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_stock_reservations_reservation_sku UNIQUE (reservation_id, sku_code)
+);
+
+-- Only active holds are ever scanned by expiry
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_active_expires_at
+    ON stock_reservations(expires_at) WHERE status = 'ACTIVE';
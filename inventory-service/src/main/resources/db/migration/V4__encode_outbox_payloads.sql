@@ -0,0 +1,12 @@
+-- Outbox payloads are now Avro-encoded InventoryEvents (see event-contracts).
+-- Rows still holding JSON would reach consumers as undecodable bytes, so the upgrade refuses to
+-- run until the previous version's relay has drained the outbox.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM inventory_outbox) THEN
+        RAISE EXCEPTION 'inventory_outbox still holds JSON events; let the previous version publish them before upgrading';
+    END IF;
+END
+$$;
+
+ALTER TABLE inventory_outbox ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
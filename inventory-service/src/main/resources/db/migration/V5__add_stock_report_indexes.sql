@@ -0,0 +1,13 @@
+-- Partial indexes backing the keyset-paginated stock reports. Each covers only the rows its
+-- report can return, ordered the way the report pages through them.
+CREATE INDEX IF NOT EXISTS idx_inventory_items_low_stock_report
+    ON inventory_items (available_quantity, sku_code)
+    WHERE is_active AND available_quantity <= low_stock_threshold;
+
+CREATE INDEX IF NOT EXISTS idx_inventory_items_restock_report
+    ON inventory_items (available_quantity, sku_code)
+    WHERE is_active AND available_quantity <= restock_threshold;
+
+CREATE INDEX IF NOT EXISTS idx_inventory_items_restock_due_report
+    ON inventory_items (available_quantity, sku_code)
+    WHERE next_restock_date IS NOT NULL;
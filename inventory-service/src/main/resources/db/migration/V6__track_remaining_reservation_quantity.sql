@@ -0,0 +1,12 @@
+-- Units of a hold not yet released or consumed, so holds can be closed in parts
+ALTER TABLE stock_reservations ADD COLUMN IF NOT EXISTS remaining_quantity INT;
+
+UPDATE stock_reservations
+SET remaining_quantity = CASE WHEN status = 'ACTIVE' THEN quantity ELSE 0 END
+WHERE remaining_quantity IS NULL;
+
+ALTER TABLE stock_reservations ALTER COLUMN remaining_quantity SET NOT NULL;
+
+ALTER TABLE stock_reservations
+    ADD CONSTRAINT chk_stock_reservations_remaining
+    CHECK (remaining_quantity >= 0 AND remaining_quantity <= quantity);
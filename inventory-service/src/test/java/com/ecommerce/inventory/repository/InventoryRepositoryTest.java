@@ -2,6 +2,8 @@ package com.ecommerce.inventory.repository;
 
 import com.ecommerce.inventory.base.BaseIntegrationTest;
 import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.repository.projection.InventorySnapshot;
+import com.ecommerce.inventory.repository.projection.StockReportRow;
 import com.ecommerce.inventory.util.TestUtils;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -136,10 +139,10 @@ class InventoryRepositoryTest extends BaseIntegrationTest {
         inventoryRepository.flush();
         
         // When
-        int updated = inventoryRepository.adjustInventory(savedItem.getSkuCode(), 10);
+        Optional<InventorySnapshot> updated = inventoryRepository.adjustInventoryReturning(savedItem.getSkuCode(), 10);
         
         // Then
-        assertThat(updated).isEqualTo(1);
+        assertThat(updated).isPresent();
         
         // Clear the persistence context to ensure we get fresh data from the database
         entityManager.clear();
@@ -164,10 +167,10 @@ class InventoryRepositoryTest extends BaseIntegrationTest {
         inventoryRepository.flush();
         
         // When
-        int consumed = inventoryRepository.consumeReservedStock(savedItem.getSkuCode(), 10);
+        Optional<InventorySnapshot> consumed = inventoryRepository.consumeReservedStockReturning(savedItem.getSkuCode(), 10);
         
         // Then
-        assertThat(consumed).isEqualTo(1);
+        assertThat(consumed).isPresent();
         
         // Clear the persistence context to ensure we get fresh data from the database
         entityManager.clear();
@@ -193,13 +196,13 @@ class InventoryRepositoryTest extends BaseIntegrationTest {
         entityManager.flush();
         
         // When - release the reserved stock
-        int rowsUpdated = inventoryRepository.releaseStock(savedItem.getSkuCode(), savedItem.getReservedQuantity());
+        Optional<InventorySnapshot> released = inventoryRepository.releaseStockReturning(savedItem.getSkuCode(), savedItem.getReservedQuantity());
         
         // Clear the persistence context to ensure we get fresh data from the database
         entityManager.clear();
         
         // Then
-        assertThat(rowsUpdated).isEqualTo(1);
+        assertThat(released).isPresent();
         
         // Verify the updated state
         Optional<InventoryItem> updatedItem = inventoryRepository.findBySkuCode(savedItem.getSkuCode());
@@ -212,4 +215,132 @@ class InventoryRepositoryTest extends BaseIntegrationTest {
         assertThat(updatedItem.get().getAvailableQuantity())
                 .isEqualTo(updatedItem.get().getQuantity());
     }
+
+    @Test
+    @Transactional
+    void shouldReserveStockBatchAllOrNothing() {
+        // Given
+        InventoryItem first = TestUtils.createTestInventoryItem();
+        InventoryItem second = TestUtils.createTestInventoryItem();
+        second.setSkuCode("SKU-67890");
+        inventoryRepository.save(first);
+        inventoryRepository.save(second);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When - both lines fit (80 available each)
+        List<InventoryItem> reserved = inventoryRepository.reserveStockBatch("SKU-12345,SKU-67890", "30,80");
+
+        // Then
+        assertThat(reserved).hasSize(2);
+        assertThat(reserved).extracting(InventoryItem::getSkuCode)
+                .containsExactlyInAnyOrder("SKU-12345", "SKU-67890");
+        entityManager.clear();
+        InventoryItem updatedFirst = inventoryRepository.findBySkuCode("SKU-12345").orElseThrow();
+        assertThat(updatedFirst.getReservedQuantity()).isEqualTo(50);
+        assertThat(updatedFirst.getAvailableQuantity()).isEqualTo(50);
+
+        // When - second line no longer fits, only the first row is returned
+        List<InventoryItem> partial = inventoryRepository.reserveStockBatch("SKU-12345,SKU-67890", "1,1");
+
+        // Then
+        assertThat(partial).extracting(InventoryItem::getSkuCode).containsExactly("SKU-12345");
+    }
+
+    @Test
+    @Transactional
+    void shouldReturnPostUpdateSnapshotsMatchingEntityState() {
+        // Given
+        InventoryItem item = TestUtils.createTestInventoryItem();
+        inventoryRepository.save(item);
+        entityManager.flush();
+        entityManager.clear();
+        String skuCode = item.getSkuCode();
+
+        // When / Then - every RETURNING variant reports exactly what a fresh read sees
+        InventorySnapshot adjusted = inventoryRepository.adjustInventoryReturning(skuCode, 10).orElseThrow();
+        assertThat(adjusted.getQuantity()).isEqualTo(110);
+        assertMatchesEntity(adjusted);
+
+        InventorySnapshot reserved = inventoryRepository.reserveStockReturning(skuCode, 15).orElseThrow();
+        assertThat(reserved.getReservedQuantity()).isEqualTo(35);
+        assertMatchesEntity(reserved);
+
+        InventorySnapshot released = inventoryRepository.releaseStockReturning(skuCode, 5).orElseThrow();
+        assertThat(released.getReservedQuantity()).isEqualTo(30);
+        assertMatchesEntity(released);
+
+        InventorySnapshot consumed = inventoryRepository.consumeReservedStockReturning(skuCode, 10).orElseThrow();
+        assertThat(consumed.getQuantity()).isEqualTo(100);
+        assertMatchesEntity(consumed);
+
+        // Failed guards return no row and leave the entity untouched
+        assertThat(inventoryRepository.adjustInventoryReturning(skuCode, -1000)).isEmpty();
+        assertThat(inventoryRepository.reserveStockReturning(skuCode, 1000)).isEmpty();
+        assertThat(inventoryRepository.releaseStockReturning(skuCode, 1000)).isEmpty();
+        assertThat(inventoryRepository.consumeReservedStockReturning(skuCode, 1000)).isEmpty();
+        assertMatchesEntity(consumed);
+    }
+
+    @Test
+    @Transactional
+    void shouldPageLowStockItemsByKeysetInQuantityAndSkuOrder() {
+        // Given - five low-stock SKUs with a tie on quantity, plus rows the report must skip
+        int[] levels = {3, 1, 3, 0, 2};
+        for (int i = 0; i < levels.length; i++) {
+            inventoryRepository.save(reportItem("SKU-LOW-" + i, levels[i], true));
+        }
+        inventoryRepository.save(reportItem("SKU-IN-STOCK", 50, true));
+        inventoryRepository.save(reportItem("SKU-INACTIVE", 1, false));
+        entityManager.flush();
+
+        // When - walk the report two rows at a time
+        List<String> skus = new ArrayList<>();
+        int afterQuantity = Integer.MIN_VALUE;
+        String afterSku = "";
+        List<StockReportRow> page;
+        do {
+            page = inventoryRepository.findLowStockPage(afterQuantity, afterSku, 2);
+            for (StockReportRow row : page) {
+                skus.add(row.getSkuCode());
+                afterQuantity = row.getAvailableQuantity();
+                afterSku = row.getSkuCode();
+            }
+        } while (page.size() == 2);
+
+        // Then
+        assertThat(skus).containsExactly("SKU-LOW-3", "SKU-LOW-1", "SKU-LOW-4", "SKU-LOW-0", "SKU-LOW-2");
+    }
+
+    private InventoryItem reportItem(String skuCode, int quantity, boolean active) {
+        InventoryItem item = TestUtils.createTestInventoryItem();
+        item.setSkuCode(skuCode);
+        item.setQuantity(quantity);
+        item.setReservedQuantity(0);
+        item.setAvailableQuantity(quantity);
+        item.setIsActive(active);
+        return item;
+    }
+
+    private void assertMatchesEntity(InventorySnapshot snapshot) {
+        entityManager.clear();
+        InventoryItem entity = inventoryRepository.findById(snapshot.getId()).orElseThrow();
+        assertThat(snapshot.getProductId()).isEqualTo(entity.getProductId());
+        assertThat(snapshot.getSkuCode()).isEqualTo(entity.getSkuCode());
+        assertThat(snapshot.getQuantity()).isEqualTo(entity.getQuantity());
+        assertThat(snapshot.getReservedQuantity()).isEqualTo(entity.getReservedQuantity());
+        assertThat(snapshot.getAvailableQuantity()).isEqualTo(entity.getAvailableQuantity());
+        assertThat(snapshot.getLowStockThreshold()).isEqualTo(entity.getLowStockThreshold());
+        assertThat(snapshot.getRestockThreshold()).isEqualTo(entity.getRestockThreshold());
+        assertThat(snapshot.getLastRestockedDate()).isEqualTo(entity.getLastRestockedDate());
+        assertThat(snapshot.getNextRestockDate()).isEqualTo(entity.getNextRestockDate());
+        assertThat(snapshot.getUnitCost()).isEqualByComparingTo(entity.getUnitCost());
+        assertThat(snapshot.getTotalValue()).isEqualByComparingTo(entity.getTotalValue());
+        assertThat(snapshot.getLocationCode()).isEqualTo(entity.getLocationCode());
+        assertThat(snapshot.getBinLocation()).isEqualTo(entity.getBinLocation());
+        assertThat(snapshot.getIsActive()).isEqualTo(entity.getIsActive());
+        assertThat(snapshot.getVersion()).isEqualTo(entity.getVersion());
+        assertThat(snapshot.getCreatedAt()).isEqualTo(entity.getCreatedAt());
+        assertThat(snapshot.getUpdatedAt()).isEqualTo(entity.getUpdatedAt());
+    }
 }
@@ -1,21 +1,31 @@
 package com.ecommerce.inventory.service;
 
+import com.ecommerce.events.InventoryEvent;
 import com.ecommerce.inventory.dto.InventoryRequest;
 import com.ecommerce.inventory.dto.InventoryResponse;
 import com.ecommerce.inventory.exception.InsufficientStockException;
 import com.ecommerce.inventory.exception.InventoryItemNotFoundException;
 import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
 import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.model.ReservationStatus;
+import com.ecommerce.inventory.model.StockReservation;
 import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.projection.InventorySnapshot;
+import com.ecommerce.inventory.repository.projection.SettledStock;
+import com.ecommerce.inventory.service.cache.InventoryCacheInvalidator;
+import com.ecommerce.inventory.service.outbox.InventoryEventOutbox;
+import com.ecommerce.inventory.service.reservation.ReservationExpiryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,7 +40,13 @@ class InventoryServiceTest {
     private InventoryRepository inventoryRepository;
 
     @Mock
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private InventoryEventOutbox eventOutbox;
+
+    @Mock
+    private ReservationExpiryService reservationExpiryService;
+
+    @Mock
+    private InventoryCacheInvalidator cacheInvalidator;
 
     @InjectMocks
     private InventoryService inventoryService;
@@ -38,6 +54,7 @@ class InventoryServiceTest {
     private UUID productId;
     private String skuCode;
     private InventoryItem inventoryItem;
+    private InventorySnapshot inventorySnapshot;
     private InventoryRequest inventoryRequest;
 
     @BeforeEach
@@ -59,6 +76,7 @@ class InventoryServiceTest {
                 .isActive(true)
                 .build();
         inventoryItem.calculateAvailableQuantity();
+        inventorySnapshot = new SpelAwareProxyProjectionFactory().createProjection(InventorySnapshot.class, inventoryItem);
 
         inventoryRequest = InventoryRequest.builder()
                 .productId(productId)
@@ -85,7 +103,7 @@ class InventoryServiceTest {
         assertNotNull(result);
         assertEquals(skuCode, result.getSkuCode());
         verify(inventoryRepository, times(1)).save(any(InventoryItem.class));
-        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        verify(eventOutbox, times(1)).append(eq(skuCode), any(InventoryEvent.class));
     }
 
     @Test
@@ -132,17 +150,17 @@ class InventoryServiceTest {
         adjustment.setReason("Restock");
         adjustment.setReferenceId("REF-001");
 
-        when(inventoryRepository.findBySkuCode(skuCode)).thenReturn(Optional.of(inventoryItem));
-        when(inventoryRepository.adjustInventory(skuCode, 10)).thenReturn(1);
-        when(inventoryRepository.findBySkuCode(skuCode)).thenReturn(Optional.of(inventoryItem));
+        when(inventoryRepository.adjustInventoryReturning(skuCode, 10)).thenReturn(Optional.of(inventorySnapshot));
 
         // Act
         InventoryResponse result = inventoryService.adjustStock(adjustment);
 
         // Assert
         assertNotNull(result);
-        verify(inventoryRepository, times(1)).adjustInventory(skuCode, 10);
-        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        assertEquals(inventoryItem.getAvailableQuantity(), result.getAvailableQuantity());
+        verify(inventoryRepository, times(1)).adjustInventoryReturning(skuCode, 10);
+        verify(inventoryRepository, never()).findBySkuCode(anyString());
+        verify(eventOutbox, times(1)).append(eq(skuCode), any(InventoryEvent.class));
     }
 
     @Test
@@ -152,12 +170,13 @@ class InventoryServiceTest {
         adjustment.setSkuCode(skuCode);
         adjustment.setAdjustment(-200); // More than available
 
-        when(inventoryRepository.findBySkuCode(skuCode)).thenReturn(Optional.of(inventoryItem));
+        when(inventoryRepository.adjustInventoryReturning(skuCode, -200)).thenReturn(Optional.empty());
+        when(inventoryRepository.existsBySkuCode(skuCode)).thenReturn(true);
 
         // Act & Assert
         assertThrows(InvalidInventoryOperationException.class, 
                 () -> inventoryService.adjustStock(adjustment));
-        verify(inventoryRepository, never()).adjustInventory(anyString(), anyInt());
+        verify(eventOutbox, never()).append(anyString(), any(InventoryEvent.class));
     }
 
     @Test
@@ -167,7 +186,8 @@ class InventoryServiceTest {
         adjustment.setSkuCode(skuCode);
         adjustment.setAdjustment(10);
 
-        when(inventoryRepository.findBySkuCode(skuCode)).thenReturn(Optional.empty());
+        when(inventoryRepository.adjustInventoryReturning(skuCode, 10)).thenReturn(Optional.empty());
+        when(inventoryRepository.existsBySkuCode(skuCode)).thenReturn(false);
 
         // Act & Assert
         assertThrows(InventoryItemNotFoundException.class, 
@@ -183,16 +203,18 @@ class InventoryServiceTest {
         request.setReservationId("RES-001");
         request.setNotes("Order reservation");
 
-        when(inventoryRepository.reserveStock(skuCode, 5)).thenReturn(1);
-        when(inventoryRepository.findBySkuCode(skuCode)).thenReturn(Optional.of(inventoryItem));
+        when(inventoryRepository.reserveStockReturning(skuCode, 5)).thenReturn(Optional.of(inventorySnapshot));
 
         // Act
         InventoryResponse result = inventoryService.reserveStock(request);
 
         // Assert
         assertNotNull(result);
-        verify(inventoryRepository, times(1)).reserveStock(skuCode, 5);
-        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        verify(inventoryRepository, times(1)).reserveStockReturning(skuCode, 5);
+        verify(inventoryRepository, never()).findBySkuCode(anyString());
+        verify(cacheInvalidator, times(1)).evictAfterCommit(inventoryItem);
+        verify(reservationExpiryService, times(1)).track("RES-001", Map.of(skuCode, 5), null);
+        verify(eventOutbox, times(1)).append(eq(skuCode), any(InventoryEvent.class));
     }
 
     @Test
@@ -202,13 +224,122 @@ class InventoryServiceTest {
         request.setSkuCode(skuCode);
         request.setQuantity(200); // More than available
 
-        when(inventoryRepository.reserveStock(skuCode, 200)).thenReturn(0);
+        when(inventoryRepository.reserveStockReturning(skuCode, 200)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(InsufficientStockException.class, 
                 () -> inventoryService.reserveStock(request));
     }
 
+    @Test
+    void reserveStockBatch_WithAvailableStock_ShouldReserveAllLinesAndPublishOneEventPerSku() {
+        // Arrange
+        InventoryItem secondItem = InventoryItem.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .skuCode("SKU-002")
+                .quantity(50)
+                .reservedQuantity(4)
+                .isActive(true)
+                .build();
+        secondItem.calculateAvailableQuantity();
+
+        InventoryRequest.BatchReservationRequest request = InventoryRequest.BatchReservationRequest.builder()
+                .reservationId("ORDER-001")
+                .items(List.of(
+                        new InventoryRequest.ReservationLine("SKU-002", 4),
+                        new InventoryRequest.ReservationLine(skuCode, 3),
+                        new InventoryRequest.ReservationLine(skuCode, 2)))
+                .build();
+
+        when(inventoryRepository.reserveStockBatch("SKU-001,SKU-002", "5,4"))
+                .thenReturn(List.of(inventoryItem, secondItem));
+
+        // Act
+        InventoryResponse.BatchReservation result = inventoryService.reserveStockBatch(request);
+
+        // Assert
+        assertEquals("ORDER-001", result.getReservationId());
+        assertEquals(9, result.getTotalQuantityReserved());
+        assertEquals(2, result.getItems().size());
+        verify(inventoryRepository, never()).reserveStockReturning(anyString(), anyInt());
+        verify(inventoryRepository, never()).findBySkuCode(anyString());
+        verify(eventOutbox, times(1)).append(eq(skuCode), argThat(event -> "stock-reserved".equals(event.eventType())
+                && "ORDER-001".equals(event.reservationId()) && event.items().get(0).quantityDelta() == 5));
+        verify(eventOutbox, times(1)).append(eq("SKU-002"), argThat(event -> "stock-reserved".equals(event.eventType())
+                && event.items().size() == 1 && event.items().get(0).quantityDelta() == 4));
+    }
+
+    @Test
+    void reserveStockBatch_WithShortfallOnAnyLine_ShouldThrowException() {
+        // Arrange
+        InventoryRequest.BatchReservationRequest request = InventoryRequest.BatchReservationRequest.builder()
+                .reservationId("ORDER-001")
+                .items(List.of(
+                        new InventoryRequest.ReservationLine(skuCode, 5),
+                        new InventoryRequest.ReservationLine("SKU-002", 500)))
+                .build();
+
+        when(inventoryRepository.reserveStockBatch("SKU-001,SKU-002", "5,500"))
+                .thenReturn(List.of(inventoryItem));
+
+        // Act & Assert
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> inventoryService.reserveStockBatch(request));
+        assertTrue(exception.getMessage().contains("SKU-002"));
+        verify(eventOutbox, never()).append(anyString(), any(InventoryEvent.class));
+    }
+
+    @Test
+    void reserveStockBatch_WhenReservationAlreadyMade_ShouldReturnItWithoutReservingAgain() {
+        // Arrange
+        InventoryRequest.BatchReservationRequest request = InventoryRequest.BatchReservationRequest.builder()
+                .reservationId("ORDER-001")
+                .items(List.of(new InventoryRequest.ReservationLine(skuCode, 5)))
+                .build();
+        when(reservationExpiryService.holdsOf("ORDER-001")).thenReturn(List.of(StockReservation.builder()
+                .reservationId("ORDER-001").skuCode(skuCode).quantity(5).remainingQuantity(5)
+                .status(ReservationStatus.ACTIVE).build()));
+        when(inventoryRepository.findBySkuCode(skuCode)).thenReturn(Optional.of(inventoryItem));
+
+        // Act
+        InventoryResponse.BatchReservation result = inventoryService.reserveStockBatch(request);
+
+        // Assert
+        assertEquals(5, result.getTotalQuantityReserved());
+        verify(inventoryRepository, never()).reserveStockBatch(anyString(), anyString());
+        verify(reservationExpiryService, never()).track(anyString(), anyMap(), any());
+        verify(eventOutbox, never()).append(anyString(), any(InventoryEvent.class));
+    }
+
+    @Test
+    void releaseReservation_ShouldReleaseWhatEverySkuStillHolds() {
+        // Arrange
+        SettledStock settled = settled(skuCode, 3);
+        when(reservationExpiryService.settleAll("ORDER-001", ReservationStatus.RELEASED)).thenReturn(List.of(settled));
+
+        // Act
+        InventoryResponse.BatchReservation result = inventoryService.releaseReservation("ORDER-001");
+
+        // Assert
+        assertEquals(3, result.getTotalQuantityReserved());
+        verify(eventOutbox, times(1)).append(eq(skuCode),
+                argThat(event -> "stock-released".equals(event.eventType()) && event.items().get(0).quantityDelta() == 3));
+    }
+
+    @Test
+    void releaseReservation_WhenNothingIsHeld_ShouldChangeNothing() {
+        // Arrange
+        when(reservationExpiryService.settleAll("ORDER-001", ReservationStatus.RELEASED)).thenReturn(List.of());
+
+        // Act
+        InventoryResponse.BatchReservation result = inventoryService.releaseReservation("ORDER-001");
+
+        // Assert
+        assertEquals(0, result.getTotalQuantityReserved());
+        verifyNoInteractions(eventOutbox);
+    }
+
     @Test
     void releaseStock_WithValidRequest_ShouldReleaseStock() {
         // Arrange
@@ -218,16 +349,33 @@ class InventoryServiceTest {
         request.setReservationId("RES-001");
         request.setReason("Order cancelled");
 
-        when(inventoryRepository.releaseStock(skuCode, 5)).thenReturn(1);
-        when(inventoryRepository.findBySkuCode(skuCode)).thenReturn(Optional.of(inventoryItem));
+        when(inventoryRepository.releaseStockReturning(skuCode, 5)).thenReturn(Optional.of(inventorySnapshot));
 
         // Act
         InventoryResponse result = inventoryService.releaseStock(request);
 
         // Assert
         assertNotNull(result);
-        verify(inventoryRepository, times(1)).releaseStock(skuCode, 5);
-        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        verify(inventoryRepository, times(1)).releaseStockReturning(skuCode, 5);
+        verify(inventoryRepository, never()).findBySkuCode(anyString());
+        verify(eventOutbox, times(1)).append(eq(skuCode), any(InventoryEvent.class));
+    }
+
+    @Test
+    void releaseStock_WithExpiredReservation_ShouldNotReleaseTwice() {
+        // Arrange
+        InventoryRequest.ReleaseRequest request = new InventoryRequest.ReleaseRequest();
+        request.setSkuCode(skuCode);
+        request.setQuantity(5);
+        request.setReservationId("RES-001");
+
+        doThrow(new InvalidInventoryOperationException("Reservation RES-001 is no longer active"))
+                .when(reservationExpiryService).complete("RES-001", skuCode, 5, ReservationStatus.RELEASED);
+
+        // Act & Assert
+        assertThrows(InvalidInventoryOperationException.class,
+                () -> inventoryService.releaseStock(request));
+        verify(inventoryRepository, never()).releaseStockReturning(anyString(), anyInt());
     }
 
     @Test
@@ -238,7 +386,7 @@ class InventoryServiceTest {
         request.setQuantity(5);
         request.setReservationId("RES-001");
 
-        when(inventoryRepository.releaseStock(skuCode, 5)).thenReturn(0);
+        when(inventoryRepository.releaseStockReturning(skuCode, 5)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(InvalidInventoryOperationException.class, 
@@ -251,16 +399,16 @@ class InventoryServiceTest {
         String reservationId = "RES-001";
         int quantity = 5;
 
-        when(inventoryRepository.consumeReservedStock(skuCode, quantity)).thenReturn(1);
-        when(inventoryRepository.findBySkuCode(skuCode)).thenReturn(Optional.of(inventoryItem));
+        when(inventoryRepository.consumeReservedStockReturning(skuCode, quantity)).thenReturn(Optional.of(inventorySnapshot));
 
         // Act
         InventoryResponse result = inventoryService.consumeReservedStock(skuCode, quantity, reservationId);
 
         // Assert
         assertNotNull(result);
-        verify(inventoryRepository, times(1)).consumeReservedStock(skuCode, quantity);
-        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        verify(inventoryRepository, times(1)).consumeReservedStockReturning(skuCode, quantity);
+        verify(inventoryRepository, never()).findBySkuCode(anyString());
+        verify(eventOutbox, times(1)).append(eq(skuCode), any(InventoryEvent.class));
     }
 
     @Test
@@ -269,7 +417,7 @@ class InventoryServiceTest {
         String reservationId = "RES-001";
         int quantity = 5;
 
-        when(inventoryRepository.consumeReservedStock(skuCode, quantity)).thenReturn(0);
+        when(inventoryRepository.consumeReservedStockReturning(skuCode, quantity)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(InvalidInventoryOperationException.class, 
@@ -320,7 +468,7 @@ class InventoryServiceTest {
 
         // Assert
         verify(inventoryRepository, times(1)).save(any(InventoryItem.class));
-        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        verify(eventOutbox, times(1)).append(eq(skuCode), any(InventoryEvent.class));
     }
 
     @Test
@@ -332,16 +480,17 @@ class InventoryServiceTest {
         assertThrows(InventoryItemNotFoundException.class, 
                 () -> inventoryService.processRestock(skuCode, 50));
     }
-}
-
-
-
-
-
-
-
-
-
-
-
 
+    private SettledStock settled(String sku, long quantity) {
+        SettledStock row = mock(SettledStock.class);
+        when(row.getId()).thenReturn(inventoryItem.getId());
+        when(row.getSkuCode()).thenReturn(sku);
+        when(row.getQuantity()).thenReturn(inventoryItem.getQuantity());
+        when(row.getReservedQuantity()).thenReturn(inventoryItem.getReservedQuantity() - (int) quantity);
+        when(row.getAvailableQuantity()).thenReturn(inventoryItem.getAvailableQuantity() + (int) quantity);
+        when(row.getLowStockThreshold()).thenReturn(inventoryItem.getLowStockThreshold());
+        when(row.getRestockThreshold()).thenReturn(inventoryItem.getRestockThreshold());
+        when(row.getSettledQuantity()).thenReturn(quantity);
+        return row;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.inventory.service.bulkimport;
+
+import com.ecommerce.inventory.base.BaseIntegrationTest;
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.OutboxEventRepository;
+import com.ecommerce.inventory.util.TestUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryImportServiceIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private InventoryImportService inventoryImportService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void shouldMergeCsvIntoInventoryAndReportRejectedLines() {
+        // Given - one existing SKU to update and one whose reservations block the new quantity
+        InventoryItem existing = TestUtils.createTestInventoryItem();
+        existing.setSkuCode("SKU-EXISTING");
+        existing.setLowStockThreshold(3);
+        existing.setRestockThreshold(7);
+        inventoryRepository.save(existing);
+        InventoryItem reserved = TestUtils.createTestInventoryItem();
+        reserved.setSkuCode("SKU-RESERVED");
+        inventoryRepository.save(reserved);
+        entityManager.flush();
+
+        String csv = "sku_code,product_id,quantity,low_stock_threshold,unit_cost,location_code\n" +
+                "SKU-NEW-1," + UUID.randomUUID() + ",40,5,2.50,\"WH-02\"\n" +
+                "SKU-NEW-2," + UUID.randomUUID() + ",not-a-number,5,,\n" +
+                "SKU-EXISTING," + existing.getProductId() + ",250,,1.00,WH-01\n" +
+                "SKU-RESERVED," + reserved.getProductId() + ",5,,,\n" +
+                "SKU-NEW-1," + UUID.randomUUID() + ",45,5,2.50,WH-03\n";
+
+        // When
+        InventoryResponse.ImportSummary summary = inventoryImportService.importStream(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV);
+        entityManager.clear();
+
+        // Then
+        assertThat(summary.getRowsRead()).isEqualTo(5);
+        assertThat(summary.getRowsRejected()).isEqualTo(1);
+        assertThat(summary.getErrors()).singleElement().asString().startsWith("Line 3:");
+        assertThat(summary.getInserted()).isEqualTo(1);
+        assertThat(summary.getUpdated()).isEqualTo(1);
+        assertThat(summary.getSkipped()).isEqualTo(1);
+
+        InventoryItem created = inventoryRepository.findBySkuCode("SKU-NEW-1").orElseThrow();
+        assertThat(created.getQuantity()).isEqualTo(45);
+        assertThat(created.getAvailableQuantity()).isEqualTo(45);
+        assertThat(created.getLocationCode()).isEqualTo("WH-03");
+
+        InventoryItem updated = inventoryRepository.findBySkuCode("SKU-EXISTING").orElseThrow();
+        assertThat(updated.getQuantity()).isEqualTo(250);
+        assertThat(updated.getAvailableQuantity()).isEqualTo(230);
+        assertThat(updated.getReservedQuantity()).isEqualTo(20);
+        assertThat(updated.getUnitCost()).isEqualByComparingTo("1.00");
+        // Columns the file leaves empty keep their value instead of taking the new-row defaults
+        assertThat(updated.getLowStockThreshold()).isEqualTo(3);
+        assertThat(updated.getRestockThreshold()).isEqualTo(7);
+        assertThat(updated.getBinLocation()).isEqualTo("A1-01-01");
+        assertThat(updated.getIsActive()).isTrue();
+
+        assertThat(inventoryRepository.findBySkuCode("SKU-RESERVED").orElseThrow().getQuantity()).isEqualTo(100);
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepAttributesMissingFromReimportedFile() {
+        // Given
+        InventoryItem existing = TestUtils.createTestInventoryItem();
+        existing.setSkuCode("SKU-EXISTING");
+        existing.setIsActive(false);
+        inventoryRepository.save(existing);
+        entityManager.flush();
+
+        String csv = "sku_code,product_id,quantity\n" +
+                "SKU-EXISTING," + existing.getProductId() + ",60\n";
+
+        // When
+        InventoryResponse.ImportSummary summary = inventoryImportService.importStream(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV);
+        entityManager.clear();
+
+        // Then
+        assertThat(summary.getUpdated()).isEqualTo(1);
+        InventoryItem updated = inventoryRepository.findBySkuCode("SKU-EXISTING").orElseThrow();
+        assertThat(updated.getQuantity()).isEqualTo(60);
+        assertThat(updated.getAvailableQuantity()).isEqualTo(40);
+        assertThat(updated.getUnitCost()).isEqualByComparingTo("9.99");
+        assertThat(updated.getTotalValue()).isEqualByComparingTo("599.40");
+        assertThat(updated.getLocationCode()).isEqualTo("WH-01");
+        assertThat(updated.getBinLocation()).isEqualTo("A1-01-01");
+        assertThat(updated.getIsActive()).isFalse();
+    }
+
+    @Test
+    void shouldImportNdjson() {
+        // Given
+        String ndjson = "{\"skuCode\":\"SKU-JSON-1\",\"productId\":\"" + UUID.randomUUID() + "\",\"quantity\":7}\n" +
+                "{\"skuCode\":\"SKU-JSON-2\",\"productId\":\"" + UUID.randomUUID() + "\",\"quantity\":-1}\n" +
+                "{broken\n";
+
+        // When
+        InventoryResponse.ImportSummary summary = inventoryImportService.importStream(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ImportFormat.NDJSON);
+        entityManager.clear();
+
+        // Then
+        assertThat(summary.getInserted()).isEqualTo(1);
+        assertThat(summary.getRowsRejected()).isEqualTo(2);
+        InventoryItem item = inventoryRepository.findBySkuCode("SKU-JSON-1").orElseThrow();
+        assertThat(item.getLowStockThreshold()).isEqualTo(10);
+        assertThat(item.getIsActive()).isTrue();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.inventory.service.cache;
+
+import com.ecommerce.inventory.config.CacheConfig;
+import com.ecommerce.inventory.dto.InventoryResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryCacheInvalidatorTest {
+
+    private CacheManager cacheManager;
+    private InventoryCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(
+                CacheConfig.INVENTORY_CACHE, CacheConfig.INVENTORY_STATUS_CACHE, CacheConfig.STOCK_LEVELS_CACHE);
+        invalidator = new InventoryCacheInvalidator(cacheManager);
+
+        cacheManager.getCache(CacheConfig.INVENTORY_CACHE).put("SKU-001", new InventoryResponse());
+        cacheManager.getCache(CacheConfig.INVENTORY_CACHE).put("SKU-002", new InventoryResponse());
+        cacheManager.getCache(CacheConfig.INVENTORY_STATUS_CACHE).put("SKU-001", new InventoryResponse.InventoryStatus());
+        cacheManager.getCache(CacheConfig.STOCK_LEVELS_CACHE).put(CacheConfig.LOW_STOCK_KEY, List.of(
+                InventoryResponse.StockLevel.builder().skuCode("SKU-LOW").currentLevel(2).status("LOW_STOCK").build()));
+    }
+
+    @Test
+    void evict_ShouldOnlyDropEntriesForTheWrittenSku() {
+        // Act
+        invalidator.evictAfterCommit("SKU-001", false);
+
+        // Assert
+        assertNull(cacheManager.getCache(CacheConfig.INVENTORY_CACHE).get("SKU-001"));
+        assertNull(cacheManager.getCache(CacheConfig.INVENTORY_STATUS_CACHE).get("SKU-001"));
+        assertNotNull(cacheManager.getCache(CacheConfig.INVENTORY_CACHE).get("SKU-002"));
+        assertNotNull(cacheManager.getCache(CacheConfig.STOCK_LEVELS_CACHE).get(CacheConfig.LOW_STOCK_KEY));
+    }
+
+    @Test
+    void evict_WhenSkuIsListedAsLowStock_ShouldDropLowStockList() {
+        // Act
+        invalidator.evictAfterCommit("SKU-LOW", false);
+
+        // Assert
+        assertNull(cacheManager.getCache(CacheConfig.STOCK_LEVELS_CACHE).get(CacheConfig.LOW_STOCK_KEY));
+    }
+
+    @Test
+    void evict_WhenSkuMayHaveBecomeLowStock_ShouldDropLowStockList() {
+        // Act
+        invalidator.evictAfterCommit("SKU-002", true);
+
+        // Assert
+        assertNull(cacheManager.getCache(CacheConfig.STOCK_LEVELS_CACHE).get(CacheConfig.LOW_STOCK_KEY));
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.inventory.service.metrics;
+
+import com.ecommerce.inventory.model.InventoryItem;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryMetricsServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryMetricsService metricsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsService = new InventoryMetricsService(meterRegistry, 5, 50);
+        metricsService.init();
+    }
+
+    @Test
+    void refreshExposedSkus_ShouldBoundStockGaugesRegardlessOfSkuCount() {
+        // Arrange
+        for (int i = 0; i < 10_000; i++) {
+            metricsService.recordStockLevel(item("SKU-" + i, 100 + i));
+        }
+        for (int i = 0; i < 20; i++) {
+            metricsService.recordStockLevel(item("SKU-HOT", 500 - i));
+        }
+        metricsService.recordStockLevel(item("SKU-LOW", 2));
+
+        // Act
+        metricsService.refreshExposedSkus();
+
+        // Assert
+        assertTrue(meterRegistry.find("inventory.stock.level").gauges().size() <= 10);
+        Gauge hot = meterRegistry.find("inventory.stock.level").tags("sku", "SKU-HOT", "rank", "hottest").gauge();
+        Gauge low = meterRegistry.find("inventory.stock.level").tags("sku", "SKU-LOW", "rank", "lowest").gauge();
+        assertNotNull(hot);
+        assertNotNull(low);
+        assertEquals(481, hot.value());
+        assertEquals(2, low.value());
+        assertEquals(10_021, meterRegistry.get("inventory.stock.level.distribution").summary().count());
+    }
+
+    @Test
+    void refreshExposedSkus_ShouldRemoveGaugesOfSkusThatRecovered() {
+        // Arrange
+        metricsService.recordStockLevel(item("SKU-LOW", 2));
+        metricsService.refreshExposedSkus();
+
+        // Act - restocked above its threshold and no longer among the hottest
+        metricsService.recordStockLevel(item("SKU-LOW", 200));
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 3; j++) {
+                metricsService.recordStockLevel(item("SKU-" + i, 100));
+            }
+        }
+        metricsService.refreshExposedSkus();
+
+        // Assert
+        assertNull(meterRegistry.find("inventory.stock.level").tags("sku", "SKU-LOW").gauge());
+        assertEquals(5, metricsService.exposedGaugeCount());
+    }
+
+    @Test
+    void recordOperation_ShouldReuseOneTimerPerOperation() {
+        // Act
+        metricsService.recordOperation("reserve", () -> 1);
+        metricsService.recordOperation("reserve", () -> 2);
+
+        // Assert
+        assertEquals(2, meterRegistry.get("inventory.operation.duration").tag("operation", "reserve").timer().count());
+    }
+
+    private static InventoryItem item(String sku, int availableQuantity) {
+        return InventoryItem.builder()
+                .productId(UUID.randomUUID())
+                .skuCode(sku)
+                .availableQuantity(availableQuantity)
+                .lowStockThreshold(10)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.inventory.service.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void top_ShouldFindHeavyHittersAmongManyDistinctKeys() {
+        // Arrange - three hot SKUs hidden in 50k one-off SKUs, with only 100 counters
+        SpaceSavingSketch<String> sketch = new SpaceSavingSketch<>(100);
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            sketch.offer("COLD-" + i, i);
+            int roll = random.nextInt(10);
+            if (roll < 3) {
+                sketch.offer("HOT-A", i);
+            } else if (roll < 5) {
+                sketch.offer("HOT-B", i);
+            } else if (roll < 6) {
+                sketch.offer("HOT-C", i);
+            }
+        }
+
+        // Assert
+        List<String> top = sketch.top(3).stream().map(SpaceSavingSketch.Entry::key).collect(Collectors.toList());
+        assertEquals(List.of("HOT-A", "HOT-B", "HOT-C"), top);
+        assertEquals(100, sketch.size());
+    }
+
+    @Test
+    void top_ShouldNeverUnderestimateAndBoundTheError() {
+        // Arrange
+        SpaceSavingSketch<String> sketch = new SpaceSavingSketch<>(2);
+        sketch.offer("A", 1);
+        sketch.offer("A", 2);
+        sketch.offer("B", 5);
+
+        // Act - C evicts B, the smallest counter, and inherits its count as error
+        sketch.offer("C", 7);
+
+        // Assert
+        List<SpaceSavingSketch.Entry<String>> top = sketch.top(2);
+        assertEquals(2, top.size());
+        assertTrue(top.contains(new SpaceSavingSketch.Entry<>("A", 2, 0, 2)));
+        assertTrue(top.contains(new SpaceSavingSketch.Entry<>("C", 2, 1, 7)));
+    }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.inventory.service.outbox;
+
+import com.ecommerce.events.InventoryEvent;
+import com.ecommerce.events.codec.InventoryEventCodec;
+import com.ecommerce.inventory.base.BaseIntegrationTest;
+import com.ecommerce.inventory.repository.OutboxEventRepository;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxRelayIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private InventoryEventOutbox eventOutbox;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    private InventoryEventCodec inventoryEventCodec;
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldRelayCommittedEventsInOrderPerSku() {
+        // Given - interleaved events for two SKUs, committed together
+        String prefix = "SKU-" + UUID.randomUUID().toString().substring(0, 8);
+        List<String> skus = List.of(prefix + "-A", prefix + "-B");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int sequence = 0; sequence < 10; sequence++) {
+                for (String sku : skus) {
+                    // The quantity delta carries the sequence number
+                    eventOutbox.append(sku, stockAdjusted(sku, sequence));
+                }
+            }
+        });
+
+        // When
+        outboxRelay.relay();
+
+        // Then - every record arrives keyed by SKU, in commit order per SKU, and the outbox is drained
+        Map<String, List<Integer>> sequencesBySku = new HashMap<>();
+        try (Consumer<String, byte[]> consumer = createConsumer()) {
+            embeddedKafkaBroker.consumeFromAnEmbeddedTopic(consumer, "inventory-events");
+            long deadline = System.currentTimeMillis() + 15_000;
+            int received = 0;
+            while (received < 20 && System.currentTimeMillis() < deadline) {
+                for (ConsumerRecord<String, byte[]> record : KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(1))) {
+                    if (record.key() == null || !record.key().startsWith(prefix)) {
+                        continue;
+                    }
+                    assertThat(new String(record.headers().lastHeader(OutboxRelay.EVENT_TYPE_HEADER).value(),
+                            StandardCharsets.UTF_8)).isEqualTo("stock-adjusted");
+                    InventoryEvent event = inventoryEventCodec.decode(record.value());
+                    sequencesBySku.computeIfAbsent(record.key(), key -> new ArrayList<>())
+                            .add(event.items().get(0).quantityDelta());
+                    received++;
+                }
+            }
+        }
+
+        assertThat(sequencesBySku.keySet()).containsExactlyInAnyOrderElementsOf(skus);
+        sequencesBySku.values().forEach(sequences ->
+                assertThat(sequences).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldNotPublishEventsOfRolledBackTransactions() {
+        // Given
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventOutbox.append("SKU-ROLLBACK", stockAdjusted("SKU-ROLLBACK", 1));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    private static InventoryEvent stockAdjusted(String sku, int quantityDelta) {
+        return new InventoryEvent("stock-adjusted", Instant.now(), null, null, null,
+                List.of(new InventoryEvent.Line(UUID.randomUUID(), UUID.randomUUID(), sku, quantityDelta, 100, 100, 0)));
+    }
+
+    private Consumer<String, byte[]> createConsumer() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-relay-test", "false", embeddedKafkaBroker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ByteArrayDeserializer())
+                .createConsumer();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.inventory.service.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void advanceTo_ShouldNotFireBeforeDeadline() {
+        // Arrange
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 3, 0);
+        wheel.schedule("short", 2_500);
+
+        // Act & Assert
+        assertTrue(wheel.advanceTo(2_999).isEmpty());
+        assertEquals(List.of("short"), wheel.advanceTo(3_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_ShouldCascadeEntriesFromCoarserLevels() {
+        // Arrange - 8 slots per level, so 100s lands on level 2 and 20s on level 1
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 3, 0);
+        wheel.schedule("level-2", 100_000);
+        wheel.schedule("level-1", 20_000);
+        wheel.schedule("level-0", 5_000);
+
+        // Act
+        List<String> fired = new ArrayList<>();
+        List<Long> firedAt = new ArrayList<>();
+        for (long now = 0; now <= 120_000; now += 1000) {
+            for (String element : wheel.advanceTo(now)) {
+                fired.add(element);
+                firedAt.add(now);
+            }
+        }
+
+        // Assert
+        assertEquals(List.of("level-0", "level-1", "level-2"), fired);
+        assertEquals(List.of(5_000L, 20_000L, 100_000L), firedAt);
+    }
+
+    @Test
+    void advanceTo_WithDeadlineBeyondTopLevel_ShouldStillFireOnTime() {
+        // Arrange - 4 slots and 2 levels cover 16 ticks
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 4, 2, 0);
+        wheel.schedule("far", 50_000);
+
+        // Act & Assert
+        assertTrue(wheel.advanceTo(49_000).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("far"), wheel.advanceTo(50_000));
+    }
+
+    @Test
+    void advanceTo_AfterLongPause_ShouldReturnEverythingDue() {
+        // Arrange
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(10, 16, 4, 0);
+        for (int i = 1; i <= 500; i++) {
+            wheel.schedule(i, i * 10L);
+        }
+
+        // Act
+        List<Integer> fired = wheel.advanceTo(2_500);
+
+        // Assert
+        assertEquals(250, fired.size());
+        assertEquals(250, wheel.size());
+    }
+}
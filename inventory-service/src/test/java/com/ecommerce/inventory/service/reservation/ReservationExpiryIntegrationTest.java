@@ -0,0 +1,83 @@
+package com.ecommerce.inventory.service.reservation;
+
+import com.ecommerce.inventory.base.BaseIntegrationTest;
+import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.model.ReservationStatus;
+import com.ecommerce.inventory.model.StockReservation;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import com.ecommerce.inventory.repository.projection.SettledStock;
+import com.ecommerce.inventory.util.TestUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservationExpiryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ReservationExpiryService reservationExpiryService;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void shouldExpireOnlyWhatIsLeftAfterPartialRelease() {
+        // Given - 20 units reserved, 10 of them under RES-001
+        InventoryItem item = inventoryRepository.saveAndFlush(TestUtils.createTestInventoryItem());
+        reservationExpiryService.track("RES-001", Map.of(item.getSkuCode(), 10), 60);
+        reservationExpiryService.complete("RES-001", item.getSkuCode(), 4, ReservationStatus.RELEASED);
+        entityManager.flush();
+        entityManager.clear();
+
+        StockReservation hold = stockReservationRepository.findAll().get(0);
+        assertThat(hold.getStatus()).isEqualTo(ReservationStatus.ACTIVE);
+        assertThat(hold.getRemainingQuantity()).isEqualTo(6);
+
+        // When
+        List<SettledStock> released = stockReservationRepository.releaseExpired(hold.getId().toString());
+        entityManager.clear();
+
+        // Then - the 4 released units are not returned a second time
+        assertThat(released).hasSize(1);
+        assertThat(released.get(0).getSettledQuantity()).isEqualTo(6L);
+        assertThat(released.get(0).getReservedQuantity()).isEqualTo(14);
+        StockReservation expired = stockReservationRepository.findById(hold.getId()).orElseThrow();
+        assertThat(expired.getStatus()).isEqualTo(ReservationStatus.EXPIRED);
+        assertThat(expired.getRemainingQuantity()).isZero();
+        InventoryItem updated = inventoryRepository.findBySkuCode(item.getSkuCode()).orElseThrow();
+        assertThat(updated.getReservedQuantity()).isEqualTo(14);
+        assertThat(updated.getAvailableQuantity()).isEqualTo(86);
+    }
+
+    @Test
+    void shouldCloseHoldOnlyWhenNoUnitsRemain() {
+        // Given
+        InventoryItem item = inventoryRepository.saveAndFlush(TestUtils.createTestInventoryItem());
+        reservationExpiryService.track("RES-002", Map.of(item.getSkuCode(), 10), 60);
+        reservationExpiryService.complete("RES-002", item.getSkuCode(), 7, ReservationStatus.CONSUMED);
+
+        // When/Then - more than what is left is rejected, the rest closes the hold
+        assertThatThrownBy(() -> reservationExpiryService.complete("RES-002", item.getSkuCode(), 4, ReservationStatus.RELEASED))
+                .isInstanceOf(InvalidInventoryOperationException.class);
+        reservationExpiryService.complete("RES-002", item.getSkuCode(), 3, ReservationStatus.RELEASED);
+        entityManager.clear();
+
+        StockReservation hold = stockReservationRepository.findAll().get(0);
+        assertThat(hold.getStatus()).isEqualTo(ReservationStatus.RELEASED);
+        assertThat(hold.getRemainingQuantity()).isZero();
+    }
+}
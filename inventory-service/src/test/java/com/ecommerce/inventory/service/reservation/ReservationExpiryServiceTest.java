@@ -0,0 +1,106 @@
+package com.ecommerce.inventory.service.reservation;
+
+import com.ecommerce.events.InventoryEvent;
+import com.ecommerce.inventory.model.StockReservation;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import com.ecommerce.inventory.repository.projection.SettledStock;
+import com.ecommerce.inventory.service.cache.InventoryCacheInvalidator;
+import com.ecommerce.inventory.service.outbox.InventoryEventOutbox;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpiryServiceTest {
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private InventoryCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private InventoryEventOutbox eventOutbox;
+
+    private ReservationExpiryService expiryService;
+
+    @BeforeEach
+    void setUp() {
+        expiryService = new ReservationExpiryService(stockReservationRepository, transactionManager, cacheInvalidator,
+                eventOutbox, new SimpleMeterRegistry(), Duration.ofMinutes(15), 1, 5000);
+    }
+
+    @Test
+    void sweep_WhenHoldsExpire_ShouldPublishOneReleasedEventPerSku() throws InterruptedException {
+        // Arrange
+        when(stockReservationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<StockReservation> holds = invocation.getArgument(0);
+            holds.forEach(hold -> hold.setId(UUID.randomUUID()));
+            return holds;
+        });
+        SettledStock skuA = released("SKU-A", 3);
+        SettledStock skuB = released("SKU-B", 2);
+        when(stockReservationRepository.releaseExpired(anyString())).thenReturn(List.of(skuA, skuB));
+        expiryService.track("ORDER-001", Map.of("SKU-A", 3, "SKU-B", 2), 0);
+        Thread.sleep(20);
+
+        // Act
+        expiryService.sweep();
+
+        // Assert
+        verify(eventOutbox).append(eq("SKU-A"), argThat((InventoryEvent event) -> "stock-released".equals(event.eventType())
+                && event.items().size() == 1 && event.items().get(0).quantityDelta() == 3));
+        verify(eventOutbox).append(eq("SKU-B"), argThat((InventoryEvent event) -> "stock-released".equals(event.eventType())
+                && event.items().get(0).quantityDelta() == 2));
+        verify(cacheInvalidator).evictAfterCommit("SKU-A", false);
+        assertEquals(0, expiryService.backlogSize());
+    }
+
+    @Test
+    void sweep_WhenReleaseFails_ShouldKeepHoldsForRetryWithoutEvents() throws InterruptedException {
+        // Arrange
+        when(stockReservationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<StockReservation> holds = invocation.getArgument(0);
+            holds.forEach(hold -> hold.setId(UUID.randomUUID()));
+            return holds;
+        });
+        when(stockReservationRepository.releaseExpired(anyString())).thenThrow(new IllegalStateException("db down"));
+        expiryService.track("ORDER-001", Map.of("SKU-A", 3), 0);
+        Thread.sleep(20);
+
+        // Act
+        expiryService.sweep();
+
+        // Assert
+        verifyNoInteractions(eventOutbox);
+        assertEquals(1, expiryService.backlogSize());
+    }
+
+    private static SettledStock released(String skuCode, long quantity) {
+        SettledStock row = mock(SettledStock.class);
+        when(row.getId()).thenReturn(UUID.randomUUID());
+        when(row.getProductId()).thenReturn(UUID.randomUUID());
+        when(row.getSkuCode()).thenReturn(skuCode);
+        when(row.getQuantity()).thenReturn(100);
+        when(row.getReservedQuantity()).thenReturn(10);
+        when(row.getAvailableQuantity()).thenReturn(90);
+        when(row.getSettledQuantity()).thenReturn(quantity);
+        return row;
+    }
+}
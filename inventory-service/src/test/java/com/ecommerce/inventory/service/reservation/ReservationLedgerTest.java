@@ -0,0 +1,259 @@
+package com.ecommerce.inventory.service.reservation;
+
+import com.ecommerce.inventory.exception.InsufficientStockException;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.projection.SkuAvailability;
+import com.ecommerce.inventory.service.cache.InventoryCacheInvalidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationLedgerTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservationLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new ReservationLedger(inventoryRepository, cacheInvalidator, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void reserve_UnderContention_ShouldNeverOversell() throws InterruptedException {
+        // Arrange
+        when(inventoryRepository.findAvailabilityBySkuCode("SKU-HOT")).thenReturn(Optional.of(availability("SKU-HOT", 100)));
+        int threads = 16;
+        int attemptsPerThread = 50;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    try {
+                        ledger.reserve("SKU-HOT", 1);
+                        admitted.incrementAndGet();
+                    } catch (InsufficientStockException ignored) {
+                        // expected once the SKU is sold out
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(100, admitted.get());
+        assertEquals(100, ledger.pendingUnits());
+    }
+
+    @Test
+    void reserveAll_WithShortfall_ShouldReturnTakenUnits() {
+        // Arrange
+        when(inventoryRepository.findAvailabilityBySkuCode("SKU-A")).thenReturn(Optional.of(availability("SKU-A", 10)));
+        when(inventoryRepository.findAvailabilityBySkuCode("SKU-B")).thenReturn(Optional.of(availability("SKU-B", 1)));
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        lines.put("SKU-A", 5);
+        lines.put("SKU-B", 2);
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class, () -> ledger.reserveAll(lines));
+        assertEquals(10, ledger.reserve("SKU-A", 10).quantity());
+        assertEquals(10, ledger.pendingUnits());
+    }
+
+    @Test
+    void flush_ShouldCoalescePendingReservationsIntoOneStatement() {
+        // Arrange
+        when(inventoryRepository.findAvailabilityBySkuCode("SKU-A")).thenReturn(Optional.of(availability("SKU-A", 10)));
+        when(inventoryRepository.applyReservedDeltas("SKU-A", "5")).thenReturn(List.of("SKU-A"));
+        ledger.reserve("SKU-A", 2);
+        ledger.reserve("SKU-A", 3);
+
+        // Act
+        ledger.flush();
+        ledger.flush();
+
+        // Assert
+        verify(inventoryRepository, times(1)).applyReservedDeltas("SKU-A", "5");
+        assertEquals(0, ledger.pendingUnits());
+        verify(cacheInvalidator, times(1)).evictAfterCommit("SKU-A", true);
+    }
+
+    @Test
+    void flush_WhenDatabaseFails_ShouldKeepPendingForRetry() {
+        // Arrange
+        when(inventoryRepository.findAvailabilityBySkuCode("SKU-A")).thenReturn(Optional.of(availability("SKU-A", 10)));
+        when(inventoryRepository.applyReservedDeltas(anyString(), anyString())).thenThrow(new IllegalStateException("db down"));
+        ledger.reserve("SKU-A", 4);
+
+        // Act
+        ledger.flush();
+
+        // Assert
+        assertEquals(4, ledger.pendingUnits());
+    }
+
+    @Test
+    void flush_WhenRowNoLongerHasTheStock_ShouldKeepPendingForRetry() {
+        // Arrange
+        when(inventoryRepository.findAvailabilityBySkuCode("SKU-A")).thenReturn(Optional.of(availability("SKU-A", 10)));
+        when(inventoryRepository.applyReservedDeltas("SKU-A", "4")).thenReturn(List.of());
+        ledger.reserve("SKU-A", 4);
+
+        // Act
+        ledger.flush();
+
+        // Assert
+        assertEquals(4, ledger.pendingUnits());
+        verifyNoInteractions(cacheInvalidator);
+    }
+
+    @Test
+    void flushSkus_ShouldWriteOnlyThoseSkusAfterLockingTheirRows() {
+        // Arrange
+        when(inventoryRepository.findAvailabilityBySkuCode("SKU-A")).thenReturn(Optional.of(availability("SKU-A", 10)));
+        when(inventoryRepository.findAvailabilityBySkuCode("SKU-B")).thenReturn(Optional.of(availability("SKU-B", 10)));
+        when(inventoryRepository.applyReservedDeltas("SKU-B", "2")).thenReturn(List.of("SKU-B"));
+        ledger.reserve("SKU-A", 4);
+        ledger.reserve("SKU-B", 2);
+
+        // Act
+        ledger.flush(List.of("SKU-B", "SKU-UNKNOWN"));
+
+        // Assert: the caller's transaction holds the rows before the counters are drained
+        InOrder inOrder = inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).lockBySkuCodes("SKU-B");
+        inOrder.verify(inventoryRepository).applyReservedDeltas("SKU-B", "2");
+        assertEquals(4, ledger.pendingUnits());
+        verify(cacheInvalidator).evictAfterCommit("SKU-B", true);
+        verifyNoMoreInteractions(cacheInvalidator);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void flushSkus_WhenCallerRollsBack_ShouldKeepUnitsPending() {
+        // Arrange
+        when(inventoryRepository.findAvailabilityBySkuCode("SKU-A")).thenReturn(Optional.of(availability("SKU-A", 10)));
+        when(inventoryRepository.applyReservedDeltas("SKU-A", "3")).thenReturn(List.of("SKU-A"));
+        ledger.reserve("SKU-A", 3);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.flush(List.of("SKU-A"));
+            assertEquals(0, ledger.pendingUnits());
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(3, ledger.pendingUnits());
+    }
+
+    @Test
+    void reserve_WhenTransactionRollsBack_ShouldReturnUnitsInsteadOfFlushingThem() {
+        // Arrange
+        when(inventoryRepository.findAvailabilityBySkuCode("SKU-A")).thenReturn(Optional.of(availability("SKU-A", 5)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.reserve("SKU-A", 5);
+            assertEquals(0, ledger.pendingUnits());
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(0, ledger.pendingUnits());
+        assertEquals(5, ledger.reserve("SKU-A", 5).quantity());
+        verify(inventoryRepository, never()).applyReservedDeltas(anyString(), anyString());
+    }
+
+    @Test
+    void reserve_WhenTransactionCommits_ShouldQueueUnitsForFlush() {
+        // Arrange
+        when(inventoryRepository.findAvailabilityBySkuCode("SKU-A")).thenReturn(Optional.of(availability("SKU-A", 5)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.reserve("SKU-A", 3);
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(3, ledger.pendingUnits());
+        assertThrows(InsufficientStockException.class, () -> ledger.reserve("SKU-A", 3));
+    }
+
+    private static SkuAvailability availability(String skuCode, int available) {
+        UUID id = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        return new SkuAvailability() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public UUID getProductId() {
+                return productId;
+            }
+
+            @Override
+            public String getSkuCode() {
+                return skuCode;
+            }
+
+            @Override
+            public Integer getAvailableQuantity() {
+                return available;
+            }
+        };
+    }
+}
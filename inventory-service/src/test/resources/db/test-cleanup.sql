@@ -1,2 +1,4 @@
 -- Clean up test data
+TRUNCATE TABLE stock_reservations RESTART IDENTITY CASCADE;
 TRUNCATE TABLE inventory_items RESTART IDENTITY CASCADE;
+TRUNCATE TABLE inventory_outbox RESTART IDENTITY CASCADE;
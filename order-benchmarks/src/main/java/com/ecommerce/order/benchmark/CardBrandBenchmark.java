@@ -0,0 +1,75 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.order.service.payment.card.BinTable;
+import com.ecommerce.order.service.payment.card.CardInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of identifying a card. {@code legacyRegexBrand} is the {@code replaceAll} plus
+ * {@code String.matches} chain that {@code PaymentService.determineCardBrand} used before, kept
+ * as the baseline. Numbers rotate over every brand and an unknown one so the regex chain is not
+ * always answered by its first pattern.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardBrandBenchmark {
+
+    private static final String[] NUMBERS = {
+            "4242424242424242",
+            "5555555555554444",
+            "378282246310005",
+            "6011111111111117",
+            "4000 0566 5566 5556",
+            "9999999999999995",
+            "2223003122003222",
+            "4111111111111111"
+    };
+
+    private final BinTable binTable = BinTable.fromClasspath("payment/bin-ranges.csv");
+    private int next;
+
+    @Benchmark
+    public CardInfo binTableLookup() {
+        return binTable.lookup(nextNumber());
+    }
+
+    @Benchmark
+    public String legacyRegexBrand() {
+        return legacyBrand(nextNumber());
+    }
+
+    private String nextNumber() {
+        return NUMBERS[next++ & (NUMBERS.length - 1)];
+    }
+
+    private static String legacyBrand(String cardNumber) {
+        if (cardNumber == null || cardNumber.trim().isEmpty()) {
+            return "UNKNOWN";
+        }
+        String digits = cardNumber.replaceAll("\\D", "");
+        if (digits.matches("^4[0-9]{12}(?:[0-9]{3})?$")) {
+            return "VISA";
+        } else if (digits.matches("^5[1-5][0-9]{14}$")) {
+            return "MASTERCARD";
+        } else if (digits.matches("^3[47][0-9]{13}$")) {
+            return "AMEX";
+        } else if (digits.matches("^6(?:011|5[0-9]{2}|4[4-9][0-9]|22[0-9]{2})[0-9]{12}$")) {
+            return "DISCOVER";
+        }
+        return "UNKNOWN";
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.order.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line and, unless
+ * {@code -rf} is given, writes the results as JSON to {@code target/jmh-result.json} so runs can
+ * be diffed against a stored baseline.
+ *
+ * <pre>
+ * mvn -pl order-benchmarks -am package -DskipTests
+ * cd order-benchmarks
+ * java -jar target/benchmarks.jar                       # everything
+ * java -jar target/benchmarks.jar IdGenerator -prof gc
+ * java -jar target/benchmarks.jar CardBrand -prof gc
+ * </pre>
+ */
+public final class OrderBenchmarks {
+
+    static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    private OrderBenchmarks() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON)
+                    .result(System.getProperty("jmh.result", DEFAULT_RESULT_FILE));
+        }
+        new Runner(options.build()).run();
+    }
+}
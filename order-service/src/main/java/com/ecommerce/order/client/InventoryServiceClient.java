@@ -0,0 +1,30 @@
+package com.ecommerce.order.client;
+
+import com.ecommerce.order.config.FeignClientConfig;
+import com.ecommerce.order.dto.InventoryReservationRequest;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+/**
+ * Stock holds in inventory-service, keyed by a caller-chosen reservation id. Reserving again with
+ * the same id and lines returns the existing holds, and releasing or consuming holds that are
+ * already settled changes nothing, so every call is safe to retry.
+ */
+@FeignClient(
+    name = "inventory-service",
+    configuration = FeignClientConfig.class
+)
+public interface InventoryServiceClient {
+
+    // inventory-service serves under the /api context path
+    @PostMapping("/api/api/inventory/reserve/batch")
+    void reserveBatch(@RequestBody InventoryReservationRequest request);
+
+    @PostMapping("/api/api/inventory/reservations/{reservationId}/release")
+    void releaseReservation(@PathVariable String reservationId);
+
+    @PostMapping("/api/api/inventory/reservations/{reservationId}/consume")
+    void consumeReservation(@PathVariable String reservationId);
+}
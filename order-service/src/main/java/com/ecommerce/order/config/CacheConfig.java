@@ -0,0 +1,28 @@
+package com.ecommerce.order.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String ORDER_TRACKING_CACHE = "orderTracking";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.order.tracking.cache-maximum-size:100000}") long maximumSize,
+            @Value("${app.order.tracking.cache-expire-after-write:30s}") Duration expireAfterWrite) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ORDER_TRACKING_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.order.service.payment.card.BinTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Configuration
+public class CardBinConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(CardBinConfig.class);
+
+    /**
+     * BIN ranges used to tell the brand, type and country of a card. Loaded once at startup from
+     * a local file; a {@code file:} location swaps in a full issuer feed without a rebuild.
+     */
+    @Bean
+    public BinTable binTable(@Value("${app.order.payment.bin-file:classpath:payment/bin-ranges.csv}") Resource binFile)
+            throws IOException {
+        try (InputStream in = binFile.getInputStream()) {
+            BinTable table = BinTable.load(in);
+            log.info("Loaded {} BIN ranges from {}", table.size(), binFile.getDescription());
+            return table;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.order.service.id.IdGenerator;
+import com.ecommerce.order.service.id.IdGenerators;
+import com.ecommerce.order.service.id.NodeIds;
+import com.ecommerce.order.service.id.SnowflakeIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorConfig.class);
+
+    /**
+     * Generates order numbers, return numbers and transaction IDs. Every instance needs its own
+     * node ID; a negative value derives one from the instance's address.
+     */
+    @Bean
+    public IdGenerator idGenerator(@Value("${app.order.ids.node-id:-1}") int configuredNodeId) {
+        int nodeId = configuredNodeId >= 0 ? configuredNodeId : NodeIds.fromLocalAddress();
+        log.info("Generating IDs as node {}", nodeId);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(nodeId);
+        IdGenerators.install(generator);
+        return generator;
+    }
+}
@@ -1,40 +1,90 @@
 package com.ecommerce.order.config;
 
+import com.ecommerce.events.InventoryEvent;
+import com.ecommerce.events.OrderEvent;
+import com.ecommerce.events.codec.EventDeserializer;
+import com.ecommerce.events.codec.EventSchemaRegistry;
+import com.ecommerce.events.codec.EventSerializer;
+import com.ecommerce.events.codec.InventoryEventCodec;
+import com.ecommerce.events.codec.OrderEventCodec;
+import com.ecommerce.order.exception.InvalidOrderEventException;
+import com.ecommerce.order.service.id.NodeIds;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Configuration
 @Profile("!test")
 public class KafkaConfig {
 
+    static final String DEAD_LETTER_SUFFIX = ".DLT";
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Value("${kafka.topics.payment-events}")
+    private String paymentEventsTopic;
+
+    @Value("${kafka.topics.inventory-events}")
+    private String inventoryEventsTopic;
+
+    // Names this instance's status stream consumer group; negative derives it from the address
+    @Value("${app.order.ids.node-id:-1}")
+    private int nodeId;
+
+    // Upper bound on records handed to one batch listener call
+    @Value("${app.order.events.batch-size:500}")
+    private int batchSize;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
+        Map<String, Object> configProps = producerConfigs();
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        // Typed events are written as schema-versioned Avro, see event-contracts
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class);
+        
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    private Map<String, Object> producerConfigs() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
-        
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return configProps;
     }
 
     @Bean
@@ -42,6 +92,108 @@ public class KafkaConfig {
         return new KafkaTemplate<>(producerFactory());
     }
 
+    @Bean
+    public EventSchemaRegistry eventSchemaRegistry() {
+        return EventSchemaRegistry.fromClasspath();
+    }
+
+    @Bean
+    public ConsumerFactory<String, InventoryEvent> inventoryEventConsumerFactory(EventSchemaRegistry eventSchemaRegistry) {
+        // A record that fails to decode arrives as null with the error in a header, instead of stopping the container
+        return new DefaultKafkaConsumerFactory<>(consumerConfigs(), new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventDeserializer<>(new InventoryEventCodec(eventSchemaRegistry))));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, InventoryEvent> inventoryEventListenerContainerFactory(
+            ConsumerFactory<String, InventoryEvent> inventoryEventConsumerFactory,
+            DefaultErrorHandler orderEventErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, InventoryEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(inventoryEventConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(orderEventErrorHandler);
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, Map<String, Object>> paymentEventConsumerFactory() {
+        JsonDeserializer<Map<String, Object>> json =
+                new JsonDeserializer<>(new TypeReference<Map<String, Object>>() { }, false);
+        return new DefaultKafkaConsumerFactory<>(consumerConfigs(), new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(json));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Map<String, Object>> paymentEventListenerContainerFactory(
+            ConsumerFactory<String, Map<String, Object>> paymentEventConsumerFactory,
+            DefaultErrorHandler orderEventErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, Map<String, Object>> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(paymentEventConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(orderEventErrorHandler);
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, OrderEvent> orderStatusStreamConsumerFactory(EventSchemaRegistry eventSchemaRegistry) {
+        Map<String, Object> configProps = consumerConfigs();
+        // Each instance pushes to its own clients, so it needs every event: a group of its own,
+        // named after its node ID so a restart rejoins it instead of leaving another group behind
+        int node = nodeId >= 0 ? nodeId : NodeIds.fromLocalAddress();
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId + "-status-stream-" + node);
+        // Only changes from now on are of interest to a live stream
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventDeserializer<>(new OrderEventCodec(eventSchemaRegistry))));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> orderStatusStreamListenerContainerFactory(
+            ConsumerFactory<String, OrderEvent> orderStatusStreamConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(orderStatusStreamConsumerFactory);
+        // One consumer per instance, whatever the partition count
+        factory.setConcurrency(1);
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    private Map<String, Object> consumerConfigs() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        return configProps;
+    }
+
+    /**
+     * Retries the failed record of a batch a few times, then moves it to {@code <topic>.DLT}
+     * and carries on with the rest. Events that can never be applied skip the retries.
+     */
+    @Bean
+    public DefaultErrorHandler orderEventErrorHandler(
+            @Value("${app.order.events.retry-attempts:3}") long retryAttempts,
+            @Value("${app.order.events.retry-interval:1s}") Duration retryInterval) {
+        // Records keep their original form on the dead letter topic: raw bytes if they could not be decoded
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                producerConfigs(), new StringSerializer(), new ByteArraySerializer())));
+        templates.put(InventoryEvent.class, kafkaTemplate());
+        templates.put(Map.class, new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                producerConfigs(), new StringSerializer(), new JsonSerializer<>())));
+
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(templates,
+                (record, exception) -> new TopicPartition(record.topic() + DEAD_LETTER_SUFFIX, -1));
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer,
+                new FixedBackOff(retryInterval.toMillis(), retryAttempts));
+        errorHandler.addNotRetryableExceptions(InvalidOrderEventException.class);
+        return errorHandler;
+    }
+
     @Bean
     public NewTopic orderEventsTopic() {
         return TopicBuilder.name("order-events")
@@ -50,6 +202,22 @@ public class KafkaConfig {
                 .build();
     }
 
+    @Bean
+    public NewTopic paymentEventsDeadLetterTopic() {
+        return TopicBuilder.name(paymentEventsTopic + DEAD_LETTER_SUFFIX)
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic inventoryEventsDeadLetterTopic() {
+        return TopicBuilder.name(inventoryEventsTopic + DEAD_LETTER_SUFFIX)
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+
     @Bean
     public NewTopic orderStatusUpdatesTopic() {
         return TopicBuilder.name("order-status-updates")
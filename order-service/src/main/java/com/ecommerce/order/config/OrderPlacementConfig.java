@@ -0,0 +1,69 @@
+package com.ecommerce.order.config;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class OrderPlacementConfig {
+
+    /**
+     * Pool for the remote calls made while placing an order. Bounded so a slow product-service
+     * backs requests up here, with {@code CallerRunsPolicy} as the release valve, instead of
+     * growing threads without limit.
+     */
+    @Bean(name = "orderPlacementExecutor")
+    public ThreadPoolTaskExecutor orderPlacementExecutor(
+            @Value("${app.order.placement.fan-out-threads:32}") int threads,
+            @Value("${app.order.placement.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-placement-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(OrderPlacementConfig::withCallerMdc);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers for {@code OrderSagaDispatcher}. Sagas waiting for a reply are not on this pool,
+     * so its size bounds concurrent step executions, not concurrent sagas. A full queue rejects;
+     * the dispatcher's next scan picks the saga up again.
+     */
+    @Bean(name = "orderSagaExecutor")
+    public ThreadPoolTaskExecutor orderSagaExecutor(
+            @Value("${app.order.saga.worker-threads:8}") int threads,
+            @Value("${app.order.saga.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-saga-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // Keep the request's log context on the worker threads
+    private static Runnable withCallerMdc(Runnable task) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            try {
+                task.run();
+            } finally {
+                MDC.clear();
+            }
+        };
+    }
+}
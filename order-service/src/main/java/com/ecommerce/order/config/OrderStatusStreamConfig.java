@@ -0,0 +1,28 @@
+package com.ecommerce.order.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class OrderStatusStreamConfig {
+
+    /**
+     * Writes queued events to SSE clients. A stream only occupies a worker while it has events
+     * to send, so a few threads serve many open streams. A full queue rejects; the events stay
+     * buffered and go out with the stream's next event or heartbeat.
+     */
+    @Bean(name = "orderStatusStreamExecutor")
+    public ThreadPoolTaskExecutor orderStatusStreamExecutor(
+            @Value("${app.order.stream.send-threads:4}") int threads,
+            @Value("${app.order.stream.send-queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-status-stream-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,97 +1,143 @@
 package com.ecommerce.order.consumer;
 
-import com.ecommerce.order.model.OrderStatus;
-import com.ecommerce.order.service.OrderService;
+import com.ecommerce.events.InventoryEvent;
+import com.ecommerce.order.exception.InvalidOrderEventException;
+import com.ecommerce.order.exception.OrderEventProcessingException;
+import com.ecommerce.order.service.events.OrderStatusEvent;
+import com.ecommerce.order.service.events.OrderStatusEventProcessor;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
+/**
+ * Batch listeners for the payment and inventory topics. Each poll is handed to
+ * {@link OrderStatusEventProcessor} as a whole; when one record cannot be applied, the error
+ * handler commits the records before it, retries or dead-letters it, and redelivers the rest,
+ * which the processor then skips by event id.
+ */
 @Component
 @RequiredArgsConstructor
 public class OrderEventConsumer {
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(OrderEventConsumer.class);
 
-    private final OrderService orderService;
+    private final OrderStatusEventProcessor eventProcessor;
 
     @KafkaListener(
             topics = "${kafka.topics.payment-events}",
             groupId = "${spring.kafka.consumer.group-id}",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "paymentEventListenerContainerFactory"
     )
-    public void handlePaymentEvent(@Payload Map<String, Object> event) {
-        try {
-            String eventType = (String) event.get("eventType");
-            UUID orderId = UUID.fromString((String) event.get("orderId"));
-            
-            log.info("Received payment event: {} for order: {}", eventType, orderId);
-            
-            switch (eventType) {
-                case "payment-received":
-                    orderService.updateOrderStatus(
-                        orderId,
-                        OrderStatus.PAID
-                    );
-                    break;
-                case "payment-failed":
-                    orderService.updateOrderStatus(
-                        orderId,
-                        OrderStatus.CANCELLED
-                    );
-                    break;
-                case "payment-refunded":
-                    orderService.updateOrderStatus(
-                        orderId,
-                        OrderStatus.REFUNDED
-                    );
-                    break;
-                default:
-                    log.warn("Unknown payment event type: {}", eventType);
-            }
-        } catch (Exception e) {
-            log.error("Error processing payment event: {}", event, e);
-            // In a production environment, consider implementing a dead-letter queue here
-        }
+    public void handlePaymentEvents(List<ConsumerRecord<String, Map<String, Object>>> records) {
+        log.debug("Received {} payment events", records.size());
+        process(records, this::toPaymentEvent);
     }
 
     @KafkaListener(
             topics = "${kafka.topics.inventory-events}",
             groupId = "${spring.kafka.consumer.group-id}",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "inventoryEventListenerContainerFactory"
     )
-    public void handleInventoryEvent(@Payload Map<String, Object> event) {
+    public void handleInventoryEvents(List<ConsumerRecord<String, InventoryEvent>> records) {
+        log.debug("Received {} inventory events", records.size());
+        process(records, this::toInventoryEvent);
+    }
+
+    private <V> void process(List<ConsumerRecord<String, V>> records,
+                             Function<ConsumerRecord<String, V>, OrderStatusEvent> toEvent) {
+        List<OrderStatusEvent> events = new ArrayList<>(records.size());
+        Map<String, Integer> positions = new HashMap<>();
+        int failedAt = -1;
+        RuntimeException failure = null;
+
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                OrderStatusEvent event = toEvent.apply(records.get(i));
+                if (event != null) {
+                    events.add(event);
+                    positions.putIfAbsent(event.eventId(), i);
+                }
+            } catch (InvalidOrderEventException e) {
+                log.error("Invalid event at {}: {}", recordId(records.get(i)), e.getMessage());
+                if (failedAt < 0) {
+                    failedAt = i;
+                    failure = e;
+                }
+            }
+        }
+
         try {
-            String eventType = (String) event.get("eventType");
-            String orderId = (String) event.get("orderId");
-            
-            log.info("Received inventory event: {} for order: {}", eventType, orderId);
-            
-            switch (eventType) {
-                case "inventory-reserved":
-                    orderService.updateOrderStatus(
-                        UUID.fromString(orderId),
-                        OrderStatus.PROCESSING
-                    );
-                    break;
-                case "inventory-updated":
-                    // Handle inventory update (e.g., update order items if needed)
-                    break;
-                case "inventory-out-of-stock":
-                    orderService.updateOrderStatus(
-                        UUID.fromString(orderId),
-                        OrderStatus.CANCELLED
-                    );
-                    break;
-                default:
-                    log.warn("Unknown inventory event type: {}", eventType);
+            eventProcessor.process(events);
+        } catch (OrderEventProcessingException e) {
+            int position = positions.get(e.getEvent().eventId());
+            if (failedAt < 0 || position < failedAt) {
+                failedAt = position;
+                failure = e;
             }
-        } catch (Exception e) {
-            log.error("Error processing inventory event: {}", event, e);
-            // In a production environment, consider implementing a dead-letter queue here
         }
+
+        if (failedAt >= 0) {
+            throw new BatchListenerFailedException(failure.getMessage(), failure, records.get(failedAt));
+        }
+    }
+
+    private OrderStatusEvent toPaymentEvent(ConsumerRecord<String, Map<String, Object>> record) {
+        Map<String, Object> event = record.value();
+        if (event == null) {
+            throw new InvalidOrderEventException("Payment event could not be deserialized");
+        }
+
+        String eventType = stringValue(event.get("eventType"));
+        if (!OrderStatusEventProcessor.handles(eventType)) {
+            log.warn("Unknown payment event type: {}", eventType);
+            return null;
+        }
+        String eventId = stringValue(event.get("eventId"));
+        return new OrderStatusEvent(
+                eventId != null ? eventId : recordId(record),
+                parseOrderId(stringValue(event.get("orderId"))),
+                eventType,
+                stringValue(event.get("reason")));
+    }
+
+    private OrderStatusEvent toInventoryEvent(ConsumerRecord<String, InventoryEvent> record) {
+        InventoryEvent event = record.value();
+        if (event == null) {
+            throw new InvalidOrderEventException("Inventory event could not be deserialized");
+        }
+        if (!OrderStatusEventProcessor.handles(event.eventType())) {
+            // Most inventory events are stock movements that do not concern an order
+            return null;
+        }
+        // Order reservations use the order ID as the reservation ID
+        return new OrderStatusEvent(recordId(record), parseOrderId(event.reservationId()), event.eventType(), event.note());
+    }
+
+    private UUID parseOrderId(String orderId) {
+        if (orderId == null) {
+            throw new InvalidOrderEventException("Event has no order id");
+        }
+        try {
+            return UUID.fromString(orderId);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOrderEventException("Invalid order id: " + orderId, e);
+        }
+    }
+
+    // Stable across redeliveries of the same record, used when the producer sends no event id
+    private static String recordId(ConsumerRecord<?, ?> record) {
+        return record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+
+    private static String stringValue(Object value) {
+        return value == null ? null : value.toString();
     }
 }
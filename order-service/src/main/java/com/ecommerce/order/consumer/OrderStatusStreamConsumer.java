@@ -0,0 +1,39 @@
+package com.ecommerce.order.consumer;
+
+import com.ecommerce.events.OrderEvent;
+import com.ecommerce.order.service.stream.OrderStatusBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The one {@code order-events} consumer of this instance that feeds its open status streams.
+ * Runs in a consumer group of its own, so every instance sees every event, and passes on only
+ * the events that report a status change.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusStreamConsumer {
+
+    // Saga commands to other services share the topic but are not status changes
+    static final Set<String> SAGA_COMMANDS = Set.of("PAYMENT_REQUESTED", "PAYMENT_VOID_REQUESTED");
+
+    private final OrderStatusBroadcaster broadcaster;
+
+    @KafkaListener(
+            topics = "order-events",
+            containerFactory = "orderStatusStreamListenerContainerFactory"
+    )
+    public void handleOrderEvents(List<ConsumerRecord<String, OrderEvent>> records) {
+        for (ConsumerRecord<String, OrderEvent> record : records) {
+            // Undecodable records arrive as null; a live stream just skips them
+            if (record.value() != null && !SAGA_COMMANDS.contains(record.value().eventType())) {
+                broadcaster.broadcast(record.value());
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.order.dto.analytics.HourlyRevenue;
+import com.ecommerce.order.dto.analytics.ProductSales;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.analytics.OrderAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/orders/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Order Analytics API", description = "APIs for order aggregates")
+public class OrderAnalyticsController {
+
+    private final OrderAnalyticsService analyticsService;
+
+    @GetMapping("/status-counts")
+    @Operation(summary = "Get the number of orders in each status")
+    public Map<OrderStatus, Long> getStatusCounts() {
+        return analyticsService.getStatusCounts();
+    }
+
+    @GetMapping("/revenue/hourly")
+    @Operation(summary = "Get orders placed and revenue per hour")
+    public List<HourlyRevenue> getHourlyRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return analyticsService.getHourlyRevenue(from, to);
+    }
+
+    @GetMapping("/top-products")
+    @Operation(summary = "Get the products with the most units ordered")
+    public List<ProductSales> getTopProducts(@RequestParam(defaultValue = "10") int limit) {
+        return analyticsService.getTopProducts(limit);
+    }
+}
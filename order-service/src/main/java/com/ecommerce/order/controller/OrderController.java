@@ -2,8 +2,10 @@ package com.ecommerce.order.controller;
 
 import com.ecommerce.order.dto.OrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.dto.history.OrderHistoryPage;
 import com.ecommerce.order.model.OrderStatus;
 import com.ecommerce.order.service.OrderService;
+import com.ecommerce.order.service.idempotency.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -23,12 +25,16 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @Operation(summary = "Create a new order")
-    public OrderResponse createOrder(@Valid @RequestBody OrderRequest request) {
-        return orderService.createOrder(request);
+    @Operation(summary = "Create a new order; retries with the same Idempotency-Key return the first response")
+    public OrderResponse createOrder(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody OrderRequest request) {
+        return idempotencyService.execute("orders.create", idempotencyKey, request, OrderResponse.class,
+                () -> orderService.createOrder(request));
     }
 
     @GetMapping("/{orderId}")
@@ -51,6 +57,15 @@ public class OrderController {
         return orderService.getCustomerOrders(customerId, pageable);
     }
 
+    @GetMapping("/customer/{customerId}/history")
+    @Operation(summary = "Get a customer's order history with a continuation cursor, newest first")
+    public OrderHistoryPage getCustomerOrderHistory(
+            @PathVariable UUID customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return orderService.getCustomerOrderHistory(customerId, cursor, size);
+    }
+
     @PutMapping("/{orderId}/status")
     @Operation(summary = "Update order status")
     public OrderResponse updateOrderStatus(
@@ -3,10 +3,13 @@ package com.ecommerce.order.controller;
 import com.ecommerce.order.dto.tracking.OrderStatusUpdate;
 import com.ecommerce.order.dto.tracking.OrderTrackingResponse;
 import com.ecommerce.order.service.OrderTrackingService;
+import com.ecommerce.order.service.stream.OrderStatusBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -18,6 +21,7 @@ import java.util.UUID;
 public class OrderTrackingController {
 
     private final OrderTrackingService trackingService;
+    private final OrderStatusBroadcaster statusBroadcaster;
 
     @GetMapping("/{orderId}/tracking")
     @Operation(summary = "Get order tracking information")
@@ -30,4 +34,16 @@ public class OrderTrackingController {
     public List<OrderStatusUpdate> getOrderTimeline(@PathVariable UUID orderId) {
         return trackingService.getOrderTimeline(orderId);
     }
+
+    @GetMapping(value = "/{orderId}/status-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream status changes of an order, starting with its current tracking")
+    public SseEmitter streamOrderStatus(@PathVariable UUID orderId) {
+        return statusBroadcaster.subscribeToOrder(orderId, trackingService.getOrderTracking(orderId));
+    }
+
+    @GetMapping(value = "/customer/{customerId}/status-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream status changes of all orders of a customer")
+    public SseEmitter streamCustomerOrderStatus(@PathVariable UUID customerId) {
+        return statusBroadcaster.subscribeToCustomer(customerId);
+    }
 }
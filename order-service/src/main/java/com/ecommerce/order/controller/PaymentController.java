@@ -3,10 +3,12 @@ package com.ecommerce.order.controller;
 import com.ecommerce.order.dto.payment.PaymentRequest;
 import com.ecommerce.order.dto.payment.PaymentResponse;
 import com.ecommerce.order.service.PaymentService;
+import com.ecommerce.order.service.idempotency.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -19,12 +21,16 @@ import org.springframework.web.bind.annotation.*;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    @Operation(summary = "Process a payment for an order")
-    public PaymentResponse processPayment(@Valid @RequestBody PaymentRequest request) {
-        return paymentService.processPayment(request);
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Accept a payment for an order; it is authorized asynchronously")
+    public PaymentResponse processPayment(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody PaymentRequest request) {
+        return idempotencyService.execute("payments.create", idempotencyKey, request, PaymentResponse.class,
+                () -> paymentService.processPayment(request));
     }
 
     @GetMapping("/{paymentId}")
@@ -35,22 +41,30 @@ public class PaymentController {
 
     @PostMapping("/{paymentId}/capture")
     @Operation(summary = "Capture an authorized payment")
-    public PaymentResponse capturePayment(@PathVariable UUID paymentId) {
-        return paymentService.capturePayment(paymentId);
+    public PaymentResponse capturePayment(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable UUID paymentId) {
+        return idempotencyService.execute("payments.capture", idempotencyKey, paymentId, PaymentResponse.class,
+                () -> paymentService.capturePayment(paymentId));
     }
 
     @PostMapping("/{paymentId}/refund")
     @Operation(summary = "Refund a payment")
     public PaymentResponse refundPayment(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @PathVariable UUID paymentId,
             @RequestParam(required = false) BigDecimal amount) {
-        return paymentService.refundPayment(paymentId, amount);
+        return idempotencyService.execute("payments.refund", idempotencyKey, Arrays.asList(paymentId, amount),
+                PaymentResponse.class, () -> paymentService.refundPayment(paymentId, amount));
     }
 
     @PostMapping("/{paymentId}/cancel")
     @Operation(summary = "Cancel a payment")
-    public PaymentResponse cancelPayment(@PathVariable UUID paymentId) {
-        return paymentService.cancelPayment(paymentId);
+    public PaymentResponse cancelPayment(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable UUID paymentId) {
+        return idempotencyService.execute("payments.cancel", idempotencyKey, paymentId, PaymentResponse.class,
+                () -> paymentService.cancelPayment(paymentId));
     }
 
     @GetMapping("/methods")
@@ -0,0 +1,20 @@
+package com.ecommerce.order.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Orders placed in one hour and the sum of their totals. Hours without orders are left out.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlyRevenue {
+    private LocalDateTime hour;
+    private long ordersPlaced;
+    private BigDecimal revenue;
+}
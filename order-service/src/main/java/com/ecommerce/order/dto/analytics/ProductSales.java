@@ -0,0 +1,21 @@
+package com.ecommerce.order.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Units of a product ordered so far and the revenue of those order lines.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSales {
+    private UUID productId;
+    private String productName;
+    private long unitsSold;
+    private BigDecimal revenue;
+}
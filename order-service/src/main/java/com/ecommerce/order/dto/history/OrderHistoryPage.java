@@ -0,0 +1,21 @@
+package com.ecommerce.order.dto.history;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A slice of a customer's order history, newest first. {@code nextCursor} is absent on the last
+ * slice; otherwise pass it back as {@code cursor} to get the next one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderHistoryPage {
+    private List<OrderSummary> orders;
+    private String nextCursor;
+}
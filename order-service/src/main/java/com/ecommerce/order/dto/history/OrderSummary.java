@@ -0,0 +1,30 @@
+package com.ecommerce.order.dto.history;
+
+import com.ecommerce.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of a customer's order history. Selected straight from the orders table, without items
+ * or status history; use the order endpoints for the full order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+    private UUID id;
+    private String orderNumber;
+    private String status;
+    private BigDecimal total;
+    private LocalDateTime createdAt;
+
+    // Used by the JPQL constructor expression in OrderRepository
+    public OrderSummary(UUID id, String orderNumber, OrderStatus status, BigDecimal total, LocalDateTime createdAt) {
+        this(id, orderNumber, status.name(), total, createdAt);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.order.dto.tracking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Data of a {@code status} event on the order status stream.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusChange {
+    private UUID orderId;
+    private String orderNumber;
+    private String status;
+    private Instant timestamp;
+}
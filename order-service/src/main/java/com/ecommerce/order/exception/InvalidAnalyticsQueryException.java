@@ -0,0 +1,14 @@
+package com.ecommerce.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * An analytics query outside the bounds the rollups are served with, e.g. too many hours.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidAnalyticsQueryException extends RuntimeException {
+    public InvalidAnalyticsQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.order.exception;
+
+/**
+ * An inbound event that can never be applied, e.g. one without a usable order id. Not retried.
+ */
+public class InvalidOrderEventException extends RuntimeException {
+    public InvalidOrderEventException(String message) {
+        super(message);
+    }
+
+    public InvalidOrderEventException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
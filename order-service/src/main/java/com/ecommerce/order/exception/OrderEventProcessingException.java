@@ -0,0 +1,21 @@
+package com.ecommerce.order.exception;
+
+import com.ecommerce.order.service.events.OrderStatusEvent;
+
+/**
+ * Thrown when the events of one order could not be applied even on their own, so the caller can
+ * tell which record to retry or dead-letter.
+ */
+public class OrderEventProcessingException extends RuntimeException {
+    private final transient OrderStatusEvent event;
+
+    public OrderEventProcessingException(OrderStatusEvent event, Throwable cause) {
+        super("Failed to apply " + event.eventType() + " event " + event.eventId()
+                + " to order " + event.orderId(), cause);
+        this.event = event;
+    }
+
+    public OrderStatusEvent getEvent() {
+        return event;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The gateway already has as many payments in flight as it is configured for; nothing was
+ * recorded and the client may retry.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PaymentGatewayBusyException extends RuntimeException {
+    public PaymentGatewayBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.order.exception;
+
+public class SagaStepException extends RuntimeException {
+    public SagaStepException(String message) {
+        super(message);
+    }
+
+    public SagaStepException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
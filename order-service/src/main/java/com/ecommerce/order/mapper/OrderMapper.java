@@ -112,10 +112,6 @@ public interface OrderMapper {
         }
     }
 
-    default String generateOrderNumber() {
-        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-    
     default OrderItem toOrderItem(OrderItemRequest itemRequest) {
         if (itemRequest == null) {
             return null;
@@ -0,0 +1,57 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A request made with an {@code Idempotency-Key}, keyed by {@code <operation>:<key>}. Rows are
+ * only written through the native statements of {@code IdempotencyRecordRepository}; the entity
+ * is read to find out what an earlier request with the same key produced.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@NoArgsConstructor
+@ToString(exclude = "responseBody")
+public class IdempotencyRecord {
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    // The request took effect but its response has not been stored yet
+    public static final String EXECUTED = "EXECUTED";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    @Column(name = "id", length = 400, updatable = false, nullable = false)
+    private String id;
+
+    @Column(name = "operation", length = 100, nullable = false)
+    private String operation;
+
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public boolean isExecuted() {
+        return EXECUTED.equals(status);
+    }
+
+    public boolean isCompleted() {
+        return COMPLETED.equals(status);
+    }
+}
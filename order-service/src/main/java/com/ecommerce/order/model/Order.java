@@ -2,7 +2,11 @@ package com.ecommerce.order.model;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.CreationTimestamp;
+import com.ecommerce.order.service.id.IdGenerators;
+import com.ecommerce.order.service.id.TimeOrderedUuidGenerator;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -18,18 +22,23 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString(exclude = {"items", "statusHistory"})
-@EqualsAndHashCode(exclude = {"items", "statusHistory"})
+@EqualsAndHashCode(exclude = {"items", "statusHistory", "reportedStatus"})
 public class Order {
+
+    public static final String ORDER_NUMBER_PREFIX = "ORD-";
     
+    // Time-ordered, so lookups by id can bound the created_at partition key
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue(generator = "order-id")
+    @GenericGenerator(name = "order-id", type = TimeOrderedUuidGenerator.class)
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
     
     @Column(nullable = false)
     private UUID customerId;
     
-    @Column(nullable = false, unique = true)
+    // Unique together with created_at (V8); generated numbers are unique on their own
+    @Column(nullable = false)
     private String orderNumber;
     
     @Enumerated(EnumType.STRING)
@@ -63,13 +72,18 @@ public class Order {
     @Column(name = "customer_phone", nullable = false)
     private String customerPhone;
     
+    // Lazy collections are initialised for up to a page of orders per query
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<OrderItem> items = new ArrayList<>();
     
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
+    @OrderBy("statusDate ASC")
     private List<OrderStatusHistory> statusHistory = new ArrayList<>();
     
-    @CreationTimestamp
+    // Partition key of orders (V8); set once in onCreate so order_items can copy it
+    @PartitionKey
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -113,6 +127,10 @@ public class Order {
     private Long version = 0L;
     
     private String currency;
+    
+    // Status as of the last OrderStatusChangedEvent, or as loaded; null for a new order until then
+    @Transient
+    private OrderStatus reportedStatus;
 
     // Business methods
     public void addStatusHistory(OrderStatus status, String message) {
@@ -127,11 +145,16 @@ public class Order {
     // Lifecycle callbacks
     @PrePersist
     protected void onCreate() {
-        this.createdAt = LocalDateTime.now();
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
         this.updatedAt = LocalDateTime.now();
+        if (this.items != null) {
+            this.items.forEach(item -> item.setOrderCreatedAt(this.createdAt));
+        }
         
         if (this.orderNumber == null) {
-            this.orderNumber = "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+            this.orderNumber = IdGenerators.shared().nextId(ORDER_NUMBER_PREFIX);
         }
     }
     
@@ -140,6 +163,21 @@ public class Order {
         this.updatedAt = LocalDateTime.now();
     }
     
+    @PostLoad
+    protected void onLoad() {
+        this.reportedStatus = this.status;
+    }
+    
+    /**
+     * Records the current status as reported and returns the one reported before it, so a status
+     * change event can say where the order came from. Null for a new order.
+     */
+    public OrderStatus markStatusReported() {
+        OrderStatus previous = this.reportedStatus;
+        this.reportedStatus = this.status;
+        return previous;
+    }
+    
     // Status update methods
     public void setStatus(OrderStatus status) {
         this.status = status;
@@ -3,6 +3,7 @@ package com.ecommerce.order.model;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.UuidGenerator;
 
@@ -64,6 +65,11 @@ public class OrderItem {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    // Copy of the order's created_at: order_items is partitioned by it alongside orders (V8)
+    @PartitionKey
+    @Column(name = "order_created_at", nullable = false, updatable = false)
+    private LocalDateTime orderCreatedAt;
+    
     @Version
     @Column(name = "version")
     private Long version = 0L;
@@ -150,6 +156,9 @@ public class OrderItem {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public LocalDateTime getOrderCreatedAt() { return orderCreatedAt; }
+    public void setOrderCreatedAt(LocalDateTime orderCreatedAt) { this.orderCreatedAt = orderCreatedAt; }
+    
     public Long getVersion() { return version; }
     public void setVersion(Long version) { this.version = version; }
     
@@ -236,6 +245,9 @@ public class OrderItem {
         if (this.createdAt == null) {
             this.createdAt = LocalDateTime.now();
         }
+        if (this.orderCreatedAt == null && this.order != null) {
+            this.orderCreatedAt = this.order.getCreatedAt();
+        }
         this.updatedAt = LocalDateTime.now();
         calculateTotalPrice();
     }
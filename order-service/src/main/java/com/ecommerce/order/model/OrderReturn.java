@@ -1,5 +1,6 @@
 package com.ecommerce.order.model;
 
+import com.ecommerce.order.service.id.IdGenerators;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
@@ -17,6 +18,8 @@ import java.util.UUID;
 @ToString(exclude = {"order", "items"})
 @EqualsAndHashCode(exclude = {"order", "items"})
 public class OrderReturn {
+
+    public static final String RETURN_NUMBER_PREFIX = "RTN-";
     
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -162,7 +165,7 @@ public class OrderReturn {
         this.updatedAt = LocalDateTime.now();
         
         if (this.returnNumber == null) {
-            this.returnNumber = "RET-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+            this.returnNumber = IdGenerators.shared().nextId(RETURN_NUMBER_PREFIX);
         }
     }
     
@@ -0,0 +1,67 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Persistent state of the placement saga of one order. The row is the only place the saga
+ * lives; nothing is held in memory between steps, so a waiting saga costs no thread.
+ */
+@Entity
+@Table(name = "order_sagas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSaga {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+    
+    @Column(name = "order_id", nullable = false, unique = true, updatable = false)
+    private UUID orderId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private SagaStep step;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private SagaStatus status;
+    
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    // When the current step is due, or when waiting for a reply times out
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @Version
+    private Long version;
+    
+    public boolean isDue(LocalDateTime now) {
+        return status.isActive() && status != SagaStatus.AWAITING
+                && nextAttemptAt != null && !nextAttemptAt.isAfter(now);
+    }
+}
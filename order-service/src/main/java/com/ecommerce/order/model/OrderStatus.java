@@ -145,4 +145,19 @@ public enum OrderStatus {
     public boolean isCancellable() {
         return this == PENDING || this == PLACED || this == PAID || this == PROCESSING;
     }
+    
+    /**
+     * Checks if the order has reached a final status and no longer changes, apart from a return
+     * while the return window is open.
+     * @return true if the order is finished, false otherwise
+     */
+    public boolean isClosed() {
+        return this == DELIVERED ||
+               this == COMPLETED ||
+               this == CANCELLED ||
+               this == RETURNED ||
+               this == REFUNDED ||
+               this == FAILED ||
+               this == DECLINED;
+    }
 }
@@ -0,0 +1,153 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Denormalized tracking page of one order. Status changes append to the timeline instead of
+ * rebuilding it, so reading tracking is a single primary key lookup.
+ */
+@Entity
+@Table(name = "order_tracking_views")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class OrderTrackingView implements Persistable<UUID> {
+    
+    private static final Map<OrderStatus, String> DESCRIPTIONS = Map.of(
+            OrderStatus.PLACED, "Order was placed",
+            OrderStatus.PAID, "Payment received",
+            OrderStatus.PROCESSING, "Order is being processed",
+            OrderStatus.SHIPPED, "Order has been shipped",
+            OrderStatus.OUT_FOR_DELIVERY, "Order is out for delivery",
+            OrderStatus.DELIVERED, "Order has been delivered",
+            OrderStatus.CANCELLED, "Order was cancelled",
+            OrderStatus.RETURN_REQUESTED, "Return has been requested",
+            OrderStatus.RETURNED, "Order returned",
+            OrderStatus.REFUNDED, "Order was refunded");
+    
+    // Timestamp columns of Order that a timeline can be rebuilt from, for orders without a view yet
+    private static final Map<OrderStatus, Function<Order, LocalDateTime>> MILESTONES = Map.of(
+            OrderStatus.PLACED, Order::getCreatedAt,
+            OrderStatus.PAID, Order::getPaidAt,
+            OrderStatus.PROCESSING, Order::getProcessingAt,
+            OrderStatus.SHIPPED, Order::getShippedAt,
+            OrderStatus.OUT_FOR_DELIVERY, Order::getOutForDeliveryAt,
+            OrderStatus.DELIVERED, Order::getDeliveredAt,
+            OrderStatus.CANCELLED, Order::getCancelledAt,
+            OrderStatus.RETURN_REQUESTED, Order::getReturnRequestedAt,
+            OrderStatus.RETURNED, Order::getReturnedAt);
+    
+    @Id
+    @Column(name = "order_id", updatable = false, nullable = false)
+    private UUID orderId;
+    
+    @Column(name = "order_number", nullable = false)
+    private String orderNumber;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+    
+    @Column(name = "tracking_number")
+    private String trackingNumber;
+    
+    private String carrier;
+    
+    @Column(name = "estimated_delivery")
+    private LocalDateTime estimatedDelivery;
+    
+    @Column(name = "actual_delivery")
+    private LocalDateTime actualDelivery;
+    
+    // Newest first
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private List<TimelineEntry> timeline = new ArrayList<>();
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // The id is the order's, so without this every save would merge and select the row first
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+    
+    public record TimelineEntry(String status, String description, LocalDateTime timestamp) {
+    }
+    
+    /**
+     * Builds the view from the order's milestone timestamps. Used once per order; afterwards the
+     * view is kept up to date by {@link #recordStatus}.
+     */
+    public static OrderTrackingView from(Order order) {
+        OrderTrackingView view = new OrderTrackingView();
+        view.setOrderId(order.getId());
+        List<TimelineEntry> timeline = new ArrayList<>();
+        MILESTONES.forEach((status, timestamp) -> {
+            LocalDateTime at = timestamp.apply(order);
+            if (at != null) {
+                timeline.add(new TimelineEntry(status.name(), describe(status), at));
+            }
+        });
+        timeline.sort(Comparator.comparing(TimelineEntry::timestamp).reversed());
+        view.setTimeline(timeline);
+        view.copyFrom(order);
+        return view;
+    }
+    
+    /**
+     * Puts the order's new status on top of the timeline and refreshes the shipping details.
+     */
+    public void recordStatus(Order order, OrderStatus newStatus, LocalDateTime at) {
+        // A new list rather than an in-place add, so the change is seen when the row is flushed
+        List<TimelineEntry> updated = new ArrayList<>(timeline.size() + 1);
+        updated.add(new TimelineEntry(newStatus.name(), describe(newStatus), at));
+        updated.addAll(timeline);
+        timeline = updated;
+        copyFrom(order);
+    }
+    
+    private void copyFrom(Order order) {
+        orderNumber = order.getOrderNumber();
+        status = order.getStatus();
+        trackingNumber = order.getTrackingNumber();
+        carrier = order.getCarrier();
+        estimatedDelivery = order.getEstimatedDeliveryDate();
+        actualDelivery = order.getDeliveredDate();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    private static String describe(OrderStatus status) {
+        return DESCRIPTIONS.getOrDefault(status, "Status changed to " + status);
+    }
+    
+    @Override
+    public UUID getId() {
+        return orderId;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
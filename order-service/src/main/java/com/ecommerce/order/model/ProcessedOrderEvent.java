@@ -0,0 +1,57 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Id of an inbound event that has already changed an order. Written in the same transaction as
+ * the change, so a redelivered event is recognised and skipped.
+ */
+@Entity
+@Table(name = "processed_order_events")
+@Getter
+@NoArgsConstructor
+@ToString
+public class ProcessedOrderEvent implements Persistable<String> {
+    
+    @Id
+    @Column(name = "event_id", length = 200, updatable = false, nullable = false)
+    private String eventId;
+    
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private UUID orderId;
+    
+    @Column(name = "processed_at", nullable = false, updatable = false)
+    private LocalDateTime processedAt;
+    
+    // The id is assigned, so without this every save would merge and select the row first
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean isNew = true;
+    
+    public ProcessedOrderEvent(String eventId, UUID orderId, LocalDateTime processedAt) {
+        this.eventId = eventId;
+        this.orderId = orderId;
+        this.processedAt = processedAt;
+    }
+    
+    @Override
+    public String getId() {
+        return eventId;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
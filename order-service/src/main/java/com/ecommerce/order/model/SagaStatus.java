@@ -0,0 +1,43 @@
+package com.ecommerce.order.model;
+
+/**
+ * Lifecycle of an order saga.
+ */
+public enum SagaStatus {
+    /**
+     * The current step is due to be executed at {@code nextAttemptAt}.
+     */
+    RUNNING,
+    
+    /**
+     * The current step has been started and waits for a reply event until {@code nextAttemptAt}.
+     */
+    AWAITING,
+    
+    /**
+     * The current step is due to be compensated at {@code nextAttemptAt}.
+     */
+    COMPENSATING,
+    
+    /**
+     * Every step completed.
+     */
+    COMPLETED,
+    
+    /**
+     * Every completed step has been undone.
+     */
+    COMPENSATED,
+    
+    /**
+     * Compensation gave up; the saga needs manual attention.
+     */
+    FAILED;
+    
+    /**
+     * @return true while the dispatcher still has work to do for the saga
+     */
+    public boolean isActive() {
+        return this == RUNNING || this == AWAITING || this == COMPENSATING;
+    }
+}
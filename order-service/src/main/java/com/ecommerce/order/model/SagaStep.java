@@ -0,0 +1,44 @@
+package com.ecommerce.order.model;
+
+/**
+ * The steps of the order placement saga, in execution order. Compensation walks them backwards.
+ */
+public enum SagaStep {
+    /**
+     * Decrement product stock for every order line.
+     */
+    RESERVE_INVENTORY,
+    
+    /**
+     * Ask for payment and wait for the payment service to answer.
+     */
+    AUTHORIZE_PAYMENT,
+    
+    /**
+     * Announce the confirmed order.
+     */
+    CONFIRM_ORDER;
+    
+    /**
+     * @return the step after this one, or null if this is the last step
+     */
+    public SagaStep next() {
+        int next = ordinal() + 1;
+        return next < values().length ? values()[next] : null;
+    }
+    
+    /**
+     * @return the step before this one, or null if this is the first step
+     */
+    public SagaStep previous() {
+        return ordinal() > 0 ? values()[ordinal() - 1] : null;
+    }
+    
+    public static SagaStep first() {
+        return values()[0];
+    }
+    
+    public static SagaStep last() {
+        return values()[values().length - 1];
+    }
+}
@@ -12,6 +12,8 @@ import java.util.UUID;
 @Table(name = "transactions")
 public class Transaction {
 
+    public static final String TRANSACTION_ID_PREFIX = "TXN-";
+
     public Transaction(){}
     
     // All-args constructor
@@ -295,6 +297,22 @@ public class Transaction {
     @Column(name = "processed_at")
     private LocalDateTime processedAt;
 
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public String getFailureCode() {
+        return failureCode;
+    }
+
+    public void setFailureCode(String failureCode) {
+        this.failureCode = failureCode;
+    }
+
     // Helper method to get the order ID
     public UUID getOrderId() {
         return order != null ? order.getId() : null;
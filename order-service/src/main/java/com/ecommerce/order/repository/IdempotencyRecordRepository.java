@@ -0,0 +1,60 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims a key for a new execution: inserts it, or takes over a row that has expired or whose
+     * owner has held it past {@code locked_until} without running the request. Returns 0 when the
+     * key is held, executed or completed.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_keys " +
+                   "(id, operation, request_hash, status, response_body, locked_until, expires_at, created_at) " +
+                   "VALUES (:id, :operation, :requestHash, 'IN_PROGRESS', NULL, :lockedUntil, :expiresAt, :now) " +
+                   "ON CONFLICT (id) DO UPDATE SET request_hash = EXCLUDED.request_hash, status = 'IN_PROGRESS', " +
+                   "response_body = NULL, locked_until = EXCLUDED.locked_until, expires_at = EXCLUDED.expires_at, " +
+                   "created_at = EXCLUDED.created_at " +
+                   "WHERE idempotency_keys.expires_at < :now " +
+                   "OR (idempotency_keys.status = 'IN_PROGRESS' AND idempotency_keys.locked_until < :now)",
+           nativeQuery = true)
+    int claim(@Param("id") String id,
+              @Param("operation") String operation,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("lockedUntil") LocalDateTime lockedUntil,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Recorded as soon as the request has taken effect, so the key can no longer be taken over
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE idempotency_keys SET status = 'EXECUTED' WHERE id = :id AND status = 'IN_PROGRESS'",
+           nativeQuery = true)
+    int markExecuted(@Param("id") String id);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE idempotency_keys SET status = 'COMPLETED', response_body = :responseBody " +
+                   "WHERE id = :id AND status IN ('IN_PROGRESS', 'EXECUTED')",
+           nativeQuery = true)
+    int complete(@Param("id") String id, @Param("responseBody") String responseBody);
+
+    // Lets the client retry a request that failed
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM idempotency_keys WHERE id = :id AND status = 'IN_PROGRESS'", nativeQuery = true)
+    int release(@Param("id") String id);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,14 +1,18 @@
 package com.ecommerce.order.repository;
 
+import com.ecommerce.order.dto.history.OrderSummary;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.partition.OrderPartitions;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,10 +21,89 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     
     Optional<Order> findByOrderNumber(String orderNumber);
     
+    // Read paths that map the whole order: items come with the order, status history in one batch
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(UUID id);
+    
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsByOrderNumber(String orderNumber);
+    
+    // Same lookup bounded by created_at, so only the partitions that can hold the order are read
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsByOrderNumberAndCreatedAtBetween(String orderNumber, LocalDateTime from,
+                                                                 LocalDateTime to);
+    
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsByIdAndCreatedAtBetween(UUID id, LocalDateTime from, LocalDateTime to);
+    
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByIdIn(Collection<UUID> ids);
+    
+    Optional<Order> findByIdAndCreatedAtBetween(UUID id, LocalDateTime from, LocalDateTime to);
+    
+    List<Order> findByIdInAndCreatedAtBetween(Collection<UUID> ids, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * {@link #findById} bounded by the {@code created_at} range the id implies, so only the
+     * partitions that can hold the order are read. Orders with pre-partitioning ids fall back to
+     * the unbounded lookup.
+     */
+    default Optional<Order> findInPartitionById(UUID id) {
+        return OrderPartitions.createdAtRangeOf(id)
+                .map(range -> findByIdAndCreatedAtBetween(id, range.from(), range.to()))
+                .orElseGet(() -> findById(id));
+    }
+    
+    /** {@link #findInPartitionById} for {@link #findWithItemsById}. */
+    default Optional<Order> findWithItemsInPartitionById(UUID id) {
+        return OrderPartitions.createdAtRangeOf(id)
+                .map(range -> findWithItemsByIdAndCreatedAtBetween(id, range.from(), range.to()))
+                .orElseGet(() -> findWithItemsById(id));
+    }
+    
+    /** {@link #findInPartitionById} for {@link #findAllById}; one range covers the whole batch. */
+    default List<Order> findAllInPartitionsById(Collection<UUID> ids) {
+        return OrderPartitions.createdAtRangeOf(ids)
+                .map(range -> findByIdInAndCreatedAtBetween(ids, range.from(), range.to()))
+                .orElseGet(() -> findAllById(ids));
+    }
+    
+    /**
+     * First phase of a paged read: pages over ids only, so limit and offset apply in SQL. A
+     * collection fetch on the page query itself would make Hibernate paginate in memory.
+     * Load the page with {@link #findWithItemsByIdIn}.
+     */
+    @Query(value = "SELECT o.id FROM Order o WHERE o.customerId = :customerId",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.customerId = :customerId")
+    Page<UUID> findIdsByCustomerId(@Param("customerId") UUID customerId, Pageable pageable);
+    
+    /**
+     * First slice of a customer's order history, newest first. The order matches
+     * idx_orders_customer_created_id, so the database reads the slice off the index and stops;
+     * there is no count query. Pass {@code PageRequest.of(0, size)}.
+     */
+    @Query("SELECT new com.ecommerce.order.dto.history.OrderSummary(o.id, o.orderNumber, o.status, o.total, o.createdAt) " +
+           "FROM Order o WHERE o.customerId = :customerId " +
+           "ORDER BY o.createdAt DESC, o.id ASC")
+    List<OrderSummary> findHistoryByCustomerId(@Param("customerId") UUID customerId, Pageable pageable);
+    
+    // Next slice after the (createdAt, id) of the last order already returned. The plain
+    // createdAt bound is redundant but lets the planner skip partitions newer than the cursor.
+    @Query("SELECT new com.ecommerce.order.dto.history.OrderSummary(o.id, o.orderNumber, o.status, o.total, o.createdAt) " +
+           "FROM Order o WHERE o.customerId = :customerId " +
+           "AND o.createdAt <= :createdAt " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id > :id)) " +
+           "ORDER BY o.createdAt DESC, o.id ASC")
+    List<OrderSummary> findHistoryByCustomerIdAfter(@Param("customerId") UUID customerId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") UUID id,
+                                                    Pageable pageable);
+    
     List<Order> findByCustomerId(UUID customerId);
     
     Page<Order> findByCustomerId(UUID customerId, Pageable pageable);
     
+    // Loads every matching order; for counts and revenue use OrderAnalyticsService's rollups
     List<Order> findByStatus(OrderStatus status);
     
     @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
@@ -35,7 +118,9 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     @Query("SELECT o FROM Order o WHERE o.customerEmail = :email ORDER BY o.createdAt DESC")
     Page<Order> findByCustomerEmail(@Param("email") String email, Pageable pageable);
     
-    @Query("SELECT o FROM Order o JOIN o.items i WHERE i.productId = :productId")
+    // EXISTS rather than a join, which returned an order once per matching item
+    @Query("SELECT o FROM Order o WHERE EXISTS " +
+           "(SELECT i FROM OrderItem i WHERE i.order = o AND i.productId = :productId)")
     List<Order> findOrdersContainingProduct(@Param("productId") UUID productId);
     
     @Query("SELECT COUNT(o) > 0 FROM Order o WHERE o.customerId = :customerId AND o.id = :orderId")
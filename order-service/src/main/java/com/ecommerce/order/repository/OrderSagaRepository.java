@@ -0,0 +1,41 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.OrderSaga;
+import com.ecommerce.order.model.SagaStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OrderSagaRepository extends JpaRepository<OrderSaga, UUID> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderSaga s WHERE s.id = :id")
+    Optional<OrderSaga> findByIdForUpdate(@Param("id") UUID id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderSaga s WHERE s.orderId = :orderId")
+    Optional<OrderSaga> findByOrderIdForUpdate(@Param("orderId") UUID orderId);
+    
+    Optional<OrderSaga> findByOrderId(UUID orderId);
+    
+    // Locks in a fixed order so two batches touching the same orders cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderSaga s WHERE s.orderId IN :orderIds ORDER BY s.orderId")
+    List<OrderSaga> findByOrderIdInForUpdate(@Param("orderIds") Collection<UUID> orderIds);
+    
+    // Unlocked scan; each saga is claimed separately with findByIdForUpdate before it runs
+    @Query("SELECT s.id FROM OrderSaga s WHERE s.status IN :statuses AND s.nextAttemptAt <= :now " +
+           "ORDER BY s.nextAttemptAt")
+    List<UUID> findDueIds(@Param("statuses") Collection<SagaStatus> statuses,
+                          @Param("now") LocalDateTime now,
+                          Pageable pageable);
+}
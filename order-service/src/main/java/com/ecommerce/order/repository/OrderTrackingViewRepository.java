@@ -0,0 +1,9 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.OrderTrackingView;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface OrderTrackingViewRepository extends JpaRepository<OrderTrackingView, UUID> {
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.ProcessedOrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+public interface ProcessedOrderEventRepository extends JpaRepository<ProcessedOrderEvent, String> {
+    
+    @Query("SELECT p.eventId FROM ProcessedOrderEvent p WHERE p.eventId IN :eventIds")
+    Set<String> findExistingIds(@Param("eventIds") Collection<String> eventIds);
+    
+    @Modifying
+    @Query("DELETE FROM ProcessedOrderEvent p WHERE p.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
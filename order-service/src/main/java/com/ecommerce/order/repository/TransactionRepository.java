@@ -1,10 +1,12 @@
 package com.ecommerce.order.repository;
 
 import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.PaymentStatus;
 import com.ecommerce.order.model.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,4 +16,6 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
     List<Transaction> findByCustomerId(UUID customerId);
     boolean existsByTransactionId(String transactionId);
     boolean existsByGatewayTransactionId(String gatewayTransactionId);
+
+    List<Transaction> findTop500ByStatusAndCreatedAtBefore(PaymentStatus status, LocalDateTime createdBefore);
 }
@@ -0,0 +1,43 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.history.OrderSummary;
+import com.ecommerce.order.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a customer's order history: the {@code (createdAt, id)} of the last order
+ * returned. Clients only see it as an opaque URL-safe token.
+ */
+public record OrderHistoryCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static OrderHistoryCursor after(OrderSummary last) {
+        return new OrderHistoryCursor(last.getCreatedAt(), last.getId());
+    }
+
+    public String encode() {
+        String position = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderHistoryCursor decode(String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor: " + token);
+            }
+            return new OrderHistoryCursor(
+                    LocalDateTime.parse(position.substring(0, separator)),
+                    UUID.fromString(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -9,7 +9,10 @@ import com.ecommerce.order.model.*;
 import com.ecommerce.order.repository.OrderItemRepository;
 import com.ecommerce.order.repository.OrderRepository;
 import com.ecommerce.order.repository.OrderReturnRepository;
+import com.ecommerce.order.service.id.IdGenerator;
+import com.ecommerce.order.service.tracking.OrderStatusChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -29,6 +32,8 @@ public class OrderReturnService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdGenerator idGenerator;
 
     @Transactional
     public ReturnResponse initiateReturn(UUID orderId, ReturnRequest request) {
@@ -40,7 +45,7 @@ public class OrderReturnService {
 
         // Create return record
         OrderReturn orderReturn = new OrderReturn();
-        orderReturn.setReturnNumber(generateReturnNumber());
+        orderReturn.setReturnNumber(idGenerator.nextId(OrderReturn.RETURN_NUMBER_PREFIX));
         orderReturn.setOrderId(orderId);
         orderReturn.setCustomerId(order.getCustomerId());
         orderReturn.setStatus(ReturnStatus.REQUESTED);
@@ -87,6 +92,7 @@ public class OrderReturnService {
         if (order.getStatus() != OrderStatus.RETURN_REQUESTED) {
             order.setStatus(OrderStatus.RETURN_REQUESTED);
             orderRepository.save(order);
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(order));
         }
 
         // Send notification
@@ -155,10 +161,6 @@ public class OrderReturnService {
         });
     }
 
-    private String generateReturnNumber() {
-        return "RTN-" + System.currentTimeMillis();
-    }
-
     private ReturnResponse mapToReturnResponse(OrderReturn orderReturn) {
         return ReturnResponse.builder()
                 .id(orderReturn.getId())
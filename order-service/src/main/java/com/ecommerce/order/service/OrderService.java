@@ -1,9 +1,12 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.events.OrderEvent;
 import com.ecommerce.order.client.ProductServiceClient;
 import com.ecommerce.order.dto.OrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
 import com.ecommerce.order.dto.ProductStockUpdateRequest;
+import com.ecommerce.order.dto.history.OrderHistoryPage;
+import com.ecommerce.order.dto.history.OrderSummary;
 import com.ecommerce.order.exception.InsufficientStockException;
 import com.ecommerce.order.exception.InvalidOrderException;
 import com.ecommerce.order.exception.ResourceNotFoundException;
@@ -12,24 +15,38 @@ import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderStatus;
 import com.ecommerce.order.model.OrderStatusHistory;
 import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.service.placement.OrderPlacementMetrics;
+import com.ecommerce.order.service.placement.StockAvailabilityChecker;
+import com.ecommerce.order.service.analytics.OrderPlacedEvent;
+import com.ecommerce.order.service.id.IdGenerator;
+import com.ecommerce.order.service.partition.OrderPartitions;
+import com.ecommerce.order.service.saga.OrderSagaOrchestrator;
+import com.ecommerce.order.service.tracking.OrderStatusChangedEvent;
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,14 +56,46 @@ public class OrderService {
 
     private static final Logger log = LoggerFactory.getLogger(OrderService.class);
     private static final String ORDER_EVENTS_TOPIC = "order-events";
+    static final int MAX_HISTORY_PAGE_SIZE = 100;
 
     private final OrderRepository orderRepository;
     private final ProductServiceClient productServiceClient;
     private final OrderMapper orderMapper;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final StockAvailabilityChecker stockAvailabilityChecker;
+    private final OrderPlacementMetrics placementMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderSagaOrchestrator sagaOrchestrator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdGenerator idGenerator;
 
-    @Retryable(value = {FeignException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
+    /**
+     * Places an order in stages: stock is checked for all products concurrently before any
+     * transaction opens, then the order and its placement saga are written in one short local
+     * transaction. Reserving stock, payment and confirmation run afterwards in
+     * {@link OrderSagaOrchestrator}. Each stage is timed by {@link OrderPlacementMetrics}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderResponse createOrder(OrderRequest request) {
+        Order order = placementMetrics.record(OrderPlacementMetrics.VALIDATE, () -> prepareOrder(request));
+
+        placementMetrics.record(OrderPlacementMetrics.STOCK_CHECK, () -> checkProductAvailability(request));
+
+        Order savedOrder = placementMetrics.record(OrderPlacementMetrics.PERSIST,
+                () -> transactionTemplate.execute(status -> {
+                    Order saved = orderRepository.save(order);
+                    sagaOrchestrator.start(saved);
+                    eventPublisher.publishEvent(OrderStatusChangedEvent.of(saved));
+                    eventPublisher.publishEvent(OrderPlacedEvent.of(saved));
+                    return saved;
+                }));
+
+        placementMetrics.record(OrderPlacementMetrics.PUBLISH, () -> publishOrderEvent(savedOrder, "ORDER_CREATED"));
+        
+        return orderMapper.toResponse(savedOrder);
+    }
+
+    private Order prepareOrder(OrderRequest request) {
         if (request == null || request.getCustomerId() == null) {
             throw new InvalidOrderException("Order request and customer ID cannot be null");
         }
@@ -55,10 +104,8 @@ public class OrderService {
             throw new InvalidOrderException("Order must contain at least one item");
         }
         
-        checkProductAvailability(request);
-        
         Order order = orderMapper.toEntity(request);
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(idGenerator.nextId(Order.ORDER_NUMBER_PREFIX));
         order.setStatus(OrderStatus.PENDING);
         order.setCreatedAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
@@ -71,19 +118,13 @@ public class OrderService {
                 .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         order.setTotal(total);
-        
-        Order savedOrder = orderRepository.save(order);
-        
-        updateProductInventory(savedOrder);
-        publishOrderEvent(savedOrder, "ORDER_CREATED");
-        
-        return orderMapper.toResponse(savedOrder);
+        return order;
     }
 
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(UUID orderId) {
         log.info("Fetching order with id: {}", orderId);
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsInPartitionById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
         return orderMapper.toResponse(order);
     }
@@ -91,7 +132,10 @@ public class OrderService {
     @Transactional(readOnly = true)
     public OrderResponse getOrderByNumber(String orderNumber) {
         log.info("Fetching order with number: {}", orderNumber);
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+        Order order = OrderPartitions.createdAtRangeOf(orderNumber)
+                .map(range -> orderRepository.findWithItemsByOrderNumberAndCreatedAtBetween(
+                        orderNumber, range.from(), range.to()))
+                .orElseGet(() -> orderRepository.findWithItemsByOrderNumber(orderNumber))
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with number: " + orderNumber));
         return orderMapper.toResponse(order);
     }
@@ -99,8 +143,42 @@ public class OrderService {
     @Transactional(readOnly = true)
     public Page<OrderResponse> getCustomerOrders(UUID customerId, Pageable pageable) {
         log.info("Fetching orders for customer: {}", customerId);
-        return orderRepository.findByCustomerId(customerId, pageable)
-                .map(orderMapper::toResponse);
+        // Page over ids, then load that page with its items in one query; status history follows in one batch
+        Page<UUID> orderIds = orderRepository.findIdsByCustomerId(customerId, pageable);
+        if (orderIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, orderIds.getTotalElements());
+        }
+        Map<UUID, Order> orders = orderRepository.findWithItemsByIdIn(orderIds.getContent()).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity(), (first, duplicate) -> first));
+        return orderIds.map(id -> orderMapper.toResponse(orders.get(id)));
+    }
+
+    /**
+     * Reads a customer's order history one slice at a time, newest first. Each slice continues
+     * from the cursor of the previous one, so its cost does not grow with how far the customer
+     * has scrolled, and no total is counted.
+     *
+     * @param cursor the {@code nextCursor} of the previous slice, or null for the first
+     * @param size   orders per slice, capped at {@value #MAX_HISTORY_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public OrderHistoryPage getCustomerOrderHistory(UUID customerId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        // One row more than asked tells whether there is a next slice
+        Pageable slice = PageRequest.of(0, limit + 1);
+        List<OrderSummary> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findHistoryByCustomerId(customerId, slice);
+        } else {
+            OrderHistoryCursor after = OrderHistoryCursor.decode(cursor);
+            orders = orderRepository.findHistoryByCustomerIdAfter(customerId, after.createdAt(), after.id(), slice);
+        }
+
+        if (orders.size() <= limit) {
+            return new OrderHistoryPage(orders, null);
+        }
+        List<OrderSummary> page = orders.subList(0, limit);
+        return new OrderHistoryPage(List.copyOf(page), OrderHistoryCursor.after(page.get(limit - 1)).encode());
     }
 
     @Transactional
@@ -117,6 +195,7 @@ public class OrderService {
         order.addStatusHistory(status, String.format("Status changed from %s to %s", oldStatus, status));
         
         Order updatedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(updatedOrder));
         
         // Publish event
         publishOrderEvent(updatedOrder, "ORDER_STATUS_UPDATED");
@@ -143,9 +222,12 @@ public class OrderService {
         order.addStatusHistory(OrderStatus.CANCELLED, "Order cancelled by customer");
         
         Order cancelledOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(cancelledOrder));
         
-        // Update inventory (add back the stock)
-        updateProductInventory(cancelledOrder, true);
+        // The saga returns whatever it already reserved; orders placed before sagas existed are released here
+        if (!sagaOrchestrator.requestCancellation(cancelledOrder.getId())) {
+            updateProductInventory(cancelledOrder, true);
+        }
         
         // Publish event
         publishOrderEvent(cancelledOrder, "ORDER_CANCELLED");
@@ -153,26 +235,9 @@ public class OrderService {
         return orderMapper.toResponse(cancelledOrder);
     }
 
-    @Retryable(value = {FeignException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
     protected void checkProductAvailability(OrderRequest request) {
         log.info("Checking product availability for order");
-        try {
-            List<Map<String, Object>> itemsToCheck = request.getItems().stream()
-                    .map(item -> {
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("productId", item.getProductId().toString());
-                        map.put("quantity", item.getQuantity());
-                        return map;
-                    })
-                    .collect(Collectors.toList());
-            
-            productServiceClient.checkStockAvailability(itemsToCheck);
-        } catch (FeignException.NotFound e) {
-            throw new ResourceNotFoundException("One or more products not found", e);
-        } catch (FeignException e) {
-            log.error("Error checking product availability: {}", e.getMessage());
-            throw new RuntimeException("Error checking product availability", e);
-        }
+        stockAvailabilityChecker.checkAll(request.getItems());
     }
 
     @Retryable(value = {FeignException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
@@ -203,13 +268,13 @@ public class OrderService {
     protected void publishOrderEvent(Order order, String eventType) {
         log.info("Publishing {} event for order: {}", eventType, order.getId());
         try {
-            Map<String, Object> event = Map.of(
-                    "eventType", eventType,
-                    "orderId", order.getId().toString(),
-                    "orderNumber", order.getOrderNumber(),
-                    "customerId", order.getCustomerId().toString(),
-                    "status", order.getStatus().name(),
-                    "timestamp", LocalDateTime.now().toString()
+            OrderEvent event = new OrderEvent(
+                    eventType,
+                    order.getId(),
+                    order.getOrderNumber(),
+                    order.getCustomerId(),
+                    order.getStatus().name(),
+                    Instant.now()
             );
             
             kafkaTemplate.send(ORDER_EVENTS_TOPIC, order.getOrderNumber(), event);
@@ -218,8 +283,4 @@ public class OrderService {
             // Don't throw exception as it's not critical for the main order flow
         }
     }
-
-    private String generateOrderNumber() {
-        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
 }
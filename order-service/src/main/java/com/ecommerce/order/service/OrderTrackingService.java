@@ -1,15 +1,22 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.order.config.CacheConfig;
 import com.ecommerce.order.dto.tracking.OrderTrackingResponse;
 import com.ecommerce.order.dto.tracking.OrderStatusUpdate;
 import com.ecommerce.order.exception.OrderNotFoundException;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderStatus;
 import com.ecommerce.order.model.OrderStatusHistory;
+import com.ecommerce.order.model.OrderTrackingView;
 import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderTrackingViewRepository;
+import com.ecommerce.order.service.tracking.OrderStatusChangedEvent;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,43 +32,40 @@ public class OrderTrackingService {
     private static final Logger log = LoggerFactory.getLogger(OrderTrackingService.class);
 
     private final OrderRepository orderRepository;
-
+    private final OrderTrackingViewRepository viewRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Serves tracking from the cache, or from the order's {@link OrderTrackingView} on a miss. The
+     * timeline is stored precomputed, so neither path loads the order or its history.
+     */
     public OrderTrackingResponse getOrderTracking(UUID orderId) {
         log.debug("Fetching tracking information for order ID: {}", orderId);
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> {
-                    log.error("Order not found with ID: {}", orderId);
-                    return new OrderNotFoundException("Order not found with ID: " + orderId);
-                });
+        Cache cache = cacheManager.getCache(CacheConfig.ORDER_TRACKING_CACHE);
+        OrderTrackingResponse cached = cache != null ? cache.get(orderId, OrderTrackingResponse.class) : null;
+        if (cached != null) {
+            return cached;
+        }
 
-        return OrderTrackingResponse.builder()
-                .orderId(order.getId())
-                .orderNumber(order.getOrderNumber())
-                .status(order.getStatus().name())
-                .trackingNumber(order.getTrackingNumber())
-                .carrier(order.getCarrier())
-                .carrierUrl(generateTrackingUrl(order.getCarrier(), order.getTrackingNumber()))
-                .estimatedDelivery(order.getEstimatedDeliveryDate())
-                .actualDelivery(order.getDeliveredDate())
-                .statusUpdates(generateStatusUpdates(order))
-                .build();
+        OrderTrackingView view = viewRepository.findById(orderId)
+                // Orders from before the view existed get one on their next status change
+                .orElseGet(() -> OrderTrackingView.from(findOrder(orderId)));
+        OrderTrackingResponse response = toResponse(view);
+        if (cache != null) {
+            cache.put(orderId, response);
+        }
+        return response;
     }
 
     public List<OrderStatusUpdate> getOrderTimeline(UUID orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + orderId));
-
-        return generateStatusUpdates(order);
+        return getOrderTracking(orderId).getStatusUpdates();
     }
 
     @Transactional
     public void updateOrderStatus(UUID orderId, OrderStatus newStatus, String notes) {
         log.info("Updating status for order ID: {} to status: {}", orderId, newStatus);
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> {
-                    log.error("Order not found with ID: {}", orderId);
-                    return new OrderNotFoundException("Order not found with ID: " + orderId);
-                });
+        Order order = findOrder(orderId);
 
         // Initialize status history if null
         if (order.getStatusHistory() == null) {
@@ -102,105 +106,38 @@ public class OrderTrackingService {
         }
 
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(order));
         log.info("Successfully updated status for order ID: {} to status: {}", orderId, newStatus);
     }
 
-    private List<OrderStatusUpdate> generateStatusUpdates(Order order) {
-        List<OrderStatusUpdate> updates = new ArrayList<>();
-        
-        // Add order created status
-        updates.add(createStatusUpdate("PLACED", "Order was placed", order.getCreatedAt(), 
-            OrderStatus.PLACED == order.getStatus()));
-                
-        // Add other status updates based on order state
-        if (order.getPaidAt() != null) {
-            updates.add(createStatusUpdate("PAID", "Payment received", order.getPaidAt(), 
-                OrderStatus.PAID == order.getStatus()));
-        }
-        
-        if (order.getProcessingAt() != null) {
-            updates.add(createStatusUpdate("PROCESSING", "Order is being processed", order.getProcessingAt(), 
-                OrderStatus.PROCESSING.name().equals(order.getStatus())));
-        }
-        
-        if (order.getShippedAt() != null) {
-            updates.add(createStatusUpdate("SHIPPED", "Order has been shipped", order.getShippedAt(), 
-                OrderStatus.SHIPPED.name().equals(order.getStatus())));
-        }
-        
-        if (order.getOutForDeliveryAt() != null) {
-            updates.add(createStatusUpdate(
-                "OUT_FOR_DELIVERY", 
-                "Order is out for delivery", 
-                order.getOutForDeliveryAt(),
-                OrderStatus.OUT_FOR_DELIVERY.name().equals(order.getStatus())
-            ));
-        }
-        
-        if (order.getDeliveredDate() != null) {
-            updates.add(createStatusUpdate(
-                "DELIVERED", 
-                "Order has been delivered", 
-                order.getDeliveredDate(),
-                OrderStatus.DELIVERED.name().equals(order.getStatus())
-            ));
-        }
-
-        // Add delivered status
-        if (order.getDeliveredAt() != null) {
-            updates.add(createStatusUpdate(
-                    "DELIVERED",
-                    "Delivered",
-                    order.getDeliveredAt(),
-                    OrderStatus.DELIVERED.name().equals(order.getStatus())
-            ));
-        }
-
-        // Add cancelled status if applicable
-        if (order.getCancelledAt() != null) {
-            updates.add(createStatusUpdate(
-                "CANCELLED", 
-                "Order was cancelled", 
-                order.getCancelledAt(),
-                OrderStatus.CANCELLED.name().equals(order.getStatus())
-            ));
-        }
-
-        // Add return requested status if applicable
-        if (order.getReturnRequestedAt() != null) {
-            updates.add(createStatusUpdate(
-                "RETURN_REQUESTED", 
-                "Return has been requested", 
-                order.getReturnRequestedAt(),
-                OrderStatus.RETURN_REQUESTED.name().equals(order.getStatus())
-            ));
-        }
-
-        // Add returned status if applicable
-        if (OrderStatus.RETURNED.name().equals(order.getStatus()) && order.getReturnedAt() != null) {
-            updates.add(createStatusUpdate(
-                    "RETURNED",
-                    "Order returned",
-                    order.getReturnedAt(),
-                    true
-            ));
-        }
-
-        // Sort updates by timestamp
-        updates.sort((u1, u2) -> u2.getTimestamp().compareTo(u1.getTimestamp()));
-
-        return updates;
+    private Order findOrder(UUID orderId) {
+        return orderRepository.findInPartitionById(orderId)
+                .orElseThrow(() -> {
+                    log.error("Order not found with ID: {}", orderId);
+                    return new OrderNotFoundException("Order not found with ID: " + orderId);
+                });
     }
 
-    private OrderStatusUpdate createStatusUpdate(String status, String description, 
-                                               LocalDateTime timestamp, boolean isCurrent) {
-        return createStatusUpdate(status, description, timestamp, isCurrent, null);
-    }
+    private OrderTrackingResponse toResponse(OrderTrackingView view) {
+        List<OrderTrackingView.TimelineEntry> timeline = view.getTimeline();
+        List<OrderStatusUpdate> updates = new ArrayList<>(timeline.size());
+        for (int i = 0; i < timeline.size(); i++) {
+            OrderTrackingView.TimelineEntry entry = timeline.get(i);
+            // Newest first, so only the first entry is current
+            updates.add(new OrderStatusUpdate(entry.status(), entry.description(), null, entry.timestamp(), i == 0));
+        }
 
-    private OrderStatusUpdate createStatusUpdate(String status, String description, 
-                                               LocalDateTime timestamp, boolean isCurrent, 
-                                               String details) {
-        return new OrderStatusUpdate(status, description, details, timestamp, isCurrent);
+        return OrderTrackingResponse.builder()
+                .orderId(view.getOrderId())
+                .orderNumber(view.getOrderNumber())
+                .status(view.getStatus().name())
+                .trackingNumber(view.getTrackingNumber())
+                .carrier(view.getCarrier())
+                .carrierUrl(generateTrackingUrl(view.getCarrier(), view.getTrackingNumber()))
+                .estimatedDelivery(view.getEstimatedDelivery())
+                .actualDelivery(view.getActualDelivery())
+                .statusUpdates(updates)
+                .build();
     }
 
     private String generateTrackingUrl(String carrier, String trackingNumber) {
@@ -2,24 +2,29 @@ package com.ecommerce.order.service;
 
 import com.ecommerce.order.dto.payment.PaymentRequest;
 import com.ecommerce.order.dto.payment.PaymentResponse;
-import com.ecommerce.order.exception.PaymentProcessingException;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.PaymentStatus;
 import com.ecommerce.order.model.Transaction;
 import com.ecommerce.order.repository.OrderRepository;
 import com.ecommerce.order.repository.TransactionRepository;
+import com.ecommerce.order.service.id.IdGenerator;
+import com.ecommerce.order.service.payment.GatewayAuthorization;
+import com.ecommerce.order.service.payment.PaymentPipeline;
+import com.ecommerce.order.service.payment.card.BinTable;
+import com.ecommerce.order.service.payment.card.CardInfo;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.Random;
 import java.util.UUID;
 
 @Service
@@ -30,47 +35,20 @@ public class PaymentService {
     @Value("${app.currency:USD}")
     private String defaultCurrency;
     
-    private final Random random = new Random();
     private final OrderRepository orderRepository;
-    
-    // Helper method to determine card brand from card number
-    private String determineCardBrand(String cardNumber) {
-        if (cardNumber == null || cardNumber.trim().isEmpty()) {
-            return "UNKNOWN";
-        }
-        
-        // Remove any non-digit characters
-        String digits = cardNumber.replaceAll("\\D", "");
-        
-        // Check for Visa (starts with 4)
-        if (digits.matches("^4[0-9]{12}(?:[0-9]{3})?$")) {
-            return "VISA";
-        }
-        // Check for Mastercard (starts with 51-55)
-        else if (digits.matches("^5[1-5][0-9]{14}$")) {
-            return "MASTERCARD";
-        }
-        // Check for American Express (starts with 34 or 37)
-        else if (digits.matches("^3[47][0-9]{13}$")) {
-            return "AMEX";
-        }
-        // Check for Discover (starts with 6011, 644-649, or 65)
-        else if (digits.matches("^6(?:011|5[0-9]{2}|4[4-9][0-9]|22[0-9]{2})[0-9]{12}$")) {
-            return "DISCOVER";
-        }
-        
-        return "UNKNOWN";
-    }
     private final TransactionRepository transactionRepository;
-    private final OrderStatusService orderStatusService;
-
-    // Simulate payment processing with random success/failure
-    private boolean processMockPayment() {
-        // 90% success rate for testing
-        return random.nextDouble() < 0.9;
-    }
+    private final IdGenerator idGenerator;
+    private final PaymentPipeline paymentPipeline;
+    private final TransactionTemplate transactionTemplate;
+    private final BinTable binTable;
 
-    @Transactional
+    /**
+     * Accept stage of a payment. Reserves a gateway slot, validates the payment and records it as
+     * {@code PROCESSING} in one short transaction, then hands it to {@link PaymentPipeline} to be
+     * authorized and settled in the background. No connection is held while the gateway is
+     * called; clients follow the outcome through {@code GET /payments/{id}}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentResponse processPayment(PaymentRequest request) {
         if (request == null) {
             throw new IllegalArgumentException("Payment request cannot be null");
@@ -83,61 +61,54 @@ public class PaymentService {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid order ID format: " + request.getOrderId(), e);
         }
-        
+
+        PaymentPipeline.Admission admission = paymentPipeline.admit();
+        Transaction transaction;
+        try {
+            transaction = transactionTemplate.execute(status -> accept(orderId, request, admission.gatewayName()));
+        } catch (RuntimeException e) {
+            admission.release();
+            throw e;
+        }
+
+        paymentPipeline.authorize(admission, new GatewayAuthorization(transaction.getId(),
+                transaction.getTransactionId(), transaction.getAmount(), transaction.getCurrency(),
+                transaction.getPaymentMethod()));
+
+        return buildPaymentResponse(transaction);
+    }
+
+    private Transaction accept(UUID orderId, PaymentRequest request, String gatewayName) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + orderId));
 
         validatePaymentRequest(order, request);
 
-        // Simulate payment processing
-        boolean paymentSuccess = false;
-        String transactionId = "mock_tx_" + UUID.randomUUID().toString().substring(0, 8);
-        
-        try {
-            paymentSuccess = processMockPayment();
-        } catch (Exception e) {
-            log.error("Error processing payment for order {}", orderId, e);
-            throw new PaymentProcessingException("Error processing payment", e);
-        }
-        
-        // Create transaction
+        LocalDateTime now = LocalDateTime.now();
         Transaction transaction = new Transaction();
-        transaction.setId(UUID.randomUUID());
         transaction.setOrder(order);
         transaction.setAmount(request.getAmount());
-        transaction.setStatus(paymentSuccess ? PaymentStatus.SUCCEEDED : PaymentStatus.FAILED);
+        transaction.setStatus(PaymentStatus.PROCESSING);
         transaction.setPaymentMethod(request.getPaymentMethodId() != null ? request.getPaymentMethodId() : "MOCK_PAYMENT");
-        transaction.setTransactionId(transactionId);
-        transaction.setPaymentGateway("MOCK_GATEWAY");
-        transaction.setGatewayTransactionId(transactionId);
-        transaction.setGatewayResponse("200", 
-            paymentSuccess ? "Payment processed successfully" : "Payment failed",
-            null);
+        transaction.setTransactionId(idGenerator.nextId(Transaction.TRANSACTION_ID_PREFIX));
+        transaction.setPaymentGateway(gatewayName);
         transaction.setCurrency(request.getCurrency() != null ? request.getCurrency() : defaultCurrency);
-        transaction.setCreatedAt(LocalDateTime.now());
-        transaction.setUpdatedAt(LocalDateTime.now());
-        transaction.setProcessedAt(LocalDateTime.now());
+        transaction.setCreatedAt(now);
+        transaction.setUpdatedAt(now);
         transaction.setRefunded(false);
                 
         // Set card details if available
         if (request.getCard() != null && request.getCard().getNumber() != null && !request.getCard().getNumber().trim().isEmpty()) {
             String cardNumber = request.getCard().getNumber().trim();
+            CardInfo card = binTable.lookup(cardNumber);
+            if (!card.luhnValid()) {
+                throw new IllegalArgumentException("Invalid card number");
+            }
             transaction.setCardLastFour(cardNumber.substring(Math.max(0, cardNumber.length() - 4)));
-            transaction.setCardBrand(determineCardBrand(cardNumber));
-        }
-        
-        transaction = transactionRepository.save(transaction);
-        
-        // Update order status based on payment result
-        if (paymentSuccess) {
-            orderStatusService.processSuccessfulPayment(order);
-        } else {
-            orderStatusService.processFailedPayment(order);
+            transaction.setCardBrand(card.brand());
         }
         
-        orderRepository.save(order);
-
-        return buildPaymentResponse(transaction);
+        return transactionRepository.save(transaction);
     }
 
     // Mock payment processing methods
@@ -0,0 +1,184 @@
+package com.ecommerce.order.service.analytics;
+
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.tracking.OrderStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maintains the order analytics rollups from order events instead of scanning orders. Committed
+ * events only bump in-memory {@link LongAdder}s, so order transactions neither wait on each other
+ * for the same hot rollup row nor pay for a write of their own. {@link #flush()} periodically
+ * drains the adders into the rollup tables with additive upserts, which lets every instance
+ * flush its own share.
+ *
+ * <p>Revenue and product sales count orders as placed, by the hour of their {@code created_at};
+ * later cancellations show up in the status counts. Deltas not yet flushed are lost if the
+ * process dies, so the rollups can trail the orders table by up to one flush interval.
+ */
+@Slf4j
+@Component
+public class OrderAnalyticsCollector {
+
+    // Money is counted in units of the fourth decimal, the scale of the order and item totals
+    private static final int REVENUE_SCALE = 4;
+    // Hours come from created_at, set moments before commit, so older hours get no more events
+    private static final long HOURS_KEPT = 24;
+
+    private final OrderAnalyticsStore store;
+    private final Map<OrderStatus, LongAdder> statusCounts = new EnumMap<>(OrderStatus.class);
+    private final ConcurrentHashMap<LocalDateTime, HourTotals> hours = new ConcurrentHashMap<>();
+    // One entry per product ever ordered here, so bounded by the catalog
+    private final ConcurrentHashMap<UUID, ProductTotals> products = new ConcurrentHashMap<>();
+
+    public OrderAnalyticsCollector(OrderAnalyticsStore store) {
+        this.store = store;
+        // Filled once and only read afterwards, so the EnumMap itself needs no locking
+        for (OrderStatus status : OrderStatus.values()) {
+            statusCounts.put(status, new LongAdder());
+        }
+    }
+
+    // Also runs when the order was saved outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        LocalDateTime createdAt = event.createdAt() != null ? event.createdAt() : LocalDateTime.now();
+        HourTotals hour = hours.computeIfAbsent(createdAt.truncatedTo(ChronoUnit.HOURS), key -> new HourTotals());
+        hour.orders.increment();
+        hour.revenue.add(toUnits(event.total()));
+
+        for (OrderPlacedEvent.Line line : event.lines()) {
+            if (line.productId() == null) {
+                continue;
+            }
+            ProductTotals product = products.computeIfAbsent(line.productId(), key -> new ProductTotals());
+            product.name = line.productName();
+            product.units.add(line.quantity());
+            product.revenue.add(toUnits(line.totalPrice()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        if (event.previousStatus() == event.status()) {
+            return;
+        }
+        if (event.previousStatus() != null) {
+            statusCounts.get(event.previousStatus()).decrement();
+        }
+        statusCounts.get(event.status()).increment();
+    }
+
+    /**
+     * Writes what was counted since the last flush to the rollup tables. On failure the counts
+     * are put back and go out with the next flush.
+     */
+    @Scheduled(fixedDelayString = "${app.order.analytics.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        OrderAnalyticsDelta delta = drain();
+        if (delta.isEmpty()) {
+            return;
+        }
+        try {
+            store.add(delta);
+        } catch (DataAccessException e) {
+            log.warn("Could not flush order analytics, retrying with the next flush: {}", e.getMessage());
+            restore(delta);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private OrderAnalyticsDelta drain() {
+        // sumThenReset swaps each cell to zero, so increments racing with it land in the next flush
+        Map<OrderStatus, Long> statusDelta = new EnumMap<>(OrderStatus.class);
+        statusCounts.forEach((status, count) -> {
+            long value = count.sumThenReset();
+            if (value != 0) {
+                statusDelta.put(status, value);
+            }
+        });
+
+        LocalDateTime oldestKept = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(HOURS_KEPT);
+        List<OrderAnalyticsDelta.Hour> hourDelta = new ArrayList<>();
+        hours.forEach((hour, totals) -> {
+            if (hour.isBefore(oldestKept)) {
+                hours.remove(hour, totals);
+            }
+            long orders = totals.orders.sumThenReset();
+            long revenue = totals.revenue.sumThenReset();
+            if (orders != 0 || revenue != 0) {
+                hourDelta.add(new OrderAnalyticsDelta.Hour(hour, orders, fromUnits(revenue)));
+            }
+        });
+
+        List<OrderAnalyticsDelta.Product> productDelta = new ArrayList<>();
+        products.forEach((productId, totals) -> {
+            long units = totals.units.sumThenReset();
+            long revenue = totals.revenue.sumThenReset();
+            if (units != 0 || revenue != 0) {
+                productDelta.add(new OrderAnalyticsDelta.Product(productId, totals.name, units, fromUnits(revenue)));
+            }
+        });
+
+        return new OrderAnalyticsDelta(statusDelta, Collections.unmodifiableList(hourDelta),
+                Collections.unmodifiableList(productDelta));
+    }
+
+    private void restore(OrderAnalyticsDelta delta) {
+        delta.statusCounts().forEach((status, count) -> statusCounts.get(status).add(count));
+        for (OrderAnalyticsDelta.Hour hour : delta.hours()) {
+            HourTotals totals = hours.computeIfAbsent(hour.hour(), key -> new HourTotals());
+            totals.orders.add(hour.ordersPlaced());
+            totals.revenue.add(toUnits(hour.revenue()));
+        }
+        for (OrderAnalyticsDelta.Product product : delta.products()) {
+            ProductTotals totals = products.computeIfAbsent(product.productId(), key -> new ProductTotals());
+            if (totals.name == null) {
+                totals.name = product.productName();
+            }
+            totals.units.add(product.unitsSold());
+            totals.revenue.add(toUnits(product.revenue()));
+        }
+    }
+
+    private static long toUnits(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(REVENUE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, REVENUE_SCALE);
+    }
+
+    private static final class HourTotals {
+        final LongAdder orders = new LongAdder();
+        final LongAdder revenue = new LongAdder();
+    }
+
+    private static final class ProductTotals {
+        final LongAdder units = new LongAdder();
+        final LongAdder revenue = new LongAdder();
+        // Latest name seen; the rollup keeps it for display only
+        volatile String name;
+    }
+}
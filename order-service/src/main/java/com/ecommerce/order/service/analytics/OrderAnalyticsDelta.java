@@ -0,0 +1,26 @@
+package com.ecommerce.order.service.analytics;
+
+import com.ecommerce.order.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * What {@link OrderAnalyticsCollector} counted since its last flush, to be added to the rollup
+ * tables. Status counts can be negative: an order leaving a status takes one off it.
+ */
+public record OrderAnalyticsDelta(Map<OrderStatus, Long> statusCounts, List<Hour> hours, List<Product> products) {
+
+    public record Hour(LocalDateTime hour, long ordersPlaced, BigDecimal revenue) {
+    }
+
+    public record Product(UUID productId, String productName, long unitsSold, BigDecimal revenue) {
+    }
+
+    public boolean isEmpty() {
+        return statusCounts.isEmpty() && hours.isEmpty() && products.isEmpty();
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.order.service.analytics;
+
+import com.ecommerce.order.dto.analytics.HourlyRevenue;
+import com.ecommerce.order.dto.analytics.ProductSales;
+import com.ecommerce.order.exception.InvalidAnalyticsQueryException;
+import com.ecommerce.order.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves order analytics from the rollups kept by {@link OrderAnalyticsCollector}, in place of
+ * scans such as {@code OrderRepository.findOrdersBetweenDates}. Queries are capped so each one
+ * reads a bounded number of rollup rows.
+ */
+@Service
+public class OrderAnalyticsService {
+
+    private final OrderAnalyticsStore store;
+    private final long maxHours;
+    private final int maxTopProducts;
+
+    public OrderAnalyticsService(OrderAnalyticsStore store,
+                                 @Value("${app.order.analytics.max-hours:744}") long maxHours,
+                                 @Value("${app.order.analytics.max-top-products:100}") int maxTopProducts) {
+        this.store = store;
+        this.maxHours = maxHours;
+        this.maxTopProducts = maxTopProducts;
+    }
+
+    public Map<OrderStatus, Long> getStatusCounts() {
+        return store.statusCounts();
+    }
+
+    /**
+     * Hours from the one containing {@code from} up to, not including, the one containing
+     * {@code to}.
+     */
+    public List<HourlyRevenue> getHourlyRevenue(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.HOURS);
+        if (!start.isBefore(end)) {
+            throw new InvalidAnalyticsQueryException("from must be at least an hour before to");
+        }
+        if (Duration.between(start, end).toHours() > maxHours) {
+            throw new InvalidAnalyticsQueryException("At most " + maxHours + " hours can be queried at once");
+        }
+        return store.hourlyRevenue(start, end);
+    }
+
+    public List<ProductSales> getTopProducts(int limit) {
+        if (limit < 1 || limit > maxTopProducts) {
+            throw new InvalidAnalyticsQueryException("limit must be between 1 and " + maxTopProducts);
+        }
+        return store.topProducts(limit);
+    }
+}
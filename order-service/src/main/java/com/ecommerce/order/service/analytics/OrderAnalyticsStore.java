@@ -0,0 +1,133 @@
+package com.ecommerce.order.service.analytics;
+
+import com.ecommerce.order.dto.analytics.HourlyRevenue;
+import com.ecommerce.order.dto.analytics.ProductSales;
+import com.ecommerce.order.model.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * SQL over the rollup tables of V9. Every read touches a bounded number of rows: one per status,
+ * one per hour asked for, or the first rows of the units-sold index, however many orders exist.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderAnalyticsStore {
+
+    private static final Set<String> STATUS_NAMES = Arrays.stream(OrderStatus.values())
+            .map(Enum::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private static final String ADD_STATUS_COUNT = """
+            INSERT INTO order_status_rollup (status, order_count) VALUES (?, ?)
+            ON CONFLICT (status) DO UPDATE SET order_count = order_status_rollup.order_count + EXCLUDED.order_count
+            """;
+
+    private static final String ADD_HOUR = """
+            INSERT INTO order_hourly_rollup (hour, orders_placed, revenue) VALUES (?, ?, ?)
+            ON CONFLICT (hour) DO UPDATE
+            SET orders_placed = order_hourly_rollup.orders_placed + EXCLUDED.orders_placed,
+                revenue = order_hourly_rollup.revenue + EXCLUDED.revenue
+            """;
+
+    private static final String ADD_PRODUCT = """
+            INSERT INTO order_product_rollup (product_id, product_name, units_sold, revenue) VALUES (?, ?, ?, ?)
+            ON CONFLICT (product_id) DO UPDATE
+            SET product_name = COALESCE(EXCLUDED.product_name, order_product_rollup.product_name),
+                units_sold = order_product_rollup.units_sold + EXCLUDED.units_sold,
+                revenue = order_product_rollup.revenue + EXCLUDED.revenue
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds {@code delta} to the rollup rows in one transaction. Rows are written in key order, so
+     * instances flushing at the same time lock them in the same order and cannot deadlock.
+     */
+    @Transactional
+    public void add(OrderAnalyticsDelta delta) {
+        List<Map.Entry<OrderStatus, Long>> statuses = new ArrayList<>(delta.statusCounts().entrySet());
+        statuses.sort(Comparator.comparing(entry -> entry.getKey().name()));
+        jdbcTemplate.batchUpdate(ADD_STATUS_COUNT, statuses, statuses.size(), (ps, entry) -> {
+            ps.setString(1, entry.getKey().name());
+            ps.setLong(2, entry.getValue());
+        });
+
+        List<OrderAnalyticsDelta.Hour> hours = new ArrayList<>(delta.hours());
+        hours.sort(Comparator.comparing(OrderAnalyticsDelta.Hour::hour));
+        jdbcTemplate.batchUpdate(ADD_HOUR, hours, hours.size(), (ps, hour) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(hour.hour()));
+            ps.setLong(2, hour.ordersPlaced());
+            ps.setBigDecimal(3, hour.revenue());
+        });
+
+        List<OrderAnalyticsDelta.Product> products = new ArrayList<>(delta.products());
+        products.sort(Comparator.comparing(OrderAnalyticsDelta.Product::productId));
+        jdbcTemplate.batchUpdate(ADD_PRODUCT, products, products.size(), (ps, product) -> {
+            ps.setObject(1, product.productId());
+            ps.setString(2, product.productName());
+            ps.setLong(3, product.unitsSold());
+            ps.setBigDecimal(4, product.revenue());
+        });
+    }
+
+    /**
+     * Orders per status, with every status present.
+     */
+    public Map<OrderStatus, Long> statusCounts() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, 0L);
+        }
+        jdbcTemplate.query("SELECT status, order_count FROM order_status_rollup", rs -> {
+            String status = rs.getString("status");
+            // Backfilled rows may carry statuses this version no longer has
+            if (STATUS_NAMES.contains(status)) {
+                counts.put(OrderStatus.valueOf(status), rs.getLong("order_count"));
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Hours in {@code [from, to)} that had orders, oldest first.
+     */
+    public List<HourlyRevenue> hourlyRevenue(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT hour, orders_placed, revenue FROM order_hourly_rollup WHERE hour >= ? AND hour < ? ORDER BY hour",
+                (rs, rowNum) -> new HourlyRevenue(
+                        rs.getTimestamp("hour").toLocalDateTime(),
+                        rs.getLong("orders_placed"),
+                        rs.getBigDecimal("revenue")),
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * The {@code limit} products with the most units sold.
+     */
+    public List<ProductSales> topProducts(int limit) {
+        return jdbcTemplate.query(
+                "SELECT product_id, product_name, units_sold, revenue FROM order_product_rollup " +
+                "ORDER BY units_sold DESC, product_id LIMIT ?",
+                (rs, rowNum) -> new ProductSales(
+                        rs.getObject("product_id", UUID.class),
+                        rs.getString("product_name"),
+                        rs.getLong("units_sold"),
+                        rs.getBigDecimal("revenue")),
+                limit);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.order.service.analytics;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published in the transaction that saved a new order, with the figures
+ * {@link OrderAnalyticsCollector} rolls up, so it never has to load the order again.
+ */
+public record OrderPlacedEvent(UUID orderId, LocalDateTime createdAt, BigDecimal total, List<Line> lines) {
+
+    public record Line(UUID productId, String productName, int quantity, BigDecimal totalPrice) {
+    }
+
+    public static OrderPlacedEvent of(Order order) {
+        List<Line> lines = order.getItems() == null ? List.of() : order.getItems().stream()
+                .map(OrderPlacedEvent::line)
+                .toList();
+        return new OrderPlacedEvent(order.getId(), order.getCreatedAt(), order.getTotal(), lines);
+    }
+
+    private static Line line(OrderItem item) {
+        return new Line(item.getProductId(), item.getProductName(),
+                item.getQuantity() != null ? item.getQuantity() : 0, item.getTotalPrice());
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.order.service.events;
+
+import java.util.UUID;
+
+/**
+ * An inbound payment or inventory event reduced to what changes an order.
+ *
+ * @param eventId   unique per event and stable across redeliveries; used to skip duplicates
+ * @param orderId   order the event is about
+ * @param eventType the producer's event type, e.g. {@code payment-received}
+ * @param reason    failure reason, if the producer sent one
+ */
+public record OrderStatusEvent(String eventId, UUID orderId, String eventType, String reason) {
+}
@@ -0,0 +1,243 @@
+package com.ecommerce.order.service.events;
+
+import com.ecommerce.events.OrderEvent;
+import com.ecommerce.order.exception.OrderEventProcessingException;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderSaga;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.ProcessedOrderEvent;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderSagaRepository;
+import com.ecommerce.order.repository.ProcessedOrderEventRepository;
+import com.ecommerce.order.service.saga.OrderSagaOrchestrator;
+import com.ecommerce.order.service.tracking.OrderStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.ecommerce.order.model.OrderStatus.*;
+
+/**
+ * Applies a batch of inbound payment and inventory events to orders: one query for the events
+ * already seen, one for the orders, one for the sagas of payment replies, then a single flush.
+ * If the batch cannot be committed as a whole, the orders are retried one by one so a single
+ * bad order does not hold back the rest.
+ */
+@Slf4j
+@Service
+public class OrderStatusEventProcessor {
+
+    public static final Set<String> HANDLED_EVENT_TYPES = Set.of(
+            "payment-received", "payment-failed", "payment-refunded",
+            "inventory-reserved", "inventory-out-of-stock");
+
+    private static final String ORDER_EVENTS_TOPIC = "order-events";
+
+    // Mirrors validate_order_status_transition() in V1, so a stale event skips itself instead of failing the flush
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED_TRANSITIONS = Map.of(
+            PENDING, EnumSet.of(PROCESSING, CANCELLED),
+            PROCESSING, EnumSet.of(PAID, CANCELLED),
+            PAID, EnumSet.of(SHIPPED, CANCELLED),
+            SHIPPED, EnumSet.of(DELIVERED, CANCELLED),
+            DELIVERED, EnumSet.of(REFUNDED));
+
+    private final OrderRepository orderRepository;
+    private final OrderSagaRepository sagaRepository;
+    private final ProcessedOrderEventRepository processedEventRepository;
+    private final OrderSagaOrchestrator sagaOrchestrator;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration processedRetention;
+
+    public OrderStatusEventProcessor(OrderRepository orderRepository,
+                                     OrderSagaRepository sagaRepository,
+                                     ProcessedOrderEventRepository processedEventRepository,
+                                     OrderSagaOrchestrator sagaOrchestrator,
+                                     KafkaTemplate<String, Object> kafkaTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${app.order.events.processed-retention:7d}") Duration processedRetention) {
+        this.orderRepository = orderRepository;
+        this.sagaRepository = sagaRepository;
+        this.processedEventRepository = processedEventRepository;
+        this.sagaOrchestrator = sagaOrchestrator;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.processedRetention = processedRetention;
+    }
+
+    public static boolean handles(String eventType) {
+        return eventType != null && HANDLED_EVENT_TYPES.contains(eventType);
+    }
+
+    /**
+     * Applies the events in order. Events whose id was already processed are skipped.
+     *
+     * @throws OrderEventProcessingException with the first event of the first order whose
+     *                                       events could not be applied; the orders before it are committed
+     */
+    public void process(List<OrderStatusEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<Order> changed;
+        try {
+            changed = transactionTemplate.execute(status -> apply(events));
+        } catch (RuntimeException e) {
+            log.warn("Applying {} order events in one transaction failed, retrying order by order: {}",
+                    events.size(), e.getMessage());
+            changed = new ArrayList<>();
+            // Orders in order of their first event, so everything before a failure is committed
+            Map<UUID, List<OrderStatusEvent>> byOrder = events.stream().collect(Collectors.groupingBy(
+                    OrderStatusEvent::orderId, LinkedHashMap::new, Collectors.toList()));
+            for (List<OrderStatusEvent> orderEvents : byOrder.values()) {
+                try {
+                    changed.addAll(transactionTemplate.execute(status -> apply(orderEvents)));
+                } catch (RuntimeException orderError) {
+                    publishStatusUpdates(changed);
+                    throw new OrderEventProcessingException(orderEvents.get(0), orderError);
+                }
+            }
+        }
+        publishStatusUpdates(changed);
+    }
+
+    @Scheduled(cron = "${app.order.events.processed-purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeProcessedEvents() {
+        int deleted = processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(processedRetention));
+        if (deleted > 0) {
+            log.info("Purged {} processed order event ids older than {}", deleted, processedRetention);
+        }
+    }
+
+    private List<Order> apply(List<OrderStatusEvent> events) {
+        Map<String, OrderStatusEvent> fresh = new LinkedHashMap<>();
+        events.forEach(event -> fresh.putIfAbsent(event.eventId(), event));
+        fresh.keySet().removeAll(processedEventRepository.findExistingIds(fresh.keySet()));
+        if (fresh.isEmpty()) {
+            log.debug("All {} order events were already processed", events.size());
+            return List.of();
+        }
+
+        Set<UUID> orderIds = fresh.values().stream()
+                .map(OrderStatusEvent::orderId)
+                .collect(Collectors.toSet());
+        Map<UUID, Order> orders = orderRepository.findAllInPartitionsById(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        Map<UUID, OrderSaga> sagas = lockSagasForPaymentReplies(fresh.values());
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, Order> changed = new LinkedHashMap<>();
+        List<ProcessedOrderEvent> processed = new ArrayList<>(fresh.size());
+        for (OrderStatusEvent event : fresh.values()) {
+            processed.add(new ProcessedOrderEvent(event.eventId(), event.orderId(), now));
+            Order order = orders.get(event.orderId());
+            if (order == null) {
+                log.warn("Skipping {} event {}: order {} not found", event.eventType(), event.eventId(), event.orderId());
+                continue;
+            }
+            if (applyEvent(event, order, sagas.get(order.getId()), now)) {
+                changed.put(order.getId(), order);
+            }
+        }
+        processedEventRepository.saveAll(processed);
+        return new ArrayList<>(changed.values());
+    }
+
+    private Map<UUID, OrderSaga> lockSagasForPaymentReplies(Iterable<OrderStatusEvent> events) {
+        Set<UUID> orderIds = new HashSet<>();
+        for (OrderStatusEvent event : events) {
+            if ("payment-received".equals(event.eventType()) || "payment-failed".equals(event.eventType())) {
+                orderIds.add(event.orderId());
+            }
+        }
+        if (orderIds.isEmpty()) {
+            return Map.of();
+        }
+        return sagaRepository.findByOrderIdInForUpdate(orderIds).stream()
+                .collect(Collectors.toMap(OrderSaga::getOrderId, Function.identity()));
+    }
+
+    // Orders placed before sagas existed have none and are updated directly
+    private boolean applyEvent(OrderStatusEvent event, Order order, OrderSaga saga, LocalDateTime now) {
+        return switch (event.eventType()) {
+            case "payment-received" -> {
+                if (saga != null) {
+                    sagaOrchestrator.onPaymentAuthorized(saga);
+                    yield false;
+                }
+                yield transition(order, PAID, now);
+            }
+            case "payment-failed" -> {
+                if (saga != null) {
+                    sagaOrchestrator.onPaymentFailed(saga, event.reason());
+                    yield false;
+                }
+                yield transition(order, CANCELLED, now);
+            }
+            case "payment-refunded" -> transition(order, REFUNDED, now);
+            case "inventory-reserved" -> transition(order, PROCESSING, now);
+            case "inventory-out-of-stock" -> transition(order, CANCELLED, now);
+            default -> {
+                log.debug("Ignoring {} event {}", event.eventType(), event.eventId());
+                yield false;
+            }
+        };
+    }
+
+    private boolean transition(Order order, OrderStatus target, LocalDateTime now) {
+        OrderStatus current = order.getStatus();
+        if (current == target) {
+            return false;
+        }
+        if (!ALLOWED_TRANSITIONS.getOrDefault(current, Set.of()).contains(target)) {
+            log.warn("Ignoring transition of order {} from {} to {}", order.getId(), current, target);
+            return false;
+        }
+        order.setStatus(target);
+        order.setUpdatedAt(now);
+        order.addStatusHistory(target, String.format("Status changed from %s to %s", current, target));
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(order));
+        return true;
+    }
+
+    // One event per order with its final status, after the batch is committed
+    private void publishStatusUpdates(List<Order> orders) {
+        for (Order order : orders) {
+            try {
+                kafkaTemplate.send(ORDER_EVENTS_TOPIC, order.getOrderNumber(), new OrderEvent(
+                        "ORDER_STATUS_UPDATED",
+                        order.getId(),
+                        order.getOrderNumber(),
+                        order.getCustomerId(),
+                        order.getStatus().name(),
+                        Instant.now()));
+            } catch (Exception e) {
+                log.error("Error publishing status update for order {}: {}", order.getId(), e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.order.service.id;
+
+import java.util.Arrays;
+
+/**
+ * Source of the identifiers the service hands out itself: order numbers, return numbers and
+ * payment transaction IDs. Implementations must be thread safe and must not repeat an ID within
+ * the deployment, without asking the database.
+ */
+public interface IdGenerator {
+
+    /** Crockford base32, which leaves out I, L, O and U so numbers can be read out over the phone. */
+    char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    /** Characters needed for any non-negative {@code long}; fixed so text order matches numeric order. */
+    int ENCODED_LENGTH = 13;
+
+    long nextId();
+
+    /**
+     * The next ID as {@code prefix} followed by its fixed-width base32 form, e.g.
+     * {@code ORD-01HZ5R3K9X2QF}.
+     */
+    default String nextId(String prefix) {
+        return encode(prefix, nextId());
+    }
+
+    static String encode(String prefix, long id) {
+        int length = prefix.length();
+        char[] chars = new char[length + ENCODED_LENGTH];
+        prefix.getChars(0, length, chars, 0);
+        for (int i = chars.length - 1; i >= length; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Inverse of {@link #encode}.
+     *
+     * @throws IllegalArgumentException if {@code text} is not {@code prefix} followed by an
+     *                                  encoded ID, e.g. an order number from before these IDs
+     */
+    static long decode(String prefix, String text) {
+        if (text == null || text.length() != prefix.length() + ENCODED_LENGTH || !text.startsWith(prefix)) {
+            throw new IllegalArgumentException("Not an encoded ID: " + text);
+        }
+        long id = 0;
+        for (int i = prefix.length(); i < text.length(); i++) {
+            int digit = Arrays.binarySearch(ALPHABET, text.charAt(i));
+            // The leading character carries only the top 3 bits of a non-negative long
+            if (digit < 0 || (i == prefix.length() && digit > 7)) {
+                throw new IllegalArgumentException("Not an encoded ID: " + text);
+            }
+            id = (id << 5) | digit;
+        }
+        return id;
+    }
+}
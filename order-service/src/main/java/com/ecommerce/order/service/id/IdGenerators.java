@@ -0,0 +1,22 @@
+package com.ecommerce.order.service.id;
+
+/**
+ * The generator used where no bean can be injected, i.e. the {@code @PrePersist} fallbacks of
+ * {@code Order} and {@code OrderReturn}. {@code IdGeneratorConfig} installs the application's
+ * generator at startup so both paths draw from the same sequence.
+ */
+public final class IdGenerators {
+
+    private static volatile IdGenerator shared = new SnowflakeIdGenerator(NodeIds.fromLocalAddress());
+
+    private IdGenerators() {
+    }
+
+    public static IdGenerator shared() {
+        return shared;
+    }
+
+    public static void install(IdGenerator generator) {
+        shared = generator;
+    }
+}
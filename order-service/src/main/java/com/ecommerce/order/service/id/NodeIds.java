@@ -0,0 +1,40 @@
+package com.ecommerce.order.service.id;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.util.Collections;
+
+/**
+ * Default node ID when {@code app.order.ids.node-id} is not set: the low 10 bits of the
+ * instance's IPv4 address. Unique as long as all instances sit in one /22, which holds for a
+ * compose network or a single pod subnet; larger deployments should set the node ID explicitly.
+ */
+public final class NodeIds {
+
+    private NodeIds() {
+    }
+
+    public static int fromLocalAddress() {
+        try {
+            for (NetworkInterface nic : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+                if (nic.isLoopback() || !nic.isUp()) {
+                    continue;
+                }
+                for (InetAddress address : Collections.list(nic.getInetAddresses())) {
+                    if (address instanceof Inet4Address) {
+                        return fromAddress(address.getAddress());
+                    }
+                }
+            }
+        } catch (SocketException e) {
+            // Fall through to the loopback-only case
+        }
+        return 0;
+    }
+
+    static int fromAddress(byte[] ipv4) {
+        return ((ipv4[2] & 0xFF) << 8 | (ipv4[3] & 0xFF)) & SnowflakeIdGenerator.MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.order.service.id;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style 63-bit IDs: milliseconds since {@link #EPOCH} (41 bits, good until 2093), the
+ * node ID (10 bits) and a per-millisecond sequence (12 bits). Two instances with different node
+ * IDs can never produce the same value, and one instance never produces the same value twice.
+ *
+ * <p>IDs are strictly increasing per instance. Timestamp and sequence live in one
+ * {@link AtomicLong} and advance with a single CAS, so there is no lock and no allocation. When
+ * the 4096 values of a millisecond run out, or the wall clock steps backwards, the generator
+ * keeps counting on its own logical clock rather than waiting for the wall clock to catch up.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long TIMESTAMP_LIMIT = 1L << (63 - NODE_BITS - SEQUENCE_BITS);
+
+    private final long nodeBits;
+    private final Clock clock;
+    private final long epochMillis = EPOCH.toEpochMilli();
+
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last ID handed out
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+
+    public SnowflakeIdGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        long now = clock.millis() - epochMillis;
+        long last;
+        long next;
+        do {
+            last = state.get();
+            // Overflowing the sequence carries into the timestamp, which is the logical clock
+            next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+        } while (!state.compareAndSet(last, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        if (timestamp >= TIMESTAMP_LIMIT) {
+            throw new IllegalStateException("Clock is outside the range this generator can encode");
+        }
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & ((1L << SEQUENCE_BITS) - 1));
+    }
+
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    public static Instant timestampOf(long id) {
+        return EPOCH.plusMillis(id >>> (NODE_BITS + SEQUENCE_BITS));
+    }
+
+    /**
+     * The smallest ID any node can generate at {@code instant}. IDs sort by time, so
+     * {@code [firstIdAt(from), firstIdAt(to))} holds the IDs generated in that interval.
+     */
+    public static long firstIdAt(Instant instant) {
+        long millis = Math.max(0, instant.toEpochMilli() - EPOCH.toEpochMilli());
+        if (millis >= TIMESTAMP_LIMIT) {
+            throw new IllegalArgumentException("Instant is outside the range IDs can encode: " + instant);
+        }
+        return millis << (NODE_BITS + SEQUENCE_BITS);
+    }
+}
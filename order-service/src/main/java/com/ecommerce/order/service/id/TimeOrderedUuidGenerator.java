@@ -0,0 +1,50 @@
+package com.ecommerce.order.service.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Version 7 UUIDs (RFC 9562): milliseconds since the Unix epoch (48 bits) followed by 74 random
+ * bits. Orders take their id from here, so an order id tells which {@code created_at} partition
+ * the order lives in, the way its order number does. The random part is drawn from
+ * {@link SecureRandom}, as for the version 4 ids used before, so ids stay unguessable.
+ */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int VERSION = 7;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return next(Instant.now());
+    }
+
+    public static UUID next(Instant now) {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+        long msb = now.toEpochMilli() << 16 | VERSION << 12 | (random[0] & 0x0F) << 8 | random[1] & 0xFF;
+        long lsb = 0;
+        for (int i = 2; i < random.length; i++) {
+            lsb = lsb << 8 | random[i] & 0xFF;
+        }
+        // IETF variant: the top two bits are 10
+        lsb = lsb & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * When {@code id} was generated; empty for ids of any other version, e.g. the random ids of
+     * orders placed before this generator.
+     */
+    public static Optional<Instant> timestampOf(UUID id) {
+        if (id == null || id.version() != VERSION || id.variant() != 2) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16));
+    }
+}
@@ -0,0 +1,238 @@
+package com.ecommerce.order.service.idempotency;
+
+import com.ecommerce.order.exception.IdempotencyConflictException;
+import com.ecommerce.order.exception.InvalidIdempotencyKeyException;
+import com.ecommerce.order.model.IdempotencyRecord;
+import com.ecommerce.order.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}. Completed responses are kept in a
+ * Caffeine cache in front of the {@code idempotency_keys} table, so a retry replays the first
+ * response without touching the database on the instance that served it, and from the table
+ * everywhere else.
+ *
+ * <p>Duplicates that arrive while the first request is still running on this instance wait for
+ * it and share its outcome. A duplicate that reaches another instance in that window gets 409,
+ * since the key is claimed in the table before the request runs. A key reused with a different
+ * request body gets 422. When the request fails the key is released, so the client may retry.
+ * Once it has succeeded the key is marked executed before its response is stored, and an executed
+ * key is never claimed again until it expires, so a lost response cannot lead to a second run.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    static final int MAX_KEY_LENGTH = 255;
+    private static final int WRITE_ATTEMPTS = 3;
+    private static final Duration WRITE_RETRY_BACKOFF = Duration.ofMillis(50);
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.order.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.order.idempotency.lock-timeout:2m}") Duration lockTimeout,
+                              @Value("${app.order.idempotency.cache-maximum-size:100000}") long cacheMaximumSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs {@code action} unless a request with the same key already ran, in which case its
+     * response is returned instead. Without a key the action simply runs.
+     *
+     * @param operation    names the endpoint; the same key may be used once per operation
+     * @param request      everything that identifies the request, compared on replay
+     * @param responseType type the stored response is read back as
+     */
+    public <T> T execute(String operation, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = operation + ':' + key;
+        String requestHash = fingerprint(operation, request);
+
+        StoredResponse cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            return replay(await(running), requestHash, responseType);
+        }
+        try {
+            StoredResponse earlier = claim(id, operation, requestHash);
+            if (earlier != null) {
+                mine.complete(earlier);
+                return replay(earlier, requestHash, responseType);
+            }
+
+            T result;
+            try {
+                result = action.get();
+            } catch (RuntimeException e) {
+                repository.release(id);
+                throw e;
+            }
+
+            // From here on the key must never be claimed again, even if its response is not stored
+            write("mark executed", id, () -> repository.markExecuted(id));
+            StoredResponse stored = new StoredResponse(requestHash, toJson(result));
+            completed.put(id, stored);
+            mine.complete(stored);
+            write("store the response of", id, () -> repository.complete(id, stored.body()));
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    @Scheduled(cron = "${app.order.idempotency.purge-cron:0 15 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    // Null when the key is now ours; the stored response when an earlier request completed it
+    private StoredResponse claim(String id, String operation, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.claim(id, operation, requestHash, now, now.plus(lockTimeout), now.plus(ttl)) == 1) {
+            return null;
+        }
+        IdempotencyRecord record = repository.findById(id)
+                .orElseThrow(() -> new IdempotencyConflictException("Request with this " + HEADER + " was just released, retry"));
+        if (record.isExecuted()) {
+            throw new IdempotencyConflictException("A request with this " + HEADER + " was processed but its response is not available");
+        }
+        if (!record.isCompleted()) {
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+        }
+        StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getResponseBody());
+        completed.put(id, stored);
+        return stored;
+    }
+
+    /**
+     * Writes the outcome of an action that has already taken effect, retrying transient failures.
+     * Failing the request here would only make the client retry it, so a write that keeps failing
+     * is logged instead; this instance still replays the response from memory.
+     */
+    private void write(String what, String id, Supplier<Integer> statement) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (statement.get() == 0) {
+                    log.warn("Could not {} idempotency key {}: it was taken over or expired while the request ran", what, id);
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == WRITE_ATTEMPTS) {
+                    log.error("Could not {} idempotency key {} after {} attempts", what, id, attempt, e);
+                    return;
+                }
+                log.warn("Could not {} idempotency key {}, retrying: {}", what, id, e.getMessage());
+                try {
+                    Thread.sleep(WRITE_RETRY_BACKOFF.toMillis() * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    log.error("Interrupted while trying to {} idempotency key {}", what, id);
+                    return;
+                }
+            }
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(lockTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the original request");
+        }
+    }
+
+    private <T> T replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new InvalidIdempotencyKeyException(HEADER + " was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(stored.body(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response is not a " + responseType.getSimpleName(), e);
+        }
+    }
+
+    String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint request for " + operation, e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store response of type " + response.getClass().getSimpleName(), e);
+        }
+    }
+
+    record StoredResponse(String requestHash, String body) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.order.service.partition;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes query rows as gzip-compressed CSV, with a header taken from the first row's columns, so
+ * archived tables keep every column whatever the schema looks like. NULL is written as an empty
+ * field and an empty string as {@code ""}.
+ */
+class GzipCsvWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileOutputStream file;
+    private final GZIPOutputStream gzip;
+    private final BufferedWriter writer;
+    private int columns = -1;
+    private long rows;
+
+    GzipCsvWriter(Path path) throws IOException {
+        this.file = new FileOutputStream(path.toFile());
+        // syncFlush so sync() leaves a readable stream on disk even if the run dies afterwards
+        this.gzip = new GZIPOutputStream(file, BUFFER_SIZE, true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    void write(ResultSet rs) throws SQLException {
+        try {
+            if (columns < 0) {
+                ResultSetMetaData meta = rs.getMetaData();
+                columns = meta.getColumnCount();
+                for (int i = 1; i <= columns; i++) {
+                    field(meta.getColumnLabel(i), i);
+                }
+                writer.newLine();
+            }
+            for (int i = 1; i <= columns; i++) {
+                field(rs.getString(i), i);
+            }
+            writer.newLine();
+            rows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Forces everything written so far to disk. Call before deleting the rows it holds.
+     */
+    void sync() throws IOException {
+        writer.flush();
+        gzip.flush();
+        file.getFD().sync();
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void field(String value, int column) throws IOException {
+        if (column > 1) {
+            writer.write(',');
+        }
+        if (value == null) {
+            return;
+        }
+        if (value.isEmpty() || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
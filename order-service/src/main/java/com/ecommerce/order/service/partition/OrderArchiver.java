@@ -0,0 +1,201 @@
+package com.ecommerce.order.service.partition;
+
+import com.ecommerce.order.model.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Moves the closed orders of one month out of the database into gzip CSV files, together with
+ * their items and status history. Each batch is exported, forced to disk and only then deleted,
+ * in a transaction that locks its orders with {@code SKIP LOCKED}, so several instances can
+ * archive the same month without taking the same orders. A batch whose delete fails is exported
+ * again by the next run: an archive can hold a row twice but never loses one.
+ *
+ * <p>Every statement bounds the partition key, so only the month's partitions are touched.
+ * Payments and returns are kept; they are financial records with their own retention.
+ *
+ * <p>The archive is the only copy left once the rows are deleted, so {@code app.order.archive.dir}
+ * has to be durable storage that outlives the instance, such as a mounted network volume. Nothing
+ * is archived while it is unset.
+ */
+@Component
+public class OrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+    private static final DateTimeFormatter RUN_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private static final String[] CLOSED_STATUSES = Arrays.stream(OrderStatus.values())
+            .filter(OrderStatus::isClosed)
+            .map(Enum::name)
+            .toArray(String[]::new);
+
+    // status is compared as text: older schemas store it as the order_status enum, newer ones as varchar
+    private static final String LOCK_BATCH =
+            "SELECT id FROM orders WHERE created_at >= ? AND created_at < ? AND status::text = ANY (?) " +
+            "LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String EXPORT_ORDERS =
+            "SELECT * FROM orders WHERE id = ANY (?) AND created_at >= ? AND created_at < ?";
+    private static final String EXPORT_ITEMS =
+            "SELECT * FROM order_items WHERE order_id = ANY (?) AND order_created_at >= ? AND order_created_at < ?";
+    private static final String EXPORT_HISTORY = "SELECT * FROM order_status_history WHERE order_id = ANY (?)";
+    private static final String DELETE_HISTORY = "DELETE FROM order_status_history WHERE order_id = ANY (?)";
+    private static final String DELETE_SAGAS = "DELETE FROM order_sagas WHERE order_id = ANY (?)";
+    private static final String DELETE_TRACKING_VIEWS = "DELETE FROM order_tracking_views WHERE order_id = ANY (?)";
+    // order_items rows go with their order through ON DELETE CASCADE
+    private static final String DELETE_ORDERS =
+            "DELETE FROM orders WHERE id = ANY (?) AND created_at >= ? AND created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path archiveDir;
+    private final int batchSize;
+
+    public OrderArchiver(JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${app.order.archive.dir:}") String archiveDir,
+                         @Value("${app.order.archive.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.archiveDir = archiveDir.isBlank() ? null : Path.of(archiveDir);
+        this.batchSize = batchSize;
+        if (this.archiveDir == null) {
+            log.warn("app.order.archive.dir is not set, old orders will not be archived");
+        }
+    }
+
+    /**
+     * Whether an archive location is configured.
+     */
+    public boolean isEnabled() {
+        return archiveDir != null;
+    }
+
+    /**
+     * Archives the closed orders created in {@code month} and returns how many were moved.
+     * Files are named {@code <table>-<month>-<run>.csv.gz}; runs that move nothing leave none.
+     *
+     * @throws IllegalStateException if no archive location is configured
+     */
+    public long archive(YearMonth month) {
+        if (archiveDir == null) {
+            throw new IllegalStateException("Orders of " + month + " cannot be archived: app.order.archive.dir is not set");
+        }
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        String suffix = "-" + month + "-" + RUN_STAMP.format(LocalDateTime.now()) + ".csv.gz";
+        boolean withHistory = tableExists("order_status_history");
+
+        Path ordersFile = archiveDir.resolve("orders" + suffix);
+        Path itemsFile = archiveDir.resolve("order_items" + suffix);
+        Path historyFile = archiveDir.resolve("order_status_history" + suffix);
+        long archived = 0;
+        try {
+            Files.createDirectories(archiveDir);
+            try (GzipCsvWriter orders = new GzipCsvWriter(ordersFile);
+                 GzipCsvWriter items = new GzipCsvWriter(itemsFile);
+                 GzipCsvWriter history = withHistory ? new GzipCsvWriter(historyFile) : null) {
+                Integer moved;
+                while ((moved = transactionTemplate.execute(status ->
+                        archiveBatch(from, to, orders, items, history))) > 0) {
+                    archived += moved;
+                }
+            }
+            if (archived == 0) {
+                Files.deleteIfExists(ordersFile);
+                Files.deleteIfExists(itemsFile);
+                Files.deleteIfExists(historyFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the order archive of " + month, e);
+        }
+        if (archived > 0) {
+            log.info("Archived {} closed orders of {} to {}", archived, month, ordersFile);
+        }
+        return archived;
+    }
+
+    /**
+     * Whether any order, closed or not, is left in {@code month}.
+     */
+    public boolean hasOrders(YearMonth month) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM orders WHERE created_at >= ? AND created_at < ?)", Boolean.class,
+                Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+                Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+        return Boolean.TRUE.equals(exists);
+    }
+
+    private int archiveBatch(Timestamp from, Timestamp to, GzipCsvWriter orders, GzipCsvWriter items,
+                             GzipCsvWriter history) {
+        UUID[] ids = jdbcTemplate.query(statement(LOCK_BATCH, from, to, CLOSED_STATUSES, batchSize),
+                (rs, rowNum) -> rs.getObject(1, UUID.class)).toArray(UUID[]::new);
+        if (ids.length == 0) {
+            return 0;
+        }
+
+        jdbcTemplate.query(statement(EXPORT_ORDERS, ids, from, to), orders::write);
+        jdbcTemplate.query(statement(EXPORT_ITEMS, ids, from, to), items::write);
+        if (history != null) {
+            jdbcTemplate.query(statement(EXPORT_HISTORY, (Object) ids), history::write);
+        }
+        try {
+            orders.sync();
+            items.sync();
+            if (history != null) {
+                history.sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the order archive", e);
+        }
+
+        if (history != null) {
+            jdbcTemplate.update(statement(DELETE_HISTORY, (Object) ids));
+        }
+        jdbcTemplate.update(statement(DELETE_SAGAS, (Object) ids));
+        jdbcTemplate.update(statement(DELETE_TRACKING_VIEWS, (Object) ids));
+        jdbcTemplate.update(statement(DELETE_ORDERS, ids, from, to));
+        return ids.length;
+    }
+
+    private boolean tableExists(String table) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+    }
+
+    private static PreparedStatementCreator statement(String sql, Object... params) {
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            for (int i = 0; i < params.length; i++) {
+                bind(ps, i + 1, params[i]);
+            }
+            return ps;
+        };
+    }
+
+    private static void bind(PreparedStatement ps, int index, Object value) throws SQLException {
+        if (value instanceof UUID[] uuids) {
+            ps.setArray(index, ps.getConnection().createArrayOf("uuid", uuids));
+        } else if (value instanceof String[] strings) {
+            ps.setArray(index, ps.getConnection().createArrayOf("text", strings));
+        } else {
+            ps.setObject(index, value);
+        }
+    }
+}
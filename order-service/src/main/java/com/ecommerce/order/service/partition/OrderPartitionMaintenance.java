@@ -0,0 +1,125 @@
+package com.ecommerce.order.service.partition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of {@code orders} and {@code order_items} in shape. Partitions
+ * are created a few months ahead, at startup and nightly; orders of a month without one go to a
+ * default partition (V10) and are moved out once the month's partition exists. Months older
+ * than the archive age have their closed orders archived by {@link OrderArchiver}, if an archive
+ * location is configured; once a month is empty its partitions are detached and dropped, which
+ * returns the space at once instead of leaving dead rows for vacuum.
+ */
+@Component
+public class OrderPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionMaintenance.class);
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderArchiver archiver;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+
+    public OrderPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     OrderArchiver archiver,
+                                     @Value("${app.order.partitions.months-ahead:3}") int monthsAhead,
+                                     @Value("${app.order.archive.after-months:12}") int archiveAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.archiver = archiver;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+    }
+
+    @Scheduled(cron = "${app.order.partitions.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        createUpcomingPartitions();
+        archiveOldMonths();
+    }
+
+    // A deployment after a long outage must not wait for the nightly run
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPartitionsOnStartup() {
+        createUpcomingPartitions();
+    }
+
+    /**
+     * Creates the partitions of the coming months and moves any orders that reached the default
+     * partitions into their month's partition.
+     */
+    public void createUpcomingPartitions() {
+        try {
+            jdbcTemplate.execute("SELECT ensure_order_partitions(" + monthsAhead + ")");
+        } catch (DataAccessException e) {
+            // Orders still land in the default partitions, which every query then has to scan
+            log.error("Could not create upcoming order partitions, new orders go to the default partition", e);
+        }
+    }
+
+    public void archiveOldMonths() {
+        if (!archiver.isEnabled()) {
+            // Old months stay in the database rather than go to a disk that may not survive the instance
+            return;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(archiveAfterMonths);
+        for (YearMonth month : partitionMonths()) {
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+            archiver.archive(month);
+            if (!archiver.hasOrders(month)) {
+                dropPartitions(month);
+            }
+        }
+    }
+
+    private List<YearMonth> partitionMonths() {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'orders'::regclass AND c.relname <> 'orders_default' " +
+                "ORDER BY c.relname", String.class);
+        List<YearMonth> months = new ArrayList<>();
+        for (String partition : partitions) {
+            try {
+                months.add(YearMonth.parse(partition.substring("orders_".length()), PARTITION_SUFFIX));
+            } catch (DateTimeParseException | StringIndexOutOfBoundsException e) {
+                log.warn("Ignoring orders partition {}: not named orders_yyyy_MM", partition);
+            }
+        }
+        return months;
+    }
+
+    private void dropPartitions(YearMonth month) {
+        String suffix = month.format(PARTITION_SUFFIX);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Items first: their foreign key would block detaching the orders partition
+                jdbcTemplate.execute("ALTER TABLE order_items DETACH PARTITION order_items_" + suffix);
+                jdbcTemplate.execute("DROP TABLE order_items_" + suffix);
+                jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION orders_" + suffix);
+                jdbcTemplate.execute("DROP TABLE orders_" + suffix);
+            });
+            log.info("Dropped the empty order partitions of {}", month);
+        } catch (DataAccessException e) {
+            log.warn("Could not drop the order partitions of {}: {}", month, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.order.service.partition;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.service.id.IdGenerator;
+import com.ecommerce.order.service.id.SnowflakeIdGenerator;
+import com.ecommerce.order.service.id.TimeOrderedUuidGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Helpers for querying {@code orders}, which is range-partitioned by {@code created_at} month
+ * (V8). A query only skips partitions when it bounds {@code created_at}, so lookups by a key
+ * that implies the creation time should pass that bound along.
+ */
+public final class OrderPartitions {
+
+    // Covers the gap between the UTC time in the order number or id and created_at in the server's zone
+    private static final Duration SLACK = Duration.ofDays(1);
+
+    private OrderPartitions() {
+    }
+
+    public record CreatedAtRange(LocalDateTime from, LocalDateTime to) {
+    }
+
+    /**
+     * The {@code created_at} range an order with this number must fall in. Order numbers embed
+     * their generation time, so the range spans about two days and at most two partitions.
+     * Empty for numbers issued before generated order numbers.
+     */
+    public static Optional<CreatedAtRange> createdAtRangeOf(String orderNumber) {
+        long id;
+        try {
+            id = IdGenerator.decode(Order.ORDER_NUMBER_PREFIX, orderNumber);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        return Optional.of(around(SnowflakeIdGenerator.timestampOf(id)));
+    }
+
+    /**
+     * The {@code created_at} range an order with this id must fall in. Empty for the random ids
+     * of orders placed before ids were time-ordered.
+     */
+    public static Optional<CreatedAtRange> createdAtRangeOf(UUID orderId) {
+        return TimeOrderedUuidGenerator.timestampOf(orderId).map(OrderPartitions::around);
+    }
+
+    /**
+     * One range covering all the given orders, e.g. for a batch lookup by id. Empty if any of
+     * them has no range of its own.
+     */
+    public static Optional<CreatedAtRange> createdAtRangeOf(Collection<UUID> orderIds) {
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (UUID orderId : orderIds) {
+            Optional<CreatedAtRange> range = createdAtRangeOf(orderId);
+            if (range.isEmpty()) {
+                return Optional.empty();
+            }
+            from = from == null || range.get().from().isBefore(from) ? range.get().from() : from;
+            to = to == null || range.get().to().isAfter(to) ? range.get().to() : to;
+        }
+        return from == null ? Optional.empty() : Optional.of(new CreatedAtRange(from, to));
+    }
+
+    private static CreatedAtRange around(Instant generatedAt) {
+        LocalDateTime at = LocalDateTime.ofInstant(generatedAt, ZoneOffset.UTC);
+        return new CreatedAtRange(at.minus(SLACK), at.plus(SLACK));
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.order.service.payment;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * What a gateway needs to authorize one payment. {@code reference} is our transaction ID, which
+ * gateways use as their idempotency key.
+ */
+public record GatewayAuthorization(UUID transactionId, String reference, BigDecimal amount,
+                                   String currency, String paymentMethod) {
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.order.service.payment;
+
+/**
+ * Outcome of an authorization. Declines come from the gateway; {@link #failed} covers calls that
+ * never produced an answer, such as timeouts and rejections by the pipeline itself.
+ */
+public record GatewayResult(boolean approved, String gatewayTransactionId, String responseCode, String message) {
+
+    public static final String TIMEOUT = "GATEWAY_TIMEOUT";
+    public static final String BUSY = "GATEWAY_BUSY";
+    public static final String ERROR = "GATEWAY_ERROR";
+
+    public static GatewayResult approved(String gatewayTransactionId, String message) {
+        return new GatewayResult(true, gatewayTransactionId, "200", message);
+    }
+
+    public static GatewayResult declined(String gatewayTransactionId, String responseCode, String message) {
+        return new GatewayResult(false, gatewayTransactionId, responseCode, message);
+    }
+
+    public static GatewayResult failed(String responseCode, String message) {
+        return new GatewayResult(false, null, responseCode, message);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.order.service.payment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a real processor. Each call sleeps for a configurable latency plus jitter
+ * and approves a configurable share of payments, so the pipeline can be load tested at realistic
+ * gateway latencies without an external dependency.
+ */
+@Component
+public class MockPaymentGateway implements PaymentGateway {
+
+    public static final String NAME = "MOCK_GATEWAY";
+
+    private final int maxConcurrency;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double approvalRate;
+
+    public MockPaymentGateway(@Value("${app.order.payment.mock-gateway.max-concurrency:256}") int maxConcurrency,
+                              @Value("${app.order.payment.mock-gateway.latency-ms:150}") long latencyMillis,
+                              @Value("${app.order.payment.mock-gateway.latency-jitter-ms:100}") long jitterMillis,
+                              @Value("${app.order.payment.mock-gateway.approval-rate:0.9}") double approvalRate) {
+        this.maxConcurrency = maxConcurrency;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.approvalRate = approvalRate;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public GatewayResult authorize(GatewayAuthorization authorization) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return GatewayResult.failed(GatewayResult.ERROR, "Interrupted");
+        }
+
+        String gatewayTransactionId = "mock_" + authorization.reference();
+        if (random.nextDouble() < approvalRate) {
+            return GatewayResult.approved(gatewayTransactionId, "Payment processed successfully");
+        }
+        return GatewayResult.declined(gatewayTransactionId, "402", "Payment failed");
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.order.service.payment;
+
+/**
+ * A payment processor the pipeline can authorize against. Calls block for the processor's
+ * latency; {@link PaymentPipeline} makes them on its own worker pool, never on a request thread
+ * or inside a database transaction.
+ */
+public interface PaymentGateway {
+
+    /** Name stored in {@code transactions.payment_gateway} and used to select the gateway. */
+    String name();
+
+    /** Calls this gateway may have in flight at once, queued ones included. */
+    int maxConcurrency();
+
+    GatewayResult authorize(GatewayAuthorization authorization);
+}
@@ -0,0 +1,177 @@
+package com.ecommerce.order.service.payment;
+
+import com.ecommerce.order.exception.PaymentGatewayBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Authorize stage of a payment. {@link #admit()} reserves one of the gateway's concurrency
+ * permits before anything is recorded, so an overloaded gateway turns into a fast 503 instead of
+ * a growing queue. {@link #authorize} then calls the gateway on the gateway pool and hands the
+ * result, or a timeout once the budget is spent, to {@link PaymentSettlement} on the settlement
+ * pool.
+ *
+ * <p>A call that overruns the budget keeps its permit until the gateway actually returns, so the
+ * limit bounds what the gateway really has in flight. The payment is settled as timed out, and a
+ * late approval is settled as well, so the saga that gave up on it voids the charge.
+ */
+@Slf4j
+@Component
+public class PaymentPipeline {
+
+    private final Map<String, Lane> lanes;
+    private final Lane defaultLane;
+    private final Executor gatewayExecutor;
+    private final Executor settlementExecutor;
+    private final PaymentSettlement settlement;
+    private final Duration authorizationTimeout;
+
+    public PaymentPipeline(List<PaymentGateway> gateways,
+                           PaymentSettlement settlement,
+                           @Qualifier("paymentGatewayExecutor") Executor gatewayExecutor,
+                           @Qualifier("paymentSettlementExecutor") Executor settlementExecutor,
+                           @Value("${app.order.payment.gateway:" + MockPaymentGateway.NAME + "}") String defaultGateway,
+                           @Value("${app.order.payment.authorization-timeout:10s}") Duration authorizationTimeout) {
+        this.lanes = gateways.stream().collect(Collectors.toUnmodifiableMap(PaymentGateway::name, Lane::new));
+        this.defaultLane = lanes.get(defaultGateway);
+        if (defaultLane == null) {
+            throw new IllegalStateException("No payment gateway named " + defaultGateway + ", have " + lanes.keySet());
+        }
+        this.gatewayExecutor = gatewayExecutor;
+        this.settlementExecutor = settlementExecutor;
+        this.settlement = settlement;
+        this.authorizationTimeout = authorizationTimeout;
+    }
+
+    /**
+     * Reserves a slot on the default gateway.
+     *
+     * @throws PaymentGatewayBusyException when the gateway is at its concurrency limit
+     */
+    public Admission admit() {
+        Lane lane = defaultLane;
+        if (!lane.permits.tryAcquire()) {
+            throw new PaymentGatewayBusyException("Payment gateway " + lane.gateway.name() + " is at capacity, retry later");
+        }
+        return new Admission(lane);
+    }
+
+    /**
+     * Authorizes asynchronously and settles the payment with the outcome. The returned future
+     * completes once the settlement has committed.
+     */
+    public CompletableFuture<GatewayResult> authorize(Admission admission, GatewayAuthorization authorization) {
+        CompletableFuture<GatewayResult> call;
+        try {
+            call = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return admission.lane.gateway.authorize(authorization);
+                } finally {
+                    admission.release();
+                }
+            }, gatewayExecutor);
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        // orTimeout completes the future it is called on, so it gets a copy and the late answer survives
+        CompletableFuture<GatewayResult> answer = call;
+        return call.copy().orTimeout(authorizationTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((result, failure) -> {
+                    if (failure == null) {
+                        return result;
+                    }
+                    if (unwrap(failure) instanceof TimeoutException) {
+                        settleLateApproval(answer, authorization);
+                    }
+                    return failureResult(authorization, failure);
+                })
+                .thenApplyAsync(settle(authorization), settlementExecutor);
+    }
+
+    private void settleLateApproval(CompletableFuture<GatewayResult> answer, GatewayAuthorization authorization) {
+        answer.thenAcceptAsync(result -> {
+            if (result.approved()) {
+                log.warn("Gateway approved {} after the payment timed out", authorization.reference());
+                settlement.settle(authorization.transactionId(), result);
+            }
+        }, settlementExecutor);
+    }
+
+    private Function<GatewayResult, GatewayResult> settle(GatewayAuthorization authorization) {
+        return result -> {
+            settlement.settle(authorization.transactionId(), result);
+            return result;
+        };
+    }
+
+    private GatewayResult failureResult(GatewayAuthorization authorization, Throwable failure) {
+        Throwable cause = unwrap(failure);
+        if (cause instanceof TimeoutException) {
+            log.warn("Authorization of {} exceeded {}", authorization.reference(), authorizationTimeout);
+            return GatewayResult.failed(GatewayResult.TIMEOUT, "No answer from the gateway within " + authorizationTimeout);
+        }
+        if (cause instanceof RejectedExecutionException) {
+            log.warn("Gateway pool rejected authorization of {}", authorization.reference());
+            return GatewayResult.failed(GatewayResult.BUSY, "Payment gateway pool is full");
+        }
+        log.error("Authorization of {} failed", authorization.reference(), cause);
+        return GatewayResult.failed(GatewayResult.ERROR, cause.getMessage());
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private static final class Lane {
+
+        private final PaymentGateway gateway;
+        private final Semaphore permits;
+
+        private Lane(PaymentGateway gateway) {
+            this.gateway = gateway;
+            this.permits = new Semaphore(gateway.maxConcurrency());
+        }
+    }
+
+    /**
+     * A reserved gateway slot. Released exactly once, when the gateway call ends or when the
+     * payment is abandoned before reaching the gateway.
+     */
+    public static final class Admission {
+
+        private final Lane lane;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Admission(Lane lane) {
+            this.lane = lane;
+        }
+
+        public String gatewayName() {
+            return lane.gateway.name();
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                lane.permits.release();
+            }
+        }
+    }
+}
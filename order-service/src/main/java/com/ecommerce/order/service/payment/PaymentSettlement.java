@@ -0,0 +1,114 @@
+package com.ecommerce.order.service.payment;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.PaymentStatus;
+import com.ecommerce.order.model.Transaction;
+import com.ecommerce.order.repository.TransactionRepository;
+import com.ecommerce.order.service.saga.OrderSagaOrchestrator;
+import com.ecommerce.order.service.tracking.OrderStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Settle stage of a payment: one short transaction that records the gateway's answer on the
+ * {@code PROCESSING} transaction and hands the outcome to the order's saga, in the same
+ * transaction. Settling is idempotent; a transaction that has already left {@code PROCESSING} is
+ * left alone, except that a payment failed for want of an answer still takes a late approval. The
+ * saga has given up on such a payment by then and voids it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentSettlement {
+
+    private final TransactionRepository transactionRepository;
+    private final OrderSagaOrchestrator sagaOrchestrator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.order.payment.stalled-after:5m}")
+    private Duration stalledAfter;
+
+    @Transactional
+    public void settle(UUID transactionId, GatewayResult result) {
+        Transaction transaction = transactionRepository.findById(transactionId).orElse(null);
+        if (transaction == null || !awaitsSettlement(transaction, result)) {
+            log.debug("Payment {} is not awaiting settlement, ignoring {}", transactionId, result.responseCode());
+            return;
+        }
+        apply(transaction, result);
+    }
+
+    /**
+     * Fails payments whose authorization was lost, e.g. because the instance that accepted them
+     * stopped before settling. {@code stalled-after} must stay well above the authorization
+     * timeout so payments still in flight on another instance are not touched. The gateway may
+     * still have approved them, so the saga voids them while compensating.
+     */
+    @Scheduled(fixedDelayString = "${app.order.payment.stalled-check-interval-ms:60000}")
+    @Transactional
+    public void settleStalled() {
+        List<Transaction> stalled = transactionRepository.findTop500ByStatusAndCreatedAtBefore(
+                PaymentStatus.PROCESSING, LocalDateTime.now().minus(stalledAfter));
+        for (Transaction transaction : stalled) {
+            log.warn("Payment {} was not settled within {}, failing it", transaction.getTransactionId(), stalledAfter);
+            apply(transaction, GatewayResult.failed(GatewayResult.TIMEOUT, "Authorization was not settled within " + stalledAfter));
+        }
+    }
+
+    private void apply(Transaction transaction, GatewayResult result) {
+        LocalDateTime now = LocalDateTime.now();
+        transaction.setStatus(result.approved() ? PaymentStatus.SUCCEEDED : PaymentStatus.FAILED);
+        transaction.setGatewayTransactionId(result.gatewayTransactionId());
+        transaction.setGatewayResponse(result.responseCode(), result.message(), null);
+        if (!result.approved()) {
+            transaction.setFailureCode(result.responseCode());
+            transaction.setFailureReason(result.message());
+        }
+        transaction.setProcessedAt(now);
+        transaction.setUpdatedAt(now);
+
+        Order order = transaction.getOrder();
+        if (result.approved()) {
+            transaction.setFailureCode(null);
+            transaction.setFailureReason(null);
+            if (!sagaOrchestrator.onPaymentAuthorized(order.getId())) {
+                markPaid(order, now);
+            }
+        } else if (!sagaOrchestrator.onPaymentFailed(order.getId(), result.message(),
+                GatewayResult.TIMEOUT.equals(result.responseCode()))) {
+            // Without a saga nothing waits on the payment; the order stays open for another attempt
+            log.info("Payment {} for order {} failed: {}", transaction.getTransactionId(), order.getId(),
+                    result.message());
+        }
+    }
+
+    private static boolean awaitsSettlement(Transaction transaction, GatewayResult result) {
+        return transaction.getStatus() == PaymentStatus.PROCESSING
+                || (result.approved() && transaction.getStatus() == PaymentStatus.FAILED
+                        && GatewayResult.TIMEOUT.equals(transaction.getFailureCode()));
+    }
+
+    // Orders placed before sagas existed
+    private void markPaid(Order order, LocalDateTime now) {
+        if (order.isPaid() || order.isCompleted()) {
+            log.info("Order {} is already {}, not marking it paid", order.getId(), order.getStatus());
+            return;
+        }
+        OrderStatus previous = order.getStatus();
+        order.setStatus(OrderStatus.PAID);
+        order.setPaidAt(now);
+        order.addStatusHistory(OrderStatus.PAID, String.format("Status changed from %s to %s", previous, OrderStatus.PAID));
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(order));
+    }
+}
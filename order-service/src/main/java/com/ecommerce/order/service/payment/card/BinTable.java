@@ -0,0 +1,231 @@
+package com.ecommerce.order.service.payment.card;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Identifies cards by their BIN, the leading digits of the number. The ranges of a BIN file are
+ * flattened once into a sorted {@code int[]} of range starts, so a lookup is one pass over the
+ * number's characters and a binary search, without regexes or allocation.
+ *
+ * <p>A BIN file is CSV with one range per line:
+ * <pre>
+ * prefix_from,prefix_to,brand,card_type,country,min_length,max_length
+ * 4,4,VISA,,,13,19
+ * 424242,424242,VISA,CREDIT,US,16,16
+ * </pre>
+ * Prefixes have 1 to {@value #BIN_DIGITS} digits. Where ranges overlap the narrower one wins, so
+ * issuer ranges can be listed on top of the network ranges they belong to. Blank lines and lines
+ * starting with {@code #} are skipped.
+ */
+public class BinTable {
+
+    static final int BIN_DIGITS = 8;
+    static final int MIN_DIGITS = 12;
+    static final int MAX_DIGITS = 19;
+
+    private static final int[] LUHN_DOUBLED = {0, 2, 4, 6, 8, 1, 3, 5, 7, 9};
+    private static final int COLUMNS = 7;
+
+    private final int[] starts;
+    private final Range[] ranges;
+
+    private BinTable(int[] starts, Range[] ranges) {
+        this.starts = starts;
+        this.ranges = ranges;
+    }
+
+    public static BinTable fromClasspath(String location) {
+        InputStream in = BinTable.class.getClassLoader().getResourceAsStream(location);
+        if (in == null) {
+            throw new IllegalArgumentException("BIN file not found on classpath: " + location);
+        }
+        try (in) {
+            return load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read BIN file " + location, e);
+        }
+    }
+
+    public static BinTable load(InputStream in) throws IOException {
+        List<Range> parsed = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            parsed.add(parse(trimmed, lineNumber));
+        }
+        return build(parsed);
+    }
+
+    /**
+     * Brand, type and country of a card number, and whether it passes the Luhn check. Spaces and
+     * dashes between digits are ignored. Numbers whose length the matching range does not allow
+     * come back as {@link CardInfo#UNKNOWN_BRAND}.
+     */
+    public CardInfo lookup(CharSequence number) {
+        if (number == null) {
+            return CardInfo.UNKNOWN_INVALID;
+        }
+        int digits = 0;
+        int bin = 0;
+        // Luhn sums for both parities: which digits get doubled depends on the final length
+        int evenDoubled = 0;
+        int oddDoubled = 0;
+        for (int i = 0, n = number.length(); i < n; i++) {
+            char c = number.charAt(i);
+            if (c == ' ' || c == '-') {
+                continue;
+            }
+            if (c < '0' || c > '9' || digits == MAX_DIGITS) {
+                return CardInfo.UNKNOWN_INVALID;
+            }
+            int digit = c - '0';
+            if (digits < BIN_DIGITS) {
+                bin = bin * 10 + digit;
+            }
+            if ((digits & 1) == 0) {
+                evenDoubled += LUHN_DOUBLED[digit];
+                oddDoubled += digit;
+            } else {
+                evenDoubled += digit;
+                oddDoubled += LUHN_DOUBLED[digit];
+            }
+            digits++;
+        }
+        if (digits < MIN_DIGITS) {
+            return CardInfo.UNKNOWN_INVALID;
+        }
+
+        boolean luhnValid = ((digits & 1) == 0 ? evenDoubled : oddDoubled) % 10 == 0;
+        Range range = rangeOf(bin);
+        if (range == null || digits < range.minLength || digits > range.maxLength) {
+            return luhnValid ? CardInfo.UNKNOWN : CardInfo.UNKNOWN_INVALID;
+        }
+        return luhnValid ? range.valid : range.invalid;
+    }
+
+    /**
+     * Number of contiguous ranges left after overlaps were flattened.
+     */
+    public int size() {
+        int size = 0;
+        for (Range range : ranges) {
+            if (range != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private Range rangeOf(int bin) {
+        int slot = Arrays.binarySearch(starts, bin);
+        if (slot < 0) {
+            slot = -slot - 2;
+        }
+        return slot < 0 ? null : ranges[slot];
+    }
+
+    private static BinTable build(List<Range> parsed) {
+        // Paint the widest ranges first so narrower ones overwrite their part; equal widths keep file order
+        List<Range> byWidth = new ArrayList<>(parsed);
+        byWidth.sort(Comparator.comparingLong((Range range) -> (long) range.low - range.high));
+
+        TreeMap<Integer, Range> painted = new TreeMap<>();
+        for (Range range : byWidth) {
+            int end = range.high + 1;
+            Map.Entry<Integer, Range> after = painted.floorEntry(end);
+            Range resume = after == null ? null : after.getValue();
+            painted.subMap(range.low, true, end, true).clear();
+            painted.put(range.low, range);
+            painted.put(end, resume);
+        }
+
+        int[] starts = new int[painted.size()];
+        Range[] ranges = new Range[painted.size()];
+        int size = 0;
+        for (Map.Entry<Integer, Range> entry : painted.entrySet()) {
+            if (size > 0 && ranges[size - 1] == entry.getValue()) {
+                continue;
+            }
+            starts[size] = entry.getKey();
+            ranges[size] = entry.getValue();
+            size++;
+        }
+        return new BinTable(Arrays.copyOf(starts, size), Arrays.copyOf(ranges, size));
+    }
+
+    private static Range parse(String line, int lineNumber) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != COLUMNS) {
+            throw invalid(lineNumber, "expected " + COLUMNS + " columns");
+        }
+        try {
+            int low = padPrefix(columns[0].trim(), '0');
+            int high = padPrefix(columns[1].trim(), '9');
+            int minLength = Integer.parseInt(columns[5].trim());
+            int maxLength = Integer.parseInt(columns[6].trim());
+            String brand = columns[2].trim().toUpperCase();
+            if (low > high || brand.isEmpty() || minLength > maxLength) {
+                throw invalid(lineNumber, "empty range, brand or length");
+            }
+            return new Range(low, high, brand, emptyToNull(columns[3]), emptyToNull(columns[4]),
+                    minLength, maxLength);
+        } catch (NumberFormatException e) {
+            throw invalid(lineNumber, e.getMessage());
+        }
+    }
+
+    private static int padPrefix(String prefix, char fill) {
+        if (prefix.isEmpty() || prefix.length() > BIN_DIGITS || !prefix.chars().allMatch(Character::isDigit)) {
+            throw new NumberFormatException("invalid prefix '" + prefix + "'");
+        }
+        StringBuilder padded = new StringBuilder(BIN_DIGITS).append(prefix);
+        while (padded.length() < BIN_DIGITS) {
+            padded.append(fill);
+        }
+        return Integer.parseInt(padded.toString());
+    }
+
+    private static String emptyToNull(String column) {
+        String value = column.trim().toUpperCase();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static IllegalArgumentException invalid(int lineNumber, String reason) {
+        return new IllegalArgumentException("Invalid BIN file line " + lineNumber + ": " + reason);
+    }
+
+    private static final class Range {
+        final int low;
+        final int high;
+        final int minLength;
+        final int maxLength;
+        final CardInfo valid;
+        final CardInfo invalid;
+
+        Range(int low, int high, String brand, String cardType, String country, int minLength, int maxLength) {
+            this.low = low;
+            this.high = high;
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.valid = new CardInfo(brand, cardType, country, true);
+            this.invalid = new CardInfo(brand, cardType, country, false);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.order.service.payment.card;
+
+/**
+ * What {@link BinTable} knows about a card number. {@code cardType} and {@code issuingCountry}
+ * are null when the BIN file does not say. {@code luhnValid} is false for anything that is not
+ * 12 to 19 digits with a correct check digit.
+ */
+public record CardInfo(String brand, String cardType, String issuingCountry, boolean luhnValid) {
+
+    public static final String UNKNOWN_BRAND = "UNKNOWN";
+
+    static final CardInfo UNKNOWN = new CardInfo(UNKNOWN_BRAND, null, null, true);
+    static final CardInfo UNKNOWN_INVALID = new CardInfo(UNKNOWN_BRAND, null, null, false);
+
+    public boolean isKnown() {
+        return !UNKNOWN_BRAND.equals(brand);
+    }
+}
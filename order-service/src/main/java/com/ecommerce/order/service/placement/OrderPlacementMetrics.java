@@ -0,0 +1,46 @@
+package com.ecommerce.order.service.placement;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-stage latency of order placement as {@code order.placement.stage{stage=...}}, with p50/p95/p99
+ * published so a slow remote check can be told apart from a slow commit.
+ */
+@Component
+public class OrderPlacementMetrics {
+
+    public static final String VALIDATE = "validate";
+    public static final String STOCK_CHECK = "stock-check";
+    public static final String PERSIST = "persist";
+    public static final String PUBLISH = "publish";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public OrderPlacementMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String stage, Supplier<T> work) {
+        return timer(stage).record(work);
+    }
+
+    public void record(String stage, Runnable work) {
+        timer(stage).record(work);
+    }
+
+    Timer timer(String stage) {
+        return timers.computeIfAbsent(stage, name -> Timer.builder("order.placement.stage")
+                .description("Latency of each order placement stage")
+                .tag("stage", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
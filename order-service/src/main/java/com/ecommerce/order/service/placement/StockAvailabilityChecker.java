@@ -0,0 +1,95 @@
+package com.ecommerce.order.service.placement;
+
+import com.ecommerce.order.client.ProductServiceClient;
+import com.ecommerce.order.dto.orderitem.OrderItemRequest;
+import com.ecommerce.order.exception.InsufficientStockException;
+import com.ecommerce.order.exception.ProductServiceException;
+import com.ecommerce.order.exception.ResourceNotFoundException;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks stock for every product of an order concurrently, one product-service call per distinct
+ * product, so the check costs the slowest call rather than the sum of them. Runs before any
+ * transaction is opened; no database connection is held while waiting.
+ */
+@Slf4j
+@Component
+public class StockAvailabilityChecker {
+
+    private final ProductServiceClient productServiceClient;
+    private final Executor executor;
+    private final Duration timeout;
+
+    public StockAvailabilityChecker(ProductServiceClient productServiceClient,
+                                    @Qualifier("orderPlacementExecutor") Executor executor,
+                                    @Value("${app.order.placement.remote-timeout:10s}") Duration timeout) {
+        this.productServiceClient = productServiceClient;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    public void checkAll(List<OrderItemRequest> items) {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemRequest item : items) {
+            quantities.merge(UUID.fromString(item.getProductId()), item.getQuantity(), Integer::sum);
+        }
+
+        CompletableFuture<?>[] checks = quantities.entrySet().stream()
+                .map(entry -> CompletableFuture.runAsync(() -> check(entry.getKey(), entry.getValue()), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture<Void> all = CompletableFuture.allOf(checks);
+        try {
+            all.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (TimeoutException e) {
+            all.cancel(true);
+            throw new ProductServiceException("Timed out checking stock for " + quantities.size() + " products", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProductServiceException("Interrupted while checking stock", e);
+        }
+    }
+
+    private void check(UUID productId, int quantity) {
+        ResponseEntity<Boolean> response;
+        try {
+            response = productServiceClient.checkProductStock(productId, quantity);
+        } catch (FeignException.NotFound e) {
+            throw new ResourceNotFoundException("Product not found: " + productId, e);
+        } catch (FeignException e) {
+            log.error("Error checking stock for product {}: {}", productId, e.getMessage());
+            throw new ProductServiceException("Error checking product availability", e);
+        }
+        if (response == null || !Boolean.TRUE.equals(response.getBody())) {
+            throw new InsufficientStockException(
+                    String.format("Insufficient stock for product %s (requested %d)", productId, quantity));
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RuntimeException runtime
+                ? runtime
+                : new ProductServiceException("Error checking product availability", cause);
+    }
+}
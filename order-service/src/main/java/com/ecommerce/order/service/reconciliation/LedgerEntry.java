@@ -0,0 +1,14 @@
+package com.ecommerce.order.service.reconciliation;
+
+import com.ecommerce.order.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The columns of a {@code transactions} row that reconciliation compares, read without loading
+ * the entity.
+ */
+public record LedgerEntry(UUID id, String reference, String gatewayTransactionId, BigDecimal amount,
+                          String currency, PaymentStatus status) {
+}
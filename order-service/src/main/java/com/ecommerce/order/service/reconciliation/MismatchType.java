@@ -0,0 +1,13 @@
+package com.ecommerce.order.service.reconciliation;
+
+public enum MismatchType {
+    /** The gateway settled a payment we have no transaction for. */
+    MISSING_IN_LEDGER,
+    /** We recorded a payment the gateway should have settled, but the file does not list it. */
+    MISSING_IN_SETTLEMENT,
+    /** The file lists the same reference more than once. */
+    DUPLICATE_IN_SETTLEMENT,
+    AMOUNT_MISMATCH,
+    CURRENCY_MISMATCH,
+    STATUS_MISMATCH
+}
@@ -0,0 +1,186 @@
+package com.ecommerce.order.service.reconciliation;
+
+import com.ecommerce.order.model.PaymentStatus;
+import com.ecommerce.order.model.Transaction;
+import com.ecommerce.order.service.id.IdGenerator;
+import com.ecommerce.order.service.id.SnowflakeIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reconciles one gateway settlement file against the {@code transactions} of that gateway and
+ * business day. Both sides are read in reference order and merge-joined, so a run holds one
+ * ledger page and one batch of report rows in memory however many rows there are. Mismatches go
+ * to {@code reconciliation_mismatches} and totals to {@code reconciliation_runs}.
+ *
+ * <p>Transaction IDs are time-ordered, so the day's ledger is one contiguous range of references
+ * and is read straight off the index.
+ */
+@Service
+public class PaymentReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationJob.class);
+
+    /** Ledger states in which the gateway holds the payment and must list it. */
+    static final Set<PaymentStatus> SETTLED_AT_GATEWAY = EnumSet.of(PaymentStatus.AUTHORIZED,
+            PaymentStatus.CAPTURED, PaymentStatus.SUCCEEDED, PaymentStatus.PARTIALLY_REFUNDED,
+            PaymentStatus.REFUNDED);
+
+    private static final long PROGRESS_LOG_INTERVAL = 1_000_000;
+
+    private final ReconciliationStore store;
+    private final int pageSize;
+    private final int reportBatchSize;
+
+    public PaymentReconciliationJob(ReconciliationStore store,
+                                    @Value("${app.order.reconciliation.page-size:10000}") int pageSize,
+                                    @Value("${app.order.reconciliation.report-batch-size:1000}") int reportBatchSize) {
+        this.store = store;
+        this.pageSize = pageSize;
+        this.reportBatchSize = reportBatchSize;
+    }
+
+    /**
+     * Reconciles {@code file} against the transactions {@code gateway} received on
+     * {@code businessDate} (UTC). A file that cannot be read or is not sorted fails the run; the
+     * run row then holds the error and the counts up to that point.
+     */
+    public ReconciliationSummary reconcile(Path file, String gateway, LocalDate businessDate) {
+        LocalDateTime windowStart = businessDate.atStartOfDay();
+        LocalDateTime windowEnd = windowStart.plusDays(1);
+        String from = IdGenerator.encode(Transaction.TRANSACTION_ID_PREFIX,
+                SnowflakeIdGenerator.firstIdAt(windowStart.toInstant(ZoneOffset.UTC)));
+        String to = IdGenerator.encode(Transaction.TRANSACTION_ID_PREFIX,
+                SnowflakeIdGenerator.firstIdAt(windowEnd.toInstant(ZoneOffset.UTC)));
+
+        UUID runId = UUID.randomUUID();
+        store.startRun(runId, gateway, file.toString(), windowStart, windowEnd);
+        log.info("Reconciling {} against {} transactions of {} (run {})", file, gateway, businessDate, runId);
+
+        Run run = new Run(runId, new TransactionLedgerReader(store, gateway, from, to, pageSize));
+        try (SettlementFileReader settlement = new SettlementFileReader(file)) {
+            run.merge(settlement);
+        } catch (IOException e) {
+            throw fail(run, new UncheckedIOException("Could not read settlement file " + file, e));
+        } catch (RuntimeException e) {
+            throw fail(run, e);
+        }
+
+        run.flush();
+        ReconciliationSummary summary = run.summary();
+        store.finishRun(summary, null);
+        log.info("Reconciliation run {} done: {} settlement rows, {} ledger rows, {} matched, {} mismatches",
+                runId, summary.settlementRows(), summary.ledgerRows(), summary.matched(), summary.mismatches());
+        return summary;
+    }
+
+    private RuntimeException fail(Run run, RuntimeException e) {
+        run.flush();
+        store.finishRun(run.summary(), e.getMessage());
+        log.error("Reconciliation run {} failed: {}", run.id, e.getMessage(), e);
+        return e;
+    }
+
+    private final class Run {
+        private final UUID id;
+        private final TransactionLedgerReader ledger;
+        private final List<ReconciliationMismatch> pending = new ArrayList<>(reportBatchSize);
+        private long settlementRows;
+        private long matched;
+        private long mismatches;
+
+        Run(UUID id, TransactionLedgerReader ledger) {
+            this.id = id;
+            this.ledger = ledger;
+        }
+
+        void merge(SettlementFileReader file) throws IOException {
+            SettlementRecord settled = file.next();
+            LedgerEntry entry = ledger.next();
+            String previousReference = null;
+            while (settled != null || entry != null) {
+                if (settled != null && settled.reference().equals(previousReference)) {
+                    report(MismatchType.DUPLICATE_IN_SETTLEMENT, null, settled);
+                    settled = advance(file);
+                    continue;
+                }
+                int order = settled == null ? 1 : entry == null ? -1 : settled.reference().compareTo(entry.reference());
+                if (order < 0) {
+                    report(MismatchType.MISSING_IN_LEDGER, null, settled);
+                    previousReference = settled.reference();
+                    settled = advance(file);
+                } else if (order > 0) {
+                    if (SETTLED_AT_GATEWAY.contains(entry.status())) {
+                        report(MismatchType.MISSING_IN_SETTLEMENT, entry, null);
+                    }
+                    entry = ledger.next();
+                } else {
+                    compare(entry, settled);
+                    previousReference = settled.reference();
+                    settled = advance(file);
+                    entry = ledger.next();
+                }
+            }
+        }
+
+        private SettlementRecord advance(SettlementFileReader file) throws IOException {
+            settlementRows++;
+            if (settlementRows % PROGRESS_LOG_INTERVAL == 0) {
+                log.info("Reconciliation run {}: {} settlement rows, {} mismatches so far", id, settlementRows, mismatches);
+            }
+            return file.next();
+        }
+
+        private void compare(LedgerEntry entry, SettlementRecord settled) {
+            boolean clean = true;
+            if (entry.amount().compareTo(settled.amount()) != 0) {
+                report(MismatchType.AMOUNT_MISMATCH, entry, settled);
+                clean = false;
+            }
+            if (!settled.currency().equalsIgnoreCase(entry.currency())) {
+                report(MismatchType.CURRENCY_MISMATCH, entry, settled);
+                clean = false;
+            }
+            if (!settled.status().equals(entry.status().name())) {
+                report(MismatchType.STATUS_MISMATCH, entry, settled);
+                clean = false;
+            }
+            if (clean) {
+                matched++;
+            }
+        }
+
+        private void report(MismatchType type, LedgerEntry entry, SettlementRecord settled) {
+            pending.add(ReconciliationMismatch.of(type, entry, settled));
+            mismatches++;
+            if (pending.size() >= reportBatchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!pending.isEmpty()) {
+                store.insertMismatches(id, pending);
+                pending.clear();
+            }
+        }
+
+        ReconciliationSummary summary() {
+            return new ReconciliationSummary(id, settlementRows, ledger.entries(), matched, mismatches);
+        }
+    }
+}
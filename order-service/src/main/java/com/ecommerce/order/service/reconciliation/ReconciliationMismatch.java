@@ -0,0 +1,27 @@
+package com.ecommerce.order.service.reconciliation;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One row of the mismatch report. Ledger or settlement fields are null when that side has no
+ * record.
+ */
+public record ReconciliationMismatch(String reference, MismatchType type, UUID transactionId,
+                                     BigDecimal ledgerAmount, BigDecimal settlementAmount,
+                                     String ledgerCurrency, String settlementCurrency,
+                                     String ledgerStatus, String settlementStatus) {
+
+    static ReconciliationMismatch of(MismatchType type, LedgerEntry ledger, SettlementRecord settlement) {
+        return new ReconciliationMismatch(
+                ledger != null ? ledger.reference() : settlement.reference(),
+                type,
+                ledger != null ? ledger.id() : null,
+                ledger != null ? ledger.amount() : null,
+                settlement != null ? settlement.amount() : null,
+                ledger != null ? ledger.currency() : null,
+                settlement != null ? settlement.currency() : null,
+                ledger != null && ledger.status() != null ? ledger.status().name() : null,
+                settlement != null ? settlement.status() : null);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.order.service.reconciliation;
+
+import com.ecommerce.order.model.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * SQL used by reconciliation. Runs go through plain JDBC rather than JPA: ledger pages are read
+ * into small records instead of managed entities, and report rows are written in JDBC batches,
+ * so memory and round trips stay flat over tens of millions of rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReconciliationStore {
+
+    // Byte-order comparison matches String.compareTo on the settlement side; V7 indexes this expression
+    private static final String LEDGER_FIRST_PAGE = """
+            SELECT id, transaction_id, gateway_transaction_id, amount, currency, status
+            FROM transactions
+            WHERE transaction_id COLLATE "C" >= ? AND transaction_id COLLATE "C" < ? AND payment_gateway = ?
+            ORDER BY transaction_id COLLATE "C"
+            LIMIT ?
+            """;
+
+    private static final String LEDGER_NEXT_PAGE = """
+            SELECT id, transaction_id, gateway_transaction_id, amount, currency, status
+            FROM transactions
+            WHERE transaction_id COLLATE "C" > ? AND transaction_id COLLATE "C" < ? AND payment_gateway = ?
+            ORDER BY transaction_id COLLATE "C"
+            LIMIT ?
+            """;
+
+    private static final String INSERT_MISMATCH = """
+            INSERT INTO reconciliation_mismatches (run_id, reference, mismatch_type, transaction_id,
+                ledger_amount, settlement_amount, ledger_currency, settlement_currency,
+                ledger_status, settlement_status, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Up to {@code limit} ledger entries of {@code gateway} with references in
+     * {@code [from, to)}, after {@code after} when it is not null, in reference order.
+     */
+    public List<LedgerEntry> ledgerPage(String gateway, String from, String after, String to, int limit) {
+        return jdbcTemplate.query(after == null ? LEDGER_FIRST_PAGE : LEDGER_NEXT_PAGE,
+                (rs, rowNum) -> new LedgerEntry(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("transaction_id"),
+                        rs.getString("gateway_transaction_id"),
+                        rs.getBigDecimal("amount"),
+                        rs.getString("currency"),
+                        PaymentStatus.valueOf(rs.getString("status"))),
+                after == null ? from : after, to, gateway, limit);
+    }
+
+    public void startRun(UUID runId, String gateway, String settlementFile,
+                         LocalDateTime windowStart, LocalDateTime windowEnd) {
+        jdbcTemplate.update("""
+                        INSERT INTO reconciliation_runs (id, gateway, settlement_file, window_start, window_end,
+                            status, started_at)
+                        VALUES (?, ?, ?, ?, ?, 'RUNNING', ?)
+                        """,
+                runId, gateway, settlementFile, Timestamp.valueOf(windowStart), Timestamp.valueOf(windowEnd),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public void finishRun(ReconciliationSummary summary, String error) {
+        jdbcTemplate.update("""
+                        UPDATE reconciliation_runs
+                        SET status = ?, settlement_rows = ?, ledger_rows = ?, matched_rows = ?, mismatches = ?,
+                            error = ?, finished_at = ?
+                        WHERE id = ?
+                        """,
+                error == null ? "COMPLETED" : "FAILED", summary.settlementRows(), summary.ledgerRows(),
+                summary.matched(), summary.mismatches(), error, Timestamp.valueOf(LocalDateTime.now()),
+                summary.runId());
+    }
+
+    public void insertMismatches(UUID runId, List<ReconciliationMismatch> mismatches) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_MISMATCH, mismatches, mismatches.size(), (ps, mismatch) -> {
+            ps.setObject(1, runId);
+            ps.setString(2, mismatch.reference());
+            ps.setString(3, mismatch.type().name());
+            ps.setObject(4, mismatch.transactionId(), Types.OTHER);
+            ps.setBigDecimal(5, mismatch.ledgerAmount());
+            ps.setBigDecimal(6, mismatch.settlementAmount());
+            ps.setString(7, mismatch.ledgerCurrency());
+            ps.setString(8, mismatch.settlementCurrency());
+            ps.setString(9, mismatch.ledgerStatus());
+            ps.setString(10, mismatch.settlementStatus());
+            ps.setTimestamp(11, now);
+        });
+    }
+}
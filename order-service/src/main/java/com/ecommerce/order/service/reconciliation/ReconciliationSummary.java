@@ -0,0 +1,7 @@
+package com.ecommerce.order.service.reconciliation;
+
+import java.util.UUID;
+
+public record ReconciliationSummary(UUID runId, long settlementRows, long ledgerRows, long matched,
+                                    long mismatches) {
+}
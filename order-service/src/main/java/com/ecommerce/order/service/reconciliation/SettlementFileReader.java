@@ -0,0 +1,101 @@
+package com.ecommerce.order.service.reconciliation;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams a settlement file one line at a time, so files of any size need constant memory.
+ * The file is plain CSV without quoting:
+ * <pre>
+ * reference,gateway_transaction_id,amount,currency,status
+ * TXN-0D4Q3ZK0000G1,gw_8812,99.99,USD,CAPTURED
+ * </pre>
+ * Lines must be sorted by {@code reference} in byte order ({@code LC_ALL=C sort -t, -k1,1}),
+ * because reconciliation merge-joins them with the ledger. A line that sorts before its
+ * predecessor fails the run; repeated references are passed on and reported as duplicates.
+ */
+class SettlementFileReader implements Closeable {
+
+    private static final String HEADER_START = "reference,";
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int FIELDS = 5;
+
+    private final BufferedReader reader;
+    private final String[] fields = new String[FIELDS];
+    private String previousReference;
+    private long lineNumber;
+    private long records;
+
+    SettlementFileReader(Path file) throws IOException {
+        this.reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * The next record, or null at the end of the file.
+     */
+    SettlementRecord next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && line.startsWith(HEADER_START))) {
+                continue;
+            }
+            SettlementRecord record = parse(line);
+            if (previousReference != null && record.reference().compareTo(previousReference) < 0) {
+                throw new IllegalStateException("Settlement file is not sorted by reference at line "
+                        + lineNumber + ": " + record.reference() + " follows " + previousReference);
+            }
+            previousReference = record.reference();
+            records++;
+            return record;
+        }
+        return null;
+    }
+
+    long records() {
+        return records;
+    }
+
+    private SettlementRecord parse(String line) {
+        int start = 0;
+        for (int i = 0; i < FIELDS; i++) {
+            int comma = i < FIELDS - 1 ? line.indexOf(',', start) : line.length();
+            if (comma < 0 || (i == FIELDS - 1 && line.indexOf(',', start) >= 0)) {
+                throw invalid("expected " + FIELDS + " fields");
+            }
+            fields[i] = line.substring(start, comma).trim();
+            start = comma + 1;
+        }
+        if (fields[0].isEmpty()) {
+            throw invalid("reference is empty");
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(fields[2]);
+        } catch (NumberFormatException e) {
+            throw invalid("amount '" + fields[2] + "' is not a number");
+        }
+        return new SettlementRecord(fields[0], emptyToNull(fields[1]), amount, fields[3].toUpperCase(),
+                fields[4].toUpperCase());
+    }
+
+    private IllegalStateException invalid(String reason) {
+        return new IllegalStateException("Invalid settlement file line " + lineNumber + ": " + reason);
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.order.service.reconciliation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Picks up settlement files dropped into the inbox directory as {@code <GATEWAY>_<yyyy-MM-dd>.csv}
+ * and reconciles each one. A file is claimed by moving it into {@code processing/}, which only
+ * one instance can do, and ends up in {@code done/} or {@code failed/}.
+ */
+@Component
+public class SettlementInbox {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementInbox.class);
+    private static final Pattern FILE_NAME = Pattern.compile("([A-Za-z0-9_-]+)_(\\d{4}-\\d{2}-\\d{2})\\.csv");
+
+    private final PaymentReconciliationJob job;
+    private final Path inbox;
+
+    public SettlementInbox(PaymentReconciliationJob job,
+                           @Value("${app.order.reconciliation.inbox-dir:settlements}") Path inbox) {
+        this.job = job;
+        this.inbox = inbox;
+    }
+
+    @Scheduled(fixedDelayString = "${app.order.reconciliation.poll-interval-ms:300000}")
+    public void poll() {
+        if (!Files.isDirectory(inbox)) {
+            return;
+        }
+        for (Path file : pendingFiles()) {
+            Matcher name = FILE_NAME.matcher(file.getFileName().toString());
+            if (!name.matches()) {
+                continue;
+            }
+            LocalDate businessDate;
+            try {
+                businessDate = LocalDate.parse(name.group(2));
+            } catch (DateTimeParseException e) {
+                log.warn("Skipping settlement file {}: invalid date", file);
+                continue;
+            }
+            Path claimed = claim(file);
+            if (claimed == null) {
+                continue;
+            }
+            String outcome = "done";
+            try {
+                job.reconcile(claimed, name.group(1).toUpperCase(), businessDate);
+            } catch (RuntimeException e) {
+                // The run row holds the error; the file is kept for a rerun
+                outcome = "failed";
+            }
+            moveQuietly(claimed, outcome);
+        }
+    }
+
+    private List<Path> pendingFiles() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(inbox, "*.csv")) {
+            entries.forEach(files::add);
+        } catch (IOException e) {
+            log.warn("Could not list settlement inbox {}: {}", inbox, e.getMessage());
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private Path claim(Path file) {
+        try {
+            Path processing = Files.createDirectories(inbox.resolve("processing"));
+            return Files.move(file, processing.resolve(file.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException | FileAlreadyExistsException e) {
+            // Another instance claimed it first
+            return null;
+        } catch (AtomicMoveNotSupportedException e) {
+            log.error("Settlement inbox {} does not support atomic moves; files cannot be claimed safely", inbox);
+            return null;
+        } catch (IOException e) {
+            log.warn("Could not claim settlement file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void moveQuietly(Path file, String directory) {
+        try {
+            Path target = Files.createDirectories(inbox.resolve(directory));
+            Files.move(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Could not move settlement file {} to {}: {}", file, directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.order.service.reconciliation;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a gateway settlement file. {@code reference} is the transaction ID we sent the
+ * gateway and {@code status} is the gateway's final state, as a {@code PaymentStatus} name.
+ */
+public record SettlementRecord(String reference, String gatewayTransactionId, BigDecimal amount,
+                               String currency, String status) {
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.order.service.reconciliation;
+
+import java.util.List;
+
+/**
+ * Streams the ledger of one gateway and reference range in reference order, one keyset page at
+ * a time. Each page is its own short query, so no transaction or cursor stays open for the
+ * length of a run and at most one page is held in memory.
+ */
+class TransactionLedgerReader {
+
+    private final ReconciliationStore store;
+    private final String gateway;
+    private final String from;
+    private final String to;
+    private final int pageSize;
+
+    private List<LedgerEntry> page = List.of();
+    private int position;
+    private String lastReference;
+    private boolean exhausted;
+    private long entries;
+
+    TransactionLedgerReader(ReconciliationStore store, String gateway, String from, String to, int pageSize) {
+        this.store = store;
+        this.gateway = gateway;
+        this.from = from;
+        this.to = to;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * The next entry, or null when the range is done.
+     */
+    LedgerEntry next() {
+        if (position == page.size()) {
+            if (exhausted) {
+                return null;
+            }
+            page = store.ledgerPage(gateway, from, lastReference, to, pageSize);
+            position = 0;
+            exhausted = page.size() < pageSize;
+            if (page.isEmpty()) {
+                return null;
+            }
+        }
+        LedgerEntry entry = page.get(position++);
+        lastReference = entry.reference();
+        entries++;
+        return entry;
+    }
+
+    long entries() {
+        return entries;
+    }
+}
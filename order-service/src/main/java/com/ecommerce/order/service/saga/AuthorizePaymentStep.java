@@ -0,0 +1,35 @@
+package com.ecommerce.order.service.saga;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.SagaStep;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Requests payment and leaves the saga waiting. The answer comes from this service's own payment
+ * settlement, or as {@code payment-received} or {@code payment-failed} on {@code payment-events};
+ * it may arrive before the saga has recorded that it is waiting.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthorizePaymentStep implements SagaStepHandler {
+
+    private final SagaEventPublisher eventPublisher;
+
+    @Override
+    public SagaStep step() {
+        return SagaStep.AUTHORIZE_PAYMENT;
+    }
+
+    @Override
+    public StepResult execute(Order order) {
+        eventPublisher.publish("PAYMENT_REQUESTED", order);
+        return StepResult.AWAITING_REPLY;
+    }
+
+    // Also sent when the authorization may still be in flight; voiding an unknown payment is a no-op
+    @Override
+    public void compensate(Order order) {
+        eventPublisher.publish("PAYMENT_VOID_REQUESTED", order);
+    }
+}
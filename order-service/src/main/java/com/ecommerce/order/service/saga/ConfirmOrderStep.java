@@ -0,0 +1,33 @@
+package com.ecommerce.order.service.saga;
+
+import com.ecommerce.order.client.InventoryServiceClient;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.SagaStep;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ConfirmOrderStep implements SagaStepHandler {
+
+    private final InventoryServiceClient inventoryServiceClient;
+    private final SagaEventPublisher eventPublisher;
+
+    @Override
+    public SagaStep step() {
+        return SagaStep.CONFIRM_ORDER;
+    }
+
+    @Override
+    public StepResult execute(Order order) {
+        // Turns the holds taken by ReserveInventoryStep into shipped-out stock; a repeat finds them settled
+        inventoryServiceClient.consumeReservation(order.getId().toString());
+        eventPublisher.publish("ORDER_CONFIRMED", order);
+        return StepResult.COMPLETED;
+    }
+
+    // Nothing to undo: the payment and inventory compensations that follow tell downstream services
+    @Override
+    public void compensate(Order order) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.order.service.saga;
+
+import com.ecommerce.order.model.SagaStatus;
+import com.ecommerce.order.repository.OrderSagaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Feeds due sagas to a small worker pool. Sagas are picked up as soon as they become due (after
+ * the transaction that made them due commits) and by a periodic scan that catches retries,
+ * reply timeouts and work left behind by a crashed instance. A saga waiting for a reply holds
+ * no thread, so thousands can be in flight with a pool of a few workers.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.order.saga", name = "dispatcher-enabled", havingValue = "true", matchIfMissing = true)
+public class OrderSagaDispatcher {
+
+    private static final Set<SagaStatus> ACTIVE = EnumSet.of(SagaStatus.RUNNING, SagaStatus.AWAITING, SagaStatus.COMPENSATING);
+
+    private final OrderSagaRepository sagaRepository;
+    private final OrderSagaOrchestrator orchestrator;
+    private final Executor executor;
+    private final int batchSize;
+    // Sagas queued or running on this instance, so the scan does not queue them twice
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    public OrderSagaDispatcher(OrderSagaRepository sagaRepository,
+                               OrderSagaOrchestrator orchestrator,
+                               @Qualifier("orderSagaExecutor") Executor executor,
+                               @Value("${app.order.saga.batch-size:200}") int batchSize) {
+        this.sagaRepository = sagaRepository;
+        this.orchestrator = orchestrator;
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.order.saga.poll-interval-ms:1000}")
+    public void dispatchDue() {
+        sagaRepository.findDueIds(ACTIVE, LocalDateTime.now(), PageRequest.of(0, batchSize))
+                .forEach(this::dispatch);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSagaDue(SagaDueEvent event) {
+        dispatch(event.sagaId());
+    }
+
+    void dispatch(UUID sagaId) {
+        if (!inFlight.add(sagaId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> run(sagaId));
+        } catch (RejectedExecutionException e) {
+            // Pool is saturated; the next scan picks the saga up again
+            inFlight.remove(sagaId);
+        }
+    }
+
+    private void run(UUID sagaId) {
+        try {
+            // Chain through consecutive due steps on this thread instead of re-queuing
+            while (orchestrator.advance(sagaId)) {
+                log.trace("Saga {} is due again", sagaId);
+            }
+        } catch (RuntimeException e) {
+            // The lease expires and another scan retries it
+            log.error("Error advancing saga {}", sagaId, e);
+        } finally {
+            inFlight.remove(sagaId);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
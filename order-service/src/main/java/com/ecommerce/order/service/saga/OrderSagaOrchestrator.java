@@ -0,0 +1,466 @@
+package com.ecommerce.order.service.saga;
+
+import com.ecommerce.order.exception.ResourceNotFoundException;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderSaga;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.SagaStatus;
+import com.ecommerce.order.model.SagaStep;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderSagaRepository;
+import com.ecommerce.order.service.saga.SagaStepHandler.StepResult;
+import com.ecommerce.order.service.tracking.OrderStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Drives order placement sagas: reserve inventory, authorize payment, confirm. Every transition
+ * is a short transaction on the {@code order_sagas} row; step side effects run between those
+ * transactions with no connection held. Failed steps are retried with exponential backoff and,
+ * once attempts run out, the completed steps are compensated in reverse order.
+ *
+ * <p>{@link OrderSagaDispatcher} decides when {@link #advance} runs; reply events from other
+ * services enter through {@link #onPaymentAuthorized} and {@link #onPaymentFailed}.
+ */
+@Slf4j
+@Service
+public class OrderSagaOrchestrator {
+
+    private final OrderSagaRepository sagaRepository;
+    private final OrderRepository orderRepository;
+    private final Map<SagaStep, SagaStepHandler> handlers = new EnumMap<>(SagaStep.class);
+    private final SagaEventPublisher eventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int maxAttempts;
+    private final int maxCompensationAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final Duration paymentTimeout;
+    private final Duration lease;
+
+    @Autowired
+    public OrderSagaOrchestrator(OrderSagaRepository sagaRepository,
+                                 OrderRepository orderRepository,
+                                 List<SagaStepHandler> stepHandlers,
+                                 SagaEventPublisher eventPublisher,
+                                 ApplicationEventPublisher applicationEventPublisher,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${app.order.saga.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.order.saga.max-compensation-attempts:20}") int maxCompensationAttempts,
+                                 @Value("${app.order.saga.retry-backoff:2s}") Duration retryBackoff,
+                                 @Value("${app.order.saga.max-backoff:5m}") Duration maxBackoff,
+                                 @Value("${app.order.saga.payment-timeout:15m}") Duration paymentTimeout,
+                                 @Value("${app.order.saga.lease:2m}") Duration lease) {
+        this(sagaRepository, orderRepository, stepHandlers, eventPublisher, applicationEventPublisher,
+                transactionTemplate, Clock.systemDefaultZone(), maxAttempts, maxCompensationAttempts,
+                retryBackoff, maxBackoff, paymentTimeout, lease);
+    }
+
+    OrderSagaOrchestrator(OrderSagaRepository sagaRepository,
+                          OrderRepository orderRepository,
+                          List<SagaStepHandler> stepHandlers,
+                          SagaEventPublisher eventPublisher,
+                          ApplicationEventPublisher applicationEventPublisher,
+                          TransactionTemplate transactionTemplate,
+                          Clock clock,
+                          int maxAttempts,
+                          int maxCompensationAttempts,
+                          Duration retryBackoff,
+                          Duration maxBackoff,
+                          Duration paymentTimeout,
+                          Duration lease) {
+        this.sagaRepository = sagaRepository;
+        this.orderRepository = orderRepository;
+        stepHandlers.forEach(handler -> handlers.put(handler.step(), handler));
+        for (SagaStep step : SagaStep.values()) {
+            if (!handlers.containsKey(step)) {
+                throw new IllegalStateException("No saga step handler for " + step);
+            }
+        }
+        this.eventPublisher = eventPublisher;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.maxAttempts = maxAttempts;
+        this.maxCompensationAttempts = maxCompensationAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.paymentTimeout = paymentTimeout;
+        this.lease = lease;
+    }
+
+    /**
+     * Creates the saga for a new order in the caller's transaction, so the order and its saga
+     * commit together. The first step runs once that transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OrderSaga start(Order order) {
+        OrderSaga saga = sagaRepository.save(OrderSaga.builder()
+                .orderId(order.getId())
+                .step(SagaStep.first())
+                .status(SagaStatus.RUNNING)
+                .nextAttemptAt(now())
+                .build());
+        applicationEventPublisher.publishEvent(new SagaDueEvent(saga.getId()));
+        return saga;
+    }
+
+    /**
+     * Runs the saga's current step or compensation once, if it is due and not leased by another
+     * worker.
+     *
+     * @return true if the saga is due again right away, so the caller can keep going on the
+     * same thread instead of waiting for the next poll
+     */
+    public boolean advance(UUID sagaId) {
+        Claim claim = transactionTemplate.execute(status -> claim(sagaId));
+        if (claim == null) {
+            return false;
+        }
+
+        SagaStepHandler handler = handlers.get(claim.step());
+        boolean compensating = claim.status() == SagaStatus.COMPENSATING;
+        StepResult result = null;
+        try {
+            if (compensating) {
+                handler.compensate(claim.order());
+            } else {
+                result = handler.execute(claim.order());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Saga {} {} {} failed: {}", sagaId, compensating ? "compensation of" : "step",
+                    claim.step(), e.getMessage());
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> recordFailure(claim, e)));
+        }
+
+        StepResult outcome = result;
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> compensating
+                ? recordCompensated(claim)
+                : recordSuccess(claim, outcome)));
+    }
+
+    /**
+     * Handles {@code payment-received}.
+     *
+     * @return false if the order has no saga and the caller should fall back to a plain status update
+     */
+    @Transactional
+    public boolean onPaymentAuthorized(UUID orderId) {
+        OrderSaga saga = sagaRepository.findByOrderIdForUpdate(orderId).orElse(null);
+        if (saga == null) {
+            return false;
+        }
+        onPaymentAuthorized(saga);
+        return true;
+    }
+
+    /**
+     * Variant of {@link #onPaymentAuthorized(UUID)} for callers that already hold the saga row
+     * lock, e.g. the batch consumer that locks all sagas of a batch in one query.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onPaymentAuthorized(OrderSaga saga) {
+        UUID orderId = saga.getOrderId();
+        if (isAwaitingPayment(saga)) {
+            if (saga.isCancelRequested()) {
+                startCompensation(saga, SagaStep.AUTHORIZE_PAYMENT, "Order cancelled while awaiting payment");
+            } else {
+                Order order = loadOrder(orderId);
+                order.setStatus(OrderStatus.PAID);
+                order.setPaidAt(now());
+                order.addStatusHistory(OrderStatus.PAID, "Payment authorized");
+                applicationEventPublisher.publishEvent(OrderStatusChangedEvent.of(order));
+                moveTo(saga, SagaStep.CONFIRM_ORDER);
+            }
+            publishIfDue(saga);
+        } else if (saga.getStatus() == SagaStatus.COMPENSATING || saga.getStatus() == SagaStatus.COMPENSATED
+                || saga.getStatus() == SagaStatus.FAILED) {
+            // The payment arrived after the saga gave up on it; void it rather than keep the money
+            log.warn("Payment authorized for order {} after its saga was {}, voiding", orderId, saga.getStatus());
+            handlers.get(SagaStep.AUTHORIZE_PAYMENT).compensate(loadOrder(orderId));
+        } else {
+            log.debug("Ignoring duplicate payment authorization for order {} (saga {} at {})",
+                    orderId, saga.getStatus(), saga.getStep());
+        }
+    }
+
+    /**
+     * Handles {@code payment-failed}.
+     *
+     * @return false if the order has no saga and the caller should fall back to a plain status update
+     */
+    @Transactional
+    public boolean onPaymentFailed(UUID orderId, String reason) {
+        return onPaymentFailed(orderId, reason, false);
+    }
+
+    /**
+     * Variant of {@link #onPaymentFailed(UUID, String)} for payments failed without an answer from
+     * the gateway, e.g. on a timeout. Such a payment may still go through, so it is voided along
+     * with the stock.
+     */
+    @Transactional
+    public boolean onPaymentFailed(UUID orderId, String reason, boolean outcomeUnknown) {
+        OrderSaga saga = sagaRepository.findByOrderIdForUpdate(orderId).orElse(null);
+        if (saga == null) {
+            return false;
+        }
+        onPaymentFailed(saga, reason, outcomeUnknown);
+        return true;
+    }
+
+    /**
+     * Variant of {@link #onPaymentFailed(UUID, String)} for callers that already hold the saga row lock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onPaymentFailed(OrderSaga saga, String reason) {
+        onPaymentFailed(saga, reason, false);
+    }
+
+    private void onPaymentFailed(OrderSaga saga, String reason, boolean outcomeUnknown) {
+        if (isAwaitingPayment(saga)) {
+            startCompensation(saga, outcomeUnknown ? SagaStep.AUTHORIZE_PAYMENT : SagaStep.AUTHORIZE_PAYMENT.previous(),
+                    "Payment failed" + (reason == null ? "" : ": " + reason));
+            publishIfDue(saga);
+        } else {
+            log.debug("Ignoring payment failure for order {} (saga {} at {})",
+                    saga.getOrderId(), saga.getStatus(), saga.getStep());
+        }
+    }
+
+    /**
+     * Asks the saga of an order being cancelled to undo whatever it has done so far. A step
+     * that is running right now finishes first and is then compensated.
+     *
+     * @return false if the order has no saga and the caller has to release stock itself
+     */
+    @Transactional
+    public boolean requestCancellation(UUID orderId) {
+        OrderSaga saga = sagaRepository.findByOrderIdForUpdate(orderId).orElse(null);
+        if (saga == null) {
+            return false;
+        }
+
+        switch (saga.getStatus()) {
+            case RUNNING -> saga.setCancelRequested(true);
+            case AWAITING, COMPLETED -> {
+                saga.setCancelRequested(true);
+                startCompensation(saga, lastStepToUndo(saga), "Order cancelled");
+            }
+            default -> log.debug("Saga for order {} is already {}", orderId, saga.getStatus());
+        }
+        publishIfDue(saga);
+        return true;
+    }
+
+    /**
+     * Whether a payment reply is due. The reply can overtake the saga: the request is published
+     * while the saga is still RUNNING the step, and AWAITING is only recorded after the broker
+     * acknowledged it. A reply in that window is applied at once; the step's own result is then
+     * dropped by {@link #reload}, since the saga has moved on.
+     */
+    private static boolean isAwaitingPayment(OrderSaga saga) {
+        return saga.getStep() == SagaStep.AUTHORIZE_PAYMENT
+                && (saga.getStatus() == SagaStatus.AWAITING || saga.getStatus() == SagaStatus.RUNNING);
+    }
+
+    private Claim claim(UUID sagaId) {
+        OrderSaga saga = sagaRepository.findByIdForUpdate(sagaId).orElse(null);
+        LocalDateTime now = now();
+        if (saga == null || !saga.getStatus().isActive()
+                || saga.getNextAttemptAt() == null || saga.getNextAttemptAt().isAfter(now)) {
+            return null;
+        }
+
+        if (saga.getStatus() == SagaStatus.AWAITING) {
+            startCompensation(saga, saga.getStep(), "Timed out waiting for " + saga.getStep());
+        } else if (saga.getStatus() == SagaStatus.RUNNING && saga.isCancelRequested()) {
+            // An earlier attempt of the current step may have taken effect before it failed or crashed
+            startCompensation(saga, saga.getStep(), "Order cancelled");
+        }
+        if (!saga.getStatus().isActive()) {
+            return null;
+        }
+
+        // Lease the saga: pollers skip it until the lease runs out, which also recovers from a crash
+        saga.setNextAttemptAt(now.plus(lease));
+        Order order = loadOrder(saga.getOrderId());
+        order.getItems().size();
+        return new Claim(saga.getId(), saga.getStatus(), saga.getStep(), order);
+    }
+
+    private Boolean recordSuccess(Claim claim, StepResult result) {
+        OrderSaga saga = reload(claim);
+        if (saga == null) {
+            return false;
+        }
+
+        if (result == StepResult.AWAITING_REPLY) {
+            saga.setStatus(SagaStatus.AWAITING);
+            saga.setAttempts(0);
+            saga.setLastError(null);
+            saga.setNextAttemptAt(now().plus(paymentTimeout));
+        } else {
+            onStepCompleted(saga.getStep(), saga.getOrderId());
+            SagaStep next = saga.getStep().next();
+            if (next == null) {
+                saga.setStatus(SagaStatus.COMPLETED);
+                saga.setNextAttemptAt(null);
+                log.info("Saga {} for order {} completed", saga.getId(), saga.getOrderId());
+            } else {
+                moveTo(saga, next);
+            }
+        }
+
+        if (saga.isCancelRequested()) {
+            startCompensation(saga, lastStepToUndo(saga), "Order cancelled");
+        }
+        return saga.isDue(now());
+    }
+
+    private Boolean recordFailure(Claim claim, RuntimeException error) {
+        OrderSaga saga = reload(claim);
+        if (saga == null) {
+            return false;
+        }
+
+        saga.setAttempts(saga.getAttempts() + 1);
+        saga.setLastError(error.getMessage());
+        if (claim.status() == SagaStatus.COMPENSATING) {
+            if (saga.getAttempts() >= maxCompensationAttempts) {
+                saga.setStatus(SagaStatus.FAILED);
+                saga.setNextAttemptAt(null);
+                log.error("Saga {} for order {} could not compensate {} after {} attempts, needs manual repair",
+                        saga.getId(), saga.getOrderId(), saga.getStep(), saga.getAttempts(), error);
+                return false;
+            }
+        } else if (saga.isCancelRequested() || saga.getAttempts() >= maxAttempts) {
+            // The failed step may have taken effect before it failed; undoing a step that did not is a no-op
+            startCompensation(saga, saga.getStep(), saga.getStep() + " failed: " + error.getMessage());
+            return saga.isDue(now());
+        }
+        saga.setNextAttemptAt(now().plus(backoff(saga.getAttempts())));
+        return false;
+    }
+
+    private Boolean recordCompensated(Claim claim) {
+        OrderSaga saga = reload(claim);
+        if (saga == null) {
+            return false;
+        }
+
+        SagaStep previous = saga.getStep().previous();
+        if (previous == null) {
+            finishCompensation(saga);
+        } else {
+            saga.setStep(previous);
+            saga.setAttempts(0);
+            saga.setNextAttemptAt(now());
+        }
+        return saga.isDue(now());
+    }
+
+    // Null if the saga moved on while the step ran, e.g. a reply arrived after the timeout fired
+    private OrderSaga reload(Claim claim) {
+        OrderSaga saga = sagaRepository.findByIdForUpdate(claim.sagaId()).orElse(null);
+        if (saga == null || saga.getStatus() != claim.status() || saga.getStep() != claim.step()) {
+            log.info("Saga {} changed while {} ran, dropping the result", claim.sagaId(), claim.step());
+            return null;
+        }
+        return saga;
+    }
+
+    private void onStepCompleted(SagaStep step, UUID orderId) {
+        if (step == SagaStep.RESERVE_INVENTORY) {
+            Order order = loadOrder(orderId);
+            order.setStatus(OrderStatus.PROCESSING);
+            order.setProcessingAt(now());
+            order.addStatusHistory(OrderStatus.PROCESSING, "Inventory reserved");
+            applicationEventPublisher.publishEvent(OrderStatusChangedEvent.of(order));
+        }
+    }
+
+    private void moveTo(OrderSaga saga, SagaStep step) {
+        saga.setStep(step);
+        saga.setStatus(SagaStatus.RUNNING);
+        saga.setAttempts(0);
+        saga.setLastError(null);
+        saga.setNextAttemptAt(now());
+    }
+
+    private void startCompensation(OrderSaga saga, SagaStep fromStep, String reason) {
+        log.info("Compensating saga {} for order {}: {}", saga.getId(), saga.getOrderId(), reason);
+        saga.setLastError(reason);
+        saga.setAttempts(0);
+        if (fromStep == null) {
+            finishCompensation(saga);
+            return;
+        }
+        saga.setStatus(SagaStatus.COMPENSATING);
+        saga.setStep(fromStep);
+        saga.setNextAttemptAt(now());
+    }
+
+    private void finishCompensation(OrderSaga saga) {
+        saga.setStatus(SagaStatus.COMPENSATED);
+        saga.setNextAttemptAt(null);
+
+        Order order = loadOrder(saga.getOrderId());
+        if (order.getStatus() != OrderStatus.CANCELLED) {
+            order.setStatus(OrderStatus.CANCELLED);
+            order.setCancelledAt(now());
+            order.addStatusHistory(OrderStatus.CANCELLED, saga.getLastError());
+            applicationEventPublisher.publishEvent(OrderStatusChangedEvent.of(order));
+            eventPublisher.publish("ORDER_CANCELLED", order);
+        }
+        log.info("Saga {} for order {} compensated", saga.getId(), saga.getOrderId());
+    }
+
+    // The most recent step whose side effect may have happened
+    private SagaStep lastStepToUndo(OrderSaga saga) {
+        return switch (saga.getStatus()) {
+            case AWAITING -> saga.getStep();
+            case COMPLETED -> SagaStep.last();
+            default -> saga.getStep().previous();
+        };
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void publishIfDue(OrderSaga saga) {
+        if (saga.isDue(now())) {
+            applicationEventPublisher.publishEvent(new SagaDueEvent(saga.getId()));
+        }
+    }
+
+    private Order loadOrder(UUID orderId) {
+        return orderRepository.findInPartitionById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private record Claim(UUID sagaId, SagaStatus status, SagaStep step, Order order) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.order.service.saga;
+
+import com.ecommerce.order.client.InventoryServiceClient;
+import com.ecommerce.order.dto.InventoryReservationRequest;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.SagaStep;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Holds stock in inventory-service under the order id. Retries and lease takeovers may run this
+ * step again; reserving under the same id returns the holds already made instead of taking more.
+ */
+@Slf4j
+@Component
+public class ReserveInventoryStep implements SagaStepHandler {
+
+    private final InventoryServiceClient inventoryServiceClient;
+    private final Duration reservationTtl;
+
+    public ReserveInventoryStep(InventoryServiceClient inventoryServiceClient,
+                                @Value("${app.order.saga.reservation-ttl:1h}") Duration reservationTtl) {
+        this.inventoryServiceClient = inventoryServiceClient;
+        this.reservationTtl = reservationTtl;
+    }
+
+    @Override
+    public SagaStep step() {
+        return SagaStep.RESERVE_INVENTORY;
+    }
+
+    @Override
+    public StepResult execute(Order order) {
+        log.info("Reserving stock for order {}", order.getId());
+        inventoryServiceClient.reserveBatch(InventoryReservationRequest.builder()
+                .reservationId(order.getId().toString())
+                .items(order.getItems().stream()
+                        .map(item -> new InventoryReservationRequest.Line(item.getProductSku(), item.getQuantity()))
+                        .collect(Collectors.toList()))
+                .ttlSeconds((int) reservationTtl.toSeconds())
+                .notes("Order " + order.getOrderNumber())
+                .build());
+        return StepResult.COMPLETED;
+    }
+
+    // Also runs when the reservation failed or never happened; releasing an unknown id is a no-op
+    @Override
+    public void compensate(Order order) {
+        log.info("Releasing stock held for order {}", order.getId());
+        inventoryServiceClient.releaseReservation(order.getId().toString());
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.order.service.saga;
+
+import java.util.UUID;
+
+/**
+ * Published when a saga has work to do right now, so it runs without waiting for the next poll.
+ */
+public record SagaDueEvent(UUID sagaId) {
+}
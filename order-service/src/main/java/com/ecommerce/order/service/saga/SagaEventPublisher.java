@@ -0,0 +1,50 @@
+package com.ecommerce.order.service.saga;
+
+import com.ecommerce.events.OrderEvent;
+import com.ecommerce.order.exception.SagaStepException;
+import com.ecommerce.order.model.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes saga commands and notifications to {@code order-events} and waits for the broker's
+ * acknowledgement, so a step only counts as done once its message is durable.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaEventPublisher {
+
+    static final String ORDER_EVENTS_TOPIC = "order-events";
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public void publish(String eventType, Order order) {
+        OrderEvent event = new OrderEvent(
+                eventType,
+                order.getId(),
+                order.getOrderNumber(),
+                order.getCustomerId(),
+                order.getStatus().name(),
+                Instant.now()
+        );
+        try {
+            kafkaTemplate.send(ORDER_EVENTS_TOPIC, order.getOrderNumber(), event)
+                    .get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            log.debug("Published {} for order {}", eventType, order.getId());
+        } catch (ExecutionException | TimeoutException e) {
+            throw new SagaStepException("Failed to publish " + eventType + " for order " + order.getId(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SagaStepException("Interrupted publishing " + eventType + " for order " + order.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.order.service.saga;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.SagaStep;
+
+/**
+ * One step of the order saga. Both methods are called without a transaction and may be called
+ * more than once for the same order (after a crash or a lost reply), so they should be safe to
+ * repeat. Throwing marks the attempt as failed; the orchestrator retries with backoff.
+ */
+public interface SagaStepHandler {
+
+    SagaStep step();
+
+    StepResult execute(Order order);
+
+    void compensate(Order order);
+
+    enum StepResult {
+        /**
+         * The step is done; move on to the next one.
+         */
+        COMPLETED,
+
+        /**
+         * The step was started and completes when a reply event arrives.
+         */
+        AWAITING_REPLY
+    }
+}
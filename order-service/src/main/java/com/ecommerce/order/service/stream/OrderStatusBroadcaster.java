@@ -0,0 +1,141 @@
+package com.ecommerce.order.service.stream;
+
+import com.ecommerce.events.OrderEvent;
+import com.ecommerce.order.dto.tracking.OrderStatusChange;
+import com.ecommerce.order.dto.tracking.OrderTrackingResponse;
+import com.ecommerce.order.exception.StreamCapacityExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pushes order status changes to open SSE streams, by order or by customer. Fed by one
+ * {@code order-events} consumer per instance; {@link #broadcast} only appends to each matching
+ * subscriber's bounded buffer and returns, so a slow client cannot hold up the consumer or the
+ * other clients. Idle streams get a heartbeat so proxies keep them open.
+ */
+@Slf4j
+@Component
+public class OrderStatusBroadcaster {
+
+    static final String STATUS_EVENT = "status";
+    static final String TRACKING_EVENT = "tracking";
+
+    private final Map<UUID, Set<OrderStatusSubscriber>> byOrder = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<OrderStatusSubscriber>> byCustomer = new ConcurrentHashMap<>();
+    private final Set<OrderStatusSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger open = new AtomicInteger();
+    private final Supplier<SseEmitter> emitterFactory;
+    private final Executor sendExecutor;
+    private final int bufferSize;
+    private final int maxSubscribers;
+
+    @Autowired
+    public OrderStatusBroadcaster(@Qualifier("orderStatusStreamExecutor") Executor sendExecutor,
+                                  @Value("${app.order.stream.buffer-size:32}") int bufferSize,
+                                  @Value("${app.order.stream.max-subscribers:10000}") int maxSubscribers,
+                                  @Value("${app.order.stream.timeout:30m}") Duration timeout) {
+        this(() -> new SseEmitter(timeout.toMillis()), sendExecutor, bufferSize, maxSubscribers);
+    }
+
+    OrderStatusBroadcaster(Supplier<SseEmitter> emitterFactory, Executor sendExecutor, int bufferSize, int maxSubscribers) {
+        this.emitterFactory = emitterFactory;
+        this.sendExecutor = sendExecutor;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * Opens a stream of one order's status changes, starting with its current tracking.
+     */
+    public SseEmitter subscribeToOrder(UUID orderId, OrderTrackingResponse current) {
+        OrderStatusSubscriber subscriber = register(byOrder, orderId);
+        subscriber.offer(new OrderStatusSubscriber.Message(TRACKING_EVENT, current));
+        return subscriber.emitter();
+    }
+
+    /**
+     * Opens a stream of status changes to any of the customer's orders.
+     */
+    public SseEmitter subscribeToCustomer(UUID customerId) {
+        return register(byCustomer, customerId).emitter();
+    }
+
+    public void broadcast(OrderEvent event) {
+        if (event.status() == null) {
+            return;
+        }
+        Set<OrderStatusSubscriber> orderSubscribers = event.orderId() != null ? byOrder.get(event.orderId()) : null;
+        Set<OrderStatusSubscriber> customerSubscribers = event.customerId() != null ? byCustomer.get(event.customerId()) : null;
+        if (orderSubscribers == null && customerSubscribers == null) {
+            return;
+        }
+        OrderStatusSubscriber.Message message = new OrderStatusSubscriber.Message(STATUS_EVENT, new OrderStatusChange(
+                event.orderId(), event.orderNumber(), event.status(), event.timestamp()));
+        if (orderSubscribers != null) {
+            orderSubscribers.forEach(subscriber -> subscriber.offer(message));
+        }
+        if (customerSubscribers != null) {
+            customerSubscribers.forEach(subscriber -> subscriber.offer(message));
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.order.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.forEach(OrderStatusSubscriber::offerHeartbeat);
+    }
+
+    public int openStreams() {
+        return open.get();
+    }
+
+    private OrderStatusSubscriber register(Map<UUID, Set<OrderStatusSubscriber>> index, UUID key) {
+        if (open.incrementAndGet() > maxSubscribers) {
+            open.decrementAndGet();
+            throw new StreamCapacityExceededException("Too many open order status streams, retry later");
+        }
+        SseEmitter emitter = emitterFactory.get();
+        OrderStatusSubscriber subscriber = new OrderStatusSubscriber(emitter, sendExecutor, bufferSize,
+                closed -> unregister(index, key, closed));
+
+        subscribers.add(subscriber);
+        // Added inside compute, so it cannot land in a set that unregister is dropping
+        index.compute(key, (k, set) -> {
+            Set<OrderStatusSubscriber> keySubscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            keySubscribers.add(subscriber);
+            return keySubscribers;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return subscriber;
+    }
+
+    private void unregister(Map<UUID, Set<OrderStatusSubscriber>> index, UUID key, OrderStatusSubscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        open.decrementAndGet();
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        long dropped = subscriber.dropped();
+        if (dropped > 0) {
+            log.debug("Order status stream for {} closed after dropping {} events for a slow client", key, dropped);
+        }
+    }
+}
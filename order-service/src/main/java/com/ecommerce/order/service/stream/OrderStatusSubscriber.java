@@ -0,0 +1,145 @@
+package com.ecommerce.order.service.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One open stream. Events are queued in a small bounded buffer and written by a send worker, so
+ * the thread that publishes never waits on a client's socket. When a client falls behind, the
+ * oldest queued events are dropped; the newest status is the one that matters.
+ */
+@Slf4j
+final class OrderStatusSubscriber {
+
+    /**
+     * A queued event. The SSE builder is created when the event is sent, as it cannot be shared
+     * between emitters.
+     */
+    record Message(String name, Object data) {
+
+        static Message heartbeat() {
+            return new Message(null, null);
+        }
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final SseEmitter emitter;
+    private final Executor sendExecutor;
+    private final int capacity;
+    private final Consumer<OrderStatusSubscriber> onClose;
+    private final Deque<Message> buffer = new ArrayDeque<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+    private long dropped;
+
+    OrderStatusSubscriber(SseEmitter emitter, Executor sendExecutor, int capacity, Consumer<OrderStatusSubscriber> onClose) {
+        this.emitter = emitter;
+        this.sendExecutor = sendExecutor;
+        this.capacity = capacity;
+        this.onClose = onClose;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    void offer(Message message) {
+        if (closed) {
+            return;
+        }
+        synchronized (buffer) {
+            if (buffer.size() == capacity) {
+                buffer.pollFirst();
+                dropped++;
+            }
+            buffer.addLast(message);
+        }
+        scheduleDrain();
+    }
+
+    // Only when nothing is queued: a stream with pending events is not idle
+    void offerHeartbeat() {
+        synchronized (buffer) {
+            if (closed || !buffer.isEmpty()) {
+                return;
+            }
+            buffer.addLast(Message.heartbeat());
+        }
+        scheduleDrain();
+    }
+
+    long dropped() {
+        synchronized (buffer) {
+            return dropped;
+        }
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        synchronized (buffer) {
+            buffer.clear();
+        }
+        onClose.accept(this);
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // The buffer keeps the events; the next offer or heartbeat tries again
+            draining.set(false);
+        }
+    }
+
+    private void drain() {
+        try {
+            Message next;
+            while (!closed && (next = poll()) != null) {
+                emitter.send(next.toEvent());
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Closing order status stream: {}", e.getMessage());
+            emitter.completeWithError(e);
+            close();
+        } finally {
+            draining.set(false);
+        }
+        // An event queued after the last poll but before the flag was cleared
+        if (!closed && hasPending()) {
+            scheduleDrain();
+        }
+    }
+
+    private Message poll() {
+        synchronized (buffer) {
+            return buffer.pollFirst();
+        }
+    }
+
+    private boolean hasPending() {
+        synchronized (buffer) {
+            return !buffer.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.order.service.tracking;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published in the transaction that changed an order's status, after the change is applied to
+ * the entity. {@link OrderTrackingProjector} updates the tracking view from it.
+ *
+ * @param previousStatus status before this change, or null for a new order
+ */
+public record OrderStatusChangedEvent(UUID orderId, OrderStatus previousStatus, OrderStatus status,
+                                      LocalDateTime changedAt) {
+
+    public static OrderStatusChangedEvent of(Order order) {
+        return new OrderStatusChangedEvent(order.getId(), order.markStatusReported(), order.getStatus(),
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.order.service.tracking;
+
+import com.ecommerce.order.config.CacheConfig;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderTrackingView;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderTrackingViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Keeps {@link OrderTrackingView} in step with order status changes. The view is written in the
+ * transaction that changed the order, so both commit or roll back together; the cached tracking
+ * response of the order is evicted once that transaction commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderTrackingProjector {
+
+    private final OrderTrackingViewRepository viewRepository;
+    private final OrderRepository orderRepository;
+    private final CacheManager cacheManager;
+
+    @EventListener
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        // Already in the persistence context of the transaction that changed it
+        Optional<Order> order = orderRepository.findById(event.orderId());
+        if (order.isEmpty()) {
+            log.warn("Not updating tracking view: order {} not found", event.orderId());
+            return;
+        }
+        viewRepository.findById(event.orderId()).ifPresentOrElse(
+                view -> view.recordStatus(order.get(), event.status(), event.changedAt()),
+                // First change of a new order, or of one from before the view existed
+                () -> viewRepository.save(OrderTrackingView.from(order.get())));
+    }
+
+    // Also runs when the change was published outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictAfterCommit(OrderStatusChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.ORDER_TRACKING_CACHE);
+        if (cache != null) {
+            cache.evict(event.orderId());
+        }
+    }
+}
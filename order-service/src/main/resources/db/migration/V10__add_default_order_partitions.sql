@@ -0,0 +1,59 @@
+-- Orders created in a month without a partition land in a default partition instead of failing.
+-- ensure_order_partitions moves such rows into their month's partition once it is created.
+CREATE TABLE IF NOT EXISTS orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE IF NOT EXISTS order_items_default PARTITION OF order_items DEFAULT;
+
+-- Creates the partitions of one month for orders and order_items. A partition cannot be created
+-- while the default partition holds rows in its range, so those rows are copied into standalone
+-- tables, removed from the defaults (items first, so the cascade has nothing to delete), and the
+-- tables are then attached.
+CREATE OR REPLACE FUNCTION create_order_month_partitions(month_start DATE)
+RETURNS VOID AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month_start)::date;
+    next_day DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    suffix TEXT := to_char(date_trunc('month', month_start), 'YYYY_MM');
+BEGIN
+    IF to_regclass('orders_' || suffix) IS NOT NULL THEN
+        PERFORM create_monthly_partition('order_items', first_day);
+        RETURN;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM orders_default WHERE created_at >= first_day AND created_at < next_day) THEN
+        PERFORM create_monthly_partition('orders', first_day);
+        PERFORM create_monthly_partition('order_items', first_day);
+        RETURN;
+    END IF;
+
+    LOCK TABLE orders, order_items IN SHARE ROW EXCLUSIVE MODE;
+
+    EXECUTE format('CREATE TABLE %I (LIKE orders INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', 'orders_' || suffix);
+    EXECUTE format('CREATE TABLE %I (LIKE order_items INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', 'order_items_' || suffix);
+    EXECUTE format('INSERT INTO %I SELECT * FROM orders_default WHERE created_at >= %L AND created_at < %L',
+                   'orders_' || suffix, first_day, next_day);
+    EXECUTE format('INSERT INTO %I SELECT * FROM order_items_default WHERE order_created_at >= %L AND order_created_at < %L',
+                   'order_items_' || suffix, first_day, next_day);
+    DELETE FROM order_items_default WHERE order_created_at >= first_day AND order_created_at < next_day;
+    DELETE FROM orders_default WHERE created_at >= first_day AND created_at < next_day;
+    EXECUTE format('ALTER TABLE orders ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   'orders_' || suffix, first_day, next_day);
+    EXECUTE format('ALTER TABLE order_items ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   'order_items_' || suffix, first_day, next_day);
+    RAISE WARNING 'Moved orders of % out of the default partition', suffix;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for this month, the next months_ahead, and any month that reached the defaults
+CREATE OR REPLACE FUNCTION ensure_order_partitions(months_ahead INTEGER)
+RETURNS VOID AS $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR month_start IN SELECT DISTINCT date_trunc('month', created_at)::date FROM orders_default LOOP
+        PERFORM create_order_month_partitions(month_start);
+    END LOOP;
+    FOR m IN 0..months_ahead LOOP
+        PERFORM create_order_month_partitions((date_trunc('month', now()) + make_interval(months => m))::date);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
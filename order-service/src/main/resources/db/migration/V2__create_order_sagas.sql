@@ -0,0 +1,19 @@
+-- Persistent state of the order placement saga, one row per order
+CREATE TABLE order_sagas (
+    id UUID PRIMARY KEY,
+    order_id UUID NOT NULL UNIQUE,
+    step VARCHAR(32) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    cancel_requested BOOLEAN NOT NULL DEFAULT FALSE,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL,
+    CONSTRAINT fk_order_saga_order FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
+);
+
+-- Dispatcher scan; finished sagas never need to be found by time, so keep them out of the index
+CREATE INDEX idx_order_sagas_due ON order_sagas(next_attempt_at)
+    WHERE status IN ('RUNNING', 'AWAITING', 'COMPENSATING');
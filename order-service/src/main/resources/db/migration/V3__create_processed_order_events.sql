@@ -0,0 +1,9 @@
+-- Inbound events already applied to orders, used to skip redeliveries
+CREATE TABLE processed_order_events (
+    event_id VARCHAR(200) PRIMARY KEY,
+    order_id UUID NOT NULL,
+    processed_at TIMESTAMP NOT NULL
+);
+
+-- Retention purge
+CREATE INDEX idx_processed_order_events_processed_at ON processed_order_events(processed_at);
@@ -0,0 +1,2 @@
+-- Serves the customer order history keyset: equality on customer, then (created_at DESC, id) in index order
+CREATE INDEX idx_orders_customer_created_id ON orders(customer_id, created_at DESC, id);
@@ -0,0 +1,13 @@
+-- Read model behind the tracking and timeline endpoints: one row per order, timeline precomputed
+-- newest first and updated in the same transaction as each status change
+CREATE TABLE order_tracking_views (
+    order_id UUID PRIMARY KEY,
+    order_number VARCHAR(255) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    tracking_number VARCHAR(255),
+    carrier VARCHAR(100),
+    estimated_delivery TIMESTAMP,
+    actual_delivery TIMESTAMP,
+    timeline JSONB NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
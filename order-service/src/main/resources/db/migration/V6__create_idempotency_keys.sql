@@ -0,0 +1,15 @@
+-- Requests sent with an Idempotency-Key header. A row is claimed IN_PROGRESS before the request
+-- runs and holds its response once COMPLETED, so retries replay it instead of running again
+CREATE TABLE idempotency_keys (
+    id VARCHAR(400) PRIMARY KEY,
+    operation VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    response_body TEXT,
+    locked_until TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- TTL purge
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
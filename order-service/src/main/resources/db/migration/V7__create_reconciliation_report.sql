@@ -0,0 +1,46 @@
+-- One row per reconciled settlement file, with its totals once it finishes
+CREATE TABLE reconciliation_runs (
+    id UUID PRIMARY KEY,
+    gateway VARCHAR(50) NOT NULL,
+    settlement_file VARCHAR(500) NOT NULL,
+    window_start TIMESTAMP NOT NULL,
+    window_end TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    settlement_rows BIGINT NOT NULL DEFAULT 0,
+    ledger_rows BIGINT NOT NULL DEFAULT 0,
+    matched_rows BIGINT NOT NULL DEFAULT 0,
+    mismatches BIGINT NOT NULL DEFAULT 0,
+    error TEXT,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+CREATE INDEX idx_reconciliation_runs_started_at ON reconciliation_runs(started_at);
+
+-- Differences between a settlement file and the transactions ledger
+CREATE TABLE reconciliation_mismatches (
+    id BIGSERIAL PRIMARY KEY,
+    run_id UUID NOT NULL REFERENCES reconciliation_runs(id) ON DELETE CASCADE,
+    reference VARCHAR(100) NOT NULL,
+    mismatch_type VARCHAR(40) NOT NULL,
+    transaction_id UUID,
+    ledger_amount NUMERIC(19, 2),
+    settlement_amount NUMERIC(19, 2),
+    ledger_currency VARCHAR(3),
+    settlement_currency VARCHAR(3),
+    ledger_status VARCHAR(20),
+    settlement_status VARCHAR(20),
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_reconciliation_mismatches_run ON reconciliation_mismatches(run_id, mismatch_type);
+
+-- Reconciliation reads the ledger in byte order of transaction_id. The transactions table is not
+-- created by these migrations, so the index is added only where it exists.
+DO $$
+BEGIN
+    IF to_regclass('transactions') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_transactions_transaction_id_c ON transactions ((transaction_id COLLATE "C"));
+    END IF;
+END
+$$;
@@ -0,0 +1,163 @@
+-- Range-partitions orders and order_items by month of the order's created_at, so old months can
+-- be archived and dropped whole and queries bounded by created_at only read the months they need.
+--
+-- Existing rows are copied into the partitioned tables in this migration; expect it to take a
+-- while on large tables. Columns are taken from the current tables with LIKE, so columns added
+-- outside these migrations are kept.
+--
+-- A partitioned table's unique keys must contain the partition key:
+--   * orders is keyed by (id, created_at) and order numbers are unique per created_at. Order
+--     numbers are generated IDs and cannot repeat anyway.
+--   * order_items carries order_created_at, a copy of its order's created_at, so an order and its
+--     items live in the same month and keep their foreign key.
+--   * Other tables referencing orders(id), such as order_sagas, lose their foreign key, because
+--     orders(id) alone is no longer unique. The application keeps those references consistent.
+
+-- Creates <parent>_YYYY_MM holding the month that contains month_start, unless it exists
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent TEXT, month_start DATE)
+RETURNS VOID AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month_start)::date;
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   parent || '_' || to_char(first_day, 'YYYY_MM'), parent,
+                   first_day, (first_day + INTERVAL '1 month')::date);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Called by OrderPartitionMaintenance: partitions for this month and the next months_ahead
+CREATE OR REPLACE FUNCTION ensure_order_partitions(months_ahead INTEGER)
+RETURNS VOID AS $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR m IN 0..months_ahead LOOP
+        month_start := (date_trunc('month', now()) + make_interval(months => m))::date;
+        PERFORM create_monthly_partition('orders', month_start);
+        PERFORM create_monthly_partition('order_items', month_start);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Which of the old triggers exist decides which are recreated below
+CREATE TEMPORARY TABLE order_triggers_before_partitioning ON COMMIT DROP AS
+SELECT tgname::text AS name
+FROM pg_trigger
+WHERE tgrelid IN ('orders'::regclass, 'order_items'::regclass) AND NOT tgisinternal;
+
+-- Drop every foreign key that references orders, then the old tables' keys and indexes, whose
+-- names the new tables reuse
+DO $$
+DECLARE
+    fk RECORD;
+    idx RECORD;
+BEGIN
+    FOR fk IN SELECT conrelid::regclass AS child, conname
+              FROM pg_constraint
+              WHERE contype = 'f' AND confrelid = 'orders'::regclass LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.child, fk.conname);
+    END LOOP;
+
+    FOR fk IN SELECT conrelid::regclass AS owner, conname
+              FROM pg_constraint
+              WHERE contype IN ('p', 'u', 'f') AND conrelid IN ('orders'::regclass, 'order_items'::regclass) LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.owner, fk.conname);
+    END LOOP;
+
+    FOR idx IN SELECT indexrelid::regclass AS name
+               FROM pg_index
+               WHERE indrelid IN ('orders'::regclass, 'order_items'::regclass) LOOP
+        EXECUTE format('DROP INDEX %s', idx.name);
+    END LOOP;
+END
+$$;
+
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+ALTER TABLE order_items RENAME TO order_items_unpartitioned;
+
+CREATE TABLE orders (LIKE orders_unpartitioned INCLUDING DEFAULTS INCLUDING GENERATED INCLUDING STORAGE)
+    PARTITION BY RANGE (created_at);
+
+CREATE TABLE order_items (
+    LIKE order_items_unpartitioned INCLUDING DEFAULTS INCLUDING GENERATED INCLUDING STORAGE,
+    order_created_at TIMESTAMP NOT NULL
+) PARTITION BY RANGE (order_created_at);
+
+-- A partition for every month with data, up to three months ahead
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(min(created_at), now()))::date,
+           GREATEST(date_trunc('month', max(created_at)), date_trunc('month', now()) + INTERVAL '3 months')::date
+    INTO month_start, last_month
+    FROM orders_unpartitioned;
+
+    WHILE month_start <= last_month LOOP
+        PERFORM create_monthly_partition('orders', month_start);
+        PERFORM create_monthly_partition('order_items', month_start);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END
+$$;
+
+INSERT INTO orders SELECT * FROM orders_unpartitioned;
+
+-- Items whose order is gone could not satisfy the foreign key and are left behind
+INSERT INTO order_items
+SELECT i.*, o.created_at
+FROM order_items_unpartitioned i
+JOIN orders_unpartitioned o ON o.id = i.order_id;
+
+DROP TABLE order_items_unpartitioned;
+DROP TABLE orders_unpartitioned;
+
+ALTER TABLE orders ADD CONSTRAINT orders_pkey PRIMARY KEY (id, created_at);
+ALTER TABLE orders ADD CONSTRAINT uk_orders_order_number UNIQUE (order_number, created_at);
+CREATE INDEX idx_orders_status ON orders(status);
+CREATE INDEX idx_orders_created_at ON orders(created_at);
+-- Also serves lookups by customer_id alone, so idx_orders_customer_id is not recreated
+CREATE INDEX idx_orders_customer_created_id ON orders(customer_id, created_at DESC, id);
+
+ALTER TABLE order_items ADD CONSTRAINT order_items_pkey PRIMARY KEY (id, order_created_at);
+ALTER TABLE order_items ADD CONSTRAINT fk_order FOREIGN KEY (order_id, order_created_at)
+    REFERENCES orders(id, created_at) ON DELETE CASCADE;
+CREATE INDEX idx_order_items_order_id ON order_items(order_id);
+CREATE INDEX idx_order_items_product_id ON order_items(product_id);
+
+-- Recreate the V1 triggers that existed. The status check is now limited to rows whose status
+-- actually changes: Hibernate writes every column on update, so UPDATE OF status alone ran the
+-- check on every order update.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM order_triggers_before_partitioning WHERE name = 'update_orders_updated_at') THEN
+        CREATE TRIGGER update_orders_updated_at
+        BEFORE UPDATE ON orders
+        FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM order_triggers_before_partitioning WHERE name = 'update_order_items_updated_at') THEN
+        CREATE TRIGGER update_order_items_updated_at
+        BEFORE UPDATE ON order_items
+        FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM order_triggers_before_partitioning WHERE name = 'calculate_order_item_total_trigger') THEN
+        CREATE TRIGGER calculate_order_item_total_trigger
+        BEFORE INSERT OR UPDATE OF unit_price, quantity ON order_items
+        FOR EACH ROW EXECUTE FUNCTION calculate_order_item_total();
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM order_triggers_before_partitioning WHERE name = 'validate_order_status_transition_trigger') THEN
+        CREATE TRIGGER validate_order_status_transition_trigger
+        BEFORE UPDATE OF status ON orders
+        FOR EACH ROW
+        WHEN (OLD.status IS DISTINCT FROM NEW.status)
+        EXECUTE FUNCTION validate_order_status_transition();
+    END IF;
+END
+$$;
+
+ANALYZE orders;
+ANALYZE order_items;
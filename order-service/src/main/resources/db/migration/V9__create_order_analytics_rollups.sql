@@ -0,0 +1,43 @@
+-- Rollups behind the analytics endpoints, kept up to date from order events by
+-- OrderAnalyticsCollector with additive upserts. Reads touch a bounded number of rows however
+-- many orders exist. Each table is backfilled from the orders already placed.
+
+-- Orders placed per hour of created_at and the sum of their totals
+CREATE TABLE order_hourly_rollup (
+    hour TIMESTAMP PRIMARY KEY,
+    orders_placed BIGINT NOT NULL,
+    revenue DECIMAL(19, 4) NOT NULL
+);
+
+-- Orders currently in each status
+CREATE TABLE order_status_rollup (
+    status VARCHAR(50) PRIMARY KEY,
+    order_count BIGINT NOT NULL
+);
+
+-- Units ordered and line revenue per product
+CREATE TABLE order_product_rollup (
+    product_id UUID PRIMARY KEY,
+    product_name VARCHAR(255),
+    units_sold BIGINT NOT NULL,
+    revenue DECIMAL(19, 4) NOT NULL
+);
+
+-- Top products read the first rows of this index
+CREATE INDEX idx_order_product_rollup_units ON order_product_rollup(units_sold DESC, product_id);
+
+INSERT INTO order_hourly_rollup (hour, orders_placed, revenue)
+SELECT date_trunc('hour', created_at), count(*), COALESCE(sum(total), 0)
+FROM orders
+GROUP BY 1;
+
+-- status is read as text: older schemas store it as the order_status enum, newer ones as varchar
+INSERT INTO order_status_rollup (status, order_count)
+SELECT status::text, count(*)
+FROM orders
+GROUP BY 1;
+
+INSERT INTO order_product_rollup (product_id, product_name, units_sold, revenue)
+SELECT product_id, max(product_name), sum(quantity), COALESCE(sum(total_price), 0)
+FROM order_items
+GROUP BY product_id;
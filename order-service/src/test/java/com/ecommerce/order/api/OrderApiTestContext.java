@@ -2,6 +2,7 @@ package com.ecommerce.order.api;
 
 import com.ecommerce.order.controller.OrderController;
 import com.ecommerce.order.service.OrderService;
+import com.ecommerce.order.service.idempotency.IdempotencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
@@ -32,6 +33,11 @@ public class OrderApiTestContext {
         return mock(OrderService.class);
     }
     
+    @Bean
+    public IdempotencyService idempotencyService() {
+        return mock(IdempotencyService.class);
+    }
+    
     @Bean
     public ObjectMapper objectMapper() {
         return new ObjectMapper();
@@ -2,6 +2,7 @@ package com.ecommerce.order.api;
 
 import com.ecommerce.order.controller.OrderController;
 import com.ecommerce.order.service.OrderService;
+import com.ecommerce.order.service.idempotency.IdempotencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -18,8 +19,12 @@ import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
+import java.util.function.Supplier;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @TestConfiguration
 @EnableWebMvc
@@ -43,9 +48,18 @@ public class OrderControllerTestConfig implements WebMvcConfigurer {
         return new ObjectMapper();
     }
     
+    // Requests without an Idempotency-Key run straight through
     @Bean
-    public OrderController orderController(OrderService orderService) {
-        return new OrderController(orderService);
+    public IdempotencyService idempotencyService() {
+        IdempotencyService idempotencyService = mock(IdempotencyService.class);
+        when(idempotencyService.execute(any(), isNull(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+        return idempotencyService;
+    }
+    
+    @Bean
+    public OrderController orderController(OrderService orderService, IdempotencyService idempotencyService) {
+        return new OrderController(orderService, idempotencyService);
     }
     
     @Bean
@@ -1,5 +1,6 @@
 package com.ecommerce.order.config;
 
+import com.ecommerce.order.client.InventoryServiceClient;
 import com.ecommerce.order.client.ProductServiceClient;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -30,4 +31,9 @@ public class IntegrationTestConfig {
     public ProductServiceClient productServiceClient() {
         return Mockito.mock(ProductServiceClient.class);
     }
+
+    @Bean
+    public InventoryServiceClient inventoryServiceClient() {
+        return Mockito.mock(InventoryServiceClient.class);
+    }
 }
@@ -0,0 +1,168 @@
+package com.ecommerce.order.consumer;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderSagaRepository;
+import com.ecommerce.order.repository.ProcessedOrderEventRepository;
+import com.ecommerce.order.service.events.OrderStatusEventProcessor;
+import com.ecommerce.order.service.saga.OrderSagaOrchestrator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures how many payment events per second {@link OrderEventConsumer} gets through from an
+ * embedded broker, once with one record per poll (how the listener used to work) and once with
+ * full batches. Repository calls sleep for a fixed round trip, since the number of database
+ * round trips is what batching saves.
+ */
+@EmbeddedKafka(partitions = 3, topics = OrderEventConsumerThroughputTest.TOPIC)
+class OrderEventConsumerThroughputTest {
+
+    static final String TOPIC = "payment-events-throughput";
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventConsumerThroughputTest.class);
+    private static final int EVENTS = 400;
+    private static final long ROUND_TRIP_MILLIS = 2;
+
+    @Test
+    void batchListener_ShouldProcessEventsFasterThanRecordAtATime(EmbeddedKafkaBroker broker) throws Exception {
+        // Arrange
+        publishPaymentEvents(broker);
+
+        // Act
+        double recordAtATime = measureEventsPerSecond(broker, 1);
+        double batched = measureEventsPerSecond(broker, 500);
+
+        // Assert
+        log.info("Payment events/s over {} events: record at a time {}, batched {}",
+                EVENTS, Math.round(recordAtATime), Math.round(batched));
+        assertTrue(batched > recordAtATime * 2,
+                "Expected batches to at least double throughput, got " + recordAtATime + " vs " + batched);
+    }
+
+    private void publishPaymentEvents(EmbeddedKafkaBroker broker) {
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new JsonSerializer<>());
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory);
+        for (int i = 0; i < EVENTS; i++) {
+            String orderId = UUID.randomUUID().toString();
+            template.send(TOPIC, orderId, Map.of(
+                    "eventId", UUID.randomUUID().toString(),
+                    "eventType", "payment-received",
+                    "orderId", orderId));
+        }
+        template.flush();
+        producerFactory.destroy();
+    }
+
+    private double measureEventsPerSecond(EmbeddedKafkaBroker broker, int maxPollRecords) throws InterruptedException {
+        OrderEventConsumer consumer = new OrderEventConsumer(processorWithSlowDatabase());
+        CountDownLatch done = new CountDownLatch(EVENTS);
+        AtomicLong firstBatchAt = new AtomicLong();
+
+        Map<String, Object> props = KafkaTestUtils.consumerProps("throughput-" + maxPollRecords, "false", broker);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        DefaultKafkaConsumerFactory<String, Map<String, Object>> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                props, new StringDeserializer(), new JsonDeserializer<>(new TypeReference<Map<String, Object>>() { }, false));
+
+        ContainerProperties containerProperties = new ContainerProperties(TOPIC);
+        containerProperties.setMessageListener((BatchMessageListener<String, Map<String, Object>>) records -> {
+            // Start the clock at the first delivery so the group join is not measured
+            firstBatchAt.compareAndSet(0, System.nanoTime());
+            consumer.handlePaymentEvents(records);
+            records.forEach(record -> done.countDown());
+        });
+        KafkaMessageListenerContainer<String, Map<String, Object>> container =
+                new KafkaMessageListenerContainer<>(consumerFactory, containerProperties);
+        container.start();
+        try {
+            assertTrue(done.await(60, TimeUnit.SECONDS), "Not all events were consumed");
+            long elapsed = System.nanoTime() - firstBatchAt.get();
+            return EVENTS / (elapsed / 1_000_000_000.0);
+        } finally {
+            container.stop();
+        }
+    }
+
+    private OrderStatusEventProcessor processorWithSlowDatabase() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        OrderSagaRepository sagaRepository = mock(OrderSagaRepository.class);
+        ProcessedOrderEventRepository processedEventRepository = mock(ProcessedOrderEventRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+        when(processedEventRepository.findExistingIds(any())).thenAnswer(invocation -> {
+            roundTrip();
+            return Set.of();
+        });
+        when(processedEventRepository.saveAll(any())).thenAnswer(invocation -> {
+            roundTrip();
+            return invocation.getArgument(0);
+        });
+        when(sagaRepository.findByOrderIdInForUpdate(any())).thenAnswer(invocation -> {
+            roundTrip();
+            return List.of();
+        });
+        when(orderRepository.findAllInPartitionsById(any())).thenAnswer(invocation -> {
+            roundTrip();
+            List<Order> orders = new ArrayList<>();
+            for (UUID id : invocation.<Iterable<UUID>>getArgument(0)) {
+                Order order = new Order();
+                order.setId(id);
+                order.setOrderNumber("ORD-" + id.toString().substring(0, 8));
+                order.setStatus(OrderStatus.PROCESSING);
+                orders.add(order);
+            }
+            return orders;
+        });
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            Object result = invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            // Commit
+            roundTrip();
+            return result;
+        });
+
+        @SuppressWarnings("unchecked")
+        KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+        return new OrderStatusEventProcessor(orderRepository, sagaRepository, processedEventRepository,
+                mock(OrderSagaOrchestrator.class), kafkaTemplate, transactionTemplate,
+                mock(ApplicationEventPublisher.class), Duration.ofDays(7));
+    }
+
+    private static void roundTrip() throws InterruptedException {
+        Thread.sleep(ROUND_TRIP_MILLIS);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.order.consumer;
+
+import com.ecommerce.events.OrderEvent;
+import com.ecommerce.order.service.stream.OrderStatusBroadcaster;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusStreamConsumerTest {
+
+    @Mock
+    private OrderStatusBroadcaster broadcaster;
+
+    @InjectMocks
+    private OrderStatusStreamConsumer consumer;
+
+    @Test
+    void handleOrderEvents_ShouldSkipSagaCommandsAndUndecodableRecords() {
+        // Arrange
+        OrderEvent paid = event("ORDER_STATUS_UPDATED", "PAID");
+        List<ConsumerRecord<String, OrderEvent>> records = List.of(
+                record(event("PAYMENT_REQUESTED", "PROCESSING")),
+                record(null),
+                record(paid),
+                record(event("PAYMENT_VOID_REQUESTED", "PROCESSING")));
+
+        // Act
+        consumer.handleOrderEvents(records);
+
+        // Assert
+        verify(broadcaster, times(1)).broadcast(any());
+        verify(broadcaster).broadcast(paid);
+    }
+
+    private static OrderEvent event(String eventType, String status) {
+        return new OrderEvent(eventType, UUID.randomUUID(), "ORD-12345678", UUID.randomUUID(), status, Instant.now());
+    }
+
+    private static ConsumerRecord<String, OrderEvent> record(OrderEvent event) {
+        return new ConsumerRecord<>("order-events", 0, 0L, "ORD-12345678", event);
+    }
+}
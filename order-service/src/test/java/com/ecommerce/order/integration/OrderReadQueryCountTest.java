@@ -0,0 +1,193 @@
+package com.ecommerce.order.integration;
+
+import com.ecommerce.order.base.BaseIntegrationTest;
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.dto.history.OrderHistoryPage;
+import com.ecommerce.order.dto.history.OrderSummary;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the number of SQL statements behind the order read paths, so a lazy collection touched
+ * per order shows up as a failure rather than as N extra queries in production.
+ */
+public class OrderReadQueryCountTest extends BaseIntegrationTest {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID customerId;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        customerId = UUID.randomUUID();
+        productId = UUID.randomUUID();
+    }
+
+    @Test
+    void getCustomerOrders_ShouldUseFourStatementsForAPageOfFiftyOrders() {
+        // Arrange: more orders than fit on the page, so the count query runs as well
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE + 10; i++) {
+            orders.add(createOrder(customerId));
+        }
+        orders.add(createOrder(UUID.randomUUID()));
+        orderRepository.saveAll(orders);
+        startCounting();
+
+        // Act
+        Page<OrderResponse> page = orderService.getCustomerOrders(customerId,
+                PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        // Assert: id page, count, orders with items, status history in one batch
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(PAGE_SIZE, page.getContent().size());
+        assertEquals(PAGE_SIZE + 10, page.getTotalElements());
+        page.getContent().forEach(order -> {
+            assertEquals(2, order.getItems().size());
+            assertEquals(2, order.getStatusHistory().size());
+        });
+    }
+
+    @Test
+    void getCustomerOrderHistory_ShouldWalkEveryOrderOnceWithOneStatementPerSlice() {
+        // Arrange: orders sharing a creation time, so the id breaks ties between slices
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            orders.add(createOrder(customerId));
+        }
+        orders.add(createOrder(UUID.randomUUID()));
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < orders.size(); i++) {
+            entityManager.createNativeQuery("UPDATE orders SET created_at = ?1 WHERE id = ?2")
+                    .setParameter(1, now.minusMinutes(i / 4))
+                    .setParameter(2, orders.get(i).getId())
+                    .executeUpdate();
+        }
+        startCounting();
+
+        // Act
+        List<OrderSummary> seen = new ArrayList<>();
+        int slices = 0;
+        String cursor = null;
+        do {
+            OrderHistoryPage page = orderService.getCustomerOrderHistory(customerId, cursor, 10);
+            seen.addAll(page.getOrders());
+            cursor = page.getNextCursor();
+            slices++;
+        } while (cursor != null);
+
+        // Assert: no count query and nothing loaded beyond the summary rows
+        assertEquals(3, slices);
+        assertEquals(slices, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        Set<UUID> ids = new HashSet<>();
+        seen.forEach(summary -> ids.add(summary.getId()));
+        assertEquals(25, ids.size());
+        assertEquals(25, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getCreatedAt().isAfter(seen.get(i - 1).getCreatedAt()));
+        }
+    }
+
+    @Test
+    void getOrderById_ShouldUseTwoStatements() {
+        // Arrange
+        Order order = orderRepository.save(createOrder(customerId));
+        startCounting();
+
+        // Act
+        OrderResponse response = orderService.getOrderById(order.getId());
+
+        // Assert: order with items, then status history
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(2, response.getItems().size());
+        assertEquals(2, response.getStatusHistory().size());
+    }
+
+    @Test
+    void findOrdersContainingProduct_ShouldReturnEachOrderOnce() {
+        // Arrange: both items of the order are the same product
+        Order order = createOrder(customerId);
+        order.getItems().forEach(item -> item.setProductId(productId));
+        orderRepository.save(order);
+        orderRepository.save(createOrder(customerId));
+        startCounting();
+
+        // Act
+        List<Order> result = orderRepository.findOrdersContainingProduct(productId);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(order.getId(), result.get(0).getId());
+    }
+
+    // Writes pending inserts and empties the persistence context, so reads hit the database
+    private void startCounting() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private Order createOrder(UUID customerId) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        order.setOrderNumber("ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        order.setStatus(OrderStatus.PENDING);
+        order.setShippingAddress("123 Test St");
+        order.setBillingAddress("123 Test St");
+        order.setCustomerEmail("test@example.com");
+        order.setCustomerPhone("1234567890");
+        for (int i = 0; i < 2; i++) {
+            OrderItem item = new OrderItem();
+            item.setProductId(UUID.randomUUID());
+            item.setProductName("Test Product " + i);
+            item.setProductSku("TEST-SKU-00" + i);
+            item.setUnitPrice(BigDecimal.valueOf(29.99));
+            item.setQuantity(1);
+            order.addItem(item);
+        }
+        order.addStatusHistory(OrderStatus.PENDING, "Order created");
+        order.addStatusHistory(OrderStatus.PENDING, "Awaiting payment");
+        return order;
+    }
+}
@@ -17,13 +17,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 public class OrderServiceIntegrationTest extends BaseIntegrationTest {
@@ -72,8 +72,8 @@ public class OrderServiceIntegrationTest extends BaseIntegrationTest {
         orderRequest.setItems(List.of(itemRequest));
 
         // Mock other service calls
-        when(productServiceClient.checkStockAvailability(anyList()))
-            .thenReturn(ResponseEntity.ok(new HashMap<>()));
+        when(productServiceClient.checkProductStock(any(UUID.class), anyInt()))
+            .thenReturn(ResponseEntity.ok(true));
         when(productServiceClient.updateInventory(anyList()))
             .thenReturn(ResponseEntity.ok().build());
         doNothing().when(notificationService).sendOrderConfirmation(any(Order.class));
@@ -91,7 +91,7 @@ public class OrderServiceIntegrationTest extends BaseIntegrationTest {
         assertEquals(customerId, result.getCustomerId(), "Customer ID should match");
 
         // Verify interactions
-        verify(productServiceClient).checkStockAvailability(anyList());
+        verify(productServiceClient).checkProductStock(productId, 2);
         
         // Verify order details
         assertEquals(OrderStatus.PENDING.name(), result.getStatus(), "Order status should be PENDING");
@@ -0,0 +1,79 @@
+package com.ecommerce.order.integration;
+
+import com.ecommerce.order.base.BaseIntegrationTest;
+import com.ecommerce.order.dto.tracking.OrderStatusUpdate;
+import com.ecommerce.order.dto.tracking.OrderTrackingResponse;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.service.OrderService;
+import com.ecommerce.order.service.OrderTrackingService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Status changes keep the tracking view current, and reading tracking touches only that view.
+ */
+public class OrderTrackingViewIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderTrackingService trackingService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getOrderTracking_AfterStatusChanges_ShouldServeTheTimelineFromOneRow() {
+        // Arrange
+        Order order = orderRepository.save(createOrder());
+        orderService.updateOrderStatus(order.getId(), OrderStatus.PROCESSING);
+        orderService.updateOrderStatus(order.getId(), OrderStatus.SHIPPED);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        OrderTrackingResponse tracking = trackingService.getOrderTracking(order.getId());
+        List<OrderStatusUpdate> timeline = trackingService.getOrderTimeline(order.getId());
+
+        // Assert: one primary key read, the second call is served from the cache
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("SHIPPED", tracking.getStatus());
+        assertEquals(List.of("SHIPPED", "PROCESSING", "PLACED"),
+                timeline.stream().map(OrderStatusUpdate::getStatus).toList());
+        assertTrue(timeline.get(0).isCurrent());
+    }
+
+    private Order createOrder() {
+        Order order = new Order();
+        order.setCustomerId(UUID.randomUUID());
+        order.setOrderNumber("ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        order.setStatus(OrderStatus.PENDING);
+        order.setShippingAddress("123 Test St");
+        order.setBillingAddress("123 Test St");
+        order.setCustomerEmail("test@example.com");
+        order.setCustomerPhone("1234567890");
+        order.setTotal(BigDecimal.valueOf(59.98));
+        return order;
+    }
+}
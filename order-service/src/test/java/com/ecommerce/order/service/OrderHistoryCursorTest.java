@@ -0,0 +1,34 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderHistoryCursorTest {
+
+    @Test
+    void decode_ShouldReturnTheEncodedPosition() {
+        // Arrange
+        OrderHistoryCursor cursor = new OrderHistoryCursor(LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_000), UUID.randomUUID());
+
+        // Act
+        String token = cursor.encode();
+
+        // Assert
+        assertEquals(cursor, OrderHistoryCursor.decode(token));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "Token should be URL safe: " + token);
+    }
+
+    @Test
+    void decode_WithGarbage_ShouldThrowInvalidCursorException() {
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> OrderHistoryCursor.decode("%%%"));
+        assertThrows(InvalidCursorException.class, () -> OrderHistoryCursor.decode("bm90LWEtY3Vyc29y"));
+        assertThrows(InvalidCursorException.class, () -> OrderHistoryCursor.decode(
+                new OrderHistoryCursor(LocalDateTime.now(), UUID.randomUUID()).encode().substring(4)));
+    }
+}
@@ -3,8 +3,11 @@ package com.ecommerce.order.service;
 import com.ecommerce.order.client.ProductServiceClient;
 import com.ecommerce.order.dto.OrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.dto.history.OrderHistoryPage;
+import com.ecommerce.order.dto.history.OrderSummary;
 import com.ecommerce.order.dto.orderitem.OrderItemRequest;
 import com.ecommerce.order.exception.InsufficientStockException;
+import com.ecommerce.order.exception.InvalidCursorException;
 import com.ecommerce.order.exception.InvalidOrderException;
 import com.ecommerce.order.exception.ResourceNotFoundException;
 import com.ecommerce.order.mapper.OrderMapper;
@@ -12,22 +15,33 @@ import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderItem;
 import com.ecommerce.order.model.OrderStatus;
 import com.ecommerce.order.repository.OrderRepository;
-import feign.FeignException;
+import com.ecommerce.order.service.id.IdGenerator;
+import com.ecommerce.order.service.id.SnowflakeIdGenerator;
+import com.ecommerce.order.service.placement.OrderPlacementMetrics;
+import com.ecommerce.order.service.placement.StockAvailabilityChecker;
+import com.ecommerce.order.service.saga.OrderSagaOrchestrator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -49,6 +63,26 @@ class OrderServiceTest {
     @Mock
     private KafkaTemplate<String, Object> kafkaTemplate;
 
+    @Mock
+    private StockAvailabilityChecker stockAvailabilityChecker;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OrderPlacementMetrics placementMetrics = new OrderPlacementMetrics(meterRegistry);
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OrderSagaOrchestrator sagaOrchestrator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private IdGenerator idGenerator = new SnowflakeIdGenerator(1);
+
     @InjectMocks
     private OrderService orderService;
 
@@ -106,9 +140,8 @@ class OrderServiceTest {
         when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(order);
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
-        when(productServiceClient.checkStockAvailability(anyList())).thenReturn(ResponseEntity.ok(new HashMap<>()));
-        when(productServiceClient.updateInventory(anyList())).thenReturn(ResponseEntity.ok().build());
         when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(null);
+        runTransactionCallbacks();
 
         // Act
         OrderResponse result = orderService.createOrder(orderRequest);
@@ -116,9 +149,26 @@ class OrderServiceTest {
         // Assert
         assertNotNull(result);
         verify(orderRepository, times(1)).save(any(Order.class));
-        verify(productServiceClient, times(1)).checkStockAvailability(anyList());
-        verify(productServiceClient, times(1)).updateInventory(anyList());
+        verify(stockAvailabilityChecker, times(1)).checkAll(orderRequest.getItems());
+        verify(sagaOrchestrator, times(1)).start(order);
+        // Stock is reserved by the saga, not on the request thread
+        verify(productServiceClient, never()).updateInventory(anyList());
         verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        assertEquals(1, meterRegistry.get("order.placement.stage").tag("stage", OrderPlacementMetrics.PERSIST).timer().count());
+    }
+
+    @Test
+    void createOrder_WhenSaveFails_ShouldNotStartSaga() {
+        // Arrange
+        when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(order);
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("connection lost"));
+        runTransactionCallbacks();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> orderService.createOrder(orderRequest));
+        verify(sagaOrchestrator, never()).start(any(Order.class));
+        verify(productServiceClient, never()).updateInventory(anyList());
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
     }
 
     @Test
@@ -151,18 +201,19 @@ class OrderServiceTest {
     @Test
     void createOrder_WithInsufficientStock_ShouldThrowException() {
         // Arrange
-        FeignException notFound = mock(FeignException.NotFound.class);
-        doThrow(notFound).when(productServiceClient).checkStockAvailability(anyList());
+        when(orderMapper.toEntity(any(OrderRequest.class))).thenReturn(order);
+        doThrow(new InsufficientStockException("Insufficient stock")).when(stockAvailabilityChecker).checkAll(anyList());
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> orderService.createOrder(orderRequest));
+        assertThrows(InsufficientStockException.class, () -> orderService.createOrder(orderRequest));
+        verify(productServiceClient, never()).updateInventory(anyList());
         verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
     void getOrderById_WithValidId_ShouldReturnOrderResponse() {
         // Arrange
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsInPartitionById(orderId)).thenReturn(Optional.of(order));
         when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
 
         // Act
@@ -170,13 +221,13 @@ class OrderServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(orderRepository, times(1)).findById(orderId);
+        verify(orderRepository, times(1)).findWithItemsById(orderId);
     }
 
     @Test
     void getOrderById_WithInvalidId_ShouldThrowException() {
         // Arrange
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsInPartitionById(orderId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderById(orderId));
@@ -186,7 +237,7 @@ class OrderServiceTest {
     void getOrderByNumber_WithValidNumber_ShouldReturnOrderResponse() {
         // Arrange
         String orderNumber = "ORD-12345678";
-        when(orderRepository.findByOrderNumber(orderNumber)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsByOrderNumber(orderNumber)).thenReturn(Optional.of(order));
         when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
 
         // Act
@@ -194,14 +245,35 @@ class OrderServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(orderRepository, times(1)).findByOrderNumber(orderNumber);
+        verify(orderRepository, times(1)).findWithItemsByOrderNumber(orderNumber);
+    }
+
+    @Test
+    void getOrderByNumber_WithGeneratedNumber_ShouldBoundCreatedAt() {
+        // Arrange
+        String orderNumber = idGenerator.nextId(Order.ORDER_NUMBER_PREFIX);
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        when(orderRepository.findWithItemsByOrderNumberAndCreatedAtBetween(eq(orderNumber), any(), any()))
+                .thenReturn(Optional.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+
+        // Act
+        OrderResponse result = orderService.getOrderByNumber(orderNumber);
+
+        // Assert
+        assertNotNull(result);
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(orderRepository).findWithItemsByOrderNumberAndCreatedAtBetween(eq(orderNumber), from.capture(), to.capture());
+        assertTrue(from.getValue().isBefore(now) && to.getValue().isAfter(now));
+        verify(orderRepository, never()).findWithItemsByOrderNumber(anyString());
     }
 
     @Test
     void getOrderByNumber_WithInvalidNumber_ShouldThrowException() {
         // Arrange
         String orderNumber = "ORD-INVALID";
-        when(orderRepository.findByOrderNumber(orderNumber)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsByOrderNumber(orderNumber)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderByNumber(orderNumber));
@@ -211,9 +283,10 @@ class OrderServiceTest {
     void getCustomerOrders_WithValidCustomerId_ShouldReturnPage() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Order> orderPage = new PageImpl<>(List.of(order));
-        when(orderRepository.findByCustomerId(customerId, pageable)).thenReturn(orderPage);
-        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+        when(orderRepository.findIdsByCustomerId(customerId, pageable))
+                .thenReturn(new PageImpl<>(List.of(orderId), pageable, 1));
+        when(orderRepository.findWithItemsByIdIn(List.of(orderId))).thenReturn(List.of(order));
+        when(orderMapper.toResponse(order)).thenReturn(createOrderResponse());
 
         // Act
         Page<OrderResponse> result = orderService.getCustomerOrders(customerId, pageable);
@@ -221,7 +294,47 @@ class OrderServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(orderRepository, times(1)).findByCustomerId(customerId, pageable);
+        assertEquals(1, result.getTotalElements());
+        verify(orderRepository, never()).findByCustomerId(any(UUID.class), any(Pageable.class));
+    }
+
+    @Test
+    void getCustomerOrders_ShouldKeepThePageOrderOfIds() {
+        // Arrange
+        Order older = new Order();
+        older.setId(UUID.randomUUID());
+        Pageable pageable = PageRequest.of(0, 10);
+        when(orderRepository.findIdsByCustomerId(customerId, pageable))
+                .thenReturn(new PageImpl<>(List.of(orderId, older.getId()), pageable, 2));
+        // The IN query has no defined order
+        when(orderRepository.findWithItemsByIdIn(List.of(orderId, older.getId()))).thenReturn(List.of(older, order));
+        OrderResponse first = createOrderResponse();
+        OrderResponse second = createOrderResponse();
+        when(orderMapper.toResponse(order)).thenReturn(first);
+        when(orderMapper.toResponse(older)).thenReturn(second);
+
+        // Act
+        Page<OrderResponse> result = orderService.getCustomerOrders(customerId, pageable);
+
+        // Assert
+        assertSame(first, result.getContent().get(0));
+        assertSame(second, result.getContent().get(1));
+    }
+
+    @Test
+    void getCustomerOrders_PastTheLastPage_ShouldNotLoadOrders() {
+        // Arrange
+        Pageable pageable = PageRequest.of(3, 10);
+        when(orderRepository.findIdsByCustomerId(customerId, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 12));
+
+        // Act
+        Page<OrderResponse> result = orderService.getCustomerOrders(customerId, pageable);
+
+        // Assert
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(12, result.getTotalElements());
+        verify(orderRepository, never()).findWithItemsByIdIn(anyCollection());
     }
 
     @Test
@@ -272,6 +385,23 @@ class OrderServiceTest {
         verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
     }
 
+    @Test
+    void cancelOrder_WithSaga_ShouldLeaveStockToSagaCompensation() {
+        // Arrange
+        order.setStatus(OrderStatus.PROCESSING);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+        when(sagaOrchestrator.requestCancellation(orderId)).thenReturn(true);
+
+        // Act
+        orderService.cancelOrder(orderId);
+
+        // Assert
+        verify(sagaOrchestrator, times(1)).requestCancellation(orderId);
+        verify(productServiceClient, never()).updateInventory(anyList());
+    }
+
     @Test
     void cancelOrder_WithNonCancellableStatus_ShouldThrowException() {
         // Arrange
@@ -283,6 +413,64 @@ class OrderServiceTest {
         verify(orderRepository, never()).save(any(Order.class));
     }
 
+    @Test
+    void getCustomerOrderHistory_WithMoreOrders_ShouldReturnCursorOfLastOrder() {
+        // Arrange
+        OrderSummary newer = summary(LocalDateTime.of(2024, 5, 2, 10, 0));
+        OrderSummary older = summary(LocalDateTime.of(2024, 5, 1, 10, 0));
+        OrderSummary oldest = summary(LocalDateTime.of(2024, 4, 30, 10, 0));
+        when(orderRepository.findHistoryByCustomerId(customerId, PageRequest.of(0, 3)))
+                .thenReturn(List.of(newer, older, oldest));
+
+        // Act
+        OrderHistoryPage result = orderService.getCustomerOrderHistory(customerId, null, 2);
+
+        // Assert
+        assertEquals(List.of(newer, older), result.getOrders());
+        OrderHistoryCursor cursor = OrderHistoryCursor.decode(result.getNextCursor());
+        assertEquals(older.getCreatedAt(), cursor.createdAt());
+        assertEquals(older.getId(), cursor.id());
+        verify(orderRepository, never()).findIdsByCustomerId(any(), any());
+    }
+
+    @Test
+    void getCustomerOrderHistory_WithCursor_ShouldContinueAfterIt() {
+        // Arrange
+        OrderSummary last = summary(LocalDateTime.of(2024, 5, 1, 10, 0));
+        String cursor = OrderHistoryCursor.after(last).encode();
+        OrderSummary next = summary(LocalDateTime.of(2024, 4, 30, 10, 0));
+        when(orderRepository.findHistoryByCustomerIdAfter(customerId, last.getCreatedAt(), last.getId(), PageRequest.of(0, 21)))
+                .thenReturn(List.of(next));
+
+        // Act
+        OrderHistoryPage result = orderService.getCustomerOrderHistory(customerId, cursor, 20);
+
+        // Assert
+        assertEquals(List.of(next), result.getOrders());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getCustomerOrderHistory_ShouldCapThePageSize() {
+        // Arrange
+        when(orderRepository.findHistoryByCustomerId(eq(customerId), any())).thenReturn(List.of());
+
+        // Act
+        orderService.getCustomerOrderHistory(customerId, null, 10_000);
+
+        // Assert
+        verify(orderRepository).findHistoryByCustomerId(customerId,
+                PageRequest.of(0, OrderService.MAX_HISTORY_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void getCustomerOrderHistory_WithTamperedCursor_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidCursorException.class,
+                () -> orderService.getCustomerOrderHistory(customerId, "bm90LWEtY3Vyc29y", 20));
+        verifyNoInteractions(orderRepository);
+    }
+
     @Test
     void cancelOrder_WithInvalidId_ShouldThrowException() {
         // Arrange
@@ -292,6 +480,16 @@ class OrderServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> orderService.cancelOrder(orderId));
     }
 
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private OrderSummary summary(LocalDateTime createdAt) {
+        return new OrderSummary(UUID.randomUUID(), "ORD-" + createdAt.getDayOfMonth(), OrderStatus.PAID,
+                BigDecimal.valueOf(59.98), createdAt);
+    }
+
     private OrderResponse createOrderResponse() {
         OrderResponse response = new OrderResponse();
         response.setId(orderId);
@@ -1,17 +1,26 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.order.config.CacheConfig;
 import com.ecommerce.order.dto.tracking.OrderTrackingResponse;
 import com.ecommerce.order.dto.tracking.OrderStatusUpdate;
 import com.ecommerce.order.exception.OrderNotFoundException;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OrderTrackingView;
 import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderTrackingViewRepository;
+import com.ecommerce.order.service.tracking.OrderStatusChangedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -26,6 +35,15 @@ class OrderTrackingServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderTrackingViewRepository viewRepository;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.ORDER_TRACKING_CACHE);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private OrderTrackingService trackingService;
 
@@ -53,7 +71,7 @@ class OrderTrackingServiceTest {
     @Test
     void getOrderTracking_WithValidOrderId_ShouldReturnTrackingResponse() {
         // Arrange
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findInPartitionById(orderId)).thenReturn(Optional.of(order));
 
         // Act
         OrderTrackingResponse result = trackingService.getOrderTracking(orderId);
@@ -72,17 +90,47 @@ class OrderTrackingServiceTest {
     @Test
     void getOrderTracking_WithInvalidOrderId_ShouldThrowException() {
         // Arrange
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findInPartitionById(orderId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(OrderNotFoundException.class, 
                 () -> trackingService.getOrderTracking(orderId));
     }
 
+    @Test
+    void getOrderTracking_WithTrackingView_ShouldNotLoadTheOrder() {
+        // Arrange
+        when(viewRepository.findById(orderId)).thenReturn(Optional.of(OrderTrackingView.from(order)));
+
+        // Act
+        OrderTrackingResponse result = trackingService.getOrderTracking(orderId);
+
+        // Assert
+        assertEquals("DELIVERED", result.getStatus());
+        assertEquals("DELIVERED", result.getStatusUpdates().get(0).getStatus());
+        assertTrue(result.getStatusUpdates().get(0).isCurrent());
+        assertEquals("PLACED", result.getStatusUpdates().get(result.getStatusUpdates().size() - 1).getStatus());
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @Test
+    void getOrderTracking_CalledTwice_ShouldReadTheViewOnce() {
+        // Arrange
+        when(viewRepository.findById(orderId)).thenReturn(Optional.of(OrderTrackingView.from(order)));
+
+        // Act
+        OrderTrackingResponse first = trackingService.getOrderTracking(orderId);
+        List<OrderStatusUpdate> timeline = trackingService.getOrderTimeline(orderId);
+
+        // Assert
+        assertSame(first.getStatusUpdates(), timeline);
+        verify(viewRepository, times(1)).findById(orderId);
+    }
+
     @Test
     void getOrderTimeline_WithValidOrderId_ShouldReturnTimeline() {
         // Arrange
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findInPartitionById(orderId)).thenReturn(Optional.of(order));
 
         // Act
         List<OrderStatusUpdate> result = trackingService.getOrderTimeline(orderId);
@@ -96,7 +144,7 @@ class OrderTrackingServiceTest {
     @Test
     void getOrderTimeline_WithInvalidOrderId_ShouldThrowException() {
         // Arrange
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findInPartitionById(orderId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(OrderNotFoundException.class, 
@@ -108,7 +156,7 @@ class OrderTrackingServiceTest {
         // Arrange
         OrderStatus newStatus = OrderStatus.SHIPPED;
         String notes = "Order shipped";
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findInPartitionById(orderId)).thenReturn(Optional.of(order));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
 
         // Act
@@ -116,12 +164,17 @@ class OrderTrackingServiceTest {
 
         // Assert
         verify(orderRepository, times(1)).save(any(Order.class));
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        OrderStatusChangedEvent changed = assertInstanceOf(OrderStatusChangedEvent.class, event.getValue());
+        assertEquals(orderId, changed.orderId());
+        assertEquals(OrderStatus.SHIPPED, changed.status());
     }
 
     @Test
     void updateOrderStatus_WithInvalidOrderId_ShouldThrowException() {
         // Arrange
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findInPartitionById(orderId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(OrderNotFoundException.class, 
@@ -133,7 +186,7 @@ class OrderTrackingServiceTest {
     void updateOrderStatus_WithPaidStatus_ShouldSetPaidAt() {
         // Arrange
         order.setPaidAt(null);
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findInPartitionById(orderId)).thenReturn(Optional.of(order));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
 
         // Act
@@ -147,7 +200,7 @@ class OrderTrackingServiceTest {
     void updateOrderStatus_WithDeliveredStatus_ShouldSetDeliveredAt() {
         // Arrange
         order.setDeliveredAt(null);
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findInPartitionById(orderId)).thenReturn(Optional.of(order));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
 
         // Act
@@ -162,7 +215,7 @@ class OrderTrackingServiceTest {
         // Arrange
         order.setTrackingNumber(null);
         order.setCarrier(null);
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findInPartitionById(orderId)).thenReturn(Optional.of(order));
 
         // Act
         OrderTrackingResponse result = trackingService.getOrderTracking(orderId);
@@ -177,7 +230,7 @@ class OrderTrackingServiceTest {
         // Arrange
         order.setCarrier("FEDEX");
         order.setTrackingNumber("1234567890");
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findInPartitionById(orderId)).thenReturn(Optional.of(order));
 
         // Act
         OrderTrackingResponse result = trackingService.getOrderTracking(orderId);
@@ -193,7 +246,7 @@ class OrderTrackingServiceTest {
         // Arrange
         order.setCarrier("USPS");
         order.setTrackingNumber("1234567890");
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findInPartitionById(orderId)).thenReturn(Optional.of(order));
 
         // Act
         OrderTrackingResponse result = trackingService.getOrderTracking(orderId);
@@ -2,26 +2,33 @@ package com.ecommerce.order.service;
 
 import com.ecommerce.order.dto.payment.PaymentRequest;
 import com.ecommerce.order.dto.payment.PaymentResponse;
-import com.ecommerce.order.exception.PaymentProcessingException;
+import com.ecommerce.order.exception.PaymentGatewayBusyException;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderStatus;
 import com.ecommerce.order.model.PaymentStatus;
 import com.ecommerce.order.model.Transaction;
 import com.ecommerce.order.repository.OrderRepository;
 import com.ecommerce.order.repository.TransactionRepository;
+import com.ecommerce.order.service.id.IdGenerator;
+import com.ecommerce.order.service.id.SnowflakeIdGenerator;
+import com.ecommerce.order.service.payment.GatewayAuthorization;
+import com.ecommerce.order.service.payment.PaymentPipeline;
+import com.ecommerce.order.service.payment.card.BinTable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,7 +44,19 @@ class PaymentServiceTest {
     private TransactionRepository transactionRepository;
 
     @Mock
-    private OrderStatusService orderStatusService;
+    private PaymentPipeline paymentPipeline;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PaymentPipeline.Admission admission;
+
+    @Spy
+    private IdGenerator idGenerator = new SnowflakeIdGenerator(1);
+
+    @Spy
+    private BinTable binTable = BinTable.fromClasspath("payment/bin-ranges.csv");
 
     @InjectMocks
     private PaymentService paymentService;
@@ -82,25 +101,75 @@ class PaymentServiceTest {
         paymentRequest.setPaymentMethodId("CREDIT_CARD");
 
         ReflectionTestUtils.setField(paymentService, "defaultCurrency", "USD");
-        // Make payment processing deterministic for tests
-        ReflectionTestUtils.setField(paymentService, "random", new Random(1));
     }
 
     @Test
-    void processPayment_WithValidRequest_ShouldReturnPaymentResponse() {
+    void processPayment_WithValidRequest_ShouldAcceptAndAuthorizeAsynchronously() {
         // Arrange
+        acceptInline();
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
-        doNothing().when(orderStatusService).processSuccessfulPayment(any(Order.class));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction saved = invocation.getArgument(0);
+            saved.setId(transactionId);
+            return saved;
+        });
 
         // Act
         PaymentResponse result = paymentService.processPayment(paymentRequest);
 
         // Assert
-        assertNotNull(result);
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
-        verify(orderStatusService, atLeastOnce()).processSuccessfulPayment(any(Order.class));
+        assertEquals(PaymentStatus.PROCESSING, result.getStatus());
+        assertEquals("MOCK_GATEWAY", result.getPaymentGateway());
+        assertTrue(result.getTransactionId().startsWith(Transaction.TRANSACTION_ID_PREFIX));
+        verify(paymentPipeline).authorize(eq(admission), argThat((GatewayAuthorization authorization) ->
+                authorization.transactionId().equals(transactionId)
+                        && authorization.amount().equals(paymentRequest.getAmount())));
+        verify(admission, never()).release();
+    }
+
+    @Test
+    void processPayment_WithCard_ShouldRecordBrandAndLastFour() {
+        // Arrange
+        acceptInline();
+        PaymentRequest.CardDetails card = new PaymentRequest.CardDetails();
+        card.setNumber("5555555555554444");
+        paymentRequest.setCard(card);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        PaymentResponse result = paymentService.processPayment(paymentRequest);
+
+        // Assert
+        assertEquals("MASTERCARD", result.getCardBrand());
+        assertEquals("4444", result.getCardLastFour());
+    }
+
+    @Test
+    void processPayment_WithCardFailingLuhnCheck_ShouldThrowException() {
+        // Arrange
+        acceptInline();
+        PaymentRequest.CardDetails card = new PaymentRequest.CardDetails();
+        card.setNumber("4242424242424241");
+        paymentRequest.setCard(card);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.processPayment(paymentRequest));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(admission).release();
+    }
+
+    @Test
+    void processPayment_WhenGatewayIsBusy_ShouldRecordNothing() {
+        // Arrange
+        when(paymentPipeline.admit()).thenThrow(new PaymentGatewayBusyException("busy"));
+
+        // Act & Assert
+        assertThrows(PaymentGatewayBusyException.class,
+                () -> paymentService.processPayment(paymentRequest));
+        verify(transactionRepository, never()).save(any(Transaction.class));
     }
 
     @Test
@@ -125,17 +194,20 @@ class PaymentServiceTest {
     @Test
     void processPayment_WithNonExistentOrder_ShouldThrowException() {
         // Arrange
+        acceptInline();
         when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, 
                 () -> paymentService.processPayment(paymentRequest));
         verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(admission).release();
     }
 
     @Test
     void processPayment_WithAmountMismatch_ShouldThrowException() {
         // Arrange
+        acceptInline();
         paymentRequest.setAmount(BigDecimal.valueOf(50.00));
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
 
@@ -143,11 +215,13 @@ class PaymentServiceTest {
         assertThrows(IllegalArgumentException.class, 
                 () -> paymentService.processPayment(paymentRequest));
         verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(admission).release();
     }
 
     @Test
     void processPayment_WithAlreadyPaidOrder_ShouldThrowException() {
         // Arrange
+        acceptInline();
         order.setStatus(OrderStatus.PAID);
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
 
@@ -155,6 +229,7 @@ class PaymentServiceTest {
         assertThrows(IllegalStateException.class, 
                 () -> paymentService.processPayment(paymentRequest));
         verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(admission).release();
     }
 
     @Test
@@ -271,5 +346,11 @@ class PaymentServiceTest {
         // Assert
         assertNotNull(result);
     }
-}
 
+    private void acceptInline() {
+        when(admission.gatewayName()).thenReturn("MOCK_GATEWAY");
+        when(paymentPipeline.admit()).thenReturn(admission);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+}
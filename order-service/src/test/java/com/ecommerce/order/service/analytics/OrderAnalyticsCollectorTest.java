@@ -0,0 +1,100 @@
+package com.ecommerce.order.service.analytics;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.tracking.OrderStatusChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderAnalyticsCollectorTest {
+
+    private static final LocalDateTime HOUR = LocalDateTime.now().withMinute(0).withSecond(0).withNano(0);
+
+    @Mock
+    private OrderAnalyticsStore store;
+
+    private OrderAnalyticsCollector collector;
+    private final UUID productId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        collector = new OrderAnalyticsCollector(store);
+    }
+
+    @Test
+    void flush_ShouldAddWhatWasCountedSinceTheLastFlush() {
+        // Arrange
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setStatus(OrderStatus.PENDING);
+        collector.onStatusChanged(OrderStatusChangedEvent.of(order));
+        order.setStatus(OrderStatus.PAID);
+        collector.onStatusChanged(OrderStatusChangedEvent.of(order));
+        collector.onOrderPlaced(placed(HOUR.plusMinutes(5), "30.00", 2, "20.00"));
+        collector.onOrderPlaced(placed(HOUR.plusMinutes(40), "12.50", 1, "10.00"));
+        ArgumentCaptor<OrderAnalyticsDelta> delta = ArgumentCaptor.forClass(OrderAnalyticsDelta.class);
+
+        // Act
+        collector.flush();
+        collector.flush();
+
+        // Assert
+        verify(store, times(1)).add(delta.capture());
+        assertEquals(Map.of(OrderStatus.PAID, 1L), delta.getValue().statusCounts());
+        assertEquals(List.of(new OrderAnalyticsDelta.Hour(HOUR, 2, new BigDecimal("42.5000"))), delta.getValue().hours());
+        assertEquals(List.of(new OrderAnalyticsDelta.Product(productId, "Test Product", 3, new BigDecimal("30.0000"))),
+                delta.getValue().products());
+    }
+
+    @Test
+    void flush_WhenTheStoreFails_ShouldKeepTheCountsForTheNextFlush() {
+        // Arrange
+        collector.onOrderPlaced(placed(HOUR, "30.00", 2, "20.00"));
+        collector.onStatusChanged(new OrderStatusChangedEvent(UUID.randomUUID(), OrderStatus.PAID,
+                OrderStatus.CANCELLED, LocalDateTime.now()));
+        doThrow(new QueryTimeoutException("timed out")).doNothing().when(store).add(any());
+        ArgumentCaptor<OrderAnalyticsDelta> delta = ArgumentCaptor.forClass(OrderAnalyticsDelta.class);
+
+        // Act
+        collector.flush();
+        collector.onOrderPlaced(placed(HOUR, "10.00", 1, "10.00"));
+        collector.flush();
+
+        // Assert
+        verify(store, times(2)).add(delta.capture());
+        OrderAnalyticsDelta retried = delta.getAllValues().get(1);
+        assertEquals(Map.of(OrderStatus.PAID, -1L, OrderStatus.CANCELLED, 1L), retried.statusCounts());
+        assertEquals(List.of(new OrderAnalyticsDelta.Hour(HOUR, 2, new BigDecimal("40.0000"))), retried.hours());
+        assertEquals(3, retried.products().get(0).unitsSold());
+    }
+
+    @Test
+    void flush_WithNothingCounted_ShouldNotWrite() {
+        // Act
+        collector.flush();
+
+        // Assert
+        verifyNoInteractions(store);
+    }
+
+    private OrderPlacedEvent placed(LocalDateTime createdAt, String total, int quantity, String linePrice) {
+        return new OrderPlacedEvent(UUID.randomUUID(), createdAt, new BigDecimal(total),
+                List.of(new OrderPlacedEvent.Line(productId, "Test Product", quantity, new BigDecimal(linePrice))));
+    }
+}
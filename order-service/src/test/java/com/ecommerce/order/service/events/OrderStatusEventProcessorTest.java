@@ -0,0 +1,229 @@
+package com.ecommerce.order.service.events;
+
+import com.ecommerce.events.OrderEvent;
+import com.ecommerce.order.exception.OrderEventProcessingException;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderSaga;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.ProcessedOrderEvent;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderSagaRepository;
+import com.ecommerce.order.repository.ProcessedOrderEventRepository;
+import com.ecommerce.order.service.saga.OrderSagaOrchestrator;
+import com.ecommerce.order.service.tracking.OrderStatusChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusEventProcessorTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderSagaRepository sagaRepository;
+
+    @Mock
+    private ProcessedOrderEventRepository processedEventRepository;
+
+    @Mock
+    private OrderSagaOrchestrator sagaOrchestrator;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private ArgumentCaptor<List<ProcessedOrderEvent>> processedCaptor;
+
+    private OrderStatusEventProcessor processor;
+    private Order pendingOrder;
+    private Order processingOrder;
+
+    @BeforeEach
+    void setUp() {
+        processor = new OrderStatusEventProcessor(orderRepository, sagaRepository, processedEventRepository,
+                sagaOrchestrator, kafkaTemplate, transactionTemplate, eventPublisher, Duration.ofDays(7));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        pendingOrder = order(OrderStatus.PENDING);
+        processingOrder = order(OrderStatus.PROCESSING);
+    }
+
+    @Test
+    void process_ShouldLoadOrdersOnceAndApplyEveryTransition() {
+        // Arrange
+        when(orderRepository.findAllInPartitionsById(any())).thenReturn(List.of(pendingOrder, processingOrder));
+
+        // Act
+        processor.process(List.of(
+                event("e1", pendingOrder, "inventory-reserved"),
+                event("e2", processingOrder, "payment-received")));
+
+        // Assert
+        verify(orderRepository, times(1)).findAllById(any());
+        verify(orderRepository, never()).findById(any());
+        verify(orderRepository, never()).save(any(Order.class));
+        assertEquals(OrderStatus.PROCESSING, pendingOrder.getStatus());
+        assertEquals(OrderStatus.PAID, processingOrder.getStatus());
+        verify(processedEventRepository, times(1)).saveAll(processedCaptor.capture());
+        assertEquals(2, processedCaptor.getValue().size());
+        verify(kafkaTemplate, times(2)).send(eq("order-events"), anyString(), any(OrderEvent.class));
+        verify(eventPublisher, times(2)).publishEvent(any(OrderStatusChangedEvent.class));
+    }
+
+    @Test
+    void process_SeveralEventsForOneOrder_ShouldPublishOneStatusUpdate() {
+        // Arrange
+        when(orderRepository.findAllInPartitionsById(any())).thenReturn(List.of(pendingOrder));
+
+        // Act
+        processor.process(List.of(
+                event("e1", pendingOrder, "inventory-reserved"),
+                event("e2", pendingOrder, "payment-received")));
+
+        // Assert
+        assertEquals(OrderStatus.PAID, pendingOrder.getStatus());
+        assertEquals(2, pendingOrder.getStatusHistory().size());
+        verify(kafkaTemplate, times(1)).send(eq("order-events"), eq(pendingOrder.getOrderNumber()), any(OrderEvent.class));
+    }
+
+    @Test
+    void process_ShouldSkipEventsAlreadyProcessedOrRepeatedInTheBatch() {
+        // Arrange
+        when(processedEventRepository.findExistingIds(any())).thenReturn(Set.of("e1"));
+        when(orderRepository.findAllInPartitionsById(any())).thenReturn(List.of(pendingOrder));
+
+        // Act
+        processor.process(List.of(
+                event("e1", pendingOrder, "inventory-reserved"),
+                event("e2", pendingOrder, "inventory-out-of-stock"),
+                event("e2", pendingOrder, "inventory-out-of-stock")));
+
+        // Assert
+        assertEquals(OrderStatus.CANCELLED, pendingOrder.getStatus());
+        assertEquals(1, pendingOrder.getStatusHistory().size());
+        verify(processedEventRepository).saveAll(processedCaptor.capture());
+        assertEquals(List.of("e2"), processedCaptor.getValue().stream().map(ProcessedOrderEvent::getEventId).toList());
+    }
+
+    @Test
+    void process_WhenEverythingWasProcessed_ShouldNotLoadOrders() {
+        // Arrange
+        when(processedEventRepository.findExistingIds(any())).thenReturn(Set.of("e1"));
+
+        // Act
+        processor.process(List.of(event("e1", pendingOrder, "inventory-reserved")));
+
+        // Assert
+        verify(orderRepository, never()).findAllById(any());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void process_WithTransitionTheDatabaseWouldReject_ShouldSkipIt() {
+        // Arrange
+        Order delivered = order(OrderStatus.DELIVERED);
+        when(orderRepository.findAllInPartitionsById(any())).thenReturn(List.of(delivered));
+
+        // Act
+        processor.process(List.of(event("e1", delivered, "inventory-out-of-stock")));
+
+        // Assert
+        assertEquals(OrderStatus.DELIVERED, delivered.getStatus());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void process_PaymentReplyForSagaOrder_ShouldHandItToTheSaga() {
+        // Arrange
+        OrderSaga saga = OrderSaga.builder().id(UUID.randomUUID()).orderId(processingOrder.getId()).build();
+        when(orderRepository.findAllInPartitionsById(any())).thenReturn(List.of(processingOrder));
+        when(sagaRepository.findByOrderIdInForUpdate(Set.of(processingOrder.getId()))).thenReturn(List.of(saga));
+
+        // Act
+        processor.process(List.of(event("e1", processingOrder, "payment-received")));
+
+        // Assert
+        verify(sagaOrchestrator, times(1)).onPaymentAuthorized(saga);
+        assertEquals(OrderStatus.PROCESSING, processingOrder.getStatus());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void process_InventoryEventsOnly_ShouldNotLockSagas() {
+        // Arrange
+        when(orderRepository.findAllInPartitionsById(any())).thenReturn(List.of(pendingOrder));
+
+        // Act
+        processor.process(List.of(event("e1", pendingOrder, "inventory-reserved")));
+
+        // Assert
+        verifyNoInteractions(sagaRepository);
+    }
+
+    @Test
+    void process_WhenBatchFails_ShouldRetryOrderByOrderAndReportTheFailingOrder() {
+        // Arrange: the whole batch fails, then the first order commits and the second fails again
+        AtomicInteger transactions = new AtomicInteger();
+        doAnswer(invocation -> {
+            int attempt = transactions.incrementAndGet();
+            if (attempt == 1 || attempt == 3) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+        }).when(transactionTemplate).execute(any());
+        when(orderRepository.findAllInPartitionsById(any())).thenReturn(List.of(pendingOrder));
+        OrderStatusEvent failing = event("e2", processingOrder, "payment-received");
+
+        // Act
+        OrderEventProcessingException exception = assertThrows(OrderEventProcessingException.class,
+                () -> processor.process(List.of(event("e1", pendingOrder, "inventory-reserved"), failing)));
+
+        // Assert
+        assertEquals(failing, exception.getEvent());
+        assertEquals(3, transactions.get());
+        assertEquals(OrderStatus.PROCESSING, pendingOrder.getStatus());
+        verify(kafkaTemplate, times(1)).send(eq("order-events"), eq(pendingOrder.getOrderNumber()), any(OrderEvent.class));
+    }
+
+    private Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setOrderNumber("ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        order.setCustomerId(UUID.randomUUID());
+        order.setStatus(status);
+        order.setStatusHistory(new ArrayList<>());
+        return order;
+    }
+
+    private OrderStatusEvent event(String eventId, Order order, String eventType) {
+        return new OrderStatusEvent(eventId, order.getId(), eventType, null);
+    }
+}
@@ -0,0 +1,184 @@
+package com.ecommerce.order.service.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 100_000;
+
+    @Test
+    void nextId_FromManyThreads_ShouldNeverRepeatAndIncreasePerThread() throws Exception {
+        // Arrange
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        // Act
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                Callable<long[]> task = () -> {
+                    start.await();
+                    long[] ids = new long[IDS_PER_THREAD];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+
+            // Assert
+            Set<Long> seen = new HashSet<>(THREADS * IDS_PER_THREAD * 2);
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(seen.add(ids[i]), "Duplicate ID " + ids[i]);
+                    assertEquals(7, SnowflakeIdGenerator.nodeIdOf(ids[i]));
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1], "IDs should increase within a thread");
+                    }
+                }
+            }
+            assertEquals(THREADS * IDS_PER_THREAD, seen.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nextId_WhenClockStepsBack_ShouldKeepIncreasing() {
+        // Arrange
+        AtomicLong millis = new AtomicLong(Instant.parse("2025-06-01T12:00:00Z").toEpochMilli());
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, new SteppingClock(millis));
+        long before = generator.nextId();
+
+        // Act
+        millis.addAndGet(-5_000);
+        long after = generator.nextId();
+
+        // Assert
+        assertTrue(after > before);
+    }
+
+    @Test
+    void nextId_WhenSequenceIsExhausted_ShouldBorrowTheNextMillisecond() {
+        // Arrange
+        AtomicLong millis = new AtomicLong(Instant.parse("2025-06-01T12:00:00Z").toEpochMilli());
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, new SteppingClock(millis));
+
+        // Act
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+
+        // Assert
+        assertEquals(Instant.ofEpochMilli(millis.get()).plusMillis(2), SnowflakeIdGenerator.timestampOf(previous));
+    }
+
+    @Test
+    void nextIdWithPrefix_ShouldBeFixedWidthAndSortLikeTheNumber() {
+        // Arrange
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+        // Act
+        String first = generator.nextId("ORD-");
+        String second = generator.nextId("ORD-");
+
+        // Assert
+        assertTrue(first.matches("ORD-[0-9A-HJKMNP-TV-Z]{13}"), first);
+        assertEquals(first.length(), second.length());
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals("X-0000000000001", IdGenerator.encode("X-", 1));
+        assertEquals("7ZZZZZZZZZZZZ", IdGenerator.encode("", Long.MAX_VALUE));
+    }
+
+    @Test
+    void decode_ShouldInvertEncodeAndRejectOtherText() {
+        // Arrange
+        long id = new SnowflakeIdGenerator(5).nextId();
+
+        // Act
+        long decoded = IdGenerator.decode("ORD-", IdGenerator.encode("ORD-", id));
+
+        // Assert
+        assertEquals(id, decoded);
+        assertEquals(Long.MAX_VALUE, IdGenerator.decode("", "7ZZZZZZZZZZZZ"));
+        assertThrows(IllegalArgumentException.class, () -> IdGenerator.decode("ORD-", "ORD-12345678"));
+        assertThrows(IllegalArgumentException.class, () -> IdGenerator.decode("ORD-", "RET-0000000000001"));
+        assertThrows(IllegalArgumentException.class, () -> IdGenerator.decode("ORD-", "ORD-000000000000U"));
+        assertThrows(IllegalArgumentException.class, () -> IdGenerator.decode("", "8000000000000"));
+    }
+
+    @Test
+    void firstIdAt_ShouldBoundIdsGeneratedInThatMillisecond() {
+        // Arrange
+        Instant instant = Instant.parse("2025-06-01T12:00:00Z");
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID,
+                new SteppingClock(new AtomicLong(instant.toEpochMilli())));
+
+        // Act
+        long id = generator.nextId();
+
+        // Assert
+        assertTrue(id >= SnowflakeIdGenerator.firstIdAt(instant));
+        assertTrue(id < SnowflakeIdGenerator.firstIdAt(instant.plusMillis(1)));
+    }
+
+    @Test
+    void constructor_WithNodeIdOutOfRange_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    private static final class SteppingClock extends Clock {
+
+        private final AtomicLong millis;
+
+        SteppingClock(AtomicLong millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.order.service.id;
+
+import com.ecommerce.order.service.partition.OrderPartitions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void next_ShouldProduceVersion7IdsThatCarryTheirTimestamp() {
+        // Arrange
+        Instant now = Instant.parse("2025-06-15T12:30:45.123Z");
+
+        // Act
+        UUID id = TimeOrderedUuidGenerator.next(now);
+
+        // Assert
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(now, TimeOrderedUuidGenerator.timestampOf(id).orElseThrow());
+        assertNotEquals(id, TimeOrderedUuidGenerator.next(now));
+    }
+
+    @Test
+    void next_ShouldSortByCreationTime() {
+        // Arrange
+        UUID earlier = TimeOrderedUuidGenerator.next(Instant.parse("2025-01-31T23:59:59Z"));
+
+        // Act
+        UUID later = TimeOrderedUuidGenerator.next(Instant.parse("2025-02-01T00:00:00Z"));
+
+        // Assert
+        assertTrue(Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits()) < 0);
+    }
+
+    @Test
+    void createdAtRangeOf_ShouldBoundTimeOrderedIdsOnly() {
+        // Arrange
+        Instant createdAt = Instant.parse("2025-06-15T12:00:00Z");
+        UUID id = TimeOrderedUuidGenerator.next(createdAt);
+
+        // Act
+        OrderPartitions.CreatedAtRange range = OrderPartitions.createdAtRangeOf(id).orElseThrow();
+
+        // Assert
+        LocalDateTime at = LocalDateTime.ofInstant(createdAt, ZoneOffset.UTC);
+        assertTrue(range.from().isBefore(at) && range.to().isAfter(at));
+        assertTrue(OrderPartitions.createdAtRangeOf(UUID.randomUUID()).isEmpty());
+        assertTrue(OrderPartitions.createdAtRangeOf(List.of(id, UUID.randomUUID())).isEmpty());
+    }
+}
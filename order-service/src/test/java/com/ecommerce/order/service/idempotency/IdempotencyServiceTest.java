@@ -0,0 +1,228 @@
+package com.ecommerce.order.service.idempotency;
+
+import com.ecommerce.order.exception.IdempotencyConflictException;
+import com.ecommerce.order.exception.InvalidIdempotencyKeyException;
+import com.ecommerce.order.model.IdempotencyRecord;
+import com.ecommerce.order.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String OPERATION = "orders.create";
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(repository, objectMapper, Duration.ofHours(24), Duration.ofSeconds(5), 1000);
+    }
+
+    @Test
+    void execute_WithoutKey_ShouldJustRunTheAction() {
+        // Act
+        Receipt result = idempotencyService.execute(OPERATION, null, "request", Receipt.class, this::place);
+
+        // Assert
+        assertEquals(1, result.number());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void execute_WhenRetriedOnTheSameInstance_ShouldReplayFromMemory() {
+        // Arrange
+        when(repository.claim(eq(OPERATION + ":key-1"), eq(OPERATION), anyString(), any(), any(), any())).thenReturn(1);
+
+        // Act
+        Receipt first = idempotencyService.execute(OPERATION, "key-1", "request", Receipt.class, this::place);
+        Receipt retry = idempotencyService.execute(OPERATION, "key-1", "request", Receipt.class, this::place);
+
+        // Assert
+        assertEquals(first, retry);
+        assertEquals(1, executions.get());
+        verify(repository, times(1)).claim(any(), any(), any(), any(), any(), any());
+        verify(repository).complete(eq(OPERATION + ":key-1"), eq("{\"number\":1}"));
+    }
+
+    @Test
+    void execute_WithTheKeyOfADifferentRequest_ShouldBeRejected() {
+        // Arrange
+        when(repository.claim(any(), any(), any(), any(), any(), any())).thenReturn(1);
+        idempotencyService.execute(OPERATION, "key-1", "request", Receipt.class, this::place);
+
+        // Act & Assert
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> idempotencyService.execute(OPERATION, "key-1", "another request", Receipt.class, this::place));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_WhenAnotherInstanceCompletedTheKey_ShouldReplayTheStoredResponse() {
+        // Arrange
+        when(repository.claim(any(), any(), any(), any(), any(), any())).thenReturn(0);
+        IdempotencyRecord stored = record(IdempotencyRecord.COMPLETED, "{\"number\":42}");
+        ReflectionTestUtils.setField(stored, "requestHash", idempotencyService.fingerprint(OPERATION, "request"));
+        when(repository.findById(OPERATION + ":key-1")).thenReturn(Optional.of(stored));
+
+        // Act
+        Receipt result = idempotencyService.execute(OPERATION, "key-1", "request", Receipt.class, this::place);
+
+        // Assert
+        assertEquals(new Receipt(42), result);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_WhenTheKeyIsInProgressElsewhere_ShouldConflict() {
+        // Arrange
+        when(repository.claim(any(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(repository.findById(OPERATION + ":key-1")).thenReturn(Optional.of(record(IdempotencyRecord.IN_PROGRESS, null)));
+
+        // Act & Assert
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute(OPERATION, "key-1", "request", Receipt.class, this::place));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_WhenTheActionFails_ShouldReleaseTheKeyForARetry() {
+        // Arrange
+        when(repository.claim(any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(OPERATION, "key-1", "request",
+                Receipt.class, () -> {
+                    throw new IllegalStateException("boom");
+                }));
+        Receipt retry = idempotencyService.execute(OPERATION, "key-1", "request", Receipt.class, this::place);
+
+        // Assert
+        verify(repository).release(OPERATION + ":key-1");
+        assertEquals(1, retry.number());
+    }
+
+    @Test
+    void execute_WhenStoringTheResponseFails_ShouldMarkTheKeyExecutedAndRetry() {
+        // Arrange
+        String id = OPERATION + ":key-1";
+        when(repository.claim(any(), any(), any(), any(), any(), any())).thenReturn(1);
+        when(repository.markExecuted(id)).thenReturn(1);
+        when(repository.complete(id, "{\"number\":1}"))
+                .thenThrow(new QueryTimeoutException("timed out"))
+                .thenReturn(1);
+
+        // Act
+        Receipt result = idempotencyService.execute(OPERATION, "key-1", "request", Receipt.class, this::place);
+
+        // Assert
+        assertEquals(new Receipt(1), result);
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).markExecuted(id);
+        inOrder.verify(repository, times(2)).complete(id, "{\"number\":1}");
+        verify(repository, never()).release(any());
+    }
+
+    @Test
+    void execute_WhenTheKeyWasExecutedWithoutAStoredResponse_ShouldConflictWithoutRunningAgain() {
+        // Arrange
+        when(repository.claim(any(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(repository.findById(OPERATION + ":key-1")).thenReturn(Optional.of(record(IdempotencyRecord.EXECUTED, null)));
+
+        // Act & Assert
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute(OPERATION, "key-1", "request", Receipt.class, this::place));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_WithConcurrentDuplicates_ShouldRunTheActionOnce() throws Exception {
+        // Arrange
+        when(repository.claim(any(), any(), any(), any(), any(), any())).thenReturn(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Receipt>> results = new ArrayList<>();
+
+        // Act
+        try {
+            results.add(executor.submit(() -> idempotencyService.execute(OPERATION, "key-1", "request", Receipt.class, () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return place();
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> idempotencyService.execute(OPERATION, "key-1", "request", Receipt.class, this::place)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            for (Future<Receipt> result : results) {
+                assertEquals(new Receipt(1), result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+            verify(repository, times(1)).claim(any(), any(), any(), any(), any(), any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_WithAnOverlongKey_ShouldBeRejected() {
+        assertThrows(InvalidIdempotencyKeyException.class, () -> idempotencyService.execute(OPERATION,
+                "k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1), "request", Receipt.class, this::place));
+        verifyNoInteractions(repository);
+    }
+
+    private Receipt place() {
+        return new Receipt(executions.incrementAndGet());
+    }
+
+    private static IdempotencyRecord record(String status, String body) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        ReflectionTestUtils.setField(record, "status", status);
+        ReflectionTestUtils.setField(record, "responseBody", body);
+        return record;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record Receipt(int number) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.order.service.payment;
+
+import com.ecommerce.order.exception.PaymentGatewayBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentPipelineTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Mock
+    private PaymentSettlement settlement;
+
+    private final ExecutorService gatewayExecutor = Executors.newFixedThreadPool(4);
+    private final ExecutorService settlementExecutor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch gatewayRelease = new CountDownLatch(1);
+    private final AtomicReference<String> gatewayThread = new AtomicReference<>();
+
+    private PaymentGateway gateway;
+    private PaymentPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        gateway = new PaymentGateway() {
+            @Override
+            public String name() {
+                return "TEST_GATEWAY";
+            }
+
+            @Override
+            public int maxConcurrency() {
+                return 2;
+            }
+
+            @Override
+            public GatewayResult authorize(GatewayAuthorization authorization) {
+                gatewayThread.set(Thread.currentThread().getName());
+                try {
+                    if (!gatewayRelease.await(5, TimeUnit.SECONDS)) {
+                        return GatewayResult.failed(GatewayResult.ERROR, "never released");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return GatewayResult.approved("gw-" + authorization.reference(), "ok");
+            }
+        };
+        pipeline = new PaymentPipeline(List.of(gateway), settlement, gatewayExecutor, settlementExecutor,
+                "TEST_GATEWAY", TIMEOUT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gatewayRelease.countDown();
+        gatewayExecutor.shutdownNow();
+        settlementExecutor.shutdownNow();
+    }
+
+    @Test
+    void authorize_ShouldCallTheGatewayOffTheCallerAndSettleTheAnswer() throws Exception {
+        // Arrange
+        GatewayAuthorization authorization = authorization();
+        PaymentPipeline.Admission admission = pipeline.admit();
+
+        // Act
+        var outcome = pipeline.authorize(admission, authorization);
+        gatewayRelease.countDown();
+        GatewayResult result = outcome.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(result.approved());
+        assertNotEquals(Thread.currentThread().getName(), gatewayThread.get());
+        verify(settlement).settle(eq(authorization.transactionId()), argThat(GatewayResult::approved));
+    }
+
+    @Test
+    void authorize_WhenTheGatewayOverrunsTheBudget_ShouldSettleAsTimedOut() throws Exception {
+        // Arrange
+        PaymentPipeline impatient = new PaymentPipeline(List.of(gateway), settlement, gatewayExecutor,
+                settlementExecutor, "TEST_GATEWAY", Duration.ofMillis(100));
+        GatewayAuthorization authorization = authorization();
+
+        // Act
+        GatewayResult result = impatient.authorize(impatient.admit(), authorization).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertFalse(result.approved());
+        assertEquals(GatewayResult.TIMEOUT, result.responseCode());
+        verify(settlement).settle(eq(authorization.transactionId()),
+                argThat(settled -> GatewayResult.TIMEOUT.equals(settled.responseCode())));
+    }
+
+    @Test
+    void authorize_WhenTheGatewayApprovesAfterTheBudget_ShouldSettleTheLateApprovalToo() throws Exception {
+        // Arrange
+        PaymentPipeline impatient = new PaymentPipeline(List.of(gateway), settlement, gatewayExecutor,
+                settlementExecutor, "TEST_GATEWAY", Duration.ofMillis(100));
+        GatewayAuthorization authorization = authorization();
+        impatient.authorize(impatient.admit(), authorization).get(5, TimeUnit.SECONDS);
+
+        // Act
+        gatewayRelease.countDown();
+
+        // Assert: settlement hands the approval to the saga, which voids it
+        verify(settlement, timeout(5000)).settle(eq(authorization.transactionId()), argThat(GatewayResult::approved));
+    }
+
+    @Test
+    void admit_BeyondTheGatewayLimit_ShouldRejectUntilACallFinishes() throws Exception {
+        // Arrange
+        var first = pipeline.authorize(pipeline.admit(), authorization());
+        pipeline.authorize(pipeline.admit(), authorization());
+
+        // Act & Assert
+        assertThrows(PaymentGatewayBusyException.class, () -> pipeline.admit());
+
+        gatewayRelease.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        PaymentPipeline.Admission admission = assertDoesNotThrow(() -> pipeline.admit());
+        admission.release();
+    }
+
+    @Test
+    void admission_ReleasedTwice_ShouldReturnOnlyOnePermit() {
+        // Arrange
+        PaymentPipeline.Admission admission = pipeline.admit();
+        PaymentPipeline.Admission second = pipeline.admit();
+
+        // Act
+        admission.release();
+        admission.release();
+
+        // Assert
+        pipeline.admit();
+        assertThrows(PaymentGatewayBusyException.class, () -> pipeline.admit());
+        second.release();
+    }
+
+    private GatewayAuthorization authorization() {
+        UUID id = UUID.randomUUID();
+        return new GatewayAuthorization(id, "TXN-" + id, BigDecimal.TEN, "USD", "CREDIT_CARD");
+    }
+}
@@ -0,0 +1,190 @@
+package com.ecommerce.order.service.payment;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderSaga;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.PaymentStatus;
+import com.ecommerce.order.model.SagaStatus;
+import com.ecommerce.order.model.SagaStep;
+import com.ecommerce.order.model.Transaction;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderSagaRepository;
+import com.ecommerce.order.repository.TransactionRepository;
+import com.ecommerce.order.service.saga.OrderSagaOrchestrator;
+import com.ecommerce.order.service.saga.SagaEventPublisher;
+import com.ecommerce.order.service.saga.SagaStepHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentSettlementTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private OrderSagaRepository sagaRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private SagaEventPublisher sagaEventPublisher;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentSettlement settlement;
+    private SagaStepHandler authorizePayment;
+    private Order order;
+    private OrderSaga saga;
+    private Transaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        List<SagaStepHandler> handlers = new ArrayList<>();
+        for (SagaStep step : SagaStep.values()) {
+            SagaStepHandler handler = mock(SagaStepHandler.class);
+            when(handler.step()).thenReturn(step);
+            handlers.add(handler);
+            if (step == SagaStep.AUTHORIZE_PAYMENT) {
+                authorizePayment = handler;
+            }
+        }
+        // The real orchestrator, so the test sees the saga and order it leaves behind
+        OrderSagaOrchestrator orchestrator = new OrderSagaOrchestrator(sagaRepository, orderRepository, handlers,
+                sagaEventPublisher, eventPublisher, transactionTemplate, 5, 20, Duration.ofSeconds(2),
+                Duration.ofMinutes(5), Duration.ofMinutes(15), Duration.ofMinutes(2));
+        settlement = new PaymentSettlement(transactionRepository, orchestrator, eventPublisher);
+
+        order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setStatus(OrderStatus.PROCESSING);
+        order.setItems(new ArrayList<>());
+
+        saga = OrderSaga.builder()
+                .id(UUID.randomUUID())
+                .orderId(order.getId())
+                .step(SagaStep.AUTHORIZE_PAYMENT)
+                .status(SagaStatus.AWAITING)
+                .nextAttemptAt(LocalDateTime.now().plusMinutes(15))
+                .build();
+
+        transaction = new Transaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setTransactionId("TXN-0000000000001");
+        transaction.setOrder(order);
+        transaction.setStatus(PaymentStatus.PROCESSING);
+
+        when(transactionRepository.findById(transaction.getId())).thenReturn(Optional.of(transaction));
+        lenient().when(orderRepository.findInPartitionById(order.getId())).thenReturn(Optional.of(order));
+    }
+
+    @Test
+    void settle_WhenApproved_ShouldMarkOrderPaidAndMoveSagaToConfirmation() {
+        // Arrange
+        when(sagaRepository.findByOrderIdForUpdate(order.getId())).thenReturn(Optional.of(saga));
+
+        // Act
+        settlement.settle(transaction.getId(), GatewayResult.approved("gw-1", "Approved"));
+
+        // Assert
+        assertEquals(PaymentStatus.SUCCEEDED, transaction.getStatus());
+        assertEquals(OrderStatus.PAID, order.getStatus());
+        assertNotNull(order.getPaidAt());
+        assertEquals(SagaStep.CONFIRM_ORDER, saga.getStep());
+        assertEquals(SagaStatus.RUNNING, saga.getStatus());
+    }
+
+    @Test
+    void settle_WhenDeclined_ShouldCompensateTheSaga() {
+        // Arrange
+        when(sagaRepository.findByOrderIdForUpdate(order.getId())).thenReturn(Optional.of(saga));
+
+        // Act
+        settlement.settle(transaction.getId(), GatewayResult.declined("gw-1", "05", "Do not honor"));
+
+        // Assert
+        assertEquals(PaymentStatus.FAILED, transaction.getStatus());
+        assertEquals(SagaStatus.COMPENSATING, saga.getStatus());
+        assertEquals(SagaStep.RESERVE_INVENTORY, saga.getStep());
+        assertTrue(saga.getLastError().contains("Do not honor"));
+        // The order is cancelled once the reserved stock has been returned
+        assertEquals(OrderStatus.PROCESSING, order.getStatus());
+    }
+
+    @Test
+    void settle_WhenApprovedForOrderWithoutSaga_ShouldMarkOrderPaid() {
+        // Arrange
+        when(sagaRepository.findByOrderIdForUpdate(order.getId())).thenReturn(Optional.empty());
+
+        // Act
+        settlement.settle(transaction.getId(), GatewayResult.approved("gw-1", "Approved"));
+
+        // Assert
+        assertEquals(PaymentStatus.SUCCEEDED, transaction.getStatus());
+        assertEquals(OrderStatus.PAID, order.getStatus());
+    }
+
+    @Test
+    void settle_WhenTimedOut_ShouldVoidThePaymentWhileCompensating() {
+        // Arrange
+        when(sagaRepository.findByOrderIdForUpdate(order.getId())).thenReturn(Optional.of(saga));
+
+        // Act
+        settlement.settle(transaction.getId(), GatewayResult.failed(GatewayResult.TIMEOUT, "No answer"));
+
+        // Assert: the gateway may still approve it, so compensation starts at the payment
+        assertEquals(PaymentStatus.FAILED, transaction.getStatus());
+        assertEquals(SagaStatus.COMPENSATING, saga.getStatus());
+        assertEquals(SagaStep.AUTHORIZE_PAYMENT, saga.getStep());
+    }
+
+    @Test
+    void settle_WhenApprovedAfterTimingOut_ShouldRecordTheChargeAndVoidIt() {
+        // Arrange
+        when(sagaRepository.findByOrderIdForUpdate(order.getId())).thenReturn(Optional.of(saga));
+        settlement.settle(transaction.getId(), GatewayResult.failed(GatewayResult.TIMEOUT, "No answer"));
+
+        // Act
+        settlement.settle(transaction.getId(), GatewayResult.approved("gw-1", "Approved"));
+
+        // Assert
+        assertEquals(PaymentStatus.SUCCEEDED, transaction.getStatus());
+        assertEquals("gw-1", transaction.getGatewayTransactionId());
+        verify(authorizePayment, times(1)).compensate(order);
+        assertEquals(OrderStatus.PROCESSING, order.getStatus());
+    }
+
+    @Test
+    void settle_WhenDeclinedAfterTimingOut_ShouldLeaveThePaymentFailed() {
+        // Arrange
+        transaction.setStatus(PaymentStatus.FAILED);
+        transaction.setFailureCode(GatewayResult.TIMEOUT);
+
+        // Act
+        settlement.settle(transaction.getId(), GatewayResult.declined("gw-1", "05", "Do not honor"));
+
+        // Assert
+        assertEquals(GatewayResult.TIMEOUT, transaction.getFailureCode());
+        verifyNoInteractions(sagaRepository);
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.order.service.payment.card;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinTableTest {
+
+    private final BinTable table = BinTable.fromClasspath("payment/bin-ranges.csv");
+
+    @Test
+    void lookup_ShouldUseIssuerRangeOverNetworkRange() {
+        // Act
+        CardInfo issuer = table.lookup("4242424242424242");
+        CardInfo network = table.lookup("4111111111111111");
+
+        // Assert
+        assertEquals(new CardInfo("VISA", "CREDIT", "US", true), issuer);
+        assertEquals(new CardInfo("VISA", null, null, true), network);
+    }
+
+    @Test
+    void lookup_ShouldDetectEachBrand() {
+        assertEquals("VISA", table.lookup("4000056655665556").brand());
+        assertEquals("DEBIT", table.lookup("4000056655665556").cardType());
+        assertEquals("MASTERCARD", table.lookup("5200828282828210").brand());
+        assertEquals("MASTERCARD", table.lookup("2223003122003222").brand());
+        assertEquals("AMEX", table.lookup("378282246310005").brand());
+        assertEquals("DISCOVER", table.lookup("6011111111111117").brand());
+    }
+
+    @Test
+    void lookup_ShouldIgnoreSpacesAndDashes() {
+        assertEquals(table.lookup("4242424242424242"), table.lookup("4242 4242 4242 4242"));
+        assertEquals(table.lookup("4242424242424242"), table.lookup("4242-4242-4242-4242"));
+    }
+
+    @Test
+    void lookup_WithWrongCheckDigit_ShouldKeepBrandButFailLuhn() {
+        // Act
+        CardInfo card = table.lookup("4242424242424241");
+
+        // Assert
+        assertEquals("VISA", card.brand());
+        assertFalse(card.luhnValid());
+    }
+
+    @Test
+    void lookup_WithLengthTheRangeDoesNotAllow_ShouldReturnUnknown() {
+        // Mastercard numbers have 16 digits; this 15 digit number passes Luhn
+        CardInfo card = table.lookup("555555555555558");
+
+        assertFalse(card.isKnown());
+        assertTrue(card.luhnValid());
+    }
+
+    @Test
+    void lookup_WithMalformedNumber_ShouldReturnUnknownAndInvalid() {
+        assertSame(CardInfo.UNKNOWN_INVALID, table.lookup(null));
+        assertSame(CardInfo.UNKNOWN_INVALID, table.lookup("4242x42424242424"));
+        assertSame(CardInfo.UNKNOWN_INVALID, table.lookup("42424242424"));
+        assertSame(CardInfo.UNKNOWN_INVALID, table.lookup("42424242424242424242"));
+    }
+
+    @Test
+    void lookup_WithNumberOutsideAnyRange_ShouldReturnUnknown() {
+        assertFalse(table.lookup("9999999999999995").isKnown());
+    }
+
+    @Test
+    void load_WithNestedRanges_ShouldResumeOuterRangeAfterInnerOne() throws IOException {
+        // Arrange
+        BinTable nested = load("""
+                1,1,OUTER,,,12,19
+                15,15,MIDDLE,,,12,19
+                1550,1559,INNER,,,12,19
+                """);
+
+        // Act & Assert
+        assertEquals("OUTER", nested.lookup("149999990000").brand());
+        assertEquals("MIDDLE", nested.lookup("150000000000").brand());
+        assertEquals("MIDDLE", nested.lookup("154999990000").brand());
+        assertEquals("INNER", nested.lookup("155000000000").brand());
+        assertEquals("INNER", nested.lookup("155999990000").brand());
+        assertEquals("MIDDLE", nested.lookup("156000000000").brand());
+        assertEquals("OUTER", nested.lookup("160000000000").brand());
+        assertFalse(nested.lookup("200000000000").isKnown());
+    }
+
+    @Test
+    void load_WithMalformedLine_ShouldReportLineNumber() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> load("# header\n4,4,VISA,,,13\n"));
+
+        assertTrue(e.getMessage().contains("line 2"));
+    }
+
+    private static BinTable load(String csv) throws IOException {
+        return BinTable.load(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.order.service.placement;
+
+import com.ecommerce.order.client.ProductServiceClient;
+import com.ecommerce.order.dto.orderitem.OrderItemRequest;
+import com.ecommerce.order.exception.InsufficientStockException;
+import com.ecommerce.order.exception.ProductServiceException;
+import com.ecommerce.order.exception.ResourceNotFoundException;
+import feign.FeignException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockAvailabilityCheckerTest {
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    private ExecutorService executor;
+    private StockAvailabilityChecker checker;
+    private UUID firstProduct;
+    private UUID secondProduct;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        checker = new StockAvailabilityChecker(productServiceClient, executor, Duration.ofSeconds(2));
+        firstProduct = UUID.randomUUID();
+        secondProduct = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void checkAll_WithDuplicateProducts_ShouldCheckSummedQuantityOncePerProduct() {
+        // Arrange
+        when(productServiceClient.checkProductStock(any(UUID.class), anyInt())).thenReturn(ResponseEntity.ok(true));
+
+        // Act
+        checker.checkAll(List.of(item(firstProduct, 2), item(secondProduct, 1), item(firstProduct, 3)));
+
+        // Assert
+        verify(productServiceClient, times(1)).checkProductStock(firstProduct, 5);
+        verify(productServiceClient, times(1)).checkProductStock(secondProduct, 1);
+    }
+
+    @Test
+    void checkAll_ShouldCallProductServiceConcurrently() {
+        // Arrange: each call waits until both are in flight, which only happens if they overlap
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(productServiceClient.checkProductStock(any(UUID.class), anyInt())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            return ResponseEntity.ok(bothStarted.await(1, TimeUnit.SECONDS));
+        });
+
+        // Act & Assert
+        assertDoesNotThrow(() -> checker.checkAll(List.of(item(firstProduct, 1), item(secondProduct, 1))));
+    }
+
+    @Test
+    void checkAll_WithOutOfStockProduct_ShouldThrowInsufficientStock() {
+        // Arrange
+        when(productServiceClient.checkProductStock(firstProduct, 1)).thenReturn(ResponseEntity.ok(true));
+        when(productServiceClient.checkProductStock(secondProduct, 4)).thenReturn(ResponseEntity.ok(false));
+
+        // Act & Assert
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> checker.checkAll(List.of(item(firstProduct, 1), item(secondProduct, 4))));
+        assertTrue(exception.getMessage().contains(secondProduct.toString()));
+    }
+
+    @Test
+    void checkAll_WithUnknownProduct_ShouldThrowResourceNotFound() {
+        // Arrange
+        when(productServiceClient.checkProductStock(firstProduct, 1)).thenThrow(mock(FeignException.NotFound.class));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> checker.checkAll(List.of(item(firstProduct, 1))));
+    }
+
+    @Test
+    void checkAll_WhenProductServiceIsSlow_ShouldTimeOut() {
+        // Arrange
+        checker = new StockAvailabilityChecker(productServiceClient, executor, Duration.ofMillis(50));
+        when(productServiceClient.checkProductStock(firstProduct, 1)).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return ResponseEntity.ok(true);
+        });
+
+        // Act & Assert
+        assertThrows(ProductServiceException.class, () -> checker.checkAll(List.of(item(firstProduct, 1))));
+    }
+
+    private OrderItemRequest item(UUID productId, int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(productId.toString());
+        item.setQuantity(quantity);
+        item.setUnitPrice(BigDecimal.TEN);
+        return item;
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.order.service.reconciliation;
+
+import com.ecommerce.order.model.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationJobTest {
+
+    private static final String GATEWAY = "MOCK_GATEWAY";
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2025, 6, 1);
+
+    @Mock
+    private ReconciliationStore store;
+
+    @TempDir
+    Path directory;
+
+    private final List<LedgerEntry> ledger = new ArrayList<>();
+    private final List<ReconciliationMismatch> reported = new ArrayList<>();
+    private PaymentReconciliationJob job;
+
+    @BeforeEach
+    void setUp() {
+        // Small pages and batches so a handful of rows crosses both boundaries
+        job = new PaymentReconciliationJob(store, 2, 2);
+        lenient().when(store.ledgerPage(eq(GATEWAY), anyString(), any(), anyString(), anyInt()))
+                .thenAnswer(invocation -> {
+                    String after = invocation.getArgument(2);
+                    int limit = invocation.getArgument(4);
+                    return ledger.stream()
+                            .filter(entry -> after == null || entry.reference().compareTo(after) > 0)
+                            .limit(limit)
+                            .collect(Collectors.toList());
+                });
+        lenient().doAnswer(invocation -> reported.addAll(invocation.getArgument(1)))
+                .when(store).insertMismatches(any(UUID.class), anyList());
+    }
+
+    @Test
+    void reconcile_ShouldMergeBothSidesAndReportEachDifference() throws IOException {
+        // Arrange
+        ledger.add(entry("TXN-A", "10.00", "USD", PaymentStatus.CAPTURED));
+        ledger.add(entry("TXN-B", "20.00", "USD", PaymentStatus.CAPTURED));
+        ledger.add(entry("TXN-D", "40.00", "USD", PaymentStatus.CAPTURED));
+        ledger.add(entry("TXN-E", "50.00", "USD", PaymentStatus.FAILED));
+        ledger.add(entry("TXN-F", "60.00", "USD", PaymentStatus.REFUNDED));
+        Path file = settlementFile(
+                "reference,gateway_transaction_id,amount,currency,status",
+                "TXN-A,gw_1,10.0,usd,CAPTURED",
+                "TXN-B,gw_2,25.00,USD,CAPTURED",
+                "TXN-C,gw_3,30.00,USD,CAPTURED",
+                "TXN-C,gw_3,30.00,USD,CAPTURED",
+                "TXN-F,gw_6,60.00,USD,CAPTURED");
+
+        // Act
+        ReconciliationSummary summary = job.reconcile(file, GATEWAY, BUSINESS_DATE);
+
+        // Assert
+        assertEquals(5, summary.settlementRows());
+        assertEquals(5, summary.ledgerRows());
+        assertEquals(1, summary.matched());
+        assertEquals(5, summary.mismatches());
+        Map<String, MismatchType> byReference = reported.stream()
+                .filter(mismatch -> mismatch.type() != MismatchType.DUPLICATE_IN_SETTLEMENT)
+                .collect(Collectors.toMap(ReconciliationMismatch::reference, ReconciliationMismatch::type));
+        assertEquals(Map.of(
+                "TXN-B", MismatchType.AMOUNT_MISMATCH,
+                "TXN-C", MismatchType.MISSING_IN_LEDGER,
+                "TXN-D", MismatchType.MISSING_IN_SETTLEMENT,
+                "TXN-F", MismatchType.STATUS_MISMATCH), byReference);
+        assertEquals(1, reported.stream().filter(m -> m.type() == MismatchType.DUPLICATE_IN_SETTLEMENT).count());
+        verify(store).finishRun(summary, null);
+    }
+
+    @Test
+    void reconcile_ShouldReadTheLedgerInKeysetPages() throws IOException {
+        // Arrange
+        ledger.add(entry("TXN-A", "10.00", "USD", PaymentStatus.CAPTURED));
+        ledger.add(entry("TXN-B", "20.00", "USD", PaymentStatus.CAPTURED));
+        ledger.add(entry("TXN-C", "30.00", "USD", PaymentStatus.CAPTURED));
+        Path file = settlementFile(
+                "TXN-A,gw_1,10.00,USD,CAPTURED",
+                "TXN-B,gw_2,20.00,USD,CAPTURED",
+                "TXN-C,gw_3,30.00,USD,CAPTURED");
+
+        // Act
+        ReconciliationSummary summary = job.reconcile(file, GATEWAY, BUSINESS_DATE);
+
+        // Assert
+        assertEquals(3, summary.matched());
+        assertEquals(0, summary.mismatches());
+        verify(store).ledgerPage(eq(GATEWAY), anyString(), isNull(), anyString(), eq(2));
+        verify(store).ledgerPage(eq(GATEWAY), anyString(), eq("TXN-B"), anyString(), eq(2));
+        verify(store, never()).insertMismatches(any(UUID.class), anyList());
+    }
+
+    @Test
+    void reconcile_WithUnsortedFile_ShouldFailTheRun() throws IOException {
+        // Arrange
+        Path file = settlementFile(
+                "TXN-B,gw_2,20.00,USD,CAPTURED",
+                "TXN-A,gw_1,10.00,USD,CAPTURED");
+
+        // Act & Assert
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> job.reconcile(file, GATEWAY, BUSINESS_DATE));
+        assertTrue(e.getMessage().contains("not sorted"));
+        verify(store).finishRun(any(ReconciliationSummary.class), eq(e.getMessage()));
+    }
+
+    private Path settlementFile(String... lines) throws IOException {
+        return Files.write(directory.resolve(GATEWAY + "_" + BUSINESS_DATE + ".csv"), List.of(lines));
+    }
+
+    private static LedgerEntry entry(String reference, String amount, String currency, PaymentStatus status) {
+        return new LedgerEntry(UUID.randomUUID(), reference, null, new BigDecimal(amount), currency, status);
+    }
+}
@@ -0,0 +1,314 @@
+package com.ecommerce.order.service.saga;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderSaga;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.SagaStatus;
+import com.ecommerce.order.model.SagaStep;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderSagaRepository;
+import com.ecommerce.order.service.saga.SagaStepHandler.StepResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderSagaOrchestratorTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(2);
+    private static final Duration PAYMENT_TIMEOUT = Duration.ofMinutes(15);
+
+    @Mock
+    private OrderSagaRepository sagaRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private SagaStepHandler reserveInventory;
+
+    @Mock
+    private SagaStepHandler authorizePayment;
+
+    @Mock
+    private SagaStepHandler confirmOrder;
+
+    @Mock
+    private SagaEventPublisher eventPublisher;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-03-01T10:00:00Z"), ZoneOffset.UTC);
+    private final LocalDateTime now = LocalDateTime.now(clock);
+
+    private OrderSagaOrchestrator orchestrator;
+    private Order order;
+    private OrderSaga saga;
+
+    @BeforeEach
+    void setUp() {
+        when(reserveInventory.step()).thenReturn(SagaStep.RESERVE_INVENTORY);
+        when(authorizePayment.step()).thenReturn(SagaStep.AUTHORIZE_PAYMENT);
+        when(confirmOrder.step()).thenReturn(SagaStep.CONFIRM_ORDER);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        orchestrator = new OrderSagaOrchestrator(sagaRepository, orderRepository,
+                List.of(reserveInventory, authorizePayment, confirmOrder), eventPublisher,
+                applicationEventPublisher, transactionTemplate, clock, MAX_ATTEMPTS, 5,
+                RETRY_BACKOFF, Duration.ofMinutes(5), PAYMENT_TIMEOUT, Duration.ofMinutes(2));
+
+        order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setOrderNumber("ORD-12345678");
+        order.setStatus(OrderStatus.PENDING);
+        order.setItems(new ArrayList<>());
+
+        saga = OrderSaga.builder()
+                .id(UUID.randomUUID())
+                .orderId(order.getId())
+                .step(SagaStep.RESERVE_INVENTORY)
+                .status(SagaStatus.RUNNING)
+                .nextAttemptAt(now)
+                .build();
+        lenient().when(sagaRepository.findByIdForUpdate(saga.getId())).thenReturn(Optional.of(saga));
+        lenient().when(sagaRepository.findByOrderIdForUpdate(order.getId())).thenReturn(Optional.of(saga));
+        lenient().when(orderRepository.findInPartitionById(order.getId())).thenReturn(Optional.of(order));
+    }
+
+    @Test
+    void advance_WhenInventoryReserved_ShouldMarkOrderProcessingAndMoveToPayment() {
+        // Arrange
+        when(reserveInventory.execute(order)).thenReturn(StepResult.COMPLETED);
+
+        // Act
+        boolean dueAgain = orchestrator.advance(saga.getId());
+
+        // Assert
+        assertTrue(dueAgain);
+        assertEquals(SagaStep.AUTHORIZE_PAYMENT, saga.getStep());
+        assertEquals(SagaStatus.RUNNING, saga.getStatus());
+        assertEquals(OrderStatus.PROCESSING, order.getStatus());
+    }
+
+    @Test
+    void advance_WhenPaymentRequested_ShouldWaitForReplyWithoutBeingDue() {
+        // Arrange
+        saga.setStep(SagaStep.AUTHORIZE_PAYMENT);
+        when(authorizePayment.execute(order)).thenReturn(StepResult.AWAITING_REPLY);
+
+        // Act
+        boolean dueAgain = orchestrator.advance(saga.getId());
+
+        // Assert
+        assertFalse(dueAgain);
+        assertEquals(SagaStatus.AWAITING, saga.getStatus());
+        assertEquals(now.plus(PAYMENT_TIMEOUT), saga.getNextAttemptAt());
+    }
+
+    @Test
+    void advance_WhenNotDue_ShouldNotRunStep() {
+        // Arrange
+        saga.setNextAttemptAt(now.plusSeconds(30));
+
+        // Act
+        boolean dueAgain = orchestrator.advance(saga.getId());
+
+        // Assert
+        assertFalse(dueAgain);
+        verify(reserveInventory, never()).execute(any(Order.class));
+    }
+
+    @Test
+    void advance_WhenStepFails_ShouldRetryWithBackoff() {
+        // Arrange
+        when(reserveInventory.execute(order)).thenThrow(new IllegalStateException("product-service unavailable"));
+
+        // Act
+        boolean dueAgain = orchestrator.advance(saga.getId());
+
+        // Assert
+        assertFalse(dueAgain);
+        assertEquals(SagaStatus.RUNNING, saga.getStatus());
+        assertEquals(1, saga.getAttempts());
+        assertEquals(now.plus(RETRY_BACKOFF), saga.getNextAttemptAt());
+        assertEquals("product-service unavailable", saga.getLastError());
+    }
+
+    @Test
+    void advance_WhenStepFailsOnLastAttempt_ShouldCompensateFailedAndCompletedStepsAndCancelOrder() {
+        // Arrange
+        saga.setStep(SagaStep.AUTHORIZE_PAYMENT);
+        saga.setAttempts(MAX_ATTEMPTS - 1);
+        when(authorizePayment.execute(order)).thenThrow(new IllegalStateException("broker down"));
+
+        // Act
+        boolean dueAgain = orchestrator.advance(saga.getId());
+
+        // Assert: an earlier attempt may have gone through, so the failed step is undone too
+        assertTrue(dueAgain);
+        assertEquals(SagaStatus.COMPENSATING, saga.getStatus());
+        assertEquals(SagaStep.AUTHORIZE_PAYMENT, saga.getStep());
+
+        // Act
+        orchestrator.advance(saga.getId());
+        orchestrator.advance(saga.getId());
+
+        // Assert
+        verify(authorizePayment, times(1)).compensate(order);
+        verify(reserveInventory, times(1)).compensate(order);
+        assertEquals(SagaStatus.COMPENSATED, saga.getStatus());
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        verify(eventPublisher, times(1)).publish("ORDER_CANCELLED", order);
+    }
+
+    @Test
+    void advance_WhenAwaitingPastDeadline_ShouldCompensateThePendingStep() {
+        // Arrange
+        saga.setStep(SagaStep.AUTHORIZE_PAYMENT);
+        saga.setStatus(SagaStatus.AWAITING);
+        saga.setNextAttemptAt(now.minusSeconds(1));
+
+        // Act
+        orchestrator.advance(saga.getId());
+
+        // Assert: the payment request may still be honoured, so it is voided along with the stock
+        verify(authorizePayment, times(1)).compensate(order);
+        assertEquals(SagaStatus.COMPENSATING, saga.getStatus());
+        assertEquals(SagaStep.RESERVE_INVENTORY, saga.getStep());
+    }
+
+    @Test
+    void onPaymentAuthorized_WhileAwaiting_ShouldMarkOrderPaidAndDispatchConfirmation() {
+        // Arrange
+        saga.setStep(SagaStep.AUTHORIZE_PAYMENT);
+        saga.setStatus(SagaStatus.AWAITING);
+        saga.setNextAttemptAt(now.plus(PAYMENT_TIMEOUT));
+
+        // Act
+        boolean handled = orchestrator.onPaymentAuthorized(order.getId());
+
+        // Assert
+        assertTrue(handled);
+        assertEquals(OrderStatus.PAID, order.getStatus());
+        assertEquals(SagaStep.CONFIRM_ORDER, saga.getStep());
+        assertEquals(SagaStatus.RUNNING, saga.getStatus());
+        verify(applicationEventPublisher, times(1)).publishEvent(new SagaDueEvent(saga.getId()));
+    }
+
+    @Test
+    void onPaymentAuthorized_BeforeRequestIsRecorded_ShouldStillMarkOrderPaid() {
+        // Arrange
+        saga.setStep(SagaStep.AUTHORIZE_PAYMENT);
+        // The reply is handled while the step is still publishing the request
+        when(authorizePayment.execute(order)).thenAnswer(invocation -> {
+            assertTrue(orchestrator.onPaymentAuthorized(order.getId()));
+            return StepResult.AWAITING_REPLY;
+        });
+
+        // Act
+        orchestrator.advance(saga.getId());
+
+        // Assert
+        assertEquals(OrderStatus.PAID, order.getStatus());
+        assertEquals(SagaStep.CONFIRM_ORDER, saga.getStep());
+        assertEquals(SagaStatus.RUNNING, saga.getStatus());
+        assertEquals(now, saga.getNextAttemptAt());
+    }
+
+    @Test
+    void onPaymentAuthorized_AfterSagaCompensated_ShouldVoidPayment() {
+        // Arrange
+        saga.setStep(SagaStep.RESERVE_INVENTORY);
+        saga.setStatus(SagaStatus.COMPENSATED);
+
+        // Act
+        orchestrator.onPaymentAuthorized(order.getId());
+
+        // Assert
+        verify(authorizePayment, times(1)).compensate(order);
+        assertEquals(SagaStatus.COMPENSATED, saga.getStatus());
+    }
+
+    @Test
+    void onPaymentFailed_WhileAwaiting_ShouldCompensateInventory() {
+        // Arrange
+        saga.setStep(SagaStep.AUTHORIZE_PAYMENT);
+        saga.setStatus(SagaStatus.AWAITING);
+
+        // Act
+        orchestrator.onPaymentFailed(order.getId(), "card declined");
+
+        // Assert
+        assertEquals(SagaStatus.COMPENSATING, saga.getStatus());
+        assertEquals(SagaStep.RESERVE_INVENTORY, saga.getStep());
+        assertEquals("Payment failed: card declined", saga.getLastError());
+    }
+
+    @Test
+    void onPaymentAuthorized_WithoutSaga_ShouldReportUnhandled() {
+        // Arrange
+        UUID legacyOrderId = UUID.randomUUID();
+        when(sagaRepository.findByOrderIdForUpdate(legacyOrderId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertFalse(orchestrator.onPaymentAuthorized(legacyOrderId));
+    }
+
+    @Test
+    void requestCancellation_WhileStepRuns_ShouldCompensateOnceStepFinishes() {
+        // Arrange: the cancellation lands while the reservation call is in flight
+        when(reserveInventory.execute(order)).thenAnswer(invocation -> {
+            orchestrator.requestCancellation(order.getId());
+            return StepResult.COMPLETED;
+        });
+
+        // Act
+        orchestrator.advance(saga.getId());
+
+        // Assert
+        assertTrue(saga.isCancelRequested());
+        assertEquals(SagaStatus.COMPENSATING, saga.getStatus());
+        assertEquals(SagaStep.RESERVE_INVENTORY, saga.getStep());
+    }
+
+    @Test
+    void advance_WhenCancelledBetweenAttempts_ShouldReleaseWhatTheFailedAttemptsMayHaveReserved() {
+        // Arrange
+        saga.setAttempts(2);
+        saga.setCancelRequested(true);
+
+        // Act
+        orchestrator.advance(saga.getId());
+
+        // Assert
+        verify(reserveInventory, never()).execute(any(Order.class));
+        verify(reserveInventory, times(1)).compensate(order);
+        assertEquals(SagaStatus.COMPENSATED, saga.getStatus());
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+    }
+}
@@ -0,0 +1,174 @@
+package com.ecommerce.order.service.stream;
+
+import com.ecommerce.events.OrderEvent;
+import com.ecommerce.order.dto.tracking.OrderStatusChange;
+import com.ecommerce.order.dto.tracking.OrderTrackingResponse;
+import com.ecommerce.order.exception.StreamCapacityExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusBroadcasterTest {
+
+    private static final String HEARTBEAT = "heartbeat";
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private final Queue<Runnable> pendingSends = new ArrayDeque<>();
+    private final UUID customerId = UUID.randomUUID();
+
+    @Test
+    void subscribeToOrder_ShouldSendCurrentTrackingThenOnlyThatOrdersChanges() {
+        // Arrange
+        OrderStatusBroadcaster broadcaster = broadcaster(Runnable::run, 32);
+        UUID orderId = UUID.randomUUID();
+        OrderTrackingResponse current = OrderTrackingResponse.builder().orderId(orderId).status("PAID").build();
+
+        // Act
+        broadcaster.subscribeToOrder(orderId, current);
+        broadcaster.broadcast(event(orderId, "SHIPPED"));
+        broadcaster.broadcast(event(UUID.randomUUID(), "DELIVERED"));
+
+        // Assert
+        List<Object> sent = emitters.get(0).sent;
+        assertEquals(2, sent.size());
+        assertSame(current, sent.get(0));
+        assertEquals("SHIPPED", ((OrderStatusChange) sent.get(1)).getStatus());
+    }
+
+    @Test
+    void subscribeToCustomer_ShouldReceiveChangesOfAllTheirOrders() {
+        // Arrange
+        OrderStatusBroadcaster broadcaster = broadcaster(Runnable::run, 32);
+        broadcaster.subscribeToCustomer(customerId);
+
+        // Act
+        broadcaster.broadcast(event(UUID.randomUUID(), "PAID"));
+        broadcaster.broadcast(event(UUID.randomUUID(), "CANCELLED"));
+        broadcaster.broadcast(new OrderEvent("ORDER_STATUS_UPDATED", UUID.randomUUID(), "ORD-X",
+                UUID.randomUUID(), "PAID", Instant.now()));
+
+        // Assert
+        assertEquals(List.of("PAID", "CANCELLED"), statuses(emitters.get(0)));
+    }
+
+    @Test
+    void broadcast_ToSlowClient_ShouldReturnAtOnceAndKeepOnlyTheNewestEvents() {
+        // Arrange: sends only happen when the test runs them
+        OrderStatusBroadcaster broadcaster = broadcaster(pendingSends::add, 3);
+        broadcaster.subscribeToCustomer(customerId);
+
+        // Act
+        IntStream.range(0, 10).forEach(i -> broadcaster.broadcast(event(UUID.randomUUID(), "STATUS-" + i)));
+        assertTrue(emitters.get(0).sent.isEmpty());
+        runPendingSends();
+
+        // Assert
+        assertEquals(List.of("STATUS-7", "STATUS-8", "STATUS-9"), statuses(emitters.get(0)));
+    }
+
+    @Test
+    void broadcast_ToDisconnectedClient_ShouldCloseItsStream() {
+        // Arrange
+        OrderStatusBroadcaster broadcaster = broadcaster(Runnable::run, 32);
+        broadcaster.subscribeToCustomer(customerId);
+        broadcaster.subscribeToCustomer(customerId);
+        emitters.get(0).broken = true;
+
+        // Act
+        broadcaster.broadcast(event(UUID.randomUUID(), "PAID"));
+        broadcaster.broadcast(event(UUID.randomUUID(), "SHIPPED"));
+
+        // Assert
+        assertEquals(1, broadcaster.openStreams());
+        assertEquals(List.of("PAID", "SHIPPED"), statuses(emitters.get(1)));
+    }
+
+    @Test
+    void sendHeartbeats_ShouldOnlyGoToIdleStreams() {
+        // Arrange
+        OrderStatusBroadcaster broadcaster = broadcaster(pendingSends::add, 32);
+        broadcaster.subscribeToCustomer(customerId);
+        broadcaster.broadcast(event(UUID.randomUUID(), "PAID"));
+
+        // Act
+        broadcaster.sendHeartbeats();
+        runPendingSends();
+        broadcaster.sendHeartbeats();
+        runPendingSends();
+
+        // Assert
+        List<Object> sent = emitters.get(0).sent;
+        assertEquals(2, sent.size());
+        assertInstanceOf(OrderStatusChange.class, sent.get(0));
+        assertEquals(HEARTBEAT, sent.get(1));
+    }
+
+    @Test
+    void subscribe_BeyondCapacity_ShouldBeRefused() {
+        // Arrange
+        OrderStatusBroadcaster broadcaster = new OrderStatusBroadcaster(this::newEmitter, Runnable::run, 32, 1);
+        broadcaster.subscribeToCustomer(customerId);
+
+        // Act & Assert
+        assertThrows(StreamCapacityExceededException.class, () -> broadcaster.subscribeToCustomer(customerId));
+        assertEquals(1, broadcaster.openStreams());
+    }
+
+    private OrderStatusBroadcaster broadcaster(Executor sendExecutor, int bufferSize) {
+        return new OrderStatusBroadcaster(this::newEmitter, sendExecutor, bufferSize, 100);
+    }
+
+    private SseEmitter newEmitter() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    private void runPendingSends() {
+        Runnable send;
+        while ((send = pendingSends.poll()) != null) {
+            send.run();
+        }
+    }
+
+    private OrderEvent event(UUID orderId, String status) {
+        return new OrderEvent("ORDER_STATUS_UPDATED", orderId, "ORD-" + orderId.toString().substring(0, 8),
+                customerId, status, Instant.now());
+    }
+
+    private static List<String> statuses(RecordingEmitter emitter) {
+        return emitter.sent.stream().map(data -> ((OrderStatusChange) data).getStatus()).toList();
+    }
+
+    // Records the data of each event, or "heartbeat" for comment-only events
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<Object> sent = new ArrayList<>();
+        private boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            Object data = HEARTBEAT;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (!(part.getData() instanceof String)) {
+                    data = part.getData();
+                }
+            }
+            sent.add(data);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.order.service.tracking;
+
+import com.ecommerce.order.config.CacheConfig;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OrderTrackingView;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderTrackingViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderTrackingProjectorTest {
+
+    @Mock
+    private OrderTrackingViewRepository viewRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.ORDER_TRACKING_CACHE);
+
+    private OrderTrackingProjector projector;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        projector = new OrderTrackingProjector(viewRepository, orderRepository, cacheManager);
+
+        order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setOrderNumber("ORD-12345678");
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreatedAt(LocalDateTime.now().minusHours(1));
+        lenient().when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+    }
+
+    @Test
+    void onStatusChanged_WithoutView_ShouldCreateItFromTheOrder() {
+        // Arrange
+        ArgumentCaptor<OrderTrackingView> saved = ArgumentCaptor.forClass(OrderTrackingView.class);
+
+        // Act
+        projector.onStatusChanged(OrderStatusChangedEvent.of(order));
+
+        // Assert
+        verify(viewRepository).save(saved.capture());
+        OrderTrackingView view = saved.getValue();
+        assertEquals(order.getId(), view.getOrderId());
+        assertEquals(OrderStatus.PENDING, view.getStatus());
+        assertEquals(List.of("PLACED"), view.getTimeline().stream().map(OrderTrackingView.TimelineEntry::status).toList());
+    }
+
+    @Test
+    void onStatusChanged_WithView_ShouldPutTheNewStatusOnTop() {
+        // Arrange
+        OrderTrackingView view = OrderTrackingView.from(order);
+        when(viewRepository.findById(order.getId())).thenReturn(Optional.of(view));
+        order.setStatus(OrderStatus.SHIPPED);
+        order.setTrackingNumber("1Z999");
+        order.setCarrier("UPS");
+
+        // Act
+        projector.onStatusChanged(OrderStatusChangedEvent.of(order));
+
+        // Assert
+        assertEquals(OrderStatus.SHIPPED, view.getStatus());
+        assertEquals("1Z999", view.getTrackingNumber());
+        assertEquals(List.of("SHIPPED", "PLACED"), view.getTimeline().stream().map(OrderTrackingView.TimelineEntry::status).toList());
+        assertEquals("Order has been shipped", view.getTimeline().get(0).description());
+        verify(viewRepository, never()).save(any());
+    }
+
+    @Test
+    void onStatusChanged_WithUnknownOrder_ShouldSkip() {
+        // Act
+        projector.onStatusChanged(new OrderStatusChangedEvent(UUID.randomUUID(), OrderStatus.PENDING, OrderStatus.PAID,
+                LocalDateTime.now()));
+
+        // Assert
+        verifyNoInteractions(viewRepository);
+    }
+
+    @Test
+    void evictAfterCommit_ShouldDropTheCachedTracking() {
+        // Arrange
+        Cache cache = cacheManager.getCache(CacheConfig.ORDER_TRACKING_CACHE);
+        cache.put(order.getId(), "cached");
+
+        // Act
+        projector.evictAfterCommit(OrderStatusChangedEvent.of(order));
+
+        // Assert
+        assertNull(cache.get(order.getId()));
+    }
+}
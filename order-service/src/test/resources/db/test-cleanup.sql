@@ -1,4 +1,7 @@
 -- Clean up test data (works for H2 and PostgreSQL)
+DELETE FROM order_tracking_views;
+DELETE FROM processed_order_events;
+DELETE FROM order_sagas;
 DELETE FROM order_return_items;
 DELETE FROM order_returns;
 DELETE FROM order_status_history;
@@ -1,5 +1,6 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.events.ProductEvent;
 import com.ecommerce.product.dto.ProductRequest;
 import com.ecommerce.product.dto.ProductResponse;
 import com.ecommerce.product.exception.ResourceNotFoundException;
@@ -21,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -45,7 +47,7 @@ public class ProductService {
         Product savedProduct = productRepository.save(product);
         
         // Publish product created event
-        kafkaTemplate.send(PRODUCT_TOPIC, "product-created", savedProduct);
+        kafkaTemplate.send(PRODUCT_TOPIC, "product-created", toEvent("product-created", savedProduct, null));
         
         log.info("Created product with id: {}", savedProduct.getId());
         return productMapper.toDto(savedProduct);
@@ -107,7 +109,7 @@ public class ProductService {
         Product updatedProduct = productRepository.save(existingProduct);
         
         // Publish product updated event
-        kafkaTemplate.send(PRODUCT_TOPIC, "product-updated", updatedProduct);
+        kafkaTemplate.send(PRODUCT_TOPIC, "product-updated", toEvent("product-updated", updatedProduct, null));
         
         log.info("Updated product with id: {}", id);
         return productMapper.toDto(updatedProduct);
@@ -120,7 +122,7 @@ public class ProductService {
         productRepository.delete(product);
         
         // Publish product deleted event
-        kafkaTemplate.send(PRODUCT_TOPIC, "product-deleted", product);
+        kafkaTemplate.send(PRODUCT_TOPIC, "product-deleted", toEvent("product-deleted", product, null));
         
         log.info("Deleted product with id: {}", id);
     }
@@ -140,7 +142,7 @@ public class ProductService {
         
         // Publish stock updated event
         kafkaTemplate.send("inventory-updates", "stock-updated", 
-            new StockUpdateEvent(productId, quantity, newStock));
+            toEvent("stock-updated", updatedProduct, quantity));
         
         log.info("Updated stock for product: {}. New quantity: {}", productId, newStock);
         return productMapper.toDto(updatedProduct);
@@ -165,6 +167,9 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
     }
 
-    // Event class for stock updates
-    public record StockUpdateEvent(UUID productId, int quantityChange, int newStock) {}
+    private ProductEvent toEvent(String eventType, Product product, Integer stockDelta) {
+        return new ProductEvent(eventType, product.getId(), product.getSku(), product.getName(),
+                product.getPrice(), product.getStockQuantity(), stockDelta, product.getCategoryId(),
+                product.isActive(), Instant.now());
+    }
 }
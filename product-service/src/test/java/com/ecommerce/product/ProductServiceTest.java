@@ -1,5 +1,6 @@
 package com.ecommerce.product;
 
+import com.ecommerce.events.ProductEvent;
 import com.ecommerce.product.dto.ProductRequest;
 import com.ecommerce.product.dto.ProductResponse;
 import com.ecommerce.product.exception.ResourceNotFoundException;
@@ -100,7 +101,7 @@ class ProductServiceTest {
         assertEquals(product.getDescription(), result.getDescription());
         assertEquals(product.getPrice(), result.getPrice());
         verify(productRepository, times(1)).save(any(Product.class));
-        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any(Product.class));
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any(ProductEvent.class));
     }
 
     @Test
@@ -152,7 +153,7 @@ class ProductServiceTest {
         assertEquals(updatedProduct.getDescription(), result.getDescription());
         assertEquals(updatedProduct.getPrice(), result.getPrice());
         verify(productRepository, times(1)).save(any(Product.class));
-        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any(Product.class));
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any(ProductEvent.class));
     }
 
     @Test
@@ -181,7 +182,7 @@ class ProductServiceTest {
         assertNotNull(result);
         assertEquals(110, result.getStockQuantity()); // Verify the exact expected value
         verify(productRepository, times(1)).save(any(Product.class));
-        verify(kafkaTemplate, times(1)).send(eq("inventory-updates"), eq("stock-updated"), any(ProductService.StockUpdateEvent.class));
+        verify(kafkaTemplate, times(1)).send(eq("inventory-updates"), eq("stock-updated"), any(ProductEvent.class));
     }
 
     @Test
@@ -193,6 +194,6 @@ class ProductServiceTest {
         // Act & Assert
         assertDoesNotThrow(() -> productService.deleteProduct(productId));
         verify(productRepository, times(1)).delete(any(Product.class));
-        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any(Product.class));
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any(ProductEvent.class));
     }
 }